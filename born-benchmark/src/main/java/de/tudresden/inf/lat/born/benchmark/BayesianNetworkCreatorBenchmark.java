@@ -0,0 +1,63 @@
+package de.tudresden.inf.lat.born.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tudresden.inf.lat.born.core.term.ProbClause;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetworkCreatorCore;
+
+/**
+ * This class contains benchmarks for the creation of Bayesian networks.
+ *
+ * @author Julian Mendez
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BayesianNetworkCreatorBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int numberOfVariables;
+
+	private List<Integer> variables;
+
+	/**
+	 * Divides the variables in roots, variables with one parent, and
+	 * variables with two parents.
+	 */
+	@Setup
+	public void setUp() {
+		int roots = (this.numberOfVariables + 1) / 2;
+		int withOneParent = (this.numberOfVariables - roots + 1) / 2;
+		int withTwoParents = this.numberOfVariables - roots - withOneParent;
+		this.variables = Arrays.asList(roots, withOneParent, withTwoParents);
+	}
+
+	/**
+	 * Measures the creation of a Bayesian network.
+	 *
+	 * @return the Bayesian network
+	 */
+	@Benchmark
+	public List<ProbClause> createNetwork() {
+		return new BayesianNetworkCreatorCore().createNetwork(this.variables);
+	}
+
+}
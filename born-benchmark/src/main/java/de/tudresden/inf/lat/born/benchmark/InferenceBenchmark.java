@@ -0,0 +1,263 @@
+package de.tudresden.inf.lat.born.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tudresden.inf.lat.born.engine.ExactInference;
+import de.tudresden.inf.lat.born.engine.Provenance;
+import de.tudresden.inf.lat.born.owlapi.multiprocessor.PseudorandomNumberGenerator;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.born.problog.connector.VariableElimination;
+import de.tudresden.inf.lat.jproblog.JProblog;
+
+/**
+ * This class contains benchmarks that compute the probabilities of queries in
+ * the Bayesian networks of the examples, and in a generated Bayesian network
+ * with thousands of variables, by variable elimination, by recursive
+ * conditioning, by the exact inference that chooses between both, and by
+ * ProbLog. A query is a variable, a conjunction of literals, or a disjunction
+ * of conjunctions of literals. The ProbLog benchmark needs ProbLog to be
+ * installed.
+ *
+ * @author Julian Mendez
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InferenceBenchmark {
+
+	public static final String EXAMPLE_PREFIX = "examples/example-";
+	public static final String EXAMPLE_SUFFIX = ".pl";
+	public static final String GENERATED = "generated";
+	public static final String MARGINAL = "marginal";
+	public static final String CONJUNCTION = "conjunction";
+	public static final String DISJUNCTION = "disjunction";
+	public static final String QUERY_PREFIX = "q";
+	public static final int NUMBER_OF_GENERATED_VARIABLES = 0x1000;
+	public static final int MAXIMUM_NUMBER_OF_PARENTS = 2;
+	public static final int PARENT_WINDOW = 0x10;
+	public static final int NUMBER_OF_QUERIES = 0x40;
+	public static final int LITERALS_PER_CONJUNCTION = 3;
+	public static final int CONJUNCTIONS_PER_DISJUNCTION = 3;
+	public static final int SEED = 0x2A;
+
+	@Param({ "0", "1", "2", "3", "4", "5", GENERATED })
+	public String example;
+
+	@Param({ MARGINAL, CONJUNCTION, DISJUNCTION })
+	public String queryType;
+
+	private String text;
+	private String problogQueries;
+	private BayesianNetwork network;
+	private List<List<int[]>> queries;
+	private VariableElimination variableElimination;
+
+	/**
+	 * Returns a Bayesian network where each variable has at most
+	 * {@link #MAXIMUM_NUMBER_OF_PARENTS} parents chosen among the
+	 * {@link #PARENT_WINDOW} previous variables, so that the treewidth is
+	 * bounded.
+	 */
+	static String createBayesianNetwork(PseudorandomNumberGenerator random) {
+		StringBuilder sb = new StringBuilder();
+		for (int variable = 0; variable < NUMBER_OF_GENERATED_VARIABLES; variable++) {
+			Set<Integer> parents = new TreeSet<>();
+			int numberOfParents = Math.min(variable, random.nextInt(MAXIMUM_NUMBER_OF_PARENTS + 1));
+			while (parents.size() < numberOfParents) {
+				parents.add(variable - 1 - random.nextInt(Math.min(variable, PARENT_WINDOW)));
+			}
+			for (int assignment = 0; assignment < (1 << parents.size()); assignment++) {
+				sb.append("0." + (1 + random.nextInt(98)) + "::x" + variable);
+				int position = 0;
+				for (int parent : parents) {
+					sb.append(position == 0 ? " :- " : ", ");
+					sb.append(((assignment >> position) & 1) == 1 ? "" : BayesianNetwork.NEGATION_PREFIX);
+					sb.append("x" + parent);
+					position++;
+				}
+				sb.append(".\n");
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns a conjunction of the given number of literals of distinct
+	 * variables.
+	 */
+	int[] createConjunction(PseudorandomNumberGenerator random, int numberOfLiterals) {
+		Set<Integer> variables = new TreeSet<>();
+		while (variables.size() < Math.min(numberOfLiterals, this.network.getNumberOfVariables())) {
+			variables.add(random.nextInt(this.network.getNumberOfVariables()));
+		}
+		return variables.stream().mapToInt(variable -> BayesianNetwork.getLiteral(variable, random.nextInt(2) == 0))
+				.toArray();
+	}
+
+	List<List<int[]>> createQueries(PseudorandomNumberGenerator random) {
+		List<List<int[]>> ret = new ArrayList<>();
+		if (this.queryType.equals(MARGINAL)) {
+			int numberOfVariables = this.network.getNumberOfVariables();
+			for (int index = 0; index < Math.min(numberOfVariables, NUMBER_OF_QUERIES); index++) {
+				int variable = numberOfVariables <= NUMBER_OF_QUERIES ? index : random.nextInt(numberOfVariables);
+				ret.add(Collections.singletonList(new int[] { BayesianNetwork.getLiteral(variable, false) }));
+			}
+		} else if (this.queryType.equals(CONJUNCTION)) {
+			for (int index = 0; index < NUMBER_OF_QUERIES; index++) {
+				ret.add(Collections.singletonList(createConjunction(random, LITERALS_PER_CONJUNCTION)));
+			}
+		} else if (this.queryType.equals(DISJUNCTION)) {
+			for (int index = 0; index < NUMBER_OF_QUERIES; index++) {
+				List<int[]> disjunction = new ArrayList<>();
+				for (int conjunction = 0; conjunction < CONJUNCTIONS_PER_DISJUNCTION; conjunction++) {
+					disjunction.add(createConjunction(random, LITERALS_PER_CONJUNCTION - 1));
+				}
+				ret.add(disjunction);
+			}
+		} else {
+			throw new IllegalArgumentException("Unknown query type: '" + this.queryType + "'.");
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the queries in the syntax of ProbLog, with one rule for each
+	 * conjunction of each query.
+	 */
+	String asProblogQueries(List<List<int[]>> queries) {
+		StringBuilder sb = new StringBuilder();
+		for (int index = 0; index < queries.size(); index++) {
+			for (int[] conjunction : queries.get(index)) {
+				sb.append(QUERY_PREFIX + index + " :- ");
+				sb.append(Arrays.stream(conjunction)
+						.mapToObj(literal -> (BayesianNetwork.isNegated(literal) ? BayesianNetwork.NEGATION_PREFIX : "")
+								+ this.network.getVariableName(BayesianNetwork.getVariableOfLiteral(literal)))
+						.collect(Collectors.joining(", ")));
+				sb.append(".\n");
+			}
+			sb.append("query(" + QUERY_PREFIX + index + ").\n");
+		}
+		return sb.toString();
+	}
+
+	static Provenance asProvenance(List<int[]> query) {
+		Provenance ret = Provenance.FALSE;
+		for (int[] conjunction : query) {
+			ret = ret.or(Provenance.of(conjunction));
+		}
+		return ret;
+	}
+
+	/**
+	 * Reads or generates the Bayesian network, compiles it, and creates the
+	 * queries.
+	 */
+	@Setup
+	public void setUp() {
+		PseudorandomNumberGenerator random = new PseudorandomNumberGenerator(SEED);
+		if (this.example.equals(GENERATED)) {
+			this.text = createBayesianNetwork(random);
+		} else {
+			String fileName = EXAMPLE_PREFIX + this.example + EXAMPLE_SUFFIX;
+			InputStream input = getClass().getClassLoader().getResourceAsStream(fileName);
+			if (Objects.isNull(input)) {
+				throw new IllegalArgumentException("Example not found: '" + fileName + "'.");
+			}
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+				this.text = reader.lines().collect(Collectors.joining("\n")) + "\n";
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		this.network = BayesianNetwork.parse(this.text);
+		this.variableElimination = new VariableElimination(this.network);
+		this.queries = createQueries(random);
+		this.problogQueries = asProblogQueries(this.queries);
+	}
+
+	/**
+	 * Measures the probabilities computed by variable elimination.
+	 *
+	 * @return the sum of the probabilities
+	 */
+	@Benchmark
+	public double variableElimination() {
+		double ret = 0;
+		for (List<int[]> query : this.queries) {
+			ret += this.variableElimination.getProbability(query);
+		}
+		return ret;
+	}
+
+	/**
+	 * Measures the probabilities computed by recursive conditioning only.
+	 *
+	 * @return the sum of the probabilities
+	 */
+	@Benchmark
+	public double recursiveConditioning() {
+		ExactInference inference = new ExactInference(this.network, Integer.MAX_VALUE);
+		double ret = 0;
+		for (List<int[]> query : this.queries) {
+			ret += inference.getProbability(asProvenance(query));
+		}
+		return ret;
+	}
+
+	/**
+	 * Measures the probabilities computed by the exact inference, which uses
+	 * variable elimination if the conditioning order is too wide.
+	 *
+	 * @return the sum of the probabilities
+	 */
+	@Benchmark
+	public double exactInference() {
+		ExactInference inference = new ExactInference(this.network);
+		double ret = 0;
+		for (List<int[]> query : this.queries) {
+			ret += inference.getProbability(asProvenance(query));
+		}
+		return ret;
+	}
+
+	/**
+	 * Measures the probabilities computed by ProbLog.
+	 *
+	 * @return the answers of ProbLog
+	 */
+	@Benchmark
+	public String problog() {
+		return new JProblog().apply(this.text + this.problogQueries);
+	}
+
+}
@@ -0,0 +1,163 @@
+package de.tudresden.inf.lat.born.benchmark;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tudresden.inf.lat.born.core.term.Clause;
+import de.tudresden.inf.lat.born.module.DefaultModuleExtractor;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.ProblogInputCreator;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.born.problog.parser.Token;
+import de.tudresden.inf.lat.born.problog.parser.TokenCreator;
+
+/**
+ * This class contains benchmarks for each stage of the BORN pipeline, from
+ * the translation of the OWL ontology to the tokenization of the ProbLog
+ * program.
+ *
+ * @author Julian Mendez
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+	/**
+	 * Measures the translation and normalization of the ontology, including
+	 * the construction of the module index.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the compiled ontology
+	 */
+	@Benchmark
+	public CompiledOntology compileOntology(PipelineState state) {
+		return new CompiledOntology(state.ontology, true, "");
+	}
+
+	/**
+	 * Measures the construction of the module index.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the module index
+	 */
+	@Benchmark
+	public ModuleIndex buildModuleIndex(PipelineState state) {
+		return new ModuleIndex(state.compiledOntology.getNormalizedAxioms());
+	}
+
+	/**
+	 * Measures the module extraction using a module index.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the module
+	 */
+	@Benchmark
+	public Module extractModule(PipelineState state) {
+		return new DefaultModuleExtractor().extractModule(state.compiledOntology.getModuleIndex(),
+				state.setOfClasses);
+	}
+
+	/**
+	 * Measures the rendering of the module as ProbLog clauses.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the clauses
+	 */
+	@Benchmark
+	public List<Clause> renderAxioms(PipelineState state) {
+		return PipelineState.render(state.compiledOntology, state.module);
+	}
+
+	/**
+	 * Measures the serialization of the ProbLog program.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the ProbLog program as a string
+	 */
+	@Benchmark
+	public String renderProgram(PipelineState state) {
+		return state.program.asString();
+	}
+
+	/**
+	 * Measures the tokenization of the ProbLog program.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the tokens
+	 */
+	@Benchmark
+	public List<Token> createTokens(PipelineState state) {
+		return new TokenCreator().createTokens(new StringReader(state.programText));
+	}
+
+	/**
+	 * Measures the parsing of the Bayesian network.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the Bayesian network
+	 */
+	@Benchmark
+	public BayesianNetwork parseBayesianNetwork(PipelineState state) {
+		return BayesianNetwork.parse(state.synthetic.getBayesianNetwork());
+	}
+
+	/**
+	 * Measures the expansion of prefixes in a query.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the expanded query
+	 */
+	@Benchmark
+	public String expandPrefixes(PipelineState state) {
+		return new ProblogInputCreator().expandPrefixes(state.ontology, state.query);
+	}
+
+	/**
+	 * Measures the compression of prefixes in an answer.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the compressed answer
+	 */
+	@Benchmark
+	public String replaceByPrefixes(PipelineState state) {
+		return new ProblogInputCreator().replaceByPrefixes(state.ontology, state.answer);
+	}
+
+	/**
+	 * Measures the compression of prefixes in an answer, using the prefix
+	 * rewriter kept by the compiled ontology.
+	 *
+	 * @param state
+	 *            pipeline state
+	 * @return the compressed answer
+	 */
+	@Benchmark
+	public String compressPrefixes(PipelineState state) {
+		return state.compiledOntology.getPrefixCompressor().rewrite(state.answer);
+	}
+
+}
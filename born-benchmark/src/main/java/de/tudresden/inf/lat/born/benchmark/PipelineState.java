@@ -0,0 +1,103 @@
+package de.tudresden.inf.lat.born.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import de.tudresden.inf.lat.born.core.term.Clause;
+import de.tudresden.inf.lat.born.module.DefaultModuleExtractor;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.owlapi.processor.AxiomRenderer;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.ProblogInputCreator;
+import de.tudresden.inf.lat.born.problog.type.ProblogProgram;
+
+/**
+ * An object of this class keeps the intermediate results of the BORN pipeline
+ * for a synthetic ontology, so that each stage can be measured separately.
+ *
+ * @author Julian Mendez
+ *
+ */
+@State(Scope.Benchmark)
+public class PipelineState {
+
+	public static final int SEED = 127;
+
+	@Param({ "100", "1000", "10000" })
+	public int numberOfClasses;
+
+	@Param({ "20" })
+	public int numberOfVariables;
+
+	SyntheticOntology synthetic;
+	OWLOntology ontology;
+	String query;
+	String expandedQuery;
+	String answer;
+	CompiledOntology compiledOntology;
+	Set<Integer> setOfClasses;
+	Module module;
+	List<Clause> clauses;
+	ProblogProgram program;
+	String programText;
+
+	/**
+	 * Builds the intermediate results.
+	 */
+	@Setup
+	public void setUp() {
+		ProblogInputCreator creator = new ProblogInputCreator();
+		this.synthetic = new SyntheticOntology(this.numberOfClasses, this.numberOfVariables, 1, SEED);
+		this.ontology = this.synthetic.createOntology();
+		this.query = this.synthetic.getQueries().get(0);
+		this.expandedQuery = creator.expandPrefixes(this.ontology, this.query);
+		this.compiledOntology = new CompiledOntology(this.ontology, true, "");
+
+		this.setOfClasses = new TreeSet<>();
+		String subClass = this.expandedQuery.substring(this.expandedQuery.indexOf('\'') + 1);
+		subClass = subClass.substring(0, subClass.indexOf('\''));
+		Optional<Integer> optClass = this.compiledOntology.getMapOfNames().get(subClass);
+		if (optClass.isPresent()) {
+			this.setOfClasses.add(optClass.get());
+		}
+		this.module = new DefaultModuleExtractor().extractModule(this.compiledOntology.getModuleIndex(),
+				this.setOfClasses);
+
+		this.clauses = render(this.compiledOntology, this.module);
+
+		this.program = new ProblogProgram();
+		this.program.getData().setOntology(this.clauses);
+		this.program.getData().setCompletionRules(this.compiledOntology.getCompletionRules());
+		this.program.setBayesianNetworkAddendum(this.synthetic.getBayesianNetwork());
+		this.program.setQueryListAddendum(this.expandedQuery);
+		this.programText = this.program.asString();
+
+		this.answer = new StubQueryProcessor().apply(this.programText);
+	}
+
+	/**
+	 * Returns the clauses that represent the axioms of the given module.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param module
+	 *            module
+	 * @return the clauses that represent the axioms of the given module
+	 */
+	static List<Clause> render(CompiledOntology compiledOntology, Module module) {
+		AxiomRenderer renderer = new AxiomRenderer(compiledOntology.getFactory());
+		List<Clause> ret = new ArrayList<>();
+		module.getAxioms().forEach(axiom -> ret.addAll(axiom.accept(renderer)));
+		return ret;
+	}
+
+}
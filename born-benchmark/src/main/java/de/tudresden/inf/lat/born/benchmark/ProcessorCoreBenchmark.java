@@ -0,0 +1,107 @@
+package de.tudresden.inf.lat.born.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorCore;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
+
+/**
+ * This class contains end-to-end benchmarks of the processor, using a query
+ * processor that does not execute ProbLog. This measures the overhead of BORN
+ * on its own.
+ *
+ * @author Julian Mendez
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessorCoreBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int numberOfClasses;
+
+	@Param({ "20" })
+	public int numberOfVariables;
+
+	private ProcessorConfiguration configuration;
+	private ProcessorCore processorCore;
+	private ProcessorCore processorCoreFromScratch;
+
+	/**
+	 * Creates the configuration and the processors. One processor keeps the
+	 * compiled ontologies, and the other one has its cache cleared before
+	 * each query.
+	 */
+	@Setup
+	public void setUp() {
+		SyntheticOntology synthetic = new SyntheticOntology(this.numberOfClasses, this.numberOfVariables, 1,
+				PipelineState.SEED);
+		this.configuration = new ProcessorConfigurationImpl();
+		this.configuration.setOntology(synthetic.createOntology());
+		this.configuration.setBayesianNetwork(synthetic.getBayesianNetwork());
+		this.configuration.setQuery(synthetic.getQueries().get(0));
+		this.configuration.setQueryProcessor(new StubQueryProcessor());
+		this.configuration.setShowingLog(false);
+		this.processorCore = new ProcessorCore();
+		this.processorCoreFromScratch = new ProcessorCore();
+	}
+
+	/**
+	 * Clears the caches of the processors, so that they stop listening to the
+	 * ontology manager.
+	 */
+	@TearDown
+	public void tearDown() {
+		this.processorCore.getCompiledOntologyCache().close();
+		this.processorCoreFromScratch.getCompiledOntologyCache().close();
+	}
+
+	/**
+	 * Measures a query where the compiled ontology is already in the cache.
+	 *
+	 * @return the execution result
+	 */
+	@Benchmark
+	public ProcessorExecutionResult runWithCompiledOntology() {
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		this.processorCore.run(this.configuration, System.nanoTime(), executionResult);
+		return executionResult;
+	}
+
+	/**
+	 * Measures a query where the ontology has to be translated and normalized.
+	 * The same processor is used for every query, and its cache is cleared
+	 * before each query, so that no listeners are left in the ontology
+	 * manager.
+	 *
+	 * @return the execution result
+	 */
+	@Benchmark
+	public ProcessorExecutionResult runFromScratch() {
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		this.processorCoreFromScratch.getCompiledOntologyCache().clear();
+		this.processorCoreFromScratch.run(this.configuration, System.nanoTime(), executionResult);
+		return executionResult;
+	}
+
+}
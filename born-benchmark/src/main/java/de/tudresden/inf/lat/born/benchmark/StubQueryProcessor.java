@@ -0,0 +1,44 @@
+package de.tudresden.inf.lat.born.benchmark;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Objects;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.born.core.rule.FormulaConstructor;
+import de.tudresden.inf.lat.born.core.term.Symbol;
+
+/**
+ * An object of this class is a query processor that does not execute ProbLog.
+ * It answers every query of the given program with probability 0, so that the
+ * overhead of BORN can be measured on its own.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class StubQueryProcessor implements Function<String, String> {
+
+	static final String QUERY_PREFIX = FormulaConstructor.QUERY + Symbol.PAR_A_CHAR;
+	static final String QUERY_SUFFIX = "" + Symbol.PAR_B_CHAR + Symbol.POINT_CHAR;
+	static final String ANSWER = "" + Symbol.COLON_CHAR + '\t' + "0";
+
+	/**
+	 * Constructs a new stub query processor.
+	 */
+	public StubQueryProcessor() {
+	}
+
+	@Override
+	public String apply(String program) {
+		Objects.requireNonNull(program);
+		StringBuilder sb = new StringBuilder();
+		new BufferedReader(new StringReader(program)).lines().map(String::trim)
+				.filter(line -> line.startsWith(QUERY_PREFIX) && line.endsWith(QUERY_SUFFIX)).forEach(line -> {
+					sb.append(line.substring(QUERY_PREFIX.length(), line.length() - QUERY_SUFFIX.length()));
+					sb.append(ANSWER);
+					sb.append(Symbol.NEW_LINE_CHAR);
+				});
+		return sb.toString();
+	}
+
+}
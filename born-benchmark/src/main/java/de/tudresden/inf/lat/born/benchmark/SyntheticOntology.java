@@ -0,0 +1,210 @@
+package de.tudresden.inf.lat.born.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.owlapi.multiprocessor.PseudorandomNumberGenerator;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetworkCreatorCore;
+
+/**
+ * An object of this class is a pseudorandomly generated probabilistic
+ * ontology, together with a Bayesian network and subsumption queries. The
+ * ontology has the same shape as the BORN examples: every axiom is annotated
+ * with a context variable of the Bayesian network, possibly negated.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class SyntheticOntology {
+
+	public static final String PREFIX = "ont:";
+	public static final String NAMESPACE = "https://lat.inf.tu-dresden.de/systems/born/born-benchmark#";
+	public static final String CLASS_PREFIX = "C";
+	public static final String OBJECT_PROPERTY_PREFIX = "r";
+	public static final int NUMBER_OF_OBJECT_PROPERTIES = 4;
+
+	static final String HEADER = "" //
+			+ "Prefix(:=<" + NAMESPACE + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(ont:=<" + NAMESPACE + ">)\n" //
+			+ "Prefix(owl:=<http://www.w3.org/2002/07/owl#>)\n" //
+			+ "Prefix(rdf:=<http://www.w3.org/1999/02/22-rdf-syntax-ns#>)\n" //
+			+ "Prefix(xml:=<http://www.w3.org/XML/1998/namespace>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)\n" //
+			+ "\n" //
+			+ "Ontology(<https://lat.inf.tu-dresden.de/systems/born/born-benchmark>\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n";
+
+	private final int numberOfClasses;
+	private final int numberOfVariables;
+	private final String ontologyText;
+	private final String bayesianNetwork;
+	private final List<String> queries;
+
+	/**
+	 * Constructs a new synthetic ontology.
+	 *
+	 * @param numberOfClasses
+	 *            number of classes
+	 * @param numberOfVariables
+	 *            number of variables of the Bayesian network
+	 * @param numberOfQueries
+	 *            number of queries
+	 * @param seed
+	 *            seed of the pseudorandom number generator
+	 */
+	public SyntheticOntology(int numberOfClasses, int numberOfVariables, int numberOfQueries, int seed) {
+		if (numberOfClasses < 2 || numberOfVariables < 1 || numberOfQueries < 0) {
+			throw new IllegalArgumentException("Invalid parameters: " + numberOfClasses + " classes, "
+					+ numberOfVariables + " variables, " + numberOfQueries + " queries.");
+		}
+		this.numberOfClasses = numberOfClasses;
+		this.numberOfVariables = numberOfVariables;
+		PseudorandomNumberGenerator random = new PseudorandomNumberGenerator(seed);
+		this.ontologyText = createOntologyText(random);
+		this.bayesianNetwork = createBayesianNetwork();
+		this.queries = Collections.unmodifiableList(createQueries(random, numberOfQueries));
+	}
+
+	String cls(int index) {
+		return PREFIX + CLASS_PREFIX + index;
+	}
+
+	String property(int index) {
+		return PREFIX + OBJECT_PROPERTY_PREFIX + index;
+	}
+
+	String annotation(PseudorandomNumberGenerator random) {
+		int variable = random.nextInt(this.numberOfVariables);
+		String negation = (random.nextInt(4) == 0) ? "\\\\+" : "";
+		return "Annotation(born:probability \"" + negation + BayesianNetworkCreatorCore.VARIABLE_PREFIX + variable
+				+ "\"^^xsd:string) ";
+	}
+
+	String createOntologyText(PseudorandomNumberGenerator random) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(HEADER);
+		for (int index = 0; index < this.numberOfClasses; index++) {
+			sb.append("Declaration(Class(" + cls(index) + "))\n");
+		}
+		for (int index = 0; index < NUMBER_OF_OBJECT_PROPERTIES; index++) {
+			sb.append("Declaration(ObjectProperty(" + property(index) + "))\n");
+		}
+		for (int index = 1; index < this.numberOfClasses; index++) {
+			String current = cls(index);
+			String other = cls(random.nextInt(index));
+			String another = cls(random.nextInt(this.numberOfClasses));
+			String role = property(random.nextInt(NUMBER_OF_OBJECT_PROPERTIES));
+			sb.append("SubClassOf(" + annotation(random) + current + " " + other + ")\n");
+			if (index % 3 == 0) {
+				sb.append("SubClassOf(" + annotation(random) + current + " ObjectSomeValuesFrom(" + role + " "
+						+ another + "))\n");
+			}
+			if (index % 5 == 0) {
+				sb.append("SubClassOf(" + annotation(random) + "ObjectIntersectionOf(" + current + " " + another
+						+ ") " + other + ")\n");
+			}
+			if (index % 7 == 0) {
+				sb.append("SubClassOf(" + annotation(random) + "ObjectSomeValuesFrom(" + role + " " + another + ") "
+						+ current + ")\n");
+			}
+		}
+		sb.append(")\n");
+		return sb.toString();
+	}
+
+	String createBayesianNetwork() {
+		int roots = (this.numberOfVariables + 1) / 2;
+		int withOneParent = (this.numberOfVariables - roots + 1) / 2;
+		int withTwoParents = this.numberOfVariables - roots - withOneParent;
+		BayesianNetworkCreatorCore creator = new BayesianNetworkCreatorCore();
+		StringWriter writer = new StringWriter();
+		try {
+			creator.write(writer, creator.createNetwork(Arrays.asList(roots, withOneParent, withTwoParents)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	List<String> createQueries(PseudorandomNumberGenerator random, int numberOfQueries) {
+		List<String> ret = new ArrayList<>();
+		for (int index = 0; index < numberOfQueries; index++) {
+			ret.add("query(sub('" + cls(random.nextInt(this.numberOfClasses)) + "', '"
+					+ cls(random.nextInt(this.numberOfClasses)) + "')).");
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the number of classes.
+	 *
+	 * @return the number of classes
+	 */
+	public int getNumberOfClasses() {
+		return this.numberOfClasses;
+	}
+
+	/**
+	 * Returns the number of variables of the Bayesian network.
+	 *
+	 * @return the number of variables of the Bayesian network
+	 */
+	public int getNumberOfVariables() {
+		return this.numberOfVariables;
+	}
+
+	/**
+	 * Returns the ontology in OWL functional syntax.
+	 *
+	 * @return the ontology in OWL functional syntax
+	 */
+	public String getOntologyText() {
+		return this.ontologyText;
+	}
+
+	/**
+	 * Returns a new OWL ontology parsed from the ontology text.
+	 *
+	 * @return a new OWL ontology parsed from the ontology text
+	 */
+	public OWLOntology createOntology() {
+		try {
+			return ProcessorConfigurationImpl
+					.readOntology(new ByteArrayInputStream(this.ontologyText.getBytes(StandardCharsets.UTF_8)));
+		} catch (OWLOntologyCreationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Returns the Bayesian network.
+	 *
+	 * @return the Bayesian network
+	 */
+	public String getBayesianNetwork() {
+		return this.bayesianNetwork;
+	}
+
+	/**
+	 * Returns the queries, using the prefix of the ontology.
+	 *
+	 * @return the queries, using the prefix of the ontology
+	 */
+	public List<String> getQueries() {
+		return this.queries;
+	}
+
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains benchmarks of the stages of the BORN pipeline, using
+ * synthetic ontologies and Bayesian networks.
+ */
+package de.tudresden.inf.lat.born.benchmark;
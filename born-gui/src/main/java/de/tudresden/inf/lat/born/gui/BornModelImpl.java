@@ -1,13 +1,18 @@
 package de.tudresden.inf.lat.born.gui;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
+import java.util.function.Function;
 
 import de.tudresden.inf.lat.born.owlapi.annotator.AnnotatorConfiguration;
 import de.tudresden.inf.lat.born.owlapi.annotator.AnnotatorConfigurationImpl;
 import de.tudresden.inf.lat.born.owlapi.multiprocessor.MultiProcessorConfiguration;
 import de.tudresden.inf.lat.born.owlapi.multiprocessor.MultiProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.LocalQueryProcessorWorker;
 import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
 import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.QueryProcessorPool;
 import de.tudresden.inf.lat.jproblog.JProblog;
 
 /**
@@ -23,10 +28,39 @@ public class BornModelImpl implements BornModel {
 	private MultiProcessorConfiguration multiProcessorConfiguration = new MultiProcessorConfigurationImpl();
 
 	/**
-	 * Constructs a new BORN model.
+	 * This is a ProbLog query processor that is created the first time it is
+	 * used.
+	 */
+	static class LazyJProblog implements Function<String, String> {
+
+		private JProblog queryProcessor = null;
+
+		@Override
+		public synchronized String apply(String problogProgram) {
+			if (Objects.isNull(this.queryProcessor)) {
+				this.queryProcessor = new JProblog();
+			}
+			return this.queryProcessor.apply(problogProgram);
+		}
+
+	}
+
+	/**
+	 * Constructs a new BORN model. The query processor keeps up to one ProbLog
+	 * instance for each available processor, and each instance processes one
+	 * program at a time. The ProbLog instances are created the first time
+	 * they are used, so that the graphical user interface starts without
+	 * them.
 	 */
 	public BornModelImpl() {
-		JProblog queryProcessor = new JProblog();
+		QueryProcessorPool queryProcessor;
+		try {
+			queryProcessor = new QueryProcessorPool(() -> new LocalQueryProcessorWorker(new LazyJProblog()),
+					Runtime.getRuntime().availableProcessors(), QueryProcessorPool.NO_TIMEOUT,
+					QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 		this.processorConfiguration.setQueryProcessor(queryProcessor);
 		this.multiProcessorConfiguration.setQueryProcessor(queryProcessor);
 	}
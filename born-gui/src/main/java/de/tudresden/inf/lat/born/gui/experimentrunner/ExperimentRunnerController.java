@@ -35,10 +35,8 @@ public class ExperimentRunnerController implements ActionListener {
 		 */
 		public void run() {
 			long start = System.nanoTime();
-			MultiProcessorCore core = new MultiProcessorCore();
-			List<String> results = core.run(getModel(), start);
-
-			try {
+			try (MultiProcessorCore core = new MultiProcessorCore()) {
+				List<String> results = core.run(getModel(), start);
 				core.storeResults(getModel(), results);
 			} catch (IOException e) {
 				throw new UncheckedIOException(e);
@@ -40,13 +40,10 @@ public class ProcessorController implements ActionListener {
 
 		public void run() {
 			long start = System.nanoTime();
-			ProcessorCore core = new ProcessorCore();
 			ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
-			core.run(getModel(), start, executionResult);
+			getProcessorCore().run(getModel(), start, executionResult);
 
-			String resultText = executionResult.getResult();
-			ProblogInputCreator problogInputCreator = new ProblogInputCreator();
-			String result = problogInputCreator.replaceByPrefixes(getModel().getOntology(), resultText);
+			String result = getResultToShow(getProcessorCore(), getModel(), executionResult.getResult());
 
 			getView().setResult(result);
 			getView().setComputing(false);
@@ -69,6 +66,7 @@ public class ProcessorController implements ActionListener {
 	private final OWLOntologyManager owlOntologyManager;
 	private final ProcessorView view;
 	private ProcessorRunner processorRunner;
+	private final ProcessorCore processorCore = new ProcessorCore();
 	private final ExampleLoader exampleLoader = new ExampleLoader();
 	private String lastUsedCompletionRules = "";
 	private String previousToLastUsedCompletionRules = "";
@@ -256,6 +254,46 @@ public class ProcessorController implements ActionListener {
 		return this.owlOntologyManager;
 	}
 
+	/**
+	 * Returns the result to show for the given configuration. The IRIs of the
+	 * result are compressed with the prefix compressor of the compiled
+	 * ontology that the given processor core keeps for the configuration, so
+	 * that it is invalidated when the ontology changes. If aliases are used,
+	 * the result was already decoded by the processor core, and it is shown
+	 * without compressing it.
+	 * 
+	 * @param processorCore
+	 *            processor core that computed the result
+	 * @param conf
+	 *            configuration
+	 * @param result
+	 *            result computed by the processor core
+	 * @return the result to show for the given configuration
+	 */
+	static String getResultToShow(ProcessorCore processorCore, ProcessorConfiguration conf, String result) {
+		Objects.requireNonNull(processorCore);
+		Objects.requireNonNull(conf);
+		Objects.requireNonNull(result);
+		if (conf.isUsingAliases()) {
+			return result;
+		} else {
+			return processorCore.getCompiledOntologyCache()
+					.get(conf.getOntology(), conf.hasDefaultCompletionRules(), conf.getAdditionalCompletionRules(),
+							new ProcessorExecutionResultImpl())
+					.getPrefixCompressor().rewrite(result);
+		}
+	}
+
+	/**
+	 * Returns the processor core, which keeps the compiled ontologies between
+	 * runs.
+	 * 
+	 * @return the processor core
+	 */
+	public ProcessorCore getProcessorCore() {
+		return this.processorCore;
+	}
+
 	/**
 	 * Returns the view.
 	 * 
@@ -0,0 +1,108 @@
+package de.tudresden.inf.lat.born.gui.processor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorCore;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
+
+/**
+ *
+ * This is a unit test for {@link ProcessorController}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProcessorControllerTest {
+
+	static final String PREFIX = "http://example.org/ont#";
+
+	static final String ONTOLOGY = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(Class(ont:C))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:B ont:C)\n" //
+			+ ")\n";
+
+	static final String NETWORK = "0.7::x0.\n0.2::x1.\n";
+
+	static final String QUERY = "query(sub('ont:A','ont:C')).";
+
+	static final String TERM = "sub('" + PREFIX + "A','" + PREFIX + "C')";
+
+	static final String COMPRESSED_TERM = "sub('ont:A','ont:C')";
+
+	static final String PROBABILITY = ":\t0.14\n";
+
+	ProcessorConfiguration createConfiguration(boolean usingAliases) throws OWLOntologyCreationException {
+		ProcessorConfiguration ret = new ProcessorConfigurationImpl();
+		ret.setShowingLog(false);
+		ret.setOntology(ProcessorConfigurationImpl
+				.readOntology(new ByteArrayInputStream(ONTOLOGY.getBytes(StandardCharsets.UTF_8))));
+		ret.setBayesianNetwork(NETWORK);
+		ret.setQuery(QUERY);
+		ret.setUsingAliases(usingAliases);
+		return ret;
+	}
+
+	CompiledOntology getCompiledOntology(ProcessorCore processorCore, ProcessorConfiguration conf) {
+		return processorCore.getCompiledOntologyCache().get(conf.getOntology(), conf.hasDefaultCompletionRules(),
+				conf.getAdditionalCompletionRules(), new ProcessorExecutionResultImpl());
+	}
+
+	/**
+	 * Tests that, with aliases, the answer of ProbLog is shown as decoded by
+	 * the processor core, without compressing its IRIs.
+	 */
+	@Test
+	public void testResultWithAliases() throws OWLOntologyCreationException {
+		ProcessorCore processorCore = new ProcessorCore();
+		ProcessorConfiguration conf = createConfiguration(true);
+		CompiledOntology compiledOntology = getCompiledOntology(processorCore, conf);
+		String encodedTerm = compiledOntology.getSymbolAliasTable().encode(TERM);
+		Assert.assertNotEquals(TERM, encodedTerm);
+		conf.setQueryProcessor(program -> {
+			Assert.assertTrue(program.contains(encodedTerm));
+			return encodedTerm + PROBABILITY;
+		});
+
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		processorCore.run(conf, System.nanoTime(), executionResult);
+		Assert.assertEquals(TERM + PROBABILITY,
+				ProcessorController.getResultToShow(processorCore, conf, executionResult.getResult()));
+	}
+
+	/**
+	 * Tests that, without aliases, the IRIs of the answer of ProbLog are
+	 * compressed with the prefixes of the ontology.
+	 */
+	@Test
+	public void testResultWithoutAliases() throws OWLOntologyCreationException {
+		ProcessorCore processorCore = new ProcessorCore();
+		ProcessorConfiguration conf = createConfiguration(false);
+		conf.setQueryProcessor(program -> {
+			Assert.assertTrue(program.contains(TERM));
+			return TERM + PROBABILITY;
+		});
+
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		processorCore.run(conf, System.nanoTime(), executionResult);
+		Assert.assertEquals(COMPRESSED_TERM + PROBABILITY,
+				ProcessorController.getResultToShow(processorCore, conf, executionResult.getResult()));
+	}
+
+}
@@ -6,9 +6,8 @@ import java.util.List;
 import java.util.Objects;
 
 import de.tudresden.inf.lat.born.core.term.Clause;
-import de.tudresden.inf.lat.born.core.term.ClauseImpl;
 import de.tudresden.inf.lat.born.core.term.Term;
-import de.tudresden.inf.lat.born.core.term.TermImpl;
+import de.tudresden.inf.lat.born.core.term.TermFactory;
 
 /**
  * An object that implements this class is a formula constructor.
@@ -57,10 +56,33 @@ public class FormulaConstructor {
 	/** Functor of a query. */
 	public static final String QUERY = "query";
 
+	private final TermFactory termFactory;
+
 	/**
-	 * Constructs a new formula constructor.
+	 * Constructs a new formula constructor with its own term factory.
 	 */
 	public FormulaConstructor() {
+		this(new TermFactory());
+	}
+
+	/**
+	 * Constructs a new formula constructor that creates terms and clauses with
+	 * the given term factory.
+	 * 
+	 * @param termFactory
+	 *            term factory
+	 */
+	public FormulaConstructor(TermFactory termFactory) {
+		this.termFactory = Objects.requireNonNull(termFactory);
+	}
+
+	/**
+	 * Returns the term factory.
+	 * 
+	 * @return the term factory
+	 */
+	public TermFactory getTermFactory() {
+		return this.termFactory;
 	}
 
 	/**
@@ -73,7 +95,7 @@ public class FormulaConstructor {
 	public Term newCons(String name) {
 		Objects.requireNonNull(name);
 		List<Term> emptyList = Collections.emptyList();
-		return new TermImpl(name, emptyList);
+		return this.termFactory.newTerm(name, emptyList);
 	}
 
 	/**
@@ -86,7 +108,7 @@ public class FormulaConstructor {
 
 	public Term newVar(String name) {
 		Objects.requireNonNull(name);
-		Term ret = new TermImpl(name);
+		Term ret = this.termFactory.newTerm(name);
 		if (!(ret.getType().equals(Term.Type.VARIABLE))) {
 			throw new IllegalArgumentException("Invalid variable name: '" + name
 					+ "'. A variable name must start with a capital letter or with an underscore ('_').");
@@ -108,7 +130,7 @@ public class FormulaConstructor {
 		Objects.requireNonNull(term);
 		List<Term> arguments = new ArrayList<>();
 		arguments.add(term);
-		return new TermImpl(name, arguments);
+		return this.termFactory.newTerm(name, arguments);
 	}
 
 	/**
@@ -129,7 +151,7 @@ public class FormulaConstructor {
 		List<Term> arguments = new ArrayList<>();
 		arguments.add(left);
 		arguments.add(right);
-		return new TermImpl(name, arguments);
+		return this.termFactory.newTerm(name, arguments);
 	}
 
 	/**
@@ -154,7 +176,7 @@ public class FormulaConstructor {
 		arguments.add(first);
 		arguments.add(second);
 		arguments.add(third);
-		return new TermImpl(name, arguments);
+		return this.termFactory.newTerm(name, arguments);
 	}
 
 	/**
@@ -344,7 +366,7 @@ public class FormulaConstructor {
 	public Clause rule(Term head, List<Term> body) {
 		Objects.requireNonNull(head);
 		Objects.requireNonNull(body);
-		return new ClauseImpl(head, body);
+		return this.termFactory.newClause(head, body);
 	}
 
 	/**
@@ -359,9 +381,9 @@ public class FormulaConstructor {
 		Objects.requireNonNull(query);
 		List<Term> list = new ArrayList<>();
 		list.add(query);
-		TermImpl term = new TermImpl(QUERY, list);
+		Term term = this.termFactory.newTerm(QUERY, list);
 		List<Term> emptyList = Collections.emptyList();
-		return new ClauseImpl(term, emptyList);
+		return this.termFactory.newClause(term, emptyList);
 	}
 
 }
@@ -1,11 +1,14 @@
 package de.tudresden.inf.lat.born.core.term;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
 /**
- * Default implementation of a clause.
+ * Default implementation of a clause. Objects of this class are immutable.
+ * The hash code is computed when the clause is constructed, and the string
+ * representation is computed the first time it is needed.
  *
  * @author Julian Mendez
  */
@@ -17,13 +20,17 @@ public class ClauseImpl implements Clause {
 	public static final String TAB = "   ";
 
 	private final Term head;
-	private final List<Term> body = new ArrayList<>();
+	private final List<Term> body;
+	private final int hashCode;
+	private String string = null;
 
 	/**
 	 * Constructs an empty clause.
 	 */
 	public ClauseImpl() {
 		this.head = new TermImpl();
+		this.body = Collections.emptyList();
+		this.hashCode = computeHashCode();
 	}
 
 	/**
@@ -35,7 +42,12 @@ public class ClauseImpl implements Clause {
 	public ClauseImpl(Term head, List<Term> body) {
 		Objects.requireNonNull(body);
 		this.head = Objects.requireNonNull(head);
-		this.body.addAll(body);
+		this.body = body.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(body));
+		this.hashCode = computeHashCode();
+	}
+
+	int computeHashCode() {
+		return this.head.hashCode() + 0x1F * this.body.hashCode();
 	}
 
 	@Override
@@ -50,6 +62,17 @@ public class ClauseImpl implements Clause {
 
 	@Override
 	public String asString() {
+		// the string is immutable, so it can be computed more than once by
+		// different threads without synchronization
+		String ret = this.string;
+		if (Objects.isNull(ret)) {
+			ret = render();
+			this.string = ret;
+		}
+		return ret;
+	}
+
+	String render() {
 		String result = "";
 		if (this.body.isEmpty()) {
 			result = this.head.asString() + Symbol.POINT_CHAR + Symbol.NEW_LINE_CHAR;
@@ -94,7 +117,7 @@ public class ClauseImpl implements Clause {
 
 	@Override
 	public int hashCode() {
-		return this.head.hashCode() + 0x1F * this.body.hashCode();
+		return this.hashCode;
 	}
 
 	@Override
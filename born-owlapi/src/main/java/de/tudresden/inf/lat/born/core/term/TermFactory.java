@@ -0,0 +1,109 @@
+package de.tudresden.inf.lat.born.core.term;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An object of this class creates terms and clauses, and returns a canonical
+ * instance for each of them. Equal terms created by the same factory are the
+ * same object, so they share their hash codes and their string
+ * representations, and they are compared by identity first. The canonical
+ * instances are kept as long as the factory is reachable, so a factory should
+ * be used for a bounded task, like rendering the axioms of a module. Objects
+ * of this class are thread-safe.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class TermFactory {
+
+	private final Map<Formula, Formula> canonicalFormulas = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new term factory.
+	 */
+	public TermFactory() {
+	}
+
+	/**
+	 * Returns the canonical instance of the given formula.
+	 *
+	 * @param formula
+	 *            formula
+	 * @param <T>
+	 *            type of the formula
+	 * @return the canonical instance of the given formula
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Formula> T intern(T formula) {
+		Objects.requireNonNull(formula);
+		Formula ret = this.canonicalFormulas.putIfAbsent(formula, formula);
+		return Objects.isNull(ret) ? formula : (T) ret;
+	}
+
+	/**
+	 * Returns a term with the given name, which can be a number, a variable,
+	 * or an atom.
+	 *
+	 * @param name
+	 *            name
+	 * @return a term with the given name
+	 */
+	public Term newTerm(String name) {
+		return intern(new TermImpl(name));
+	}
+
+	/**
+	 * Returns a term with the given functor and arguments. If the arguments
+	 * is an empty list, this is considered a constant.
+	 *
+	 * @param name
+	 *            functor name
+	 * @param arguments
+	 *            arguments
+	 * @return a term with the given functor and arguments
+	 */
+	public Term newTerm(String name, List<Term> arguments) {
+		return intern(new TermImpl(name, arguments));
+	}
+
+	/**
+	 * Returns a term with an infix operator.
+	 *
+	 * @param leftTerm
+	 *            left term
+	 * @param infixOperator
+	 *            infix operator
+	 * @param rightTerm
+	 *            right term
+	 * @return a term with an infix operator
+	 */
+	public Term newTerm(Term leftTerm, String infixOperator, Term rightTerm) {
+		return intern(new TermImpl(leftTerm, infixOperator, rightTerm));
+	}
+
+	/**
+	 * Returns a clause with the given head and body.
+	 *
+	 * @param head
+	 *            head
+	 * @param body
+	 *            body
+	 * @return a clause with the given head and body
+	 */
+	public Clause newClause(Term head, List<Term> body) {
+		return intern(new ClauseImpl(head, body));
+	}
+
+	/**
+	 * Returns the number of canonical instances.
+	 *
+	 * @return the number of canonical instances
+	 */
+	public int size() {
+		return this.canonicalFormulas.size();
+	}
+
+}
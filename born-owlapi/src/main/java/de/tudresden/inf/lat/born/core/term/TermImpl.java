@@ -1,12 +1,16 @@
 package de.tudresden.inf.lat.born.core.term;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
 /**
- * Default implementation of a term.
+ * Default implementation of a term. Objects of this class are immutable. The
+ * hash code is computed when the term is constructed, and the string
+ * representation is computed the first time it is needed.
  * 
  * @author Julian Mendez
  *
@@ -14,15 +18,19 @@ import java.util.Objects;
 public class TermImpl implements Term {
 
 	private final String name;
-	private final List<Term> arguments = new ArrayList<>();
+	private final List<Term> arguments;
 	private final Term.Type termType;
+	private final int hashCode;
+	private String string = null;
 
 	/**
 	 * Constructs an empty term.
 	 */
 	public TermImpl() {
 		this.name = "";
+		this.arguments = Collections.emptyList();
 		this.termType = Term.Type.ATOM;
+		this.hashCode = computeHashCode();
 	}
 
 	/**
@@ -43,6 +51,8 @@ public class TermImpl implements Term {
 			this.termType = Term.Type.ATOM;
 		}
 		this.name = name;
+		this.arguments = Collections.emptyList();
+		this.hashCode = computeHashCode();
 	}
 
 	/**
@@ -62,11 +72,13 @@ public class TermImpl implements Term {
 		}
 		if (arguments.isEmpty()) {
 			this.termType = Term.Type.ATOM;
+			this.arguments = Collections.emptyList();
 		} else {
 			this.termType = Term.Type.COMPOUND_TERM;
+			this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
 		}
 		this.name = name;
-		this.arguments.addAll(arguments);
+		this.hashCode = computeHashCode();
 	}
 
 	/**
@@ -84,9 +96,23 @@ public class TermImpl implements Term {
 		Objects.requireNonNull(leftTerm);
 		Objects.requireNonNull(rightTerm);
 		this.name = Objects.requireNonNull(infixOperator);
-		this.arguments.add(leftTerm);
-		this.arguments.add(rightTerm);
+		this.arguments = Collections.unmodifiableList(Arrays.asList(leftTerm, rightTerm));
 		this.termType = Term.Type.INFIX_OPERATOR;
+		this.hashCode = computeHashCode();
+	}
+
+	int computeHashCode() {
+		return this.name.hashCode() + 0x1F * (this.arguments.hashCode() + 0x1F * this.termType.ordinal());
+	}
+
+	/**
+	 * Tells whether the given string, which is not empty and has no leading
+	 * spaces, can be a number. This avoids parsing strings that do not start
+	 * like a number, e.g. constants between apostrophes.
+	 */
+	static boolean startsLikeNumber(String str) {
+		char firstChar = str.charAt(0);
+		return ('0' <= firstChar && firstChar <= '9') || firstChar == '-' || firstChar == '+' || firstChar == '.';
 	}
 
 	/**
@@ -119,7 +145,7 @@ public class TermImpl implements Term {
 	public boolean isLong(String str) {
 		Objects.requireNonNull(str);
 		boolean result = false;
-		if (Objects.isNull(str) || str.trim().isEmpty()) {
+		if (Objects.isNull(str) || str.trim().isEmpty() || !startsLikeNumber(str.trim())) {
 			result = false;
 		} else {
 			try {
@@ -143,7 +169,7 @@ public class TermImpl implements Term {
 	public boolean isDouble(String str) {
 		Objects.requireNonNull(str);
 		boolean result = false;
-		if (Objects.isNull(str) || str.trim().isEmpty()) {
+		if (Objects.isNull(str) || str.trim().isEmpty() || !startsLikeNumber(str.trim())) {
 			result = false;
 		} else {
 			try {
@@ -174,22 +200,29 @@ public class TermImpl implements Term {
 
 	@Override
 	public String asString() {
-		StringBuilder sb = new StringBuilder();
-		sb.append(this.name);
-		if (this.termType.equals(Term.Type.COMPOUND_TERM)) {
-			sb.append(Symbol.PAR_A_CHAR);
-			Iterator<Term> it = this.arguments.iterator();
-			while (it.hasNext()) {
-				Term current = it.next();
-				sb.append(current);
-				if (it.hasNext()) {
-					sb.append(Symbol.COMMA_CHAR);
-					sb.append(Symbol.SPACE_CHAR);
+		// the string is immutable, so it can be computed more than once by
+		// different threads without synchronization
+		String ret = this.string;
+		if (Objects.isNull(ret)) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(this.name);
+			if (this.termType.equals(Term.Type.COMPOUND_TERM)) {
+				sb.append(Symbol.PAR_A_CHAR);
+				Iterator<Term> it = this.arguments.iterator();
+				while (it.hasNext()) {
+					Term current = it.next();
+					sb.append(current.asString());
+					if (it.hasNext()) {
+						sb.append(Symbol.COMMA_CHAR);
+						sb.append(Symbol.SPACE_CHAR);
+					}
 				}
+				sb.append(Symbol.PAR_B_CHAR);
 			}
-			sb.append(Symbol.PAR_B_CHAR);
+			ret = sb.toString();
+			this.string = ret;
 		}
-		return sb.toString();
+		return ret;
 	}
 
 	@Override
@@ -207,7 +240,7 @@ public class TermImpl implements Term {
 
 	@Override
 	public int hashCode() {
-		return this.name.hashCode() + 0x1F * (this.arguments.hashCode() + 0x1F * Term.Type.values().hashCode());
+		return this.hashCode;
 	}
 
 	@Override
@@ -0,0 +1,403 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import de.tudresden.inf.lat.jcel.coreontology.axiom.FunctObjectPropAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.GCI0Axiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.GCI1Axiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.GCI2Axiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.GCI3Axiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NominalAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomVisitor;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.RI1Axiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.RI2Axiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.RI3Axiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.RangeAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+
+/**
+ * An object of this class indexes a list of normalized axioms for the
+ * completions. Classes and individuals are identified by their class
+ * position, and object properties by their object property position. Each
+ * entry of an index ends with the position of its axiom in the list, which is
+ * <code>-1</code> for the entries that hold in every world, i.e. the ones of
+ * nominal axioms.
+ *
+ * @author Julian Mendez
+ *
+ */
+class AxiomIndex {
+
+	/**
+	 * This is an index in compressed sparse row format. The entries of all
+	 * the keys are stored in a single array, where the entries of each key are
+	 * consecutive, and all the entries have the same number of components.
+	 */
+	static class CompressedIndex {
+
+		private final int[] offsets;
+		private final int[] values;
+		private final int width;
+
+		/**
+		 * Constructs a new index.
+		 *
+		 * @param numberOfKeys
+		 *            number of keys
+		 * @param width
+		 *            number of components of each entry
+		 * @param entries
+		 *            entries, where each entry is the key followed by the
+		 *            components
+		 */
+		CompressedIndex(int numberOfKeys, int width, List<int[]> entries) {
+			this.width = width;
+			this.offsets = new int[numberOfKeys + 1];
+			entries.forEach(entry -> this.offsets[entry[0] + 1]++);
+			for (int key = 0; key < numberOfKeys; key++) {
+				this.offsets[key + 1] += this.offsets[key];
+			}
+			this.values = new int[entries.size() * width];
+			int[] next = Arrays.copyOf(this.offsets, numberOfKeys);
+			entries.forEach(entry -> {
+				System.arraycopy(entry, 1, this.values, next[entry[0]] * width, width);
+				next[entry[0]]++;
+			});
+		}
+
+		int getStart(int key) {
+			return this.offsets[key];
+		}
+
+		int getEnd(int key) {
+			return this.offsets[key + 1];
+		}
+
+		int get(int entry, int component) {
+			return this.values[entry * this.width + component];
+		}
+
+	}
+
+	/**
+	 * This is an auxiliary class that collects the entries of the indices.
+	 */
+	class AxiomIndexer implements NormalizedIntegerAxiomVisitor<Boolean> {
+
+		private final List<int[]> gci0ByLeft = new ArrayList<>();
+		private final List<int[]> gci1ByLeft = new ArrayList<>();
+		private final List<int[]> gci2ByLeft = new ArrayList<>();
+		private final List<int[]> gci3ByFiller = new ArrayList<>();
+		private final List<int[]> gci3ByObjectProperty = new ArrayList<>();
+		private final List<int[]> rangeByObjectProperty = new ArrayList<>();
+		private final List<int[]> reflexiveObjectProperties = new ArrayList<>();
+		private final List<int[]> ri2BySubProperty = new ArrayList<>();
+		private final List<int[]> ri3ByLeft = new ArrayList<>();
+		private final List<int[]> ri3ByRight = new ArrayList<>();
+		private int axiom;
+
+		void setAxiom(int axiom) {
+			this.axiom = axiom;
+		}
+
+		@Override
+		public Boolean visit(FunctObjectPropAxiom axiom) {
+			throw new UnsupportedOperationException("Unsupported axiom: " + axiom);
+		}
+
+		@Override
+		public Boolean visit(GCI0Axiom axiom) {
+			this.gci0ByLeft
+					.add(new int[] { addClass(axiom.getSubClass()), addClass(axiom.getSuperClass()), this.axiom });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(GCI1Axiom axiom) {
+			int leftSubClass = addClass(axiom.getLeftSubClass());
+			int rightSubClass = addClass(axiom.getRightSubClass());
+			int superClass = addClass(axiom.getSuperClass());
+			this.gci1ByLeft.add(new int[] { leftSubClass, rightSubClass, superClass, this.axiom });
+			this.gci1ByLeft.add(new int[] { rightSubClass, leftSubClass, superClass, this.axiom });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(GCI2Axiom axiom) {
+			this.gci2ByLeft.add(new int[] { addClass(axiom.getSubClass()),
+					addObjectProperty(axiom.getPropertyInSuperClass()), addClass(axiom.getClassInSuperClass()),
+					this.axiom });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(GCI3Axiom axiom) {
+			int objectProperty = addObjectProperty(axiom.getPropertyInSubClass());
+			int filler = addClass(axiom.getClassInSubClass());
+			int superClass = addClass(axiom.getSuperClass());
+			this.gci3ByFiller.add(new int[] { filler, objectProperty, superClass, this.axiom });
+			this.gci3ByObjectProperty.add(new int[] { objectProperty, filler, superClass, this.axiom });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(NominalAxiom axiom) {
+			int individual = addClass(axiom.getIndividual());
+			int classExpression = addClass(axiom.getClassExpression());
+			this.gci0ByLeft.add(new int[] { individual, classExpression, -1 });
+			this.gci0ByLeft.add(new int[] { classExpression, individual, -1 });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(RangeAxiom axiom) {
+			this.rangeByObjectProperty
+					.add(new int[] { addObjectProperty(axiom.getProperty()), addClass(axiom.getRange()), this.axiom });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(RI1Axiom axiom) {
+			this.reflexiveObjectProperties
+					.add(new int[] { 0, addObjectProperty(axiom.getSuperProperty()), this.axiom });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(RI2Axiom axiom) {
+			this.ri2BySubProperty.add(new int[] { addObjectProperty(axiom.getSubProperty()),
+					addObjectProperty(axiom.getSuperProperty()), this.axiom });
+			return true;
+		}
+
+		@Override
+		public Boolean visit(RI3Axiom axiom) {
+			int leftSubProperty = addObjectProperty(axiom.getLeftSubProperty());
+			int rightSubProperty = addObjectProperty(axiom.getRightSubProperty());
+			int superProperty = addObjectProperty(axiom.getSuperProperty());
+			this.ri3ByLeft.add(new int[] { leftSubProperty, rightSubProperty, superProperty, this.axiom });
+			this.ri3ByRight.add(new int[] { rightSubProperty, leftSubProperty, superProperty, this.axiom });
+			return true;
+		}
+
+	}
+
+	private final Map<Integer, Integer> classPositions = new HashMap<>();
+	private final List<Integer> classes = new ArrayList<>();
+	private final Map<Integer, Integer> objectPropertyPositions = new HashMap<>();
+	private final List<Integer> objectProperties = new ArrayList<>();
+	private final int top;
+	private final int bottom;
+	private final CompressedIndex gci0ByLeft;
+	private final CompressedIndex gci1ByLeft;
+	private final CompressedIndex gci2ByLeft;
+	private final CompressedIndex gci3ByFiller;
+	private final CompressedIndex gci3ByObjectProperty;
+	private final CompressedIndex rangeByObjectProperty;
+	private final CompressedIndex reflexiveObjectProperties;
+	private final CompressedIndex ri2BySubProperty;
+	private final CompressedIndex ri3ByLeft;
+	private final CompressedIndex ri3ByRight;
+
+	/**
+	 * Constructs a new axiom index.
+	 *
+	 * @param axioms
+	 *            normalized axioms, where each axiom is identified by its
+	 *            position in the list
+	 * @param classes
+	 *            classes and individuals that get a class position even if
+	 *            they are not in the axioms
+	 * @throws UnsupportedOperationException
+	 *             if there are functional object property axioms
+	 */
+	AxiomIndex(List<NormalizedIntegerAxiom> axioms, Collection<Integer> classes) {
+		Objects.requireNonNull(axioms);
+		Objects.requireNonNull(classes);
+		this.top = addClass(IntegerEntityManager.topClassId);
+		this.bottom = addClass(IntegerEntityManager.bottomClassId);
+		AxiomIndexer indexer = new AxiomIndexer();
+		for (int index = 0; index < axioms.size(); index++) {
+			indexer.setAxiom(index);
+			axioms.get(index).accept(indexer);
+		}
+		classes.forEach(this::addClass);
+
+		int numberOfClasses = getNumberOfClasses();
+		int numberOfObjectProperties = getNumberOfObjectProperties();
+		this.gci0ByLeft = new CompressedIndex(numberOfClasses, 2, indexer.gci0ByLeft);
+		this.gci1ByLeft = new CompressedIndex(numberOfClasses, 3, indexer.gci1ByLeft);
+		this.gci2ByLeft = new CompressedIndex(numberOfClasses, 3, indexer.gci2ByLeft);
+		this.gci3ByFiller = new CompressedIndex(numberOfClasses, 3, indexer.gci3ByFiller);
+		this.gci3ByObjectProperty = new CompressedIndex(numberOfObjectProperties, 3, indexer.gci3ByObjectProperty);
+		this.rangeByObjectProperty = new CompressedIndex(numberOfObjectProperties, 2, indexer.rangeByObjectProperty);
+		this.reflexiveObjectProperties = new CompressedIndex(1, 2, indexer.reflexiveObjectProperties);
+		this.ri2BySubProperty = new CompressedIndex(numberOfObjectProperties, 2, indexer.ri2BySubProperty);
+		this.ri3ByLeft = new CompressedIndex(numberOfObjectProperties, 3, indexer.ri3ByLeft);
+		this.ri3ByRight = new CompressedIndex(numberOfObjectProperties, 3, indexer.ri3ByRight);
+	}
+
+	/**
+	 * Tells whether the given axioms can be indexed, i.e. whether none of
+	 * them is a functional object property axiom.
+	 *
+	 * @param axioms
+	 *            normalized axioms
+	 * @return <code>true</code> if and only if the given axioms can be indexed
+	 */
+	static boolean isSupported(Collection<NormalizedIntegerAxiom> axioms) {
+		Objects.requireNonNull(axioms);
+		return axioms.stream().noneMatch(axiom -> axiom instanceof FunctObjectPropAxiom);
+	}
+
+	int addClass(int classId) {
+		Integer ret = this.classPositions.get(classId);
+		if (Objects.isNull(ret)) {
+			ret = this.classes.size();
+			this.classPositions.put(classId, ret);
+			this.classes.add(classId);
+		}
+		return ret;
+	}
+
+	int addObjectProperty(int objectProperty) {
+		Integer ret = this.objectPropertyPositions.get(objectProperty);
+		if (Objects.isNull(ret)) {
+			ret = this.objectProperties.size();
+			this.objectPropertyPositions.put(objectProperty, ret);
+			this.objectProperties.add(objectProperty);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the class position of the given class or individual, or
+	 * <code>-1</code> if it is not indexed.
+	 */
+	int getClassPosition(int classId) {
+		Integer ret = this.classPositions.get(classId);
+		return Objects.isNull(ret) ? -1 : ret;
+	}
+
+	/**
+	 * Returns the object property position of the given object property, or
+	 * <code>-1</code> if it is not indexed.
+	 */
+	int getObjectPropertyPosition(int objectProperty) {
+		Integer ret = this.objectPropertyPositions.get(objectProperty);
+		return Objects.isNull(ret) ? -1 : ret;
+	}
+
+	int getClass(int position) {
+		return this.classes.get(position);
+	}
+
+	List<Integer> getClasses() {
+		return this.classes;
+	}
+
+	int getNumberOfClasses() {
+		return this.classes.size();
+	}
+
+	int getNumberOfObjectProperties() {
+		return this.objectProperties.size();
+	}
+
+	int getTop() {
+		return this.top;
+	}
+
+	int getBottom() {
+		return this.bottom;
+	}
+
+	/**
+	 * Returns the index of <i>A</i> &#8849; <i>B</i> by <i>A</i>, with
+	 * entries (<i>B</i>, axiom).
+	 */
+	CompressedIndex getGci0ByLeft() {
+		return this.gci0ByLeft;
+	}
+
+	/**
+	 * Returns the index of <i>A<sub>1</sub></i> &#8851; <i>A<sub>2</sub></i>
+	 * &#8849; <i>B</i> by each <i>A<sub>i</sub></i>, with entries (other
+	 * <i>A<sub>j</sub></i>, <i>B</i>, axiom).
+	 */
+	CompressedIndex getGci1ByLeft() {
+		return this.gci1ByLeft;
+	}
+
+	/**
+	 * Returns the index of <i>A</i> &#8849; &#8707;<i>r</i>.<i>B</i> by
+	 * <i>A</i>, with entries (<i>r</i>, <i>B</i>, axiom).
+	 */
+	CompressedIndex getGci2ByLeft() {
+		return this.gci2ByLeft;
+	}
+
+	/**
+	 * Returns the index of &#8707;<i>r</i>.<i>A</i> &#8849; <i>B</i> by
+	 * <i>A</i>, with entries (<i>r</i>, <i>B</i>, axiom).
+	 */
+	CompressedIndex getGci3ByFiller() {
+		return this.gci3ByFiller;
+	}
+
+	/**
+	 * Returns the index of &#8707;<i>r</i>.<i>A</i> &#8849; <i>B</i> by
+	 * <i>r</i>, with entries (<i>A</i>, <i>B</i>, axiom).
+	 */
+	CompressedIndex getGci3ByObjectProperty() {
+		return this.gci3ByObjectProperty;
+	}
+
+	/**
+	 * Returns the index of range(<i>r</i>) &#8849; <i>A</i> by <i>r</i>, with
+	 * entries (<i>A</i>, axiom).
+	 */
+	CompressedIndex getRangeByObjectProperty() {
+		return this.rangeByObjectProperty;
+	}
+
+	/**
+	 * Returns the index of &#949; &#8849; <i>r</i>, where all the entries
+	 * (<i>r</i>, axiom) have the key 0.
+	 */
+	CompressedIndex getReflexiveObjectProperties() {
+		return this.reflexiveObjectProperties;
+	}
+
+	/**
+	 * Returns the index of <i>r</i> &#8849; <i>s</i> by <i>r</i>, with
+	 * entries (<i>s</i>, axiom).
+	 */
+	CompressedIndex getRi2BySubProperty() {
+		return this.ri2BySubProperty;
+	}
+
+	/**
+	 * Returns the index of <i>r</i> &#8728; <i>s</i> &#8849; <i>t</i> by
+	 * <i>r</i>, with entries (<i>s</i>, <i>t</i>, axiom).
+	 */
+	CompressedIndex getRi3ByLeft() {
+		return this.ri3ByLeft;
+	}
+
+	/**
+	 * Returns the index of <i>r</i> &#8728; <i>s</i> &#8849; <i>t</i> by
+	 * <i>s</i>, with entries (<i>r</i>, <i>t</i>, axiom).
+	 */
+	CompressedIndex getRi3ByRight() {
+		return this.ri3ByRight;
+	}
+
+}
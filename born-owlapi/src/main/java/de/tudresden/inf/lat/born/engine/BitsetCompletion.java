@@ -0,0 +1,767 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.tudresden.inf.lat.born.engine.AxiomIndex.CompressedIndex;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+
+/**
+ * An object of this class applies the EL completion rules to a subset of a
+ * list of normalized axioms, without probabilities. The axioms are indexed
+ * once, and the completion can be computed many times, each time with a
+ * different subset of active axioms, reusing the arrays of the previous
+ * completion. The subsumers of each node are kept as an array of
+ * <code>long</code> values used as a bit set, and each node has a bit set of
+ * subsumers that are still to be processed. The classes to classify are
+ * saturated one at a time, and when a node gets a subsumer that is already
+ * saturated, all the subsumers of the latter are added at once, word by word.
+ * <p>
+ * The completion can also be computed in a {@link ForkJoinPool}. The classes
+ * to classify are then partitioned into disjoint sets, one for each task, and
+ * each task saturates its own classes with its own state. The saturation of a
+ * class only depends on the nodes that are reachable from it, so the tasks do
+ * not share any state, and each query is answered by the task that has the
+ * node of the class. The nodes that are reachable from classes of different
+ * sets are saturated by each of the tasks.
+ * </p>
+ * <p>
+ * Besides the class inclusions and nominal axioms, this completion supports
+ * reflexive object properties, role inclusions, role compositions, and
+ * ranges. By default, it also propagates the bottom class through existential
+ * restrictions, and a class that is subsumed by the bottom class is subsumed
+ * by every class, as in OWL. The completion rules of the ProbLog programs have
+ * no rule for the bottom class, so a completion that must give the same
+ * answers as ProbLog is constructed without the rules for the bottom class,
+ * and its subsumptions are tested with {@link #hasSubsumer(int, int)}. The
+ * filler of an existential restriction whose object property has a range
+ * is an auxiliary node that is subsumed by the filler and by the range. As
+ * in EL++, the ranges are not applied to the object properties derived by a
+ * role composition.
+ * </p>
+ * <p>
+ * Objects of this class are not thread-safe, but different objects can be
+ * used in different threads.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BitsetCompletion {
+
+	static final int BITS_PER_WORD_EXPONENT = 6;
+	static final int BIT_MASK = (1 << BITS_PER_WORD_EXPONENT) - 1;
+
+	private final AxiomIndex index;
+	private final int numberOfAxioms;
+	private final int[] initialNodes;
+	private final int numberOfWords;
+	private final boolean bottomRules;
+
+	private BitSet activeAxioms;
+	private CompressedIndex superObjectProperties;
+	private CompressedIndex ranges;
+	private final List<Integer> reflexiveObjectProperties = new ArrayList<>();
+
+	private long[][] subsumers = new long[0][];
+	private long[][] pending = new long[0][];
+	private final List<Map<Integer, BitSet>> successors = new ArrayList<>();
+	private final List<Map<Integer, BitSet>> predecessors = new ArrayList<>();
+	private final BitSet nodes = new BitSet();
+	private final List<Integer> createdNodes = new ArrayList<>();
+	private final Map<Long, Integer> auxiliaryNodes = new HashMap<>();
+	private final List<Integer> auxiliaryNodeFillers = new ArrayList<>();
+	private final List<Integer> auxiliaryNodeObjectProperties = new ArrayList<>();
+	private final BitSet saturated = new BitSet();
+	private final List<Integer> unsaturated = new ArrayList<>();
+	private final BitSet active = new BitSet();
+	private final Deque<Integer> activeNodes = new ArrayDeque<>();
+	private final Deque<int[]> existentials = new ArrayDeque<>();
+
+	private final List<BitsetCompletion> parts = new ArrayList<>();
+	private int[] owners = new int[0];
+
+	/**
+	 * This task saturates the classes of a range of parts, dividing the range
+	 * until it has only one part.
+	 */
+	class SaturationTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -3311652094467312786L;
+
+		private final int start;
+		private final int end;
+
+		SaturationTask(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.end - this.start == 1) {
+				BitsetCompletion.this.parts.get(this.start).saturate();
+			} else {
+				int middle = (this.start + this.end) >>> 1;
+				invokeAll(new SaturationTask(this.start, middle), new SaturationTask(middle, this.end));
+			}
+		}
+
+	}
+
+	/**
+	 * Constructs a new bitset completion.
+	 *
+	 * @param axioms
+	 *            normalized axioms, where each axiom is identified by its
+	 *            position in the list
+	 * @param classes
+	 *            classes and individuals to classify
+	 * @throws UnsupportedOperationException
+	 *             if there are functional object property axioms
+	 */
+	public BitsetCompletion(List<NormalizedIntegerAxiom> axioms, Collection<Integer> classes) {
+		this(axioms, classes, true);
+	}
+
+	/**
+	 * Constructs a new bitset completion, with or without the rules for the
+	 * bottom class.
+	 *
+	 * @param axioms
+	 *            normalized axioms, where each axiom is identified by its
+	 *            position in the list
+	 * @param classes
+	 *            classes and individuals to classify
+	 * @param bottomRules
+	 *            <code>true</code> if the bottom class is propagated through
+	 *            existential restrictions, as in OWL, and <code>false</code>
+	 *            if it is treated as any other class, as in the completion
+	 *            rules of the ProbLog programs
+	 * @throws UnsupportedOperationException
+	 *             if there are functional object property axioms
+	 */
+	public BitsetCompletion(List<NormalizedIntegerAxiom> axioms, Collection<Integer> classes,
+			boolean bottomRules) {
+		Objects.requireNonNull(axioms);
+		Objects.requireNonNull(classes);
+		this.index = new AxiomIndex(axioms, classes);
+		this.numberOfAxioms = axioms.size();
+		this.initialNodes = classes.stream().mapToInt(this.index::getClassPosition).distinct().toArray();
+		this.numberOfWords = (this.index.getNumberOfClasses() + BIT_MASK) >>> BITS_PER_WORD_EXPONENT;
+		this.bottomRules = bottomRules;
+	}
+
+	/**
+	 * Constructs a new bitset completion for the axioms of a module.
+	 *
+	 * @param module
+	 *            module, where each axiom is identified by its position in
+	 *            the module
+	 * @param classes
+	 *            classes and individuals to classify
+	 * @throws UnsupportedOperationException
+	 *             if there are functional object property axioms
+	 */
+	public BitsetCompletion(Module module, Collection<Integer> classes) {
+		this(new ArrayList<>(module.getAxioms()), classes);
+	}
+
+	/**
+	 * Constructs a part of a bitset completion, which shares the index of the
+	 * given completion and saturates only the given nodes.
+	 */
+	private BitsetCompletion(BitsetCompletion completion, int[] initialNodes) {
+		this.index = completion.index;
+		this.numberOfAxioms = completion.numberOfAxioms;
+		this.initialNodes = initialNodes;
+		this.numberOfWords = completion.numberOfWords;
+		this.bottomRules = completion.bottomRules;
+	}
+
+	/**
+	 * Tells whether the given axioms can be used by a bitset completion, i.e.
+	 * whether none of them is a functional object property axiom.
+	 *
+	 * @param axioms
+	 *            normalized axioms
+	 * @return <code>true</code> if and only if the given axioms can be used by
+	 *         a bitset completion
+	 */
+	public static boolean isSupported(Collection<NormalizedIntegerAxiom> axioms) {
+		return AxiomIndex.isSupported(axioms);
+	}
+
+	static boolean contains(long[] set, int position) {
+		return (set[position >>> BITS_PER_WORD_EXPONENT] & (1L << (position & BIT_MASK))) != 0;
+	}
+
+	boolean isActive(int axiom) {
+		return axiom == -1 || this.activeAxioms.get(axiom);
+	}
+
+	/**
+	 * Computes the completion using all the axioms. Previous completions are
+	 * discarded.
+	 */
+	public void complete() {
+		BitSet all = new BitSet();
+		all.set(0, this.numberOfAxioms);
+		complete(all);
+	}
+
+	/**
+	 * Computes the completion using only the given axioms. Previous
+	 * completions are discarded.
+	 *
+	 * @param activeAxioms
+	 *            positions of the axioms that are used
+	 */
+	public void complete(BitSet activeAxioms) {
+		Objects.requireNonNull(activeAxioms);
+		this.activeAxioms = activeAxioms;
+		this.parts.clear();
+		computeObjectPropertyClosure();
+		saturate();
+	}
+
+	/**
+	 * Computes the completion using all the axioms in the given pool.
+	 * Previous completions are discarded.
+	 *
+	 * @param pool
+	 *            pool where the classes are saturated, partitioned in as
+	 *            many sets as the parallelism of the pool
+	 */
+	public void complete(ForkJoinPool pool) {
+		BitSet all = new BitSet();
+		all.set(0, this.numberOfAxioms);
+		complete(all, pool);
+	}
+
+	/**
+	 * Computes the completion using only the given axioms in the given pool.
+	 * Previous completions are discarded.
+	 *
+	 * @param activeAxioms
+	 *            positions of the axioms that are used
+	 * @param pool
+	 *            pool where the classes are saturated, partitioned in as
+	 *            many sets as the parallelism of the pool
+	 */
+	public void complete(BitSet activeAxioms, ForkJoinPool pool) {
+		Objects.requireNonNull(activeAxioms);
+		Objects.requireNonNull(pool);
+		this.activeAxioms = activeAxioms;
+		clear();
+		computeObjectPropertyClosure();
+		int numberOfParts = Math.max(1, Math.min(pool.getParallelism(), this.initialNodes.length));
+		if (this.parts.size() != numberOfParts) {
+			this.parts.clear();
+			for (int part = 0; part < numberOfParts; part++) {
+				int start = (int) (((long) this.initialNodes.length) * part / numberOfParts);
+				int end = (int) (((long) this.initialNodes.length) * (part + 1) / numberOfParts);
+				this.parts.add(new BitsetCompletion(this, Arrays.copyOfRange(this.initialNodes, start, end)));
+			}
+		}
+		this.parts.forEach(part -> {
+			part.activeAxioms = this.activeAxioms;
+			part.superObjectProperties = this.superObjectProperties;
+			part.ranges = this.ranges;
+			part.reflexiveObjectProperties.clear();
+			part.reflexiveObjectProperties.addAll(this.reflexiveObjectProperties);
+		});
+		pool.invoke(new SaturationTask(0, numberOfParts));
+
+		if (this.owners.length < this.index.getNumberOfClasses()) {
+			this.owners = new int[this.index.getNumberOfClasses()];
+		}
+		Arrays.fill(this.owners, -1);
+		for (int part = numberOfParts - 1; part >= 0; part--) {
+			int current = part;
+			BitSet partNodes = this.parts.get(part).nodes;
+			partNodes.stream().filter(node -> node < this.owners.length)
+					.forEach(node -> this.owners[node] = current);
+		}
+	}
+
+	/**
+	 * Saturates the initial nodes one at a time. Previous completions are
+	 * discarded.
+	 */
+	void saturate() {
+		clear();
+		for (int node : this.initialNodes) {
+			addNode(node);
+			run();
+			this.unsaturated.forEach(this.saturated::set);
+			this.unsaturated.clear();
+		}
+	}
+
+	/**
+	 * Clears the nodes of the previous completion, keeping their arrays.
+	 */
+	void clear() {
+		this.createdNodes.forEach(node -> {
+			Arrays.fill(this.subsumers[node], 0);
+			Arrays.fill(this.pending[node], 0);
+			this.successors.get(node).clear();
+			this.predecessors.get(node).clear();
+		});
+		this.createdNodes.clear();
+		this.nodes.clear();
+		this.auxiliaryNodes.clear();
+		this.auxiliaryNodeFillers.clear();
+		this.auxiliaryNodeObjectProperties.clear();
+		this.saturated.clear();
+		this.unsaturated.clear();
+		this.active.clear();
+		this.activeNodes.clear();
+		this.existentials.clear();
+	}
+
+	/**
+	 * Computes the reflexive and transitive closure of the active role
+	 * inclusions, the ranges of each object property including the ones of
+	 * its super object properties, and the active reflexive object
+	 * properties.
+	 */
+	void computeObjectPropertyClosure() {
+		int numberOfObjectProperties = this.index.getNumberOfObjectProperties();
+		CompressedIndex ri2BySubProperty = this.index.getRi2BySubProperty();
+		CompressedIndex rangeByObjectProperty = this.index.getRangeByObjectProperty();
+		List<int[]> superObjectPropertyEntries = new ArrayList<>();
+		List<int[]> rangeEntries = new ArrayList<>();
+		for (int objectProperty = 0; objectProperty < numberOfObjectProperties; objectProperty++) {
+			BitSet visited = new BitSet();
+			Deque<Integer> toVisit = new ArrayDeque<>();
+			visited.set(objectProperty);
+			toVisit.add(objectProperty);
+			while (!toVisit.isEmpty()) {
+				int current = toVisit.poll();
+				superObjectPropertyEntries.add(new int[] { objectProperty, current });
+				for (int entry = rangeByObjectProperty.getStart(current); entry < rangeByObjectProperty
+						.getEnd(current); entry++) {
+					if (isActive(rangeByObjectProperty.get(entry, 1))) {
+						rangeEntries.add(new int[] { objectProperty, rangeByObjectProperty.get(entry, 0) });
+					}
+				}
+				for (int entry = ri2BySubProperty.getStart(current); entry < ri2BySubProperty
+						.getEnd(current); entry++) {
+					int superObjectProperty = ri2BySubProperty.get(entry, 0);
+					if (isActive(ri2BySubProperty.get(entry, 1)) && !visited.get(superObjectProperty)) {
+						visited.set(superObjectProperty);
+						toVisit.add(superObjectProperty);
+					}
+				}
+			}
+		}
+		this.superObjectProperties = new CompressedIndex(numberOfObjectProperties, 1, superObjectPropertyEntries);
+		this.ranges = new CompressedIndex(numberOfObjectProperties, 1, rangeEntries);
+
+		this.reflexiveObjectProperties.clear();
+		CompressedIndex reflexive = this.index.getReflexiveObjectProperties();
+		for (int entry = reflexive.getStart(0); entry < reflexive.getEnd(0); entry++) {
+			if (isActive(reflexive.get(entry, 1))) {
+				this.reflexiveObjectProperties.add(reflexive.get(entry, 0));
+			}
+		}
+	}
+
+	void run() {
+		while (!this.activeNodes.isEmpty() || !this.existentials.isEmpty()) {
+			if (this.existentials.isEmpty()) {
+				int node = this.activeNodes.poll();
+				this.active.clear(node);
+				processPending(node);
+			} else {
+				int[] existential = this.existentials.poll();
+				processExistential(existential[0], existential[1], existential[2]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the class of the given node, which is the node itself, or the
+	 * filler of an auxiliary node.
+	 */
+	int getClassOfNode(int node) {
+		int numberOfClasses = this.index.getNumberOfClasses();
+		return node < numberOfClasses ? node : this.auxiliaryNodeFillers.get(node - numberOfClasses);
+	}
+
+	/**
+	 * Returns the auxiliary node for the filler of an existential restriction
+	 * on an object property with ranges.
+	 */
+	int getAuxiliaryNode(int filler, int objectProperty) {
+		long key = (((long) objectProperty) << Integer.SIZE) | filler;
+		Integer ret = this.auxiliaryNodes.get(key);
+		if (Objects.isNull(ret)) {
+			ret = this.index.getNumberOfClasses() + this.auxiliaryNodeFillers.size();
+			this.auxiliaryNodes.put(key, ret);
+			this.auxiliaryNodeFillers.add(filler);
+			this.auxiliaryNodeObjectProperties.add(objectProperty);
+		}
+		return ret;
+	}
+
+	void addNode(int node) {
+		if (!this.nodes.get(node)) {
+			if (node >= this.subsumers.length) {
+				int length = Math.max(node + 1, 2 * this.subsumers.length);
+				this.subsumers = Arrays.copyOf(this.subsumers, length);
+				this.pending = Arrays.copyOf(this.pending, length);
+			}
+			if (Objects.isNull(this.subsumers[node])) {
+				this.subsumers[node] = new long[this.numberOfWords];
+				this.pending[node] = new long[this.numberOfWords];
+			}
+			while (this.successors.size() <= node) {
+				this.successors.add(new HashMap<>());
+				this.predecessors.add(new HashMap<>());
+			}
+			this.nodes.set(node);
+			this.createdNodes.add(node);
+			this.unsaturated.add(node);
+
+			// BR1 and BR2
+			addSubsumer(node, getClassOfNode(node));
+			addSubsumer(node, this.index.getTop());
+
+			// ranges of an auxiliary node
+			int numberOfClasses = this.index.getNumberOfClasses();
+			if (node >= numberOfClasses) {
+				int objectProperty = this.auxiliaryNodeObjectProperties.get(node - numberOfClasses);
+				for (int entry = this.ranges.getStart(objectProperty); entry < this.ranges
+						.getEnd(objectProperty); entry++) {
+					addSubsumer(node, this.ranges.get(entry, 0));
+				}
+			}
+
+			// reflexive object properties
+			this.reflexiveObjectProperties.forEach(objectProperty -> addEdge(node, objectProperty, node));
+		}
+	}
+
+	void activate(int node) {
+		if (!this.active.get(node)) {
+			this.active.set(node);
+			this.activeNodes.add(node);
+		}
+	}
+
+	void addSubsumer(int node, int superClass) {
+		int word = superClass >>> BITS_PER_WORD_EXPONENT;
+		long bit = 1L << (superClass & BIT_MASK);
+		if ((this.subsumers[node][word] & bit) == 0) {
+			this.subsumers[node][word] |= bit;
+			this.pending[node][word] |= bit;
+			activate(node);
+		}
+	}
+
+	/**
+	 * Adds all the subsumers of a saturated class, word by word.
+	 */
+	void addSubsumers(int node, long[] otherSubsumers) {
+		long[] set = this.subsumers[node];
+		long[] todo = this.pending[node];
+		boolean changed = false;
+		for (int word = 0; word < set.length; word++) {
+			long added = otherSubsumers[word] & ~set[word];
+			if (added != 0) {
+				set[word] |= added;
+				todo[word] |= added;
+				changed = true;
+			}
+		}
+		if (changed) {
+			activate(node);
+		}
+	}
+
+	/**
+	 * Adds an existential restriction of an axiom, where the filler is
+	 * replaced by an auxiliary node if the object property has ranges.
+	 */
+	void addExistential(int subClass, int objectProperty, int filler) {
+		int node = filler;
+		if (this.ranges.getStart(objectProperty) < this.ranges.getEnd(objectProperty)) {
+			node = getAuxiliaryNode(filler, objectProperty);
+		}
+		addNode(node);
+		addEdge(subClass, objectProperty, node);
+	}
+
+	/**
+	 * Adds an edge between two nodes for the given object property and all
+	 * its super object properties.
+	 */
+	void addEdge(int subClass, int objectProperty, int node) {
+		CompressedIndex closure = this.superObjectProperties;
+		for (int entry = closure.getStart(objectProperty); entry < closure.getEnd(objectProperty); entry++) {
+			int superObjectProperty = closure.get(entry, 0);
+			BitSet fillers = this.successors.get(subClass).computeIfAbsent(superObjectProperty, k -> new BitSet());
+			if (!fillers.get(node)) {
+				fillers.set(node);
+				this.predecessors.get(node).computeIfAbsent(superObjectProperty, k -> new BitSet()).set(subClass);
+				this.existentials.add(new int[] { subClass, superObjectProperty, node });
+			}
+		}
+	}
+
+	void processPending(int node) {
+		long[] todo = this.pending[node];
+		for (int word = 0; word < todo.length; word++) {
+			while (todo[word] != 0) {
+				long bit = Long.lowestOneBit(todo[word]);
+				todo[word] &= ~bit;
+				processSubsumer(node, (word << BITS_PER_WORD_EXPONENT) + Long.numberOfTrailingZeros(bit));
+			}
+		}
+	}
+
+	void processSubsumer(int subClass, int superClass) {
+		AxiomIndex index = this.index;
+		long[] set = this.subsumers[subClass];
+
+		// CR1, at once if the superclass is saturated
+		if (superClass != subClass && this.saturated.get(superClass)) {
+			addSubsumers(subClass, this.subsumers[superClass]);
+		} else {
+			CompressedIndex gci0 = index.getGci0ByLeft();
+			for (int entry = gci0.getStart(superClass); entry < gci0.getEnd(superClass); entry++) {
+				if (isActive(gci0.get(entry, 1))) {
+					addSubsumer(subClass, gci0.get(entry, 0));
+				}
+			}
+		}
+
+		// CR2
+		CompressedIndex gci1 = index.getGci1ByLeft();
+		for (int entry = gci1.getStart(superClass); entry < gci1.getEnd(superClass); entry++) {
+			if (isActive(gci1.get(entry, 2)) && contains(set, gci1.get(entry, 0))) {
+				addSubsumer(subClass, gci1.get(entry, 1));
+			}
+		}
+
+		// CR3
+		CompressedIndex gci2 = index.getGci2ByLeft();
+		for (int entry = gci2.getStart(superClass); entry < gci2.getEnd(superClass); entry++) {
+			if (isActive(gci2.get(entry, 2))) {
+				addExistential(subClass, gci2.get(entry, 0), gci2.get(entry, 1));
+			}
+		}
+
+		// CR4, where the new subsumption is the one of the filler
+		Map<Integer, BitSet> map = this.predecessors.get(subClass);
+		CompressedIndex gci3 = index.getGci3ByFiller();
+		for (int entry = gci3.getStart(superClass); entry < gci3.getEnd(superClass); entry++) {
+			BitSet predecessorSet = map.get(gci3.get(entry, 0));
+			if (Objects.nonNull(predecessorSet) && isActive(gci3.get(entry, 2))) {
+				int newSuperClass = gci3.get(entry, 1);
+				predecessorSet.stream().forEach(predecessor -> addSubsumer(predecessor, newSuperClass));
+			}
+		}
+
+		// CR5, where the new subsumption is the one of the filler
+		if (this.bottomRules && superClass == index.getBottom()) {
+			map.values().forEach(predecessorSet -> predecessorSet.stream()
+					.forEach(predecessor -> addSubsumer(predecessor, index.getBottom())));
+		}
+	}
+
+	void processExistential(int subClass, int objectProperty, int filler) {
+		AxiomIndex index = this.index;
+		long[] set = this.subsumers[filler];
+
+		// CR4, where the new subsumption is the existential restriction
+		CompressedIndex gci3 = index.getGci3ByObjectProperty();
+		for (int entry = gci3.getStart(objectProperty); entry < gci3.getEnd(objectProperty); entry++) {
+			if (isActive(gci3.get(entry, 2)) && contains(set, gci3.get(entry, 0))) {
+				addSubsumer(subClass, gci3.get(entry, 1));
+			}
+		}
+
+		// CR5, where the new subsumption is the existential restriction
+		if (this.bottomRules && contains(set, index.getBottom())) {
+			addSubsumer(subClass, index.getBottom());
+		}
+
+		// role composition, where the existential restriction is on the left
+		CompressedIndex ri3ByLeft = index.getRi3ByLeft();
+		for (int entry = ri3ByLeft.getStart(objectProperty); entry < ri3ByLeft.getEnd(objectProperty); entry++) {
+			BitSet nextFillers = this.successors.get(filler).get(ri3ByLeft.get(entry, 0));
+			if (Objects.nonNull(nextFillers) && isActive(ri3ByLeft.get(entry, 2))) {
+				int superObjectProperty = ri3ByLeft.get(entry, 1);
+				((BitSet) nextFillers.clone()).stream()
+						.forEach(nextFiller -> addEdge(subClass, superObjectProperty, nextFiller));
+			}
+		}
+
+		// role composition, where the existential restriction is on the right
+		CompressedIndex ri3ByRight = index.getRi3ByRight();
+		for (int entry = ri3ByRight.getStart(objectProperty); entry < ri3ByRight.getEnd(objectProperty); entry++) {
+			BitSet previousSubClasses = this.predecessors.get(subClass).get(ri3ByRight.get(entry, 0));
+			if (Objects.nonNull(previousSubClasses) && isActive(ri3ByRight.get(entry, 2))) {
+				int superObjectProperty = ri3ByRight.get(entry, 1);
+				((BitSet) previousSubClasses.clone()).stream()
+						.forEach(previousSubClass -> addEdge(previousSubClass, superObjectProperty, filler));
+			}
+		}
+	}
+
+	/**
+	 * Returns the completion that has the node at the given position, which
+	 * is this completion or one of its parts, or <code>null</code> if it is
+	 * not a node of the last completion.
+	 */
+	BitsetCompletion getCompletion(int position) {
+		if (Objects.isNull(this.activeAxioms)) {
+			throw new IllegalStateException("The completion has not been computed.");
+		}
+		if (position == -1) {
+			return null;
+		} else if (this.parts.isEmpty()) {
+			return this.nodes.get(position) ? this : null;
+		} else {
+			return this.owners[position] == -1 ? null : this.parts.get(this.owners[position]);
+		}
+	}
+
+	/**
+	 * Returns the subsumers of the node of the given class or individual, or
+	 * <code>null</code> if it is not a node of the last completion.
+	 */
+	long[] getSubsumerSet(int entity) {
+		int position = this.index.getClassPosition(entity);
+		BitsetCompletion completion = getCompletion(position);
+		return Objects.isNull(completion) ? null : completion.subsumers[position];
+	}
+
+	/**
+	 * Tells whether the subsumption between the given classes was derived,
+	 * either directly or because the subclass is unsatisfiable.
+	 *
+	 * @param subClass
+	 *            subclass
+	 * @param superClass
+	 *            superclass
+	 * @return <code>true</code> if and only if the subsumption between the
+	 *         given classes was derived
+	 * @throws IllegalStateException
+	 *             if the completion has not been computed
+	 */
+	public boolean isSubsumed(int subClass, int superClass) {
+		long[] set = getSubsumerSet(subClass);
+		int superClassPosition = this.index.getClassPosition(superClass);
+		return Objects.nonNull(set) && (contains(set, this.index.getBottom())
+				|| (superClassPosition != -1 && contains(set, superClassPosition)));
+	}
+
+	/**
+	 * Tells whether the given class was derived as a subsumer of the given
+	 * class or individual. Unlike {@link #isSubsumed(int, int)}, an
+	 * unsatisfiable class is not subsumed by every class.
+	 *
+	 * @param entity
+	 *            class or individual
+	 * @param superClass
+	 *            superclass
+	 * @return <code>true</code> if and only if the given class was derived as
+	 *         a subsumer of the given class or individual
+	 * @throws IllegalStateException
+	 *             if the completion has not been computed
+	 */
+	public boolean hasSubsumer(int entity, int superClass) {
+		long[] set = getSubsumerSet(entity);
+		int superClassPosition = this.index.getClassPosition(superClass);
+		return Objects.nonNull(set) && superClassPosition != -1 && contains(set, superClassPosition);
+	}
+
+	/**
+	 * Returns the entities that subsume the given entity in the last
+	 * completion, including the entity itself, or an empty set if the entity
+	 * is not a node of the last completion.
+	 *
+	 * @param entity
+	 *            class or individual
+	 * @return the entities that subsume the given entity in the last
+	 *         completion
+	 * @throws IllegalStateException
+	 *             if the completion has not been computed
+	 */
+	public Set<Integer> getSubsumers(int entity) {
+		Set<Integer> ret = new HashSet<>();
+		long[] set = getSubsumerSet(entity);
+		if (Objects.nonNull(set)) {
+			for (int word = 0; word < set.length; word++) {
+				long remaining = set[word];
+				while (remaining != 0) {
+					int position = (word << BITS_PER_WORD_EXPONENT) + Long.numberOfTrailingZeros(remaining);
+					ret.add(this.index.getClass(position));
+					remaining &= remaining - 1;
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Tells whether the role assertion between the given individuals was
+	 * derived, i.e. whether there is a filler <i>A</i> such that <i>x</i>
+	 * &#8849; &#8707;<i>r</i>.<i>A</i> and <i>A</i> &#8849; <i>y</i>.
+	 *
+	 * @param objectProperty
+	 *            object property
+	 * @param subject
+	 *            subject individual
+	 * @param object
+	 *            object individual
+	 * @return <code>true</code> if and only if the role assertion between the
+	 *         given individuals was derived
+	 * @throws IllegalStateException
+	 *             if the completion has not been computed
+	 */
+	public boolean hasRoleAssertion(int objectProperty, int subject, int object) {
+		int subjectPosition = this.index.getClassPosition(subject);
+		BitsetCompletion completion = getCompletion(subjectPosition);
+		int objectPropertyPosition = this.index.getObjectPropertyPosition(objectProperty);
+		int objectPosition = this.index.getClassPosition(object);
+		if (Objects.isNull(completion) || objectPropertyPosition == -1 || objectPosition == -1) {
+			return false;
+		} else {
+			BitSet fillers = completion.successors.get(subjectPosition).get(objectPropertyPosition);
+			return Objects.nonNull(fillers)
+					&& fillers.stream().anyMatch(filler -> contains(completion.subsumers[filler], objectPosition));
+		}
+	}
+
+	/**
+	 * Returns the classes and individuals that are indexed, i.e. the classes
+	 * and individuals of the axioms, the ones given to classify, the top
+	 * class, and the bottom class.
+	 *
+	 * @return the classes and individuals that are indexed
+	 */
+	public Set<Integer> getClasses() {
+		return Collections.unmodifiableSet(new HashSet<>(this.index.getClasses()));
+	}
+
+}
@@ -0,0 +1,285 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+
+/**
+ * An object of this class is a provenance formula compiled together with the
+ * structure of a Bayesian network into a decision circuit. The circuit is
+ * the trace of the recursive conditioning done by {@link ExactInference},
+ * where each node decides a variable, and nodes are shared if they have the
+ * same remaining formula and the same values of the variables that are
+ * parents of the variables still to be decided. The circuit does not depend
+ * on the probabilities of the Bayesian network.
+ * <p>
+ * Once compiled, the weighted model count of the circuit is computed in time
+ * linear in its size, for any Bayesian network with the same structure and
+ * for any evidence on the observable variables. The observable variables are
+ * fixed when the circuit is compiled, and they are decided even after the
+ * formula is true.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class DecisionCircuit {
+
+	static final int FALSE_NODE = -1;
+	static final int TRUE_NODE = -2;
+
+	private final int root;
+	private final int[] variables;
+	private final BitSet[] parentValues;
+	private final int[] highChildren;
+	private final int[] lowChildren;
+	private final int[][] parents;
+	private final BitSet observableVariables;
+
+	/**
+	 * This is an auxiliary class that keeps the state of one compilation.
+	 */
+	static class Compiler {
+
+		private final BayesianNetwork bayesianNetwork;
+		private final int[] order;
+		private final int[][] frontier;
+		private final int lastObservablePosition;
+		private final BitSet values = new BitSet();
+		private final Map<String, Integer> nodes = new HashMap<>();
+		private final List<Integer> variables = new ArrayList<>();
+		private final List<BitSet> parentValues = new ArrayList<>();
+		private final List<Integer> highChildren = new ArrayList<>();
+		private final List<Integer> lowChildren = new ArrayList<>();
+
+		Compiler(BayesianNetwork bayesianNetwork, int[] order, BitSet observableVariables) {
+			this.bayesianNetwork = bayesianNetwork;
+			this.order = order;
+			this.frontier = new int[order.length + 1][];
+			BitSet assigned = new BitSet();
+			Arrays.stream(order).forEach(assigned::set);
+			BitSet needed = new BitSet();
+			for (int position = order.length; position >= 0; position--) {
+				if (position < order.length) {
+					assigned.clear(order[position]);
+					Arrays.stream(bayesianNetwork.getParents(order[position])).forEach(needed::set);
+				}
+				BitSet current = (BitSet) needed.clone();
+				current.and(assigned);
+				this.frontier[position] = current.stream().toArray();
+			}
+			int last = -1;
+			for (int position = 0; position < order.length; position++) {
+				if (observableVariables.get(order[position])) {
+					last = position;
+				}
+			}
+			this.lastObservablePosition = last;
+		}
+
+		String getKey(List<int[]> conjunctions, int position) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(position);
+			for (int variable : this.frontier[position]) {
+				sb.append(this.values.get(variable) ? '1' : '0');
+			}
+			conjunctions.forEach(conjunction -> {
+				sb.append('|');
+				Arrays.stream(conjunction).forEach(literal -> {
+					sb.append(literal);
+					sb.append(',');
+				});
+			});
+			return sb.toString();
+		}
+
+		int compile(List<int[]> conjunctions, int position) {
+			if (conjunctions.isEmpty()) {
+				return FALSE_NODE;
+			}
+			List<int[]> current = conjunctions;
+			if (ExactInference.hasEmptyConjunction(conjunctions)) {
+				if (position > this.lastObservablePosition) {
+					return TRUE_NODE;
+				}
+				current = Collections.singletonList(new int[0]);
+			}
+			String key = getKey(current, position);
+			Integer cached = this.nodes.get(key);
+			if (Objects.nonNull(cached)) {
+				return cached;
+			}
+			int variable = this.order[position];
+			BitSet currentParentValues = new BitSet();
+			Arrays.stream(this.bayesianNetwork.getParents(variable)).filter(this.values::get)
+					.forEach(currentParentValues::set);
+			this.values.set(variable);
+			int highChild = compile(ExactInference.condition(current, variable, true), position + 1);
+			this.values.clear(variable);
+			int lowChild = compile(ExactInference.condition(current, variable, false), position + 1);
+
+			int ret = this.variables.size();
+			this.variables.add(variable);
+			this.parentValues.add(currentParentValues);
+			this.highChildren.add(highChild);
+			this.lowChildren.add(lowChild);
+			this.nodes.put(key, ret);
+			return ret;
+		}
+
+	}
+
+	DecisionCircuit(int root, Compiler compiler, BitSet observableVariables) {
+		this.root = root;
+		this.variables = compiler.variables.stream().mapToInt(Integer::intValue).toArray();
+		this.parentValues = compiler.parentValues.toArray(new BitSet[compiler.parentValues.size()]);
+		this.highChildren = compiler.highChildren.stream().mapToInt(Integer::intValue).toArray();
+		this.lowChildren = compiler.lowChildren.stream().mapToInt(Integer::intValue).toArray();
+		this.parents = new int[compiler.bayesianNetwork.getNumberOfVariables()][];
+		Arrays.stream(compiler.order).forEach(
+				variable -> this.parents[variable] = compiler.bayesianNetwork.getParents(variable));
+		this.observableVariables = observableVariables;
+	}
+
+	/**
+	 * Returns the decision circuit of the given formula in the given Bayesian
+	 * network.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network, of which only the structure is used
+	 * @param formula
+	 *            provenance formula
+	 * @param observableVariables
+	 *            variables of the Bayesian network that can have evidence
+	 * @return the decision circuit of the given formula in the given Bayesian
+	 *         network
+	 */
+	public static DecisionCircuit compile(BayesianNetwork bayesianNetwork, Provenance formula,
+			BitSet observableVariables) {
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(formula);
+		Objects.requireNonNull(observableVariables);
+		int numberOfVariables = bayesianNetwork.getNumberOfVariables();
+		BitSet observable = observableVariables.get(0, numberOfVariables);
+		List<int[]> conjunctions = formula.getConjunctions();
+
+		// variables that are not defined in the Bayesian network are false
+		BitSet variables = formula.getVariables();
+		for (int variable = variables.nextSetBit(numberOfVariables); variable >= 0; variable = variables
+				.nextSetBit(variable + 1)) {
+			conjunctions = ExactInference.condition(conjunctions, variable, false);
+		}
+
+		BitSet relevant = variables.get(0, numberOfVariables);
+		relevant.or(observable);
+		BitSet ancestors = bayesianNetwork.getAncestors(relevant);
+		int[] order = Arrays.stream(bayesianNetwork.getTopologicalOrder()).filter(ancestors::get).toArray();
+		Compiler compiler = new Compiler(bayesianNetwork, order, observable);
+		int root = compiler.compile(conjunctions, 0);
+		return new DecisionCircuit(root, compiler, observable);
+	}
+
+	/**
+	 * Returns the number of decision nodes.
+	 *
+	 * @return the number of decision nodes
+	 */
+	public int getNumberOfNodes() {
+		return this.variables.length;
+	}
+
+	/**
+	 * Returns the variables that can have evidence.
+	 *
+	 * @return the variables that can have evidence
+	 */
+	public BitSet getObservableVariables() {
+		return (BitSet) this.observableVariables.clone();
+	}
+
+	/**
+	 * Tells whether the given Bayesian network has the structure used to
+	 * compile this circuit, i.e. the same parents for each decided variable.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @return <code>true</code> if and only if the given Bayesian network has
+	 *         the structure used to compile this circuit
+	 */
+	public boolean isCompatible(BayesianNetwork bayesianNetwork) {
+		Objects.requireNonNull(bayesianNetwork);
+		if (bayesianNetwork.getNumberOfVariables() != this.parents.length) {
+			return false;
+		}
+		for (int variable = 0; variable < this.parents.length; variable++) {
+			if (Objects.nonNull(this.parents[variable])
+					&& !Arrays.equals(this.parents[variable], bayesianNetwork.getParents(variable))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the probability that the formula and the evidence are both
+	 * true, using the probabilities of the given Bayesian network.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network with the structure used to compile this
+	 *            circuit
+	 * @param evidence
+	 *            value of each observed variable
+	 * @return the probability that the formula and the evidence are both true
+	 * @throws IllegalArgumentException
+	 *             if the Bayesian network does not have the structure used to
+	 *             compile this circuit, or if there is evidence on a variable
+	 *             that is not observable
+	 */
+	public double getWeightedModelCount(BayesianNetwork bayesianNetwork, Map<Integer, Boolean> evidence) {
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(evidence);
+		if (!isCompatible(bayesianNetwork)) {
+			throw new IllegalArgumentException("The Bayesian network does not have the structure of the circuit.");
+		}
+		evidence.keySet().forEach(variable -> {
+			if (!this.observableVariables.get(variable)) {
+				throw new IllegalArgumentException("Variable " + variable + " is not observable in the circuit.");
+			}
+		});
+		double[] value = new double[this.variables.length];
+		for (int node = 0; node < this.variables.length; node++) {
+			int variable = this.variables[node];
+			double probability = bayesianNetwork.getProbability(variable, this.parentValues[node]);
+			Boolean observed = evidence.get(variable);
+			double high = (Objects.isNull(observed) || observed) ? probability * getValue(value, this.highChildren[node])
+					: 0;
+			double low = (Objects.isNull(observed) || !observed)
+					? (1 - probability) * getValue(value, this.lowChildren[node]) : 0;
+			value[node] = high + low;
+		}
+		return getValue(value, this.root);
+	}
+
+	double getValue(double[] value, int node) {
+		if (node == FALSE_NODE) {
+			return 0;
+		} else if (node == TRUE_NODE) {
+			return 1;
+		} else {
+			return value[node];
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "nodes=" + getNumberOfNodes() + " observable_variables=" + this.observableVariables;
+	}
+
+}
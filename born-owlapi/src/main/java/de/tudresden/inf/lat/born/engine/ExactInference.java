@@ -0,0 +1,260 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.born.problog.connector.VariableElimination;
+
+/**
+ * An object of this class computes the exact probability of a provenance
+ * formula in a Bayesian network. It uses recursive conditioning: the
+ * ancestors of the variables of the formula are assigned in topological
+ * order, the formula is simplified after each assignment, and the recursion
+ * stops as soon as the formula is true or false. Intermediate results are
+ * cached using the remaining formula and the values of the assigned variables
+ * that are parents of variables still to be assigned.
+ * <p>
+ * The cache of recursive conditioning grows exponentially with the number of
+ * assigned variables that are parents of variables still to be assigned,
+ * i.e. the width of the conditioning order. If this width is larger than a
+ * maximum, the probability is computed by {@link VariableElimination}
+ * instead, whose elimination order is chosen for the formula, unless the
+ * elimination also needs a factor that is too large.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ExactInference {
+
+	public static final int DEFAULT_MAXIMUM_CONDITIONING_WIDTH = 0x10;
+
+	private final BayesianNetwork bayesianNetwork;
+	private final int maximumConditioningWidth;
+	private VariableElimination variableElimination;
+	private boolean variableEliminationFailed = false;
+
+	/**
+	 * Constructs a new exact inference.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 */
+	public ExactInference(BayesianNetwork bayesianNetwork) {
+		this(bayesianNetwork, DEFAULT_MAXIMUM_CONDITIONING_WIDTH);
+	}
+
+	/**
+	 * Constructs a new exact inference.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param maximumConditioningWidth
+	 *            maximum width of the conditioning order, above which
+	 *            variable elimination is used, or {@link Integer#MAX_VALUE}
+	 *            to use only recursive conditioning
+	 * @throws IllegalArgumentException
+	 *             if the maximum width is negative
+	 */
+	public ExactInference(BayesianNetwork bayesianNetwork, int maximumConditioningWidth) {
+		this.bayesianNetwork = Objects.requireNonNull(bayesianNetwork);
+		if (maximumConditioningWidth < 0) {
+			throw new IllegalArgumentException("Invalid maximum conditioning width: " + maximumConditioningWidth + ".");
+		}
+		this.maximumConditioningWidth = maximumConditioningWidth;
+	}
+
+	/**
+	 * Returns the Bayesian network.
+	 *
+	 * @return the Bayesian network
+	 */
+	public BayesianNetwork getBayesianNetwork() {
+		return this.bayesianNetwork;
+	}
+
+	/**
+	 * Returns the maximum width of the conditioning order, above which
+	 * variable elimination is used.
+	 *
+	 * @return the maximum width of the conditioning order, above which
+	 *         variable elimination is used
+	 */
+	public int getMaximumConditioningWidth() {
+		return this.maximumConditioningWidth;
+	}
+
+	/**
+	 * Returns the variable elimination of the Bayesian network, which is
+	 * compiled the first time it is needed, or an empty optional if the
+	 * network cannot be compiled because a variable has too many parents.
+	 */
+	synchronized Optional<VariableElimination> getVariableElimination() {
+		if (Objects.isNull(this.variableElimination) && !this.variableEliminationFailed) {
+			try {
+				this.variableElimination = new VariableElimination(this.bayesianNetwork);
+			} catch (IllegalStateException e) {
+				this.variableEliminationFailed = true;
+			}
+		}
+		return Optional.ofNullable(this.variableElimination);
+	}
+
+	/**
+	 * Returns the given conjunctions after assigning the given value to the
+	 * given variable. Satisfied literals are removed, and conjunctions with
+	 * falsified literals are removed.
+	 */
+	static List<int[]> condition(List<int[]> conjunctions, int variable, boolean value) {
+		int satisfied = BayesianNetwork.getLiteral(variable, !value);
+		int falsified = BayesianNetwork.getLiteral(variable, value);
+		List<int[]> ret = new ArrayList<>();
+		for (int[] conjunction : conjunctions) {
+			if (Arrays.binarySearch(conjunction, falsified) < 0) {
+				int position = Arrays.binarySearch(conjunction, satisfied);
+				if (position < 0) {
+					ret.add(conjunction);
+				} else {
+					int[] newConjunction = new int[conjunction.length - 1];
+					System.arraycopy(conjunction, 0, newConjunction, 0, position);
+					System.arraycopy(conjunction, position + 1, newConjunction, position,
+							conjunction.length - position - 1);
+					ret.add(newConjunction);
+				}
+			}
+		}
+		return ret;
+	}
+
+	static boolean hasEmptyConjunction(List<int[]> conjunctions) {
+		return conjunctions.stream().anyMatch(conjunction -> conjunction.length == 0);
+	}
+
+	/**
+	 * Returns the probability of the given formula.
+	 *
+	 * @param formula
+	 *            provenance formula
+	 * @return the probability of the given formula
+	 */
+	public double getProbability(Provenance formula) {
+		Objects.requireNonNull(formula);
+		List<int[]> conjunctions = formula.getConjunctions();
+
+		// variables that are not defined in the Bayesian network are false
+		BitSet variables = formula.getVariables();
+		int numberOfVariables = this.bayesianNetwork.getNumberOfVariables();
+		for (int variable = variables.nextSetBit(numberOfVariables); variable >= 0; variable = variables
+				.nextSetBit(variable + 1)) {
+			conjunctions = condition(conjunctions, variable, false);
+		}
+
+		if (conjunctions.isEmpty()) {
+			return 0;
+		} else if (hasEmptyConjunction(conjunctions)) {
+			return 1;
+		} else {
+			BitSet ancestors = this.bayesianNetwork.getAncestors(variables);
+			int[] order = Arrays.stream(this.bayesianNetwork.getTopologicalOrder()).filter(ancestors::get)
+					.toArray();
+			Conditioning conditioning = new Conditioning(order);
+			if (conditioning.getWidth() > this.maximumConditioningWidth) {
+				Optional<VariableElimination> optVariableElimination = getVariableElimination();
+				if (optVariableElimination.isPresent()) {
+					try {
+						return optVariableElimination.get().getProbability(conjunctions);
+					} catch (IllegalStateException e) {
+						// the factors are too large, recursive conditioning is used instead
+					}
+				}
+			}
+			return conditioning.compute(conjunctions, 0);
+		}
+	}
+
+	/**
+	 * This is an auxiliary class that keeps the state of one computation.
+	 */
+	class Conditioning {
+
+		private final int[] order;
+		private final int[][] frontier;
+		private final BitSet values = new BitSet();
+		private final Map<String, Double> cache = new HashMap<>();
+
+		Conditioning(int[] order) {
+			this.order = order;
+			this.frontier = new int[order.length + 1][];
+			BitSet assigned = new BitSet();
+			Arrays.stream(order).forEach(assigned::set);
+			BitSet needed = new BitSet();
+			for (int position = order.length; position >= 0; position--) {
+				if (position < order.length) {
+					assigned.clear(order[position]);
+					Arrays.stream(ExactInference.this.bayesianNetwork.getParents(order[position]))
+							.forEach(needed::set);
+				}
+				BitSet current = (BitSet) needed.clone();
+				current.and(assigned);
+				this.frontier[position] = current.stream().toArray();
+			}
+		}
+
+		int getWidth() {
+			return Arrays.stream(this.frontier).mapToInt(variables -> variables.length).max().orElse(0);
+		}
+
+		String getKey(List<int[]> conjunctions, int position) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(position);
+			sb.append(':');
+			for (int variable : this.frontier[position]) {
+				sb.append(this.values.get(variable) ? '1' : '0');
+			}
+			conjunctions.forEach(conjunction -> {
+				sb.append('|');
+				Arrays.stream(conjunction).forEach(literal -> {
+					sb.append(literal);
+					sb.append(',');
+				});
+			});
+			return sb.toString();
+		}
+
+		double compute(List<int[]> conjunctions, int position) {
+			if (conjunctions.isEmpty()) {
+				return 0;
+			} else if (hasEmptyConjunction(conjunctions)) {
+				return 1;
+			} else {
+				String key = getKey(conjunctions, position);
+				Double cached = this.cache.get(key);
+				if (Objects.nonNull(cached)) {
+					return cached;
+				}
+				int variable = this.order[position];
+				double probability = ExactInference.this.bayesianNetwork.getProbability(variable, this.values);
+				double ret = 0;
+				if (probability > 0) {
+					this.values.set(variable);
+					ret += probability * compute(condition(conjunctions, variable, true), position + 1);
+					this.values.clear(variable);
+				}
+				if (probability < 1) {
+					ret += (1 - probability) * compute(condition(conjunctions, variable, false), position + 1);
+				}
+				this.cache.put(key, ret);
+				return ret;
+			}
+		}
+
+	}
+
+}
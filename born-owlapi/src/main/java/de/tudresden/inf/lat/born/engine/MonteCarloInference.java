@@ -0,0 +1,305 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+
+/**
+ * An object of this class estimates the probability of queries by sampling
+ * worlds of a Bayesian network. For each sampled world, it keeps the axioms
+ * whose context holds in that world, applies the EL completion rules
+ * to them, and checks each query on the completion. As in the ProbLog
+ * programs, there are no rules for the bottom class. The sampling is done in
+ * rounds, where each thread samples the same number of worlds with its own
+ * random generator. After each round, a Wilson score interval is computed for
+ * each query, and the sampling stops as soon as every interval is within the
+ * requested error bound. Since the random generators are derived from the
+ * given seed, the result only depends on the seed and the number of threads.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class MonteCarloInference {
+
+	public static final int BATCH_SIZE = 256;
+
+	private final BayesianNetwork bayesianNetwork;
+	private final List<NormalizedIntegerAxiom> axioms;
+	private final Collection<Integer> nodes;
+	private final int[][] contexts;
+	private final int[] order;
+
+	/**
+	 * This is an auxiliary class that samples worlds in one thread.
+	 */
+	class Sampler implements Callable<long[]> {
+
+		private final SplittableRandom random;
+		private final List<Predicate<BitsetCompletion>> queries;
+		private final BitsetCompletion completion;
+		private final BitSet values = new BitSet();
+		private final BitSet activeAxioms = new BitSet();
+
+		Sampler(SplittableRandom random, List<Predicate<BitsetCompletion>> queries) {
+			this.random = random;
+			this.queries = queries;
+			this.completion = new BitsetCompletion(MonteCarloInference.this.axioms, MonteCarloInference.this.nodes,
+					false);
+		}
+
+		void sampleWorld() {
+			this.values.clear();
+			for (int variable : MonteCarloInference.this.order) {
+				if (this.random.nextDouble() < MonteCarloInference.this.bayesianNetwork.getProbability(variable,
+						this.values)) {
+					this.values.set(variable);
+				}
+			}
+			this.activeAxioms.clear();
+			for (int axiom = 0; axiom < MonteCarloInference.this.contexts.length; axiom++) {
+				if (holds(MonteCarloInference.this.contexts[axiom], this.values)) {
+					this.activeAxioms.set(axiom);
+				}
+			}
+		}
+
+		@Override
+		public long[] call() {
+			long[] ret = new long[this.queries.size()];
+			for (int sample = 0; sample < BATCH_SIZE; sample++) {
+				sampleWorld();
+				this.completion.complete(this.activeAxioms);
+				for (int query = 0; query < ret.length; query++) {
+					if (this.queries.get(query).test(this.completion)) {
+						ret[query]++;
+					}
+				}
+			}
+			return ret;
+		}
+
+	}
+
+	/**
+	 * Constructs a new Monte Carlo inference.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param axioms
+	 *            normalized axioms
+	 * @param nodes
+	 *            classes and individuals to classify
+	 * @param labeling
+	 *            function that returns the context of each axiom, which must
+	 *            be a provenance formula with at most one conjunction
+	 * @throws IllegalArgumentException
+	 *             if the context of an axiom has more than one conjunction
+	 */
+	public MonteCarloInference(BayesianNetwork bayesianNetwork, List<NormalizedIntegerAxiom> axioms,
+			Collection<Integer> nodes, Function<NormalizedIntegerAxiom, Provenance> labeling) {
+		Objects.requireNonNull(labeling);
+		this.bayesianNetwork = Objects.requireNonNull(bayesianNetwork);
+		this.axioms = new ArrayList<>(Objects.requireNonNull(axioms));
+		this.nodes = new ArrayList<>(Objects.requireNonNull(nodes));
+		this.contexts = new int[this.axioms.size()][];
+		BitSet variables = new BitSet();
+		for (int axiom = 0; axiom < this.contexts.length; axiom++) {
+			Provenance context = labeling.apply(this.axioms.get(axiom));
+			if (context.getConjunctions().size() > 1) {
+				throw new IllegalArgumentException(
+						"Context with more than one conjunction: '" + context + "' for axiom " + axioms.get(axiom));
+			}
+			if (!context.isFalse()) {
+				this.contexts[axiom] = context.getConjunctions().get(0);
+				variables.or(context.getVariables());
+			}
+		}
+		BitSet ancestors = bayesianNetwork.getAncestors(variables);
+		this.order = Arrays.stream(bayesianNetwork.getTopologicalOrder()).filter(ancestors::get).toArray();
+	}
+
+	/**
+	 * Tells whether the given conjunction holds, where variables that are not
+	 * assigned, including the ones that are not defined in the Bayesian
+	 * network, are false. A <code>null</code> conjunction never holds.
+	 */
+	static boolean holds(int[] conjunction, BitSet values) {
+		if (Objects.isNull(conjunction)) {
+			return false;
+		}
+		for (int literal : conjunction) {
+			if (values.get(BayesianNetwork.getVariableOfLiteral(literal)) == BayesianNetwork.isNegated(literal)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the half-width of the Wilson score interval, i.e. the largest
+	 * distance between the estimate and the bounds of the interval.
+	 *
+	 * @param successes
+	 *            number of samples where the query holds
+	 * @param numberOfSamples
+	 *            number of samples
+	 * @param z
+	 *            quantile of the standard normal distribution
+	 * @return the half-width of the Wilson score interval
+	 */
+	static double getHalfWidth(long successes, long numberOfSamples, double z) {
+		double n = numberOfSamples;
+		double estimate = successes / n;
+		double z2 = z * z;
+		double denominator = 1 + z2 / n;
+		double center = (estimate + z2 / (2 * n)) / denominator;
+		double margin = z * Math.sqrt(estimate * (1 - estimate) / n + z2 / (4 * n * n)) / denominator;
+		return Math.max(estimate - (center - margin), (center + margin) - estimate);
+	}
+
+	/**
+	 * Returns the quantile of the standard normal distribution, using the
+	 * rational approximation by Peter J. Acklam, which has a relative error
+	 * lower than 1.15e-9.
+	 *
+	 * @param p
+	 *            probability, strictly between 0 and 1
+	 * @return the quantile of the standard normal distribution
+	 */
+	static double getNormalQuantile(double p) {
+		double[] a = { -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02,
+				-3.066479806614716e+01, 2.506628277459239e+00 };
+		double[] b = { -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01,
+				-1.328068155288572e+01 };
+		double[] c = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00,
+				4.374664141464968e+00, 2.938163982698783e+00 };
+		double[] d = { 7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00 };
+		double low = 0.02425;
+		if (p < low) {
+			double q = Math.sqrt(-2 * Math.log(p));
+			return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+					/ ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+		} else if (p <= 1 - low) {
+			double q = p - 0.5;
+			double r = q * q;
+			return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+					/ (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+		} else {
+			return -getNormalQuantile(1 - p);
+		}
+	}
+
+	boolean isPrecise(long[] successes, long numberOfSamples, double z, double errorBound) {
+		return Arrays.stream(successes).allMatch(count -> getHalfWidth(count, numberOfSamples, z) <= errorBound);
+	}
+
+	/**
+	 * Returns the estimated probabilities of the given queries.
+	 *
+	 * @param queries
+	 *            queries, each of them evaluated on the completion of a
+	 *            sampled world
+	 * @param errorBound
+	 *            largest half-width accepted for the confidence intervals
+	 * @param confidenceLevel
+	 *            confidence level of the intervals
+	 * @param numberOfThreads
+	 *            number of threads that sample worlds
+	 * @param seed
+	 *            seed of the random generators
+	 * @return the estimated probabilities of the given queries
+	 * @throws IllegalArgumentException
+	 *             if the error bound or the confidence level are not strictly
+	 *             between 0 and 1, or if the number of threads is not positive
+	 */
+	public SamplingResult estimate(List<Predicate<BitsetCompletion>> queries, double errorBound,
+			double confidenceLevel, int numberOfThreads, long seed) {
+		Objects.requireNonNull(queries);
+		if (!(errorBound > 0 && errorBound < 1)) {
+			throw new IllegalArgumentException("Invalid error bound: " + errorBound + ".");
+		}
+		if (!(confidenceLevel > 0 && confidenceLevel < 1)) {
+			throw new IllegalArgumentException("Invalid confidence level: " + confidenceLevel + ".");
+		}
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads + ".");
+		}
+
+		double[] probabilities = new double[queries.size()];
+		double[] halfWidths = new double[queries.size()];
+		if (queries.isEmpty()) {
+			return new SamplingResult(probabilities, halfWidths, 0);
+
+		} else if (this.order.length == 0) {
+			// there is only one world, so one sample gives the exact answer
+			Sampler sampler = new Sampler(new SplittableRandom(seed), queries);
+			sampler.sampleWorld();
+			sampler.completion.complete(sampler.activeAxioms);
+			for (int query = 0; query < probabilities.length; query++) {
+				probabilities[query] = queries.get(query).test(sampler.completion) ? 1 : 0;
+			}
+			return new SamplingResult(probabilities, halfWidths, 1);
+
+		} else {
+			double z = getNormalQuantile(1 - (1 - confidenceLevel) / 2);
+			// Hoeffding's inequality guarantees the error bound with this
+			// number of samples, independently of the estimates
+			double maxNumberOfSamples = Math.log(2 / (1 - confidenceLevel)) / (2 * errorBound * errorBound);
+
+			SplittableRandom root = new SplittableRandom(seed);
+			List<Sampler> samplers = new ArrayList<>();
+			for (int index = 0; index < numberOfThreads; index++) {
+				samplers.add(new Sampler(root.split(), queries));
+			}
+			long[] successes = new long[queries.size()];
+			long numberOfSamples = 0;
+			ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+			try {
+				do {
+					for (Future<long[]> future : executor.invokeAll(samplers)) {
+						long[] counts = future.get();
+						for (int query = 0; query < successes.length; query++) {
+							successes[query] += counts[query];
+						}
+					}
+					numberOfSamples += ((long) numberOfThreads) * BATCH_SIZE;
+				} while (!isPrecise(successes, numberOfSamples, z, errorBound)
+						&& numberOfSamples < maxNumberOfSamples);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				} else {
+					throw new RuntimeException(e.getCause());
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+
+			for (int query = 0; query < probabilities.length; query++) {
+				probabilities[query] = ((double) successes[query]) / numberOfSamples;
+				halfWidths[query] = Math.min(getHalfWidth(successes[query], numberOfSamples, z),
+						Math.sqrt(Math.log(2 / (1 - confidenceLevel)) / (2 * numberOfSamples)));
+			}
+			return new SamplingResult(probabilities, halfWidths, numberOfSamples);
+		}
+	}
+
+}
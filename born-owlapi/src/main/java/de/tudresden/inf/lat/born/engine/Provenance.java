@@ -0,0 +1,273 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+
+/**
+ * An object of this class is a provenance formula, i.e. a boolean formula in
+ * disjunctive normal form over the literals of a Bayesian network. Each
+ * conjunction is a sorted array of literals, encoded as in
+ * {@link BayesianNetwork}. The formula is kept minimal: no conjunction
+ * contains a literal and its negation, and no conjunction contains another
+ * one. Objects of this class are immutable.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class Provenance {
+
+	/**
+	 * Formula that is always false, i.e. the empty disjunction.
+	 */
+	public static final Provenance FALSE = new Provenance(Collections.emptyList());
+
+	/**
+	 * Formula that is always true, i.e. the disjunction of the empty
+	 * conjunction.
+	 */
+	public static final Provenance TRUE = new Provenance(Collections.singletonList(new int[0]));
+
+	private final List<int[]> conjunctions;
+
+	private Provenance(List<int[]> conjunctions) {
+		this.conjunctions = conjunctions;
+	}
+
+	/**
+	 * Returns a formula with only one conjunction.
+	 *
+	 * @param literals
+	 *            literals of the conjunction
+	 * @return a formula with only one conjunction, or {@link #FALSE} if the
+	 *         literals are contradictory
+	 */
+	public static Provenance of(int... literals) {
+		Objects.requireNonNull(literals);
+		int[] conjunction = Arrays.stream(literals).sorted().distinct().toArray();
+		if (isContradictory(conjunction)) {
+			return FALSE;
+		} else {
+			return new Provenance(Collections.singletonList(conjunction));
+		}
+	}
+
+	static boolean isContradictory(int[] sortedConjunction) {
+		boolean ret = false;
+		for (int index = 1; !ret && index < sortedConjunction.length; index++) {
+			ret = BayesianNetwork.isNegated(sortedConjunction[index])
+					&& sortedConjunction[index - 1] + 1 == sortedConjunction[index];
+		}
+		return ret;
+	}
+
+	/**
+	 * Tells whether the first sorted array is a subset of the second one.
+	 */
+	static boolean isSubset(int[] first, int[] second) {
+		if (first.length > second.length) {
+			return false;
+		}
+		int secondIndex = 0;
+		for (int literal : first) {
+			while (secondIndex < second.length && second[secondIndex] < literal) {
+				secondIndex++;
+			}
+			if (secondIndex == second.length || second[secondIndex] != literal) {
+				return false;
+			}
+			secondIndex++;
+		}
+		return true;
+	}
+
+	static int[] merge(int[] first, int[] second) {
+		int[] ret = new int[first.length + second.length];
+		int size = 0;
+		int firstIndex = 0;
+		int secondIndex = 0;
+		while (firstIndex < first.length || secondIndex < second.length) {
+			int next;
+			if (secondIndex == second.length
+					|| (firstIndex < first.length && first[firstIndex] <= second[secondIndex])) {
+				next = first[firstIndex];
+				firstIndex++;
+			} else {
+				next = second[secondIndex];
+				secondIndex++;
+			}
+			if (size == 0 || ret[size - 1] != next) {
+				ret[size] = next;
+				size++;
+			}
+		}
+		return Arrays.copyOf(ret, size);
+	}
+
+	/**
+	 * Tells whether some conjunction of this formula is a subset of the given
+	 * conjunction.
+	 */
+	boolean absorbs(int[] conjunction) {
+		return this.conjunctions.stream().anyMatch(current -> isSubset(current, conjunction));
+	}
+
+	/**
+	 * Returns the minimal formula of the given conjunctions.
+	 */
+	static Provenance minimize(List<int[]> conjunctions) {
+		List<int[]> sorted = new ArrayList<>(conjunctions);
+		sorted.sort((first, second) -> Integer.compare(first.length, second.length));
+		List<int[]> ret = new ArrayList<>();
+		sorted.forEach(conjunction -> {
+			if (ret.stream().noneMatch(current -> isSubset(current, conjunction))) {
+				ret.add(conjunction);
+			}
+		});
+		return ret.isEmpty() ? FALSE : new Provenance(Collections.unmodifiableList(ret));
+	}
+
+	/**
+	 * Returns the conjunctions of this formula.
+	 *
+	 * @return the conjunctions of this formula
+	 */
+	public List<int[]> getConjunctions() {
+		return this.conjunctions;
+	}
+
+	/**
+	 * Tells whether this formula is the empty disjunction.
+	 *
+	 * @return <code>true</code> if and only if this formula is the empty
+	 *         disjunction
+	 */
+	public boolean isFalse() {
+		return this.conjunctions.isEmpty();
+	}
+
+	/**
+	 * Tells whether this formula contains the empty conjunction.
+	 *
+	 * @return <code>true</code> if and only if this formula contains the empty
+	 *         conjunction
+	 */
+	public boolean isTrue() {
+		return this.conjunctions.size() == 1 && this.conjunctions.get(0).length == 0;
+	}
+
+	/**
+	 * Returns the disjunction of this formula and the given one.
+	 *
+	 * @param other
+	 *            formula
+	 * @return the disjunction of this formula and the given one
+	 */
+	public Provenance or(Provenance other) {
+		Objects.requireNonNull(other);
+		if (isFalse() || other.isTrue()) {
+			return other;
+		} else if (other.isFalse() || isTrue()) {
+			return this;
+		} else {
+			List<int[]> list = new ArrayList<>(this.conjunctions);
+			list.addAll(other.conjunctions);
+			return minimize(list);
+		}
+	}
+
+	/**
+	 * Returns the conjunction of this formula and the given one.
+	 *
+	 * @param other
+	 *            formula
+	 * @return the conjunction of this formula and the given one
+	 */
+	public Provenance and(Provenance other) {
+		Objects.requireNonNull(other);
+		if (isFalse() || other.isTrue()) {
+			return this;
+		} else if (other.isFalse() || isTrue()) {
+			return other;
+		} else {
+			List<int[]> list = new ArrayList<>();
+			this.conjunctions.forEach(first -> other.conjunctions.forEach(second -> {
+				int[] conjunction = merge(first, second);
+				if (!isContradictory(conjunction)) {
+					list.add(conjunction);
+				}
+			}));
+			return minimize(list);
+		}
+	}
+
+	/**
+	 * Returns the part of this formula that is not implied by the given
+	 * formula, i.e. the conjunctions of this formula that do not contain a
+	 * conjunction of the given formula.
+	 *
+	 * @param other
+	 *            formula
+	 * @return the part of this formula that is not implied by the given
+	 *         formula
+	 */
+	public Provenance minus(Provenance other) {
+		Objects.requireNonNull(other);
+		List<int[]> list = new ArrayList<>();
+		this.conjunctions.forEach(conjunction -> {
+			if (!other.absorbs(conjunction)) {
+				list.add(conjunction);
+			}
+		});
+		return list.size() == this.conjunctions.size() ? this
+				: (list.isEmpty() ? FALSE : new Provenance(Collections.unmodifiableList(list)));
+	}
+
+	/**
+	 * Returns the variables that occur in this formula.
+	 *
+	 * @return the variables that occur in this formula
+	 */
+	public BitSet getVariables() {
+		BitSet ret = new BitSet();
+		this.conjunctions.forEach(conjunction -> Arrays.stream(conjunction)
+				.forEach(literal -> ret.set(BayesianNetwork.getVariableOfLiteral(literal))));
+		return ret;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.conjunctions.stream().mapToInt(Arrays::hashCode).sum();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof Provenance)) {
+			return false;
+		} else {
+			Provenance other = (Provenance) obj;
+			return this.conjunctions.size() == other.conjunctions.size() && minus(other).isFalse()
+					&& other.minus(this).isFalse();
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		this.conjunctions.forEach(conjunction -> {
+			if (sb.length() > 0) {
+				sb.append(" ; ");
+			}
+			sb.append(Arrays.toString(conjunction));
+		});
+		return "[" + sb.toString() + "]";
+	}
+
+}
@@ -0,0 +1,427 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.born.engine.AxiomIndex.CompressedIndex;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+
+/**
+ * An object of this class applies the EL completion rules to a set of
+ * normalized axioms, keeping for each derived subsumption a provenance
+ * formula. The provenance formula of a subsumption <i>X</i> &#8849; <i>B</i>
+ * is true in exactly those worlds of the Bayesian network where the
+ * subsumption can be derived from the axioms that hold in that world. For
+ * class inclusions and nominal axioms, these are the same derivations as the
+ * ones of the default completion rules (BR1-BR3, CR1-CR4, FR1-FR3) executed
+ * by ProbLog.
+ * <p>
+ * Reflexive object properties, role inclusions, role compositions, and ranges
+ * are also supported, as in {@link BitsetCompletion}. The formula of each
+ * pair of object properties <i>r</i> &#8849;* <i>s</i> in the closure of the
+ * role inclusions is the disjunction of the conjunctions of the labels along
+ * each path, and an existential restriction on <i>r</i> is also an
+ * existential restriction on <i>s</i> with that formula. The filler of an
+ * existential restriction whose object property has a range is an auxiliary
+ * node that is subsumed by the filler and by the range.
+ * </p>
+ * <p>
+ * The completion is computed with a queue of changes: each time that the
+ * formula of a subsumption or of an existential restriction grows, only the
+ * new conjunctions are combined with the current formulas of the other
+ * premises. The axioms are indexed by an {@link AxiomIndex}, the same way as
+ * in {@link BitsetCompletion}, and the formulas are kept by class and object
+ * property positions.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProvenanceCompletion {
+
+	/**
+	 * Change of a formula.
+	 */
+	static class Change {
+
+		private final int subClass;
+		private final int objectProperty;
+		private final int superClass;
+		private final Provenance delta;
+
+		Change(int subClass, int objectProperty, int superClass, Provenance delta) {
+			this.subClass = subClass;
+			this.objectProperty = objectProperty;
+			this.superClass = superClass;
+			this.delta = delta;
+		}
+
+		int getSubClass() {
+			return this.subClass;
+		}
+
+		int getObjectProperty() {
+			return this.objectProperty;
+		}
+
+		int getSuperClass() {
+			return this.superClass;
+		}
+
+		Provenance getDelta() {
+			return this.delta;
+		}
+
+	}
+
+	private final AxiomIndex index;
+	private final Provenance[] labels;
+
+	private final List<Map<Integer, Provenance>> superObjectProperties = new ArrayList<>();
+	private final List<Map<Integer, Provenance>> ranges = new ArrayList<>();
+	private final Map<Long, Integer> auxiliaryNodes = new HashMap<>();
+	private final List<Integer> auxiliaryNodeFillers = new ArrayList<>();
+	private final List<Integer> auxiliaryNodeObjectProperties = new ArrayList<>();
+
+	private final Set<Integer> nodes = new HashSet<>();
+	private final Map<Integer, Map<Integer, Provenance>> subsumers = new HashMap<>();
+	private final Map<Integer, Map<Integer, Map<Integer, Provenance>>> successors = new HashMap<>();
+	private final Map<Integer, Map<Integer, Set<Integer>>> predecessors = new HashMap<>();
+	private final Deque<Change> queue = new ArrayDeque<>();
+
+	/**
+	 * Constructs a new provenance completion and computes it.
+	 *
+	 * @param axioms
+	 *            normalized axioms
+	 * @param classes
+	 *            classes and individuals to classify
+	 * @param labeling
+	 *            function that returns the provenance formula of each axiom
+	 * @throws UnsupportedOperationException
+	 *             if there are functional object property axioms
+	 */
+	public ProvenanceCompletion(Collection<NormalizedIntegerAxiom> axioms, Collection<Integer> classes,
+			Function<NormalizedIntegerAxiom, Provenance> labeling) {
+		Objects.requireNonNull(axioms);
+		Objects.requireNonNull(classes);
+		Objects.requireNonNull(labeling);
+		List<NormalizedIntegerAxiom> list = new ArrayList<>(axioms);
+		this.index = new AxiomIndex(list, classes);
+		this.labels = list.stream().map(labeling).toArray(Provenance[]::new);
+		computeObjectPropertyClosure();
+		classes.forEach(classId -> addNode(this.index.getClassPosition(classId)));
+		while (!this.queue.isEmpty()) {
+			Change change = this.queue.poll();
+			if (change.getObjectProperty() == -1) {
+				processSubsumption(change.getSubClass(), change.getSuperClass(), change.getDelta());
+			} else {
+				processExistential(change.getSubClass(), change.getObjectProperty(), change.getSuperClass(),
+						change.getDelta());
+			}
+		}
+	}
+
+	Provenance getLabel(int axiom) {
+		return axiom == -1 ? Provenance.TRUE : this.labels[axiom];
+	}
+
+	/**
+	 * Computes the formulas of the reflexive and transitive closure of the
+	 * role inclusions, and of the ranges of each object property, including
+	 * the ones of its super object properties.
+	 */
+	void computeObjectPropertyClosure() {
+		CompressedIndex ri2BySubProperty = this.index.getRi2BySubProperty();
+		CompressedIndex rangeByObjectProperty = this.index.getRangeByObjectProperty();
+		for (int objectProperty = 0; objectProperty < this.index.getNumberOfObjectProperties(); objectProperty++) {
+			Map<Integer, Provenance> closure = new HashMap<>();
+			Deque<Change> toVisit = new ArrayDeque<>();
+			closure.put(objectProperty, Provenance.TRUE);
+			toVisit.add(new Change(-1, objectProperty, -1, Provenance.TRUE));
+			while (!toVisit.isEmpty()) {
+				Change change = toVisit.poll();
+				int current = change.getObjectProperty();
+				for (int entry = ri2BySubProperty.getStart(current); entry < ri2BySubProperty
+						.getEnd(current); entry++) {
+					int superObjectProperty = ri2BySubProperty.get(entry, 0);
+					Provenance formula = closure.getOrDefault(superObjectProperty, Provenance.FALSE);
+					Provenance delta = change.getDelta().and(getLabel(ri2BySubProperty.get(entry, 1))).minus(formula);
+					if (!delta.isFalse()) {
+						closure.put(superObjectProperty, formula.or(delta));
+						toVisit.add(new Change(-1, superObjectProperty, -1, delta));
+					}
+				}
+			}
+			this.superObjectProperties.add(closure);
+
+			Map<Integer, Provenance> rangesOfObjectProperty = new HashMap<>();
+			closure.forEach((superObjectProperty, formula) -> {
+				for (int entry = rangeByObjectProperty.getStart(superObjectProperty); entry < rangeByObjectProperty
+						.getEnd(superObjectProperty); entry++) {
+					rangesOfObjectProperty.merge(rangeByObjectProperty.get(entry, 0),
+							formula.and(getLabel(rangeByObjectProperty.get(entry, 1))), Provenance::or);
+				}
+			});
+			this.ranges.add(rangesOfObjectProperty);
+		}
+	}
+
+	/**
+	 * Returns the class of the given node, which is the node itself, or the
+	 * filler of an auxiliary node.
+	 */
+	int getClassOfNode(int node) {
+		int numberOfClasses = this.index.getNumberOfClasses();
+		return node < numberOfClasses ? node : this.auxiliaryNodeFillers.get(node - numberOfClasses);
+	}
+
+	/**
+	 * Returns the auxiliary node for the filler of an existential restriction
+	 * on an object property with ranges.
+	 */
+	int getAuxiliaryNode(int filler, int objectProperty) {
+		long key = (((long) objectProperty) << Integer.SIZE) | filler;
+		Integer ret = this.auxiliaryNodes.get(key);
+		if (Objects.isNull(ret)) {
+			ret = this.index.getNumberOfClasses() + this.auxiliaryNodeFillers.size();
+			this.auxiliaryNodes.put(key, ret);
+			this.auxiliaryNodeFillers.add(filler);
+			this.auxiliaryNodeObjectProperties.add(objectProperty);
+		}
+		return ret;
+	}
+
+	void addNode(int node) {
+		if (this.nodes.add(node)) {
+			// BR1 and BR2
+			addSubsumption(node, getClassOfNode(node), Provenance.TRUE);
+			addSubsumption(node, this.index.getTop(), Provenance.TRUE);
+
+			// ranges of an auxiliary node
+			int numberOfClasses = this.index.getNumberOfClasses();
+			if (node >= numberOfClasses) {
+				this.ranges.get(this.auxiliaryNodeObjectProperties.get(node - numberOfClasses))
+						.forEach((range, formula) -> addSubsumption(node, range, formula));
+			}
+
+			// reflexive object properties
+			CompressedIndex reflexive = this.index.getReflexiveObjectProperties();
+			for (int entry = reflexive.getStart(0); entry < reflexive.getEnd(0); entry++) {
+				addEdge(node, reflexive.get(entry, 0), node, getLabel(reflexive.get(entry, 1)));
+			}
+		}
+	}
+
+	void addSubsumption(int subClass, int superClass, Provenance formula) {
+		if (!formula.isFalse()) {
+			Map<Integer, Provenance> map = this.subsumers.computeIfAbsent(subClass, k -> new HashMap<>());
+			Provenance current = map.getOrDefault(superClass, Provenance.FALSE);
+			Provenance delta = formula.minus(current);
+			if (!delta.isFalse()) {
+				map.put(superClass, current.or(delta));
+				this.queue.add(new Change(subClass, -1, superClass, delta));
+			}
+		}
+	}
+
+	void addExistential(int subClass, int objectProperty, int filler, Provenance formula) {
+		if (!formula.isFalse()) {
+			addNode(filler);
+			Map<Integer, Provenance> map = this.successors.computeIfAbsent(subClass, k -> new HashMap<>())
+					.computeIfAbsent(objectProperty, k -> new HashMap<>());
+			Provenance current = map.getOrDefault(filler, Provenance.FALSE);
+			Provenance delta = formula.minus(current);
+			if (!delta.isFalse()) {
+				map.put(filler, current.or(delta));
+				this.predecessors.computeIfAbsent(filler, k -> new HashMap<>())
+						.computeIfAbsent(objectProperty, k -> new HashSet<>()).add(subClass);
+				this.queue.add(new Change(subClass, objectProperty, filler, delta));
+			}
+		}
+	}
+
+	/**
+	 * Adds an existential restriction of an axiom, where the filler is
+	 * replaced by an auxiliary node if the object property has ranges.
+	 */
+	void addFiller(int subClass, int objectProperty, int filler, Provenance formula) {
+		if (!formula.isFalse()) {
+			int node = this.ranges.get(objectProperty).isEmpty() ? filler : getAuxiliaryNode(filler, objectProperty);
+			addNode(node);
+			addEdge(subClass, objectProperty, node, formula);
+		}
+	}
+
+	/**
+	 * Adds an existential restriction for the given object property and all
+	 * its super object properties.
+	 */
+	void addEdge(int subClass, int objectProperty, int node, Provenance formula) {
+		this.superObjectProperties.get(objectProperty).forEach((superObjectProperty,
+				closureFormula) -> addExistential(subClass, superObjectProperty, node, formula.and(closureFormula)));
+	}
+
+	Provenance getSubsumptionAt(int subClass, int superClass) {
+		return this.subsumers.getOrDefault(subClass, Collections.emptyMap()).getOrDefault(superClass,
+				Provenance.FALSE);
+	}
+
+	Provenance getExistentialAt(int subClass, int objectProperty, int filler) {
+		return this.successors.getOrDefault(subClass, Collections.emptyMap())
+				.getOrDefault(objectProperty, Collections.emptyMap()).getOrDefault(filler, Provenance.FALSE);
+	}
+
+	void processSubsumption(int subClass, int superClass, Provenance delta) {
+		// CR1
+		CompressedIndex gci0 = this.index.getGci0ByLeft();
+		for (int entry = gci0.getStart(superClass); entry < gci0.getEnd(superClass); entry++) {
+			addSubsumption(subClass, gci0.get(entry, 0), delta.and(getLabel(gci0.get(entry, 1))));
+		}
+
+		// CR2
+		CompressedIndex gci1 = this.index.getGci1ByLeft();
+		for (int entry = gci1.getStart(superClass); entry < gci1.getEnd(superClass); entry++) {
+			addSubsumption(subClass, gci1.get(entry, 1), delta.and(getSubsumptionAt(subClass, gci1.get(entry, 0)))
+					.and(getLabel(gci1.get(entry, 2))));
+		}
+
+		// CR3
+		CompressedIndex gci2 = this.index.getGci2ByLeft();
+		for (int entry = gci2.getStart(superClass); entry < gci2.getEnd(superClass); entry++) {
+			addFiller(subClass, gci2.get(entry, 0), gci2.get(entry, 1), delta.and(getLabel(gci2.get(entry, 2))));
+		}
+
+		// CR4, where the new subsumption is the one of the filler
+		Map<Integer, Set<Integer>> map = this.predecessors.getOrDefault(subClass, Collections.emptyMap());
+		CompressedIndex gci3 = this.index.getGci3ByFiller();
+		for (int entry = gci3.getStart(superClass); entry < gci3.getEnd(superClass); entry++) {
+			int objectProperty = gci3.get(entry, 0);
+			int newSuperClass = gci3.get(entry, 1);
+			Provenance label = getLabel(gci3.get(entry, 2));
+			new ArrayList<>(map.getOrDefault(objectProperty, Collections.emptySet()))
+					.forEach(predecessor -> addSubsumption(predecessor, newSuperClass,
+							getExistentialAt(predecessor, objectProperty, subClass).and(delta).and(label)));
+		}
+	}
+
+	void processExistential(int subClass, int objectProperty, int filler, Provenance delta) {
+		// CR4, where the new formula is the one of the existential restriction
+		CompressedIndex gci3 = this.index.getGci3ByObjectProperty();
+		for (int entry = gci3.getStart(objectProperty); entry < gci3.getEnd(objectProperty); entry++) {
+			addSubsumption(subClass, gci3.get(entry, 1), delta.and(getSubsumptionAt(filler, gci3.get(entry, 0)))
+					.and(getLabel(gci3.get(entry, 2))));
+		}
+
+		// role composition, where the existential restriction is on the left
+		CompressedIndex ri3ByLeft = this.index.getRi3ByLeft();
+		for (int entry = ri3ByLeft.getStart(objectProperty); entry < ri3ByLeft.getEnd(objectProperty); entry++) {
+			int superObjectProperty = ri3ByLeft.get(entry, 1);
+			Provenance label = getLabel(ri3ByLeft.get(entry, 2));
+			new HashMap<>(this.successors.getOrDefault(filler, Collections.emptyMap())
+					.getOrDefault(ri3ByLeft.get(entry, 0), Collections.emptyMap()))
+							.forEach((nextFiller, formula) -> addEdge(subClass, superObjectProperty, nextFiller,
+									delta.and(formula).and(label)));
+		}
+
+		// role composition, where the existential restriction is on the right
+		CompressedIndex ri3ByRight = this.index.getRi3ByRight();
+		for (int entry = ri3ByRight.getStart(objectProperty); entry < ri3ByRight.getEnd(objectProperty); entry++) {
+			int previousObjectProperty = ri3ByRight.get(entry, 0);
+			int superObjectProperty = ri3ByRight.get(entry, 1);
+			Provenance label = getLabel(ri3ByRight.get(entry, 2));
+			new ArrayList<>(this.predecessors.getOrDefault(subClass, Collections.emptyMap())
+					.getOrDefault(previousObjectProperty, Collections.emptySet()))
+							.forEach(previousSubClass -> addEdge(previousSubClass, superObjectProperty, filler,
+									getExistentialAt(previousSubClass, previousObjectProperty, subClass).and(delta)
+											.and(label)));
+		}
+	}
+
+	/**
+	 * Returns the superclasses of the given class with the provenance formulas
+	 * of the subsumptions. The formulas are not false.
+	 *
+	 * @param subClass
+	 *            subclass
+	 * @return the superclasses of the given class with the provenance formulas
+	 *         of the subsumptions
+	 */
+	public Map<Integer, Provenance> getSubsumers(int subClass) {
+		Map<Integer, Provenance> ret = new HashMap<>();
+		this.subsumers.getOrDefault(this.index.getClassPosition(subClass), Collections.emptyMap())
+				.forEach((superClass, formula) -> ret.put(this.index.getClass(superClass), formula));
+		return Collections.unmodifiableMap(ret);
+	}
+
+	/**
+	 * Returns the provenance formula of the subsumption between the given
+	 * classes.
+	 *
+	 * @param subClass
+	 *            subclass
+	 * @param superClass
+	 *            superclass
+	 * @return the provenance formula of the subsumption between the given
+	 *         classes
+	 */
+	public Provenance getSubsumption(int subClass, int superClass) {
+		return getSubsumptionAt(this.index.getClassPosition(subClass), this.index.getClassPosition(superClass));
+	}
+
+	/**
+	 * Returns the provenance formula of the subsumption between the given
+	 * class and the existential restriction of the given object property and
+	 * filler.
+	 *
+	 * @param subClass
+	 *            subclass
+	 * @param objectProperty
+	 *            object property
+	 * @param filler
+	 *            filler of the existential restriction
+	 * @return the provenance formula of the subsumption between the given
+	 *         class and the existential restriction
+	 */
+	public Provenance getExistential(int subClass, int objectProperty, int filler) {
+		return getExistentialAt(this.index.getClassPosition(subClass),
+				this.index.getObjectPropertyPosition(objectProperty), this.index.getClassPosition(filler));
+	}
+
+	/**
+	 * Returns the provenance formula of the role assertion between the given
+	 * individuals, i.e. the disjunction for every filler <i>A</i> of
+	 * <i>x</i> &#8849; &#8707;<i>r</i>.<i>A</i> and <i>A</i> &#8849; <i>y</i>.
+	 *
+	 * @param objectProperty
+	 *            object property
+	 * @param subject
+	 *            subject individual
+	 * @param object
+	 *            object individual
+	 * @return the provenance formula of the role assertion between the given
+	 *         individuals
+	 */
+	public Provenance getRoleAssertion(int objectProperty, int subject, int object) {
+		Provenance ret = Provenance.FALSE;
+		int objectPosition = this.index.getClassPosition(object);
+		Map<Integer, Provenance> fillers = this.successors
+				.getOrDefault(this.index.getClassPosition(subject), Collections.emptyMap())
+				.getOrDefault(this.index.getObjectPropertyPosition(objectProperty), Collections.emptyMap());
+		for (Map.Entry<Integer, Provenance> entry : fillers.entrySet()) {
+			ret = ret.or(entry.getValue().and(getSubsumptionAt(entry.getKey(), objectPosition)));
+		}
+		return ret;
+	}
+
+}
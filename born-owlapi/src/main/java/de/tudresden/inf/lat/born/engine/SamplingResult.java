@@ -0,0 +1,148 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An object of this class is the result of a Monte Carlo estimation. It
+ * contains, for each query, the estimated probability and the half-width of
+ * its confidence interval, together with the number of sampled worlds.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class SamplingResult {
+
+	private final double[] probabilities;
+	private final double[] halfWidths;
+	private final long numberOfSamples;
+
+	/**
+	 * Constructs a new sampling result.
+	 *
+	 * @param probabilities
+	 *            estimated probabilities
+	 * @param halfWidths
+	 *            half-widths of the confidence intervals
+	 * @param numberOfSamples
+	 *            number of sampled worlds
+	 */
+	public SamplingResult(double[] probabilities, double[] halfWidths, long numberOfSamples) {
+		Objects.requireNonNull(probabilities);
+		Objects.requireNonNull(halfWidths);
+		if (probabilities.length != halfWidths.length) {
+			throw new IllegalArgumentException("Arrays of different length: " + probabilities.length + " and "
+					+ halfWidths.length + ".");
+		}
+		this.probabilities = Arrays.copyOf(probabilities, probabilities.length);
+		this.halfWidths = Arrays.copyOf(halfWidths, halfWidths.length);
+		this.numberOfSamples = numberOfSamples;
+	}
+
+	/**
+	 * Returns the number of queries.
+	 *
+	 * @return the number of queries
+	 */
+	public int getNumberOfQueries() {
+		return this.probabilities.length;
+	}
+
+	/**
+	 * Returns the number of sampled worlds.
+	 *
+	 * @return the number of sampled worlds
+	 */
+	public long getNumberOfSamples() {
+		return this.numberOfSamples;
+	}
+
+	/**
+	 * Returns the estimated probability of the given query.
+	 *
+	 * @param query
+	 *            position of the query
+	 * @return the estimated probability of the given query
+	 */
+	public double getProbability(int query) {
+		return this.probabilities[query];
+	}
+
+	/**
+	 * Returns the half-width of the confidence interval of the given query.
+	 *
+	 * @param query
+	 *            position of the query
+	 * @return the half-width of the confidence interval of the given query
+	 */
+	public double getHalfWidth(int query) {
+		return this.halfWidths[query];
+	}
+
+	/**
+	 * Returns the lower bound of the confidence interval of the given query.
+	 *
+	 * @param query
+	 *            position of the query
+	 * @return the lower bound of the confidence interval of the given query
+	 */
+	public double getLowerBound(int query) {
+		return Math.max(0, this.probabilities[query] - this.halfWidths[query]);
+	}
+
+	/**
+	 * Returns the upper bound of the confidence interval of the given query.
+	 *
+	 * @param query
+	 *            position of the query
+	 * @return the upper bound of the confidence interval of the given query
+	 */
+	public double getUpperBound(int query) {
+		return Math.min(1, this.probabilities[query] + this.halfWidths[query]);
+	}
+
+	/**
+	 * Returns the largest half-width of the confidence intervals, or 0 if
+	 * there are no queries.
+	 *
+	 * @return the largest half-width of the confidence intervals
+	 */
+	public double getErrorBound() {
+		return Arrays.stream(this.halfWidths).max().orElse(0);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.probabilities) //
+				+ 0x1F * (Arrays.hashCode(this.halfWidths) //
+						+ 0x1F * Long.hashCode(this.numberOfSamples));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof SamplingResult)) {
+			return false;
+		} else {
+			SamplingResult other = (SamplingResult) obj;
+			return Arrays.equals(this.probabilities, other.probabilities)
+					&& Arrays.equals(this.halfWidths, other.halfWidths)
+					&& (this.numberOfSamples == other.numberOfSamples);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(" [ probabilities=");
+		sb.append(Arrays.toString(this.probabilities));
+		sb.append(" , half_widths=");
+		sb.append(Arrays.toString(this.halfWidths));
+		sb.append(" , samples=");
+		sb.append("" + this.numberOfSamples);
+		sb.append(" ] ");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,6 @@
+/**
+ * Provides classes to compute probabilities of consequences of probabilistic
+ * ontologies in the Java virtual machine, without ProbLog.
+ */
+
+package de.tudresden.inf.lat.born.engine;
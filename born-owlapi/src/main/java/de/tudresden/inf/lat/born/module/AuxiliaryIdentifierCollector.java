@@ -32,6 +32,17 @@ class AuxiliaryIdentifierCollector implements NormalizedIntegerAxiomVisitor<Bool
 	AuxiliaryIdentifierCollector() {
 	}
 
+	/**
+	 * Removes all the collected BornIdentifiers, so that this collector can be
+	 * used for another axiom.
+	 */
+	void clear() {
+		this.classesOnTheLeft.clear();
+		this.classesOnTheRight.clear();
+		this.objectPropertiesOnTheLeft.clear();
+		this.objectPropertiesOnTheRight.clear();
+	}
+
 	/**
 	 * Returns the class BornIdentifiers found on the left-hand side of the
 	 * given axiom.
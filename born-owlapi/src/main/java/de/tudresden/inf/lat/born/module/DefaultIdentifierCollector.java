@@ -25,7 +25,7 @@ public class DefaultIdentifierCollector {
 	 */
 	public DefaultIdentifierCollector(NormalizedIntegerAxiom axiom) {
 		this.axiom = Objects.requireNonNull(axiom);
-		axiom.accept(new AuxiliaryIdentifierCollector());
+		axiom.accept(this.collector);
 	}
 
 	/**
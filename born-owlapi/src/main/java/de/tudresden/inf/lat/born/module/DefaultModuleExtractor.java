@@ -1,17 +1,15 @@
 
 package de.tudresden.inf.lat.born.module;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.function.IntConsumer;
 
 import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
-import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerAxiom;
-import de.tudresden.inf.lat.util.map.OptMap;
-import de.tudresden.inf.lat.util.map.OptMapImpl;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
 
 /**
  * An object of this class is a module extractor, i.e. it can extract a subset
@@ -27,64 +25,6 @@ public class DefaultModuleExtractor {
 	public DefaultModuleExtractor() {
 	}
 
-	/**
-	 * Returns a map that relates a class with the set of axioms where this
-	 * class occurs on the left side of the axiom
-	 * 
-	 * @param normalizedAxioms
-	 *            normalized axioms
-	 * @return a map that relates a class with the set of axioms where this
-	 *         class occurs on the left side of the axiom
-	 */
-	OptMap<Integer, Set<DefaultIdentifierCollector>> buildMapOfAxioms(
-			Set<DefaultIdentifierCollector> normalizedAxioms) {
-		OptMap<Integer, Set<DefaultIdentifierCollector>> map = new OptMapImpl<>(new HashMap<>());
-		normalizedAxioms.forEach(axiom -> {
-			Set<Integer> classesOnTheLeft = axiom.getClassesOnTheLeft();
-			classesOnTheLeft.forEach(classId -> {
-				Optional<Set<DefaultIdentifierCollector>> optValue = map.get(classId);
-				if (!optValue.isPresent()) {
-					optValue = Optional.of(new HashSet<>());
-					map.put(classId, optValue.get());
-				}
-				optValue.get().add(axiom);
-			});
-		});
-		return map;
-	}
-
-	Set<NormalizedIntegerAxiom> getAxiomsWithoutEntitiesOnTheLeft(Set<DefaultIdentifierCollector> axioms) {
-		Set<NormalizedIntegerAxiom> ret = new HashSet<>();
-		axioms.forEach(axiom -> {
-			if (axiom.getClassesOnTheLeft().isEmpty() && axiom.getObjectPropertiesOnTheLeft().isEmpty()) {
-				ret.add(axiom.getAxiom());
-			}
-		});
-		return ret;
-	}
-
-	Set<DefaultIdentifierCollector> getAxiomsWithClassesOnTheLeft(Set<Integer> classesToVisit,
-			OptMap<Integer, Set<DefaultIdentifierCollector>> map) {
-		Set<DefaultIdentifierCollector> ret = new HashSet<>();
-		classesToVisit.forEach(classId -> {
-			Optional<Set<DefaultIdentifierCollector>> optNewAxioms = map.get(classId);
-			if (optNewAxioms.isPresent()) {
-				ret.addAll(optNewAxioms.get());
-			}
-		});
-		return ret;
-	}
-
-	Set<Integer> getEntities(IntegerAxiom axiom) {
-		Set<Integer> ret = new TreeSet<>();
-		ret.addAll(axiom.getClassesInSignature());
-		ret.addAll(axiom.getObjectPropertiesInSignature());
-		ret.addAll(axiom.getIndividualsInSignature());
-		ret.addAll(axiom.getDataPropertiesInSignature());
-		ret.addAll(axiom.getDatatypesInSignature());
-		return ret;
-	}
-
 	/**
 	 * Returns a module, i.e. a subset of axioms relevant to answer a query.
 	 * 
@@ -95,38 +35,105 @@ public class DefaultModuleExtractor {
 	 * @return a module, i.e. a subset of axioms relevant to answer a query
 	 */
 	public Module extractModule(Collection<NormalizedIntegerAxiom> setOfAxioms, Set<Integer> setOfClasses) {
+		return extractModule(new ModuleIndex(setOfAxioms), setOfClasses);
+	}
 
-		Set<NormalizedIntegerAxiom> newAxioms = new HashSet<>();
+	/**
+	 * Returns a module, i.e. a subset of axioms relevant to answer a query,
+	 * using an index that was previously built. The module contains the axioms
+	 * without classes on the left-hand side, and the axioms reachable from
+	 * them, from the given classes, and from the top class.
+	 * 
+	 * @param index
+	 *            module index
+	 * @param setOfClasses
+	 *            set of classes
+	 * @return a module, i.e. a subset of axioms relevant to answer a query
+	 */
+	public Module extractModule(ModuleIndex index, Set<Integer> setOfClasses) {
+		Objects.requireNonNull(index);
+		Objects.requireNonNull(setOfClasses);
+
+		Traversal traversal = new Traversal(index, setOfClasses.size());
+		traversal.addClass(IntegerEntityManager.topClassId);
+		setOfClasses.forEach(classId -> traversal.addClass(classId));
+		index.forEachAxiomWithoutClassesOnTheLeft(traversal::addAxiom);
+		traversal.run();
+
+		// the top class is only used to find the axioms that apply to every
+		// class, and it is an entity of the module only if it was requested
+		// or it is in the signature of an axiom of the module
+		BitSet entities = traversal.getVisitedClasses();
+		if (!setOfClasses.contains(IntegerEntityManager.topClassId)) {
+			entities.clear(IntegerEntityManager.topClassId);
+		}
+		BitSet axioms = traversal.getAxioms();
+		axioms.stream().forEach(axiomId -> {
+			int end = index.getSignatureEnd(axiomId);
+			for (int position = index.getSignatureBegin(axiomId); position < end; position++) {
+				entities.set(index.getSignatureEntity(position));
+			}
+		});
+		return new Module(index, entities.stream().toArray(), axioms.stream().toArray());
+	}
 
-		Set<DefaultIdentifierCollector> axioms = new HashSet<>();
-		setOfAxioms.forEach(axiom -> axioms.add(new DefaultIdentifierCollector(axiom)));
+	/**
+	 * This is an auxiliary class that traverses the module index. It keeps a
+	 * bitset of visited classes, a bitset of axioms in the module, and a stack
+	 * of classes to visit.
+	 */
+	static class Traversal {
+
+		private final ModuleIndex index;
+		private final BitSet visitedClasses = new BitSet();
+		private final BitSet axioms;
+		private final IntConsumer axiomAdder = this::addAxiom;
+		private int[] classesToVisit;
+		private int numberOfClassesToVisit = 0;
+
+		Traversal(ModuleIndex index, int expectedNumberOfClasses) {
+			this.index = index;
+			this.axioms = new BitSet(index.getNumberOfPositions());
+			this.classesToVisit = new int[Math.max(16, expectedNumberOfClasses + 1)];
+		}
 
-		newAxioms.addAll(getAxiomsWithoutEntitiesOnTheLeft(axioms));
+		BitSet getVisitedClasses() {
+			return this.visitedClasses;
+		}
 
-		OptMap<Integer, Set<DefaultIdentifierCollector>> map = buildMapOfAxioms(axioms);
+		BitSet getAxioms() {
+			return this.axioms;
+		}
 
-		Set<Integer> visitedClasses = new TreeSet<>();
-		Set<Integer> classesToVisit = new TreeSet<>();
-		classesToVisit.addAll(setOfClasses);
-		int resultSize = -1;
-		while (newAxioms.size() > resultSize) {
-			resultSize = newAxioms.size();
+		void addClass(int classId) {
+			if (classId >= 0 && !this.visitedClasses.get(classId)) {
+				this.visitedClasses.set(classId);
+				if (this.numberOfClassesToVisit == this.classesToVisit.length) {
+					this.classesToVisit = Arrays.copyOf(this.classesToVisit, 2 * this.classesToVisit.length);
+				}
+				this.classesToVisit[this.numberOfClassesToVisit] = classId;
+				this.numberOfClassesToVisit++;
+			}
+		}
 
-			Set<DefaultIdentifierCollector> axiomsToVisit = getAxiomsWithClassesOnTheLeft(classesToVisit, map);
-			visitedClasses.addAll(classesToVisit);
-			classesToVisit.clear();
+		void addAxiom(int axiomId) {
+			if (!this.axioms.get(axiomId)) {
+				this.axioms.set(axiomId);
+				int end = this.index.getRightEnd(axiomId);
+				for (int position = this.index.getRightBegin(axiomId); position < end; position++) {
+					addClass(this.index.getRightClass(position));
+				}
+			}
+		}
 
-			axiomsToVisit.forEach(axiom -> {
-				classesToVisit.addAll(axiom.getClassesOnTheRight());
-				newAxioms.add(axiom.getAxiom());
-			});
-			classesToVisit.removeAll(visitedClasses);
+		void run() {
+			while (this.numberOfClassesToVisit > 0) {
+				this.numberOfClassesToVisit--;
+				int classId = this.classesToVisit[this.numberOfClassesToVisit];
+				this.index.forEachAxiomWithClassOnTheLeft(classId, this.axiomAdder);
+			}
 		}
 
-		Set<Integer> entities = new TreeSet<>();
-		entities.addAll(visitedClasses);
-		newAxioms.forEach(axiom -> entities.addAll(getEntities(axiom)));
-		return new Module(entities, newAxioms);
 	}
 
 }
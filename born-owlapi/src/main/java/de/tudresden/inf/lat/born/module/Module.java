@@ -1,50 +1,183 @@
 package de.tudresden.inf.lat.born.module;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
 import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
 
 /**
- * An objects of this class models a module of normalized axioms.
- * 
+ * An objects of this class models a module of normalized axioms. The module
+ * is backed by two sorted arrays: one of entities and one of positions of
+ * axioms in a {@link ModuleIndex}.
+ *
  * @author Julian Mendez
  *
  */
 public class Module {
 
-	private Set<Integer> entities;
-	private Set<NormalizedIntegerAxiom> axioms;
+	private final ModuleIndex index;
+	private final int[] entities;
+	private final int[] axioms;
+	private final Set<Integer> entitySet = new EntitySet();
+	private final Set<NormalizedIntegerAxiom> axiomSet = new AxiomSet();
+
+	/**
+	 * This is an unmodifiable view of the entities.
+	 */
+	class EntitySet extends AbstractSet<Integer> {
+
+		@Override
+		public boolean contains(Object obj) {
+			return (obj instanceof Integer) && containsEntity((Integer) obj);
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return Arrays.stream(Module.this.entities).iterator();
+		}
+
+		@Override
+		public int size() {
+			return Module.this.entities.length;
+		}
+
+	}
+
+	/**
+	 * This is an unmodifiable view of the normalized axioms.
+	 */
+	class AxiomSet extends AbstractSet<NormalizedIntegerAxiom> {
+
+		@Override
+		public Iterator<NormalizedIntegerAxiom> iterator() {
+			return new Iterator<NormalizedIntegerAxiom>() {
+
+				private int position = 0;
+
+				@Override
+				public boolean hasNext() {
+					return this.position < Module.this.axioms.length;
+				}
+
+				@Override
+				public NormalizedIntegerAxiom next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					NormalizedIntegerAxiom ret = getAxiom(this.position);
+					this.position++;
+					return ret;
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return Module.this.axioms.length;
+		}
+
+	}
 
 	/**
 	 * Constructs a module.
-	 * 
+	 *
+	 * @param index
+	 *            module index that contains the axioms
 	 * @param entities
-	 *            entities
+	 *            sorted array of entities, without repetitions
 	 * @param axioms
-	 *            axioms
+	 *            sorted array of positions of axioms in the module index,
+	 *            without repetitions
 	 */
-	public Module(Set<Integer> entities, Set<NormalizedIntegerAxiom> axioms) {
+	public Module(ModuleIndex index, int[] entities, int[] axioms) {
+		this.index = Objects.requireNonNull(index);
 		this.entities = Objects.requireNonNull(entities);
 		this.axioms = Objects.requireNonNull(axioms);
 	}
 
+	/**
+	 * Returns the module index that contains the axioms.
+	 *
+	 * @return the module index that contains the axioms
+	 */
+	public ModuleIndex getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Returns the number of entities.
+	 *
+	 * @return the number of entities
+	 */
+	public int getNumberOfEntities() {
+		return this.entities.length;
+	}
+
+	/**
+	 * Returns the entity at the given position of the sorted array of
+	 * entities.
+	 *
+	 * @param position
+	 *            position
+	 * @return the entity at the given position of the sorted array of entities
+	 */
+	public int getEntity(int position) {
+		return this.entities[position];
+	}
+
+	/**
+	 * Tells whether the given entity belongs to this module.
+	 *
+	 * @param entity
+	 *            entity
+	 * @return <code>true</code> if and only if the given entity belongs to
+	 *         this module
+	 */
+	public boolean containsEntity(int entity) {
+		return Arrays.binarySearch(this.entities, entity) >= 0;
+	}
+
+	/**
+	 * Returns the number of normalized axioms.
+	 *
+	 * @return the number of normalized axioms
+	 */
+	public int getNumberOfAxioms() {
+		return this.axioms.length;
+	}
+
+	/**
+	 * Returns the normalized axiom at the given position of the module.
+	 *
+	 * @param position
+	 *            position
+	 * @return the normalized axiom at the given position of the module
+	 */
+	public NormalizedIntegerAxiom getAxiom(int position) {
+		return this.index.getAxiom(this.axioms[position]);
+	}
+
 	/**
 	 * Returns the entities.
-	 * 
+	 *
 	 * @return the entities
 	 */
 	public Set<Integer> getEntities() {
-		return this.entities;
+		return this.entitySet;
 	}
 
 	/**
 	 * Returns the normalized axioms
-	 * 
+	 *
 	 * @return the normalized axioms
 	 */
 	public Set<NormalizedIntegerAxiom> getAxioms() {
-		return this.axioms;
+		return this.axiomSet;
 	}
 
 }
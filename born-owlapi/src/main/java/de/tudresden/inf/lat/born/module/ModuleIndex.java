@@ -0,0 +1,663 @@
+package de.tudresden.inf.lat.born.module;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerAxiom;
+
+/**
+ * An object of this class is an index of normalized axioms used to extract
+ * modules. The index is built once for a set of normalized axioms, and can be
+ * used to extract as many modules as needed. An index is not modified, but it
+ * can be updated into a new index with {@link #update(Collection, Collection)}
+ * when axioms are added or removed.
+ * <p>
+ * Axioms are identified by their position in the index. The relations between
+ * classes and axioms are kept in compressed sparse row format, i.e. for each
+ * row there is an offset in a flat array of integers, and the row ends where
+ * the next row begins. There are three of these relations: the axioms where
+ * each class occurs on the left-hand side, the classes that occur on the
+ * right-hand side of each axiom, and the entities in the signature of each
+ * axiom.
+ * </p>
+ * <p>
+ * An update does not copy the index. The rows of the added axioms are
+ * appended to the arrays of the index, which are shared with the updated
+ * index, and the removed axioms are only marked as removed, so the other
+ * axioms keep their positions. The relation between classes and the axioms
+ * where they occur on the left-hand side is kept in levels, where each level
+ * is smaller than the one before it. The added axioms form a new level, which
+ * is merged with the last levels until it is smaller than the one before it,
+ * so each axiom is indexed again only a logarithmic number of times. The index
+ * is built again when more than half of its positions are removed. Only the
+ * last index of a sequence of updates can append rows to the shared arrays,
+ * so updating an index that was already updated builds a new index.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ModuleIndex {
+
+	private final SharedState shared;
+	private final int version;
+	private final NormalizedIntegerAxiom[] axioms;
+	private final int numberOfPositions;
+	private final int[] rightOffsets;
+	private final int[] classesOnTheRight;
+	private final int[] signatureOffsets;
+	private final int[] signature;
+	private final int maxEntity;
+	private final BitSet removedAxioms;
+	private final int numberOfRemovedAxioms;
+	private final LeftIndex[] levels;
+	private final Set<NormalizedIntegerAxiom> axiomSet = new AxiomSet();
+
+	/**
+	 * This is an auxiliary class to build arrays of integers of unknown size.
+	 */
+	static class IntArrayBuilder {
+
+		private int[] array;
+		private int size;
+
+		IntArrayBuilder() {
+			this(new int[16], 0);
+		}
+
+		/**
+		 * Constructs a builder that writes the given array after the given
+		 * size.
+		 */
+		IntArrayBuilder(int[] array, int size) {
+			this.array = array;
+			this.size = size;
+		}
+
+		void add(int value) {
+			if (this.size == this.array.length) {
+				this.array = Arrays.copyOf(this.array, Math.max(16, 2 * this.array.length));
+			}
+			this.array[this.size] = value;
+			this.size++;
+		}
+
+		int size() {
+			return this.size;
+		}
+
+		/**
+		 * Returns the array, which can be longer than the size.
+		 */
+		int[] getArray() {
+			return this.array;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(this.array, this.size);
+		}
+
+	}
+
+	/**
+	 * This is an auxiliary class with the state shared by an index and the
+	 * indexes obtained by updating it: the position of each axiom that is not
+	 * removed, and the version of the last index.
+	 */
+	static class SharedState {
+
+		private final Map<NormalizedIntegerAxiom, Integer> positions = new HashMap<>();
+		private int lastVersion = 0;
+
+	}
+
+	/**
+	 * This is an auxiliary class with the relation between classes and the
+	 * axioms where they occur on the left-hand side, for some of the axioms of
+	 * an index, in compressed sparse row format. It also has the axioms that
+	 * do not have classes on the left-hand side.
+	 */
+	static class LeftIndex {
+
+		private final int[] axiomsWithoutClassesOnTheLeft;
+		private final int[] offsets;
+		private final int[] axiomsWithClassOnTheLeft;
+
+		/**
+		 * Constructs a new relation with the given axioms without classes on
+		 * the left-hand side, and the given pairs of classes and axioms.
+		 */
+		LeftIndex(int[] axiomsWithoutClassesOnTheLeft, int[] classes, int[] axiomIds) {
+			this.axiomsWithoutClassesOnTheLeft = axiomsWithoutClassesOnTheLeft;
+			this.offsets = new int[Arrays.stream(classes).max().orElse(-1) + 2];
+			this.axiomsWithClassOnTheLeft = new int[axiomIds.length];
+			build(classes, axiomIds);
+		}
+
+		/**
+		 * Fills the offsets and the rows of the relation between classes and
+		 * the axioms where they occur on the left-hand side, using counting
+		 * sort.
+		 *
+		 * @param classes
+		 *            class of each pair
+		 * @param axiomIds
+		 *            axiom of each pair
+		 */
+		void build(int[] classes, int[] axiomIds) {
+			for (int classId : classes) {
+				this.offsets[classId + 1]++;
+			}
+			for (int index = 1; index < this.offsets.length; index++) {
+				this.offsets[index] += this.offsets[index - 1];
+			}
+			int[] next = Arrays.copyOf(this.offsets, this.offsets.length - 1);
+			for (int index = 0; index < classes.length; index++) {
+				this.axiomsWithClassOnTheLeft[next[classes[index]]] = axiomIds[index];
+				next[classes[index]]++;
+			}
+		}
+
+		/**
+		 * Returns the number of entries of this relation, which is used to
+		 * compare the sizes of the levels.
+		 */
+		int size() {
+			return this.axiomsWithoutClassesOnTheLeft.length + this.axiomsWithClassOnTheLeft.length;
+		}
+
+		/**
+		 * Adds the entries of this relation to the given builders, except the
+		 * ones of the given removed axioms.
+		 */
+		void copyTo(BitSet removedAxioms, IntArrayBuilder withoutClassesOnTheLeft, IntArrayBuilder leftClasses,
+				IntArrayBuilder leftAxioms) {
+			for (int axiomId : this.axiomsWithoutClassesOnTheLeft) {
+				if (!removedAxioms.get(axiomId)) {
+					withoutClassesOnTheLeft.add(axiomId);
+				}
+			}
+			for (int classId = 0; classId + 1 < this.offsets.length; classId++) {
+				for (int position = this.offsets[classId]; position < this.offsets[classId + 1]; position++) {
+					int axiomId = this.axiomsWithClassOnTheLeft[position];
+					if (!removedAxioms.get(axiomId)) {
+						leftClasses.add(classId);
+						leftAxioms.add(axiomId);
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * This is an auxiliary class that collects the rows of a module index, one
+	 * axiom at a time. A builder can start empty, or it can append rows to the
+	 * arrays of a previous index.
+	 */
+	static class Builder {
+
+		private final SharedState shared;
+		private NormalizedIntegerAxiom[] axioms;
+		private int numberOfPositions;
+		private final IntArrayBuilder rightOffsets;
+		private final IntArrayBuilder right;
+		private final IntArrayBuilder signatureOffsets;
+		private final IntArrayBuilder entities;
+		private final IntArrayBuilder withoutClassesOnTheLeft = new IntArrayBuilder();
+		private final IntArrayBuilder leftClasses = new IntArrayBuilder();
+		private final IntArrayBuilder leftAxioms = new IntArrayBuilder();
+		private final AuxiliaryIdentifierCollector collector = new AuxiliaryIdentifierCollector();
+		private int maxEntity;
+
+		/**
+		 * Constructs a builder of a new index.
+		 */
+		Builder() {
+			this.shared = new SharedState();
+			this.axioms = new NormalizedIntegerAxiom[16];
+			this.numberOfPositions = 0;
+			this.rightOffsets = new IntArrayBuilder();
+			this.right = new IntArrayBuilder();
+			this.signatureOffsets = new IntArrayBuilder();
+			this.entities = new IntArrayBuilder();
+			this.maxEntity = -1;
+		}
+
+		/**
+		 * Constructs a builder that appends rows to the arrays of the given
+		 * index, which must be the last index of its shared state.
+		 */
+		Builder(ModuleIndex index) {
+			this.shared = index.shared;
+			this.axioms = index.axioms;
+			this.numberOfPositions = index.numberOfPositions;
+			this.rightOffsets = new IntArrayBuilder(index.rightOffsets, index.numberOfPositions);
+			this.right = new IntArrayBuilder(index.classesOnTheRight, index.getRightBegin(index.numberOfPositions));
+			this.signatureOffsets = new IntArrayBuilder(index.signatureOffsets, index.numberOfPositions);
+			this.entities = new IntArrayBuilder(index.signature, index.getSignatureBegin(index.numberOfPositions));
+			this.maxEntity = index.maxEntity;
+		}
+
+		void addEntity(int entity) {
+			this.entities.add(entity);
+			this.maxEntity = Math.max(this.maxEntity, entity);
+		}
+
+		/**
+		 * Adds the given axiom, computing its rows, unless the axiom is
+		 * already in the index.
+		 */
+		void add(NormalizedIntegerAxiom axiom) {
+			if (!this.shared.positions.containsKey(axiom)) {
+				int axiomId = this.numberOfPositions;
+				if (axiomId == this.axioms.length) {
+					this.axioms = Arrays.copyOf(this.axioms, Math.max(16, 2 * this.axioms.length));
+				}
+				this.axioms[axiomId] = axiom;
+				this.numberOfPositions++;
+				this.shared.positions.put(axiom, axiomId);
+				this.collector.clear();
+				axiom.accept(this.collector);
+
+				if (this.collector.getClassesOnTheLeft().isEmpty()) {
+					this.withoutClassesOnTheLeft.add(axiomId);
+				}
+				this.collector.getClassesOnTheLeft().forEach(classId -> {
+					this.leftClasses.add(classId);
+					this.leftAxioms.add(axiomId);
+				});
+
+				this.rightOffsets.add(this.right.size());
+				this.collector.getClassesOnTheRight().forEach(this.right::add);
+
+				this.signatureOffsets.add(this.entities.size());
+				for (int entity : getEntities(axiom)) {
+					addEntity(entity);
+				}
+			}
+		}
+
+		/**
+		 * Returns the relation between classes and the added axioms where they
+		 * occur on the left-hand side.
+		 */
+		LeftIndex createLeftIndex() {
+			return new LeftIndex(this.withoutClassesOnTheLeft.toArray(), this.leftClasses.toArray(),
+					this.leftAxioms.toArray());
+		}
+
+		/**
+		 * Ends the rows of the last axiom.
+		 */
+		void finish() {
+			this.rightOffsets.add(this.right.size());
+			this.signatureOffsets.add(this.entities.size());
+		}
+
+	}
+
+	/**
+	 * This is an unmodifiable view of the axioms that are not removed.
+	 */
+	class AxiomSet extends AbstractSet<NormalizedIntegerAxiom> {
+
+		@Override
+		public Iterator<NormalizedIntegerAxiom> iterator() {
+			return new Iterator<NormalizedIntegerAxiom>() {
+
+				private int position = ModuleIndex.this.removedAxioms.nextClearBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return this.position < ModuleIndex.this.numberOfPositions;
+				}
+
+				@Override
+				public NormalizedIntegerAxiom next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					NormalizedIntegerAxiom ret = getAxiom(this.position);
+					this.position = ModuleIndex.this.removedAxioms.nextClearBit(this.position + 1);
+					return ret;
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return getNumberOfAxioms();
+		}
+
+	}
+
+	/**
+	 * Constructs a new module index.
+	 *
+	 * @param normalizedAxioms
+	 *            normalized axioms
+	 */
+	public ModuleIndex(Collection<NormalizedIntegerAxiom> normalizedAxioms) {
+		this(createBuilder(normalizedAxioms));
+	}
+
+	static Builder createBuilder(Collection<NormalizedIntegerAxiom> normalizedAxioms) {
+		Objects.requireNonNull(normalizedAxioms);
+		Builder builder = new Builder();
+		normalizedAxioms.forEach(builder::add);
+		return builder;
+	}
+
+	/**
+	 * Constructs a new module index with the rows collected by the given
+	 * builder of a new index.
+	 *
+	 * @param builder
+	 *            builder
+	 */
+	ModuleIndex(Builder builder) {
+		this(builder, 0, new LeftIndex[] { builder.createLeftIndex() }, new BitSet(), 0);
+	}
+
+	/**
+	 * Constructs a new module index with the rows collected by the given
+	 * builder.
+	 *
+	 * @param builder
+	 *            builder
+	 * @param version
+	 *            version of the index in its shared state
+	 * @param levels
+	 *            levels of the relation between classes and the axioms where
+	 *            they occur on the left-hand side
+	 * @param removedAxioms
+	 *            positions of the removed axioms
+	 * @param numberOfRemovedAxioms
+	 *            number of removed axioms
+	 */
+	ModuleIndex(Builder builder, int version, LeftIndex[] levels, BitSet removedAxioms, int numberOfRemovedAxioms) {
+		builder.finish();
+		this.shared = builder.shared;
+		this.version = version;
+		this.axioms = builder.axioms;
+		this.numberOfPositions = builder.numberOfPositions;
+		this.rightOffsets = builder.rightOffsets.getArray();
+		this.classesOnTheRight = builder.right.getArray();
+		this.signatureOffsets = builder.signatureOffsets.getArray();
+		this.signature = builder.entities.getArray();
+		this.maxEntity = builder.maxEntity;
+		this.levels = levels;
+		this.removedAxioms = removedAxioms;
+		this.numberOfRemovedAxioms = numberOfRemovedAxioms;
+	}
+
+	/**
+	 * Returns a new module index with the axioms of this index, without the
+	 * removed axioms, and with the added axioms. If this is the last index
+	 * obtained from the same index, the rows of the added axioms are appended
+	 * to the arrays of this index, and the kept axioms keep their positions.
+	 * Otherwise, the new index is built from its axioms. This index is not
+	 * modified.
+	 *
+	 * @param addedAxioms
+	 *            axioms to add, which should not be in this index
+	 * @param removedAxioms
+	 *            axioms to remove
+	 * @return a new module index with the axioms of this index, without the
+	 *         removed axioms, and with the added axioms
+	 */
+	public ModuleIndex update(Collection<NormalizedIntegerAxiom> addedAxioms,
+			Collection<NormalizedIntegerAxiom> removedAxioms) {
+		Objects.requireNonNull(addedAxioms);
+		Objects.requireNonNull(removedAxioms);
+		synchronized (this.shared) {
+			if (this.shared.lastVersion == this.version) {
+				BitSet removed = (BitSet) this.removedAxioms.clone();
+				List<Integer> removedAxiomIds = new ArrayList<>();
+				removedAxioms.forEach(axiom -> {
+					Integer axiomId = this.shared.positions.get(axiom);
+					if (Objects.nonNull(axiomId) && !removed.get(axiomId)) {
+						removed.set(axiomId);
+						removedAxiomIds.add(axiomId);
+					}
+				});
+				int numberOfRemoved = this.numberOfRemovedAxioms + removedAxiomIds.size();
+				if (2 * numberOfRemoved <= this.numberOfPositions) {
+					removedAxiomIds.forEach(axiomId -> this.shared.positions.remove(getAxiom(axiomId)));
+					return append(addedAxioms, removed, numberOfRemoved);
+				}
+			}
+		}
+		Set<NormalizedIntegerAxiom> removed = new HashSet<>(removedAxioms);
+		Builder builder = new Builder();
+		this.axiomSet.stream().filter(axiom -> !removed.contains(axiom)).forEach(builder::add);
+		addedAxioms.forEach(builder::add);
+		return new ModuleIndex(builder);
+	}
+
+	/**
+	 * Returns a new module index with the rows of the given axioms appended to
+	 * the arrays of this index, which must be the last index of its shared
+	 * state. The added axioms form a new level, which is merged with the last
+	 * levels that are not bigger.
+	 */
+	ModuleIndex append(Collection<NormalizedIntegerAxiom> addedAxioms, BitSet removed, int numberOfRemoved) {
+		Builder builder = new Builder(this);
+		addedAxioms.forEach(builder::add);
+		List<LeftIndex> newLevels = new ArrayList<>(Arrays.asList(this.levels));
+		LeftIndex level = builder.createLeftIndex();
+		while (!newLevels.isEmpty() && newLevels.get(newLevels.size() - 1).size() <= level.size()) {
+			IntArrayBuilder withoutClassesOnTheLeft = new IntArrayBuilder();
+			IntArrayBuilder leftClasses = new IntArrayBuilder();
+			IntArrayBuilder leftAxioms = new IntArrayBuilder();
+			newLevels.remove(newLevels.size() - 1).copyTo(removed, withoutClassesOnTheLeft, leftClasses, leftAxioms);
+			level.copyTo(removed, withoutClassesOnTheLeft, leftClasses, leftAxioms);
+			level = new LeftIndex(withoutClassesOnTheLeft.toArray(), leftClasses.toArray(), leftAxioms.toArray());
+		}
+		newLevels.add(level);
+		this.shared.lastVersion++;
+		return new ModuleIndex(builder, this.shared.lastVersion, newLevels.toArray(new LeftIndex[newLevels.size()]),
+				removed, numberOfRemoved);
+	}
+
+	/**
+	 * Returns the sorted entities in the signature of the given axiom.
+	 *
+	 * @param axiom
+	 *            axiom
+	 * @return the sorted entities in the signature of the given axiom
+	 */
+	static int[] getEntities(IntegerAxiom axiom) {
+		IntArrayBuilder builder = new IntArrayBuilder();
+		axiom.getClassesInSignature().forEach(builder::add);
+		axiom.getObjectPropertiesInSignature().forEach(builder::add);
+		axiom.getIndividualsInSignature().forEach(builder::add);
+		axiom.getDataPropertiesInSignature().forEach(builder::add);
+		axiom.getDatatypesInSignature().forEach(builder::add);
+		return Arrays.stream(builder.toArray()).sorted().distinct().toArray();
+	}
+
+	/**
+	 * Returns the number of indexed axioms, without counting the removed
+	 * ones.
+	 *
+	 * @return the number of indexed axioms
+	 */
+	public int getNumberOfAxioms() {
+		return this.numberOfPositions - this.numberOfRemovedAxioms;
+	}
+
+	/**
+	 * Returns the number of positions, including the ones of the removed
+	 * axioms. Every position of an axiom is less than this number.
+	 *
+	 * @return the number of positions
+	 */
+	int getNumberOfPositions() {
+		return this.numberOfPositions;
+	}
+
+	/**
+	 * Returns the number of levels of the relation between classes and the
+	 * axioms where they occur on the left-hand side.
+	 *
+	 * @return the number of levels
+	 */
+	int getNumberOfLevels() {
+		return this.levels.length;
+	}
+
+	/**
+	 * Returns the axiom with the given position in the index.
+	 *
+	 * @param axiomId
+	 *            position of the axiom in the index
+	 * @return the axiom with the given position in the index
+	 */
+	public NormalizedIntegerAxiom getAxiom(int axiomId) {
+		return this.axioms[axiomId];
+	}
+
+	/**
+	 * Returns an unmodifiable view of the indexed axioms, without the removed
+	 * ones.
+	 *
+	 * @return an unmodifiable view of the indexed axioms
+	 */
+	public Set<NormalizedIntegerAxiom> getAxioms() {
+		return this.axiomSet;
+	}
+
+	/**
+	 * Returns the greatest entity found in the indexed axioms, including the
+	 * removed ones, or -1 if there are no entities.
+	 *
+	 * @return the greatest entity found in the indexed axioms
+	 */
+	public int getMaxEntity() {
+		return this.maxEntity;
+	}
+
+	/**
+	 * Applies the given consumer to the positions of the axioms that do not
+	 * have classes on the left-hand side. These axioms, which include the role
+	 * inclusions and the range axioms, belong to every module.
+	 *
+	 * @param consumer
+	 *            consumer of positions of axioms
+	 */
+	void forEachAxiomWithoutClassesOnTheLeft(IntConsumer consumer) {
+		for (LeftIndex level : this.levels) {
+			for (int axiomId : level.axiomsWithoutClassesOnTheLeft) {
+				if (!this.removedAxioms.get(axiomId)) {
+					consumer.accept(axiomId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the given consumer to the positions of the axioms where the
+	 * given class occurs on the left-hand side.
+	 *
+	 * @param classId
+	 *            class
+	 * @param consumer
+	 *            consumer of positions of axioms
+	 */
+	void forEachAxiomWithClassOnTheLeft(int classId, IntConsumer consumer) {
+		for (LeftIndex level : this.levels) {
+			if (classId >= 0 && classId + 1 < level.offsets.length) {
+				int end = level.offsets[classId + 1];
+				for (int position = level.offsets[classId]; position < end; position++) {
+					int axiomId = level.axiomsWithClassOnTheLeft[position];
+					if (!this.removedAxioms.get(axiomId)) {
+						consumer.accept(axiomId);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the positions of the axioms that do not have classes on the
+	 * left-hand side. These axioms, which include the role inclusions and the
+	 * range axioms, belong to every module.
+	 *
+	 * @return the positions of the axioms that do not have classes on the
+	 *         left-hand side
+	 */
+	public int[] getAxiomsWithoutClassesOnTheLeft() {
+		IntArrayBuilder ret = new IntArrayBuilder();
+		forEachAxiomWithoutClassesOnTheLeft(ret::add);
+		return ret.toArray();
+	}
+
+	/**
+	 * Returns the positions of the axioms where the given class occurs on the
+	 * left-hand side.
+	 *
+	 * @param classId
+	 *            class
+	 * @return the positions of the axioms where the given class occurs on the
+	 *         left-hand side
+	 */
+	public int[] getAxiomsWithClassOnTheLeft(int classId) {
+		IntArrayBuilder ret = new IntArrayBuilder();
+		forEachAxiomWithClassOnTheLeft(classId, ret::add);
+		return ret.toArray();
+	}
+
+	int getRightBegin(int axiomId) {
+		return this.rightOffsets[axiomId];
+	}
+
+	int getRightEnd(int axiomId) {
+		return this.rightOffsets[axiomId + 1];
+	}
+
+	int getRightClass(int position) {
+		return this.classesOnTheRight[position];
+	}
+
+	int getSignatureBegin(int axiomId) {
+		return this.signatureOffsets[axiomId];
+	}
+
+	int getSignatureEnd(int axiomId) {
+		return this.signatureOffsets[axiomId + 1];
+	}
+
+	int getSignatureEntity(int position) {
+		return this.signature[position];
+	}
+
+	/**
+	 * Returns the classes that occur on the right-hand side of the axiom with
+	 * the given position.
+	 *
+	 * @param axiomId
+	 *            position of the axiom in the index
+	 * @return the classes that occur on the right-hand side of the axiom with
+	 *         the given position
+	 */
+	public int[] getClassesOnTheRight(int axiomId) {
+		return Arrays.copyOfRange(this.classesOnTheRight, getRightBegin(axiomId), getRightEnd(axiomId));
+	}
+
+}
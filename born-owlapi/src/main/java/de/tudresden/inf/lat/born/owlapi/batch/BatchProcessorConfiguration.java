@@ -0,0 +1,222 @@
+package de.tudresden.inf.lat.born.owlapi.batch;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * This interface models the configuration of a batch processor.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public interface BatchProcessorConfiguration {
+
+	/**
+	 * Tells whether this configuration uses the default completion rules.
+	 * 
+	 * @return <code>true</code> if and only if this configuration uses the
+	 *         default completion rules
+	 */
+	boolean hasDefaultCompletionRules();
+
+	/**
+	 * Sets whether this configuration uses the default completion rules.
+	 * 
+	 * @param useOfRules
+	 *            use of the default completion rules
+	 */
+	void setUseOfDefaultCompletionRules(boolean useOfRules);
+
+	/**
+	 * Returns the additional completion rules.
+	 * 
+	 * @return the additional completion rules
+	 */
+	String getAdditionalCompletionRules();
+
+	/**
+	 * Sets the additional completion rules.
+	 * 
+	 * @param additionalCompletionRules
+	 *            additional completion rules
+	 */
+	void setAdditionalCompletionRules(String additionalCompletionRules);
+
+	/**
+	 * Returns the name of the ontology file, as shown in the results.
+	 * 
+	 * @return the name of the ontology file
+	 */
+	String getOntologyFileName();
+
+	/**
+	 * Sets the name of the ontology file, as shown in the results.
+	 * 
+	 * @param ontologyFileName
+	 *            name of the ontology file
+	 */
+	void setOntologyFileName(String ontologyFileName);
+
+	/**
+	 * Returns the ontology.
+	 * 
+	 * @return the ontology
+	 */
+	OWLOntology getOntology();
+
+	/**
+	 * Sets the ontology.
+	 * 
+	 * @param ontology
+	 *            ontology
+	 */
+	void setOntology(OWLOntology ontology);
+
+	/**
+	 * Returns the name of the Bayesian network file, as shown in the results.
+	 * 
+	 * @return the name of the Bayesian network file
+	 */
+	String getBayesianNetworkFileName();
+
+	/**
+	 * Sets the name of the Bayesian network file, as shown in the results.
+	 * 
+	 * @param bayesianNetworkFileName
+	 *            name of the Bayesian network file
+	 */
+	void setBayesianNetworkFileName(String bayesianNetworkFileName);
+
+	/**
+	 * Returns the Bayesian network.
+	 * 
+	 * @return the Bayesian network
+	 */
+	String getBayesianNetwork();
+
+	/**
+	 * Sets the Bayesian network.
+	 * 
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 */
+	void setBayesianNetwork(String bayesianNetwork);
+
+	/**
+	 * Returns the queries, i.e. a text containing many ProbLog queries.
+	 * 
+	 * @return the queries
+	 */
+	String getQueries();
+
+	/**
+	 * Sets the queries, i.e. a text containing many ProbLog queries.
+	 * 
+	 * @param queries
+	 *            queries
+	 */
+	void setQueries(String queries);
+
+	/**
+	 * Returns the maximum number of queries sent in one ProbLog invocation.
+	 * 
+	 * @return the maximum number of queries sent in one ProbLog invocation
+	 */
+	int getChunkSize();
+
+	/**
+	 * Sets the maximum number of queries sent in one ProbLog invocation.
+	 * 
+	 * @param chunkSize
+	 *            maximum number of queries sent in one ProbLog invocation
+	 */
+	void setChunkSize(int chunkSize);
+
+	/**
+	 * Returns the output file name.
+	 * 
+	 * @return the output file name
+	 */
+	String getOutputFileName();
+
+	/**
+	 * Sets the output file name.
+	 * 
+	 * @param outputFileName
+	 *            output file name
+	 */
+	void setOutputFileName(String outputFileName);
+
+	/**
+	 * Returns the query processor.
+	 * 
+	 * @return the query processor
+	 */
+	Function<String, String> getQueryProcessor();
+
+	/**
+	 * Sets the query processor.
+	 * 
+	 * @param queryProcessor
+	 *            query processor
+	 */
+	void setQueryProcessor(Function<String, String> queryProcessor);
+
+	/**
+	 * Returns the query processor that reads the ProbLog program from a file,
+	 * if it is set. In that case, the ProbLog program of each chunk is written
+	 * to a temporary file and this query processor is used instead of the one
+	 * that receives the ProbLog program as a string.
+	 * 
+	 * @return the query processor that reads the ProbLog program from a file,
+	 *         if it is set
+	 */
+	Optional<Function<Path, String>> getFileQueryProcessor();
+
+	/**
+	 * Sets the query processor that reads the ProbLog program from a file.
+	 * 
+	 * @param fileQueryProcessor
+	 *            the query processor that reads the ProbLog program from a
+	 *            file
+	 */
+	void setFileQueryProcessor(Function<Path, String> fileQueryProcessor);
+
+	/**
+	 * Tells whether the ProbLog programs use short aliases instead of the
+	 * names of the entities.
+	 * 
+	 * @return <code>true</code> if and only if the ProbLog programs use short
+	 *         aliases instead of the names of the entities
+	 */
+	boolean isUsingAliases();
+
+	/**
+	 * Sets whether the ProbLog programs use short aliases instead of the names
+	 * of the entities. The answers are always written with the names.
+	 * 
+	 * @param usingAliases
+	 *            <code>true</code> if and only if the ProbLog programs use
+	 *            short aliases instead of the names of the entities
+	 */
+	void setUsingAliases(boolean usingAliases);
+
+	/**
+	 * Tells whether the log is showing.
+	 * 
+	 * @return <code>true</code> if and only if the log is showing
+	 */
+	boolean isShowingLog();
+
+	/**
+	 * Sets whether the log is showing.
+	 * 
+	 * @param showingLog
+	 *            <code>true</code> if and only if the log is showing
+	 */
+	void setShowingLog(boolean showingLog);
+
+}
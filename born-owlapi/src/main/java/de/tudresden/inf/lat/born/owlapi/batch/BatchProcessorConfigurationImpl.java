@@ -0,0 +1,229 @@
+package de.tudresden.inf.lat.born.owlapi.batch;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * 
+ * @author Julian Mendez
+ *
+ */
+public class BatchProcessorConfigurationImpl implements BatchProcessorConfiguration {
+
+	public static final int DEFAULT_CHUNK_SIZE = 100;
+
+	private boolean hasDefaultCompletionRules = true;
+	private String completionRules = "";
+	private String ontologyFileName = "";
+	private OWLOntology ontology;
+	private String bayesianNetworkFileName = "";
+	private String bayesianNetwork = "";
+	private String queries = "";
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private String outputFileName = "";
+	private Function<String, String> queryProcessor = null;
+	private Optional<Function<Path, String>> fileQueryProcessor = Optional.empty();
+	private boolean usingAliases = false;
+	private boolean showingLog = true;
+
+	/**
+	 * Constructs a new batch processor configuration.
+	 */
+	public BatchProcessorConfigurationImpl() {
+		OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+		try {
+			this.ontology = manager.createOntology();
+		} catch (OWLOntologyCreationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public boolean hasDefaultCompletionRules() {
+		return this.hasDefaultCompletionRules;
+	}
+
+	@Override
+	public void setUseOfDefaultCompletionRules(boolean useOfRules) {
+		this.hasDefaultCompletionRules = useOfRules;
+	}
+
+	@Override
+	public String getAdditionalCompletionRules() {
+		return this.completionRules;
+	}
+
+	@Override
+	public void setAdditionalCompletionRules(String completionRules) {
+		this.completionRules = Objects.requireNonNull(completionRules);
+	}
+
+	@Override
+	public String getOntologyFileName() {
+		return this.ontologyFileName;
+	}
+
+	@Override
+	public void setOntologyFileName(String ontologyFileName) {
+		this.ontologyFileName = Objects.requireNonNull(ontologyFileName);
+	}
+
+	@Override
+	public OWLOntology getOntology() {
+		return this.ontology;
+	}
+
+	@Override
+	public void setOntology(OWLOntology ontology) {
+		this.ontology = Objects.requireNonNull(ontology);
+	}
+
+	@Override
+	public String getBayesianNetworkFileName() {
+		return this.bayesianNetworkFileName;
+	}
+
+	@Override
+	public void setBayesianNetworkFileName(String bayesianNetworkFileName) {
+		this.bayesianNetworkFileName = Objects.requireNonNull(bayesianNetworkFileName);
+	}
+
+	@Override
+	public String getBayesianNetwork() {
+		return this.bayesianNetwork;
+	}
+
+	@Override
+	public void setBayesianNetwork(String bayesianNetwork) {
+		this.bayesianNetwork = Objects.requireNonNull(bayesianNetwork);
+	}
+
+	@Override
+	public String getQueries() {
+		return this.queries;
+	}
+
+	@Override
+	public void setQueries(String queries) {
+		this.queries = Objects.requireNonNull(queries);
+	}
+
+	@Override
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+
+	@Override
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Invalid chunk size: '" + chunkSize + "'.");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public String getOutputFileName() {
+		return this.outputFileName;
+	}
+
+	@Override
+	public void setOutputFileName(String outputFileName) {
+		this.outputFileName = Objects.requireNonNull(outputFileName);
+	}
+
+	@Override
+	public Function<String, String> getQueryProcessor() {
+		return this.queryProcessor;
+	}
+
+	@Override
+	public void setQueryProcessor(Function<String, String> queryProcessor) {
+		this.queryProcessor = Objects.requireNonNull(queryProcessor);
+	}
+
+	@Override
+	public Optional<Function<Path, String>> getFileQueryProcessor() {
+		return this.fileQueryProcessor;
+	}
+
+	@Override
+	public void setFileQueryProcessor(Function<Path, String> fileQueryProcessor) {
+		this.fileQueryProcessor = Optional.of(fileQueryProcessor);
+	}
+
+	@Override
+	public boolean isUsingAliases() {
+		return this.usingAliases;
+	}
+
+	@Override
+	public void setUsingAliases(boolean usingAliases) {
+		this.usingAliases = usingAliases;
+	}
+
+	@Override
+	public boolean isShowingLog() {
+		return this.showingLog;
+	}
+
+	@Override
+	public void setShowingLog(boolean showingLog) {
+		this.showingLog = showingLog;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof BatchProcessorConfiguration)) {
+			return false;
+		} else {
+			BatchProcessorConfiguration other = (BatchProcessorConfiguration) obj;
+			return (hasDefaultCompletionRules() == other.hasDefaultCompletionRules())
+					&& getAdditionalCompletionRules().equals(other.getAdditionalCompletionRules())
+					&& getOntologyFileName().equals(other.getOntologyFileName())
+					&& getOntology().equals(other.getOntology())
+					&& getBayesianNetworkFileName().equals(other.getBayesianNetworkFileName())
+					&& getBayesianNetwork().equals(other.getBayesianNetwork())
+					&& getQueries().equals(other.getQueries()) && (getChunkSize() == other.getChunkSize())
+					&& getOutputFileName().equals(other.getOutputFileName())
+					&& Objects.equals(getQueryProcessor(), other.getQueryProcessor())
+					&& getFileQueryProcessor().equals(other.getFileQueryProcessor())
+					&& (isUsingAliases() == other.isUsingAliases())
+					&& (isShowingLog() == other.isShowingLog());
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return (this.hasDefaultCompletionRules ? 1 : 0) + //
+				0x1F * (this.completionRules.hashCode() + //
+						0x1F * (this.ontologyFileName.hashCode() + //
+								0x1F * (this.ontology.hashCode() + //
+										0x1F * (this.bayesianNetworkFileName.hashCode() + //
+												0x1F * (this.bayesianNetwork.hashCode() + //
+														0x1F * (this.queries.hashCode() + //
+																0x1F * (this.chunkSize + //
+																		0x1F * (this.outputFileName.hashCode() + //
+																				0x1F * (Objects.hashCode(this.queryProcessor) + //
+																						0x1F * (this.fileQueryProcessor.hashCode() + //
+																								0x1F * ((this.usingAliases ? 1 : 0) + //
+																										0x1F * (this.showingLog ? 1 : 0))))))))))));
+	}
+
+	@Override
+	public String toString() {
+		return this.hasDefaultCompletionRules + " " + this.completionRules + " " + this.ontologyFileName + " "
+				+ this.bayesianNetworkFileName + " " + this.queries + " " + this.chunkSize
+				+ " " + this.outputFileName + " " + this.queryProcessor + " " + this.fileQueryProcessor + " "
+				+ this.usingAliases + " " + this.showingLog;
+	}
+
+}
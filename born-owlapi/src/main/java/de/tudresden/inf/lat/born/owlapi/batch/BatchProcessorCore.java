@@ -0,0 +1,342 @@
+package de.tudresden.inf.lat.born.owlapi.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.born.core.rule.FormulaConstructor;
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.owlapi.multiprocessor.MultiProcessorCore;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntologyCache;
+import de.tudresden.inf.lat.born.owlapi.processor.ProblogInputCreator;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorCore;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
+import de.tudresden.inf.lat.born.problog.parser.Token;
+import de.tudresden.inf.lat.born.problog.parser.TokenCreator;
+import de.tudresden.inf.lat.born.problog.parser.TokenType;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class answers many queries over one OWL ontology and one
+ * Bayesian network. The queries are divided in chunks, and each chunk is
+ * answered by one ProbLog program built over the union of the modules of its
+ * queries. The answers are split back per query, using the same format as
+ * {@link MultiProcessorCore}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BatchProcessorCore implements AutoCloseable {
+
+	public static final String LINE_SEPARATOR = Symbol.LINE_SEPARATOR;
+	public static final String QUERY_PREFIX = FormulaConstructor.QUERY + Symbol.PAR_A_CHAR;
+	public static final String QUERY_SUFFIX = "" + Symbol.PAR_B_CHAR + Symbol.POINT_CHAR;
+	public static final String ANSWER_SEPARATOR = "" + Symbol.COLON_CHAR + MultiProcessorCore.TAB_CHAR;
+
+	private final CompiledOntologyCache compiledOntologyCache;
+	private final MultiProcessorCore multiProcessorCore = new MultiProcessorCore();
+
+	/**
+	 * Constructs a new batch processor core.
+	 */
+	public BatchProcessorCore() {
+		this(new CompiledOntologyCache());
+	}
+
+	/**
+	 * Constructs a new batch processor core that uses the given cache of
+	 * compiled ontologies.
+	 *
+	 * @param compiledOntologyCache
+	 *            cache of compiled ontologies
+	 */
+	public BatchProcessorCore(CompiledOntologyCache compiledOntologyCache) {
+		this.compiledOntologyCache = Objects.requireNonNull(compiledOntologyCache);
+	}
+
+	/**
+	 * Closes the cache of compiled ontologies, so that the compiled ontologies
+	 * are not kept after the run.
+	 */
+	@Override
+	public void close() {
+		this.compiledOntologyCache.close();
+		this.multiProcessorCore.close();
+	}
+
+	void log(BatchProcessorConfiguration conf, String str, long start) {
+		if (conf.isShowingLog()) {
+			System.out.println("" + (System.nanoTime() - start) + Symbol.TAB_AND_COLON + str);
+		}
+	}
+
+	/**
+	 * Returns the queries found in the given text. Each query is returned
+	 * without blanks or comments, e.g. <code>query(sub('A','B')).</code>.
+	 *
+	 * @param text
+	 *            text containing queries
+	 * @return the queries found in the given text
+	 */
+	public List<String> getQueries(String text) {
+		Objects.requireNonNull(text);
+		List<String> ret = new ArrayList<>();
+		List<Token> tokens = new TokenCreator().createTokens(new StringReader(text));
+		StringBuilder statement = new StringBuilder();
+		tokens.forEach(token -> {
+			statement.append(token.getValue());
+			if (token.getType().equals(TokenType.SYMBOL) && token.getValue().equals("" + Symbol.POINT_CHAR)) {
+				String str = statement.toString();
+				if (str.startsWith(QUERY_PREFIX) && str.endsWith(QUERY_SUFFIX)) {
+					ret.add(str);
+				}
+				statement.setLength(0);
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * Returns the term of a query, e.g. <code>sub('A','B')</code> for
+	 * <code>query(sub('A','B')).</code>.
+	 *
+	 * @param query
+	 *            query
+	 * @return the term of a query
+	 */
+	String getTerm(String query) {
+		return query.substring(QUERY_PREFIX.length(), query.length() - QUERY_SUFFIX.length());
+	}
+
+	/**
+	 * Returns a key to compare terms written by ProbLog with terms written in
+	 * the queries. The key ignores blanks and apostrophes.
+	 *
+	 * @param term
+	 *            term
+	 * @return a key to compare terms written by ProbLog with terms written in
+	 *         the queries
+	 */
+	String getKey(String term) {
+		StringBuilder sb = new StringBuilder();
+		term.chars().filter(ch -> !Character.isWhitespace(ch) && (ch != Symbol.APOSTROPHE_CHAR))
+				.forEach(ch -> sb.append((char) ch));
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the arguments of a term, without apostrophes.
+	 *
+	 * @param term
+	 *            term
+	 * @return the arguments of a term
+	 */
+	List<String> getArguments(String term) {
+		List<String> ret = new ArrayList<>();
+		int begin = term.indexOf(Symbol.PAR_A_CHAR);
+		int end = term.lastIndexOf(Symbol.PAR_B_CHAR);
+		if (begin != -1 && end > begin) {
+			boolean quoted = false;
+			StringBuilder current = new StringBuilder();
+			for (int i = begin + 1; i < end; i++) {
+				char ch = term.charAt(i);
+				if (ch == Symbol.APOSTROPHE_CHAR) {
+					quoted = !quoted;
+				} else if (ch == Symbol.COMMA_CHAR && !quoted) {
+					ret.add(current.toString().trim());
+					current.setLength(0);
+				} else {
+					current.append(ch);
+				}
+			}
+			ret.add(current.toString().trim());
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns a map from the key of each term to its probability, as read from
+	 * the output of ProbLog.
+	 *
+	 * @param problogOutput
+	 *            output of ProbLog
+	 * @return a map from the key of each term to its probability
+	 */
+	OptMap<String, String> parseAnswers(String problogOutput) {
+		OptMap<String, String> ret = new OptMapImpl<>(new TreeMap<>());
+		new BufferedReader(new StringReader(problogOutput)).lines().forEach(line -> {
+			int pos = line.lastIndexOf(Symbol.COLON_CHAR);
+			if (pos != -1) {
+				ret.put(getKey(line.substring(0, pos)), line.substring(pos + 1).trim());
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * Returns the given list divided in chunks of at most the given size.
+	 *
+	 * @param list
+	 *            list
+	 * @param chunkSize
+	 *            maximum size of each chunk
+	 * @return the given list divided in chunks of at most the given size
+	 */
+	<T> List<List<T>> getChunks(List<T> list, int chunkSize) {
+		List<List<T>> ret = new ArrayList<>();
+		for (int index = 0; index < list.size(); index += chunkSize) {
+			ret.add(list.subList(index, Math.min(index + chunkSize, list.size())));
+		}
+		return ret;
+	}
+
+	List<String> getConditions(BatchProcessorConfiguration conf, String term) {
+		List<String> ret = new ArrayList<>();
+		ret.add(conf.getOntologyFileName());
+		ret.add(conf.getBayesianNetworkFileName());
+		List<String> arguments = getArguments(term);
+		ret.add(arguments.isEmpty() ? "" : arguments.get(0));
+		ret.add(arguments.size() < 2 ? "" : arguments.get(arguments.size() - 1));
+		return ret;
+	}
+
+	/**
+	 * Returns the output of the query processor of the given configuration on
+	 * the given ProbLog program. If the configuration has a query processor
+	 * that reads the ProbLog program from a file, the program is written to a
+	 * temporary file, which is deleted afterwards.
+	 *
+	 * @param conf
+	 *            configuration
+	 * @param problogProgram
+	 *            ProbLog program
+	 * @return the output of the query processor on the given ProbLog program
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	String process(BatchProcessorConfiguration conf, String problogProgram) throws IOException {
+		Optional<Function<Path, String>> fileQueryProcessor = conf.getFileQueryProcessor();
+		if (fileQueryProcessor.isPresent()) {
+			Path inputForProblog = Files.createTempFile(ProcessorCore.TEMP_FILE_PREFIX,
+					ProcessorCore.TEMP_FILE_SUFFIX);
+			try {
+				Files.write(inputForProblog, problogProgram.getBytes(StandardCharsets.UTF_8));
+				return fileQueryProcessor.get().apply(inputForProblog);
+			} finally {
+				Files.deleteIfExists(inputForProblog);
+			}
+		} else {
+			return conf.getQueryProcessor().apply(problogProgram);
+		}
+	}
+
+	/**
+	 * Answers one chunk of queries and appends one line per query to the given
+	 * string builder. The queries are given as written, and their prefixes
+	 * are expanded only once, when the ProbLog program is created. The terms
+	 * of the answers are the ones of the expanded queries.
+	 *
+	 * @param conf
+	 *            configuration
+	 * @param start
+	 *            execution start
+	 * @param compiledOntology
+	 *            compiled ontology with the completion rules of the
+	 *            configuration
+	 * @param chunk
+	 *            queries, without expanding their prefixes
+	 * @param executionResult
+	 *            execution result of the chunk
+	 * @param sb
+	 *            string builder
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	void runChunk(BatchProcessorConfiguration conf, long start, CompiledOntology compiledOntology,
+			List<String> chunk, ProcessorExecutionResult executionResult, StringBuilder sb) throws IOException {
+		long chunkStart = System.nanoTime();
+
+		StringBuilder queryText = new StringBuilder();
+		chunk.forEach(query -> {
+			queryText.append(query);
+			queryText.append(Symbol.NEW_LINE_CHAR);
+		});
+
+		StringWriter inputForProblog = new StringWriter();
+		String info = new ProblogInputCreator().createProblogFile(compiledOntology, conf.getBayesianNetwork(),
+				queryText.toString(), conf.isUsingAliases(), inputForProblog, executionResult);
+		log(conf, info, start);
+
+		long queryProcessingStart = System.nanoTime();
+		String problogOutput = process(conf, inputForProblog.toString());
+		executionResult.setProblogReasoningTime(System.nanoTime() - queryProcessingStart);
+		if (conf.isUsingAliases()) {
+			problogOutput = compiledOntology.getSymbolAliasTable().decode(problogOutput);
+		}
+		executionResult.setTotalTime(System.nanoTime() - chunkStart);
+		log(conf, "Answered " + chunk.size() + " queries.", start);
+
+		OptMap<String, String> answers = parseAnswers(problogOutput);
+		chunk.forEach(query -> {
+			String term = getTerm(compiledOntology.getPrefixExpander().rewrite(query));
+			Optional<String> optAnswer = answers.get(getKey(term));
+			executionResult.setResult(term + ANSWER_SEPARATOR + (optAnswer.isPresent() ? optAnswer.get() : ""));
+			sb.append(this.multiProcessorCore.makeLine(getConditions(conf, term)));
+			sb.append(this.multiProcessorCore.makeLine(this.multiProcessorCore.getResult(executionResult)).trim());
+			sb.append(LINE_SEPARATOR);
+		});
+	}
+
+	/**
+	 * Answers all the queries of the given configuration and returns the
+	 * results as tab-separated values, one line per query. The ontology is
+	 * compiled with the completion rules of the configuration, and the
+	 * prefixes of the queries are expanded with the prefixes of the compiled
+	 * ontology. The translation and normalization times are shown in the
+	 * lines of the first chunk.
+	 *
+	 * @param conf
+	 *            configuration
+	 * @param start
+	 *            execution start
+	 * @return the results as tab-separated values, one line per query
+	 */
+	public String run(BatchProcessorConfiguration conf, long start) {
+		Objects.requireNonNull(conf);
+		StringBuilder sb = new StringBuilder();
+		sb.append(this.multiProcessorCore.makeLine(MultiProcessorCore.FIRST_LINE_LIST));
+		sb.append(LINE_SEPARATOR);
+
+		ProcessorExecutionResult compilationResult = new ProcessorExecutionResultImpl();
+		CompiledOntology compiledOntology = this.compiledOntologyCache.get(conf.getOntology(),
+				conf.hasDefaultCompletionRules(), conf.getAdditionalCompletionRules(), compilationResult);
+		List<String> queries = getQueries(conf.getQueries());
+		log(conf, "Read " + queries.size() + " queries.", start);
+
+		ProcessorExecutionResult executionResult = compilationResult;
+		for (List<String> chunk : getChunks(queries, conf.getChunkSize())) {
+			try {
+				runChunk(conf, start, compiledOntology, chunk, executionResult, sb);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			executionResult = new ProcessorExecutionResultImpl();
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,184 @@
+package de.tudresden.inf.lat.born.owlapi.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.core.common.ResourceUtil;
+import de.tudresden.inf.lat.born.core.term.SubApp;
+import de.tudresden.inf.lat.born.owlapi.processor.ProblogCommand;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorOptions;
+import de.tudresden.inf.lat.jproblog.JProblog;
+
+/**
+ * An object of this class answers many queries over one OWL ontology and one
+ * Bayesian network, and writes the results as tab-separated values.
+ *
+ * @see BatchProcessorCore
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BatchProcessorSubApp implements SubApp {
+
+	static final String CHUNK_SIZE_OPTION = "--chunk-size=";
+	static final String STANDARD_INPUT = "-";
+	public static final String COMMAND = "batch";
+	static final String HELP = ""
+			+ "\nParameters: [--log] [--chunk-size=<size>] [--aliases] [--problog=<command>] <ontology file> <Bayesian network file> <query file> <output file>"
+			+ "\n"
+			+ "\n  <ontology file>          : file name of the probabilistic ontology, i.e. the OWL file with annotations"
+			+ "\n  <Bayesian network file>  : file name of the Bayesian network"
+			+ "\n  <query file>             : file name of the queries, or '-' to read them from the standard input"
+			+ "\n  <output file>            : file name of the output, with one line per query" + "\n" + "\n Options:"
+			+ "\n   --log                   : shows log"
+			+ "\n   --chunk-size=<size>     : maximum number of queries answered by one ProbLog execution (default "
+			+ BatchProcessorConfigurationImpl.DEFAULT_CHUNK_SIZE + ")" //
+			+ "\n   --aliases               : writes the entities in the ProbLog programs with short aliases" //
+			+ "\n   --problog=<command>     : runs the given command of an installed ProbLog on a file with the ProbLog program of each chunk, instead of the embedded ProbLog" //
+			+ "\n  The other options of command get are not supported, since each chunk of queries is answered by one ProbLog execution."
+			+ "\n" + "\nExamples:" + "\n"
+			+ "\n Execution:" + "\n  java -jar born.jar " + COMMAND + " ontology.owl network.pl queries.pl output.csv"
+			+ "\n" + "\n Execution reading the queries from the standard input:" + "\n  java -jar born.jar "
+			+ COMMAND + " --chunk-size=500 ontology.owl network.pl - output.csv < queries.pl" + "\n"
+			+ "\n Example of queries:" + "\n  query(sub('A', 'C'))." + "\n  query(sub('B', 'C'))."
+			+ "\n  query(inst('a', 'C'))." + "\n" + "\n"
+			+ "\nNote: this program requires an Internet connection to install ProbLog." + "\n" //
+			+ "\n";
+
+	private final ProcessorOptions options = new ProcessorOptions();
+
+	/**
+	 * Constructs a new batch processor.
+	 */
+	public BatchProcessorSubApp() {
+	}
+
+	boolean isChunkSizeOption(String arg) {
+		return this.options.isPositiveIntegerOption(CHUNK_SIZE_OPTION, arg);
+	}
+
+	boolean isProblogOption(String arg) {
+		return arg.startsWith(ProcessorOptions.PROBLOG_OPTION) && this.options.isOption(arg);
+	}
+
+	boolean isOption(String arg) {
+		return this.options.isOption(arg) || isChunkSizeOption(arg);
+	}
+
+	/**
+	 * Tells whether the given argument is an option that can be applied to
+	 * one ProbLog execution for each chunk of queries.
+	 */
+	boolean isSupportedOption(String arg) {
+		return arg.equals(ProcessorOptions.LOGGING_OPTION) || arg.equals(ProcessorOptions.ALIASES_OPTION)
+				|| isProblogOption(arg) || isChunkSizeOption(arg);
+	}
+
+	List<String> getUnsupportedOptions(String[] args) {
+		List<String> ret = new ArrayList<>();
+		for (String arg : args) {
+			if (isOption(arg) && !isSupportedOption(arg)) {
+				ret.add(arg);
+			}
+		}
+		return ret;
+	}
+
+	List<String> getParameters(String[] args) {
+		List<String> ret = new ArrayList<>();
+		for (String arg : args) {
+			if (!isOption(arg)) {
+				ret.add(arg);
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public boolean isValid(String[] args) {
+		Objects.requireNonNull(args);
+		return getParameters(args).size() == 4;
+	}
+
+	@Override
+	public String getHelp() {
+		return HELP;
+	}
+
+	@Override
+	public String run(String[] args) {
+		Objects.requireNonNull(args);
+		long start = System.nanoTime();
+		List<String> unsupportedOptions = getUnsupportedOptions(args);
+		if (!unsupportedOptions.isEmpty()) {
+			return "Options not supported by command " + COMMAND
+					+ ", which answers each chunk of queries with one ProbLog execution: "
+					+ String.join(" ", unsupportedOptions) + "\n";
+		} else if (isValid(args)) {
+			BatchProcessorConfiguration conf = new BatchProcessorConfigurationImpl();
+			conf.setShowingLog(false);
+			for (String arg : args) {
+				if (arg.equals(ProcessorOptions.LOGGING_OPTION)) {
+					conf.setShowingLog(true);
+				} else if (isChunkSizeOption(arg)) {
+					conf.setChunkSize(Integer.parseInt(arg.substring(CHUNK_SIZE_OPTION.length())));
+				} else if (arg.equals(ProcessorOptions.ALIASES_OPTION)) {
+					conf.setUsingAliases(true);
+				} else if (isProblogOption(arg)) {
+					conf.setFileQueryProcessor(new ProblogCommand(arg.substring(ProcessorOptions.PROBLOG_OPTION.length())));
+				}
+			}
+			List<String> parameters = getParameters(args);
+
+			try {
+				conf.setOntologyFileName(new File(parameters.get(0)).getName());
+				conf.setOntology(ProcessorConfigurationImpl.readOntology(new FileInputStream(parameters.get(0))));
+				conf.setBayesianNetworkFileName(new File(parameters.get(1)).getName());
+				conf.setBayesianNetwork(ProcessorConfigurationImpl.read(new FileReader(parameters.get(1))));
+				Reader queryReader = parameters.get(2).equals(STANDARD_INPUT) ? new InputStreamReader(System.in)
+						: new FileReader(parameters.get(2));
+				conf.setQueries(ProcessorConfigurationImpl.read(queryReader));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (OWLOntologyCreationException e) {
+				throw new RuntimeException(e);
+			}
+			conf.setOutputFileName(parameters.get(3));
+
+			if (!conf.getFileQueryProcessor().isPresent()) {
+				conf.setQueryProcessor(new JProblog());
+			}
+
+			String result;
+			try (BatchProcessorCore core = new BatchProcessorCore()) {
+				result = core.run(conf, start);
+			}
+			try {
+				Writer output = new FileWriter(ResourceUtil.ensurePath(conf.getOutputFileName()));
+				output.write(result);
+				output.flush();
+				output.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			return result;
+		} else {
+			return getHelp();
+		}
+	}
+
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains classes and interfaces to answer many queries over
+ * one OWL ontology and one Bayesian network with few ProbLog invocations.
+ */
+package de.tudresden.inf.lat.born.owlapi.batch;
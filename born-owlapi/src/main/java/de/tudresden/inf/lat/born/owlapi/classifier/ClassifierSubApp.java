@@ -0,0 +1,95 @@
+package de.tudresden.inf.lat.born.owlapi.classifier;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.core.common.ResourceUtil;
+import de.tudresden.inf.lat.born.core.term.SubApp;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.ProbabilisticClassifier;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
+
+/**
+ * An object of this class computes the probabilities of all the subsumptions
+ * between named classes of a probabilistic ontology, and writes them to a
+ * file with tab-separated values.
+ *
+ * @see ProbabilisticClassifier
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ClassifierSubApp implements SubApp {
+
+	public static final String COMMAND = "classify";
+	static final String HELP = ""
+			+ "\nParameters: <ontology file> <Bayesian network file> <output file>"
+			+ "\n"
+			+ "\n  <ontology file>          : file name of the probabilistic ontology, i.e. the OWL file with annotations"
+			+ "\n  <Bayesian network file>  : file name of the Bayesian network"
+			+ "\n  <output file>            : file name of the output, with one line per subsumption containing the subclass, the superclass, and the probability, separated by tabs"
+			+ "\n"
+			+ "\nExample:" + "\n  java -jar born.jar " + COMMAND + " ontology.owl network.pl output.tsv" + "\n"
+			+ "\n";
+
+	/**
+	 * Constructs a new classifier.
+	 */
+	public ClassifierSubApp() {
+	}
+
+	@Override
+	public String getHelp() {
+		return HELP;
+	}
+
+	@Override
+	public boolean isValid(String[] args) {
+		Objects.requireNonNull(args);
+		return (args.length == 3);
+	}
+
+	@Override
+	public String run(String[] args) {
+		Objects.requireNonNull(args);
+		if (isValid(args)) {
+			long start = System.nanoTime();
+			ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+			long numberOfSubsumptions;
+			try (InputStream ontologyInput = new FileInputStream(args[0]);
+					Reader bayesianNetworkInput = new FileReader(args[1])) {
+				CompiledOntology compiledOntology = new CompiledOntology(
+						ProcessorConfigurationImpl.readOntology(ontologyInput), true, "");
+				String bayesianNetwork = ProcessorConfigurationImpl.read(bayesianNetworkInput);
+				try (Writer output = new BufferedWriter(new OutputStreamWriter(
+						new FileOutputStream(ResourceUtil.ensurePath(args[2])), StandardCharsets.UTF_8))) {
+					numberOfSubsumptions = new ProbabilisticClassifier().run(compiledOntology, bayesianNetwork,
+							output, executionResult);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (OWLOntologyCreationException e) {
+				throw new RuntimeException(e);
+			}
+			executionResult.setTotalTime(System.nanoTime() - start);
+			return "Subsumptions: " + numberOfSubsumptions + "\n" + executionResult.toString();
+		} else {
+			return getHelp();
+		}
+	}
+
+}
@@ -0,0 +1,6 @@
+/**
+ * This package contains classes to compute the probabilities of all the
+ * subsumptions between named classes of a probabilistic ontology in a single
+ * run.
+ */
+package de.tudresden.inf.lat.born.owlapi.classifier;
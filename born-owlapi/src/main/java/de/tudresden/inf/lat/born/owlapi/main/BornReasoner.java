@@ -7,26 +7,38 @@
 package de.tudresden.inf.lat.born.owlapi.main;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import org.semanticweb.owlapi.reasoner.AxiomNotInProfileException;
 import org.semanticweb.owlapi.reasoner.BufferingMode;
 import org.semanticweb.owlapi.reasoner.ClassExpressionNotInProfileException;
@@ -43,11 +55,38 @@ import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
 import org.semanticweb.owlapi.reasoner.ReasonerProgressMonitor;
 import org.semanticweb.owlapi.reasoner.TimeOutException;
 import org.semanticweb.owlapi.reasoner.UnsupportedEntailmentTypeException;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
 import org.semanticweb.owlapi.util.Version;
 
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.CrispClassification;
+import de.tudresden.inf.lat.born.owlapi.processor.IncrementalOntologyCompiler;
+import de.tudresden.inf.lat.born.owlapi.processor.InstanceProbability;
+import de.tudresden.inf.lat.born.owlapi.processor.InstanceRetrieval;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorCore;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+
 /**
  * This class is the connection with the OWL API. It implements some functions,
- * and throws an exception for the unimplemented ones.
+ * and throws an exception for the unimplemented ones. The reasoner keeps the
+ * root ontology compiled, and updates it with the axioms that are added or
+ * removed. If the reasoner is buffering, the changes are applied when
+ * {@link #flush()} is called. The class hierarchy and the class assertions
+ * are answered from a classification where all the axioms hold, including
+ * the annotated ones, which is computed once for each state of the ontology.
+ * Probabilistic queries are answered asynchronously with
+ * {@link #submit(ProcessorConfiguration)}, within the time out of the
+ * reasoner, and they are cancelled by {@link #interrupt()}. The instances of
+ * a class with their probabilities are retrieved with
+ * {@link #getInstances(OWLClassExpression, String, double)}. After
+ * {@link #dispose()}, the running queries are cancelled, the compiled state
+ * of the ontology is released, and the reasoner cannot be used anymore.
  * 
  * @author Julian Mendez
  */
@@ -56,10 +95,18 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	private static final Logger logger = Logger.getLogger(BornReasoner.class.getName());
 
 	public static final String REASONER_NAME = "BORN";
-	private final boolean buffering = false;
+	static final String DISPOSED_MSG = "The reasoner has been disposed.";
+	private final boolean buffering;
 	private OWLReasonerConfiguration reasonerConfiguration = null;
 	private final OWLOntology rootOntology;
 	private long timeOut = 0x100000000L;
+	private final List<OWLOntologyChange> pendingChanges = new ArrayList<>();
+	private IncrementalOntologyCompiler compiler = null;
+	private CompiledOntology compiledOntology = null;
+	private CrispClassification classification = null;
+	private final ProcessorCore processorCore = new ProcessorCore();
+	private final Set<CompletableFuture<ProcessorExecutionResult>> runningQueries = ConcurrentHashMap.newKeySet();
+	private boolean disposed = false;
 
 	/**
 	 * Constructs a new BORN reasoner.
@@ -73,6 +120,8 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 		Objects.requireNonNull(rootOntology);
 		logger.fine("configuring BORN reasoner ...");
 		this.rootOntology = rootOntology;
+		this.buffering = buffering;
+		this.rootOntology.getOWLOntologyManager().addOntologyChangeListener(this);
 
 		logger.fine("BORN reasoner configured.");
 	}
@@ -85,28 +134,244 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	 * @param buffering
 	 *            <code>true</code> if and only if the reasoner is buffering
 	 * @param configuration
-	 *            reasoner configuration
+	 *            reasoner configuration, whose time out is used for the
+	 *            probabilistic queries
 	 */
 	public BornReasoner(OWLOntology rootOntology, boolean buffering, OWLReasonerConfiguration configuration) {
 		this(rootOntology, buffering);
 		this.reasonerConfiguration = Objects.requireNonNull(configuration);
+		this.timeOut = configuration.getTimeOut();
 	}
 
+	/**
+	 * Stops listening to the changes of the root ontology, cancels the running
+	 * queries, and releases the compiled state of the ontology and its
+	 * classification.
+	 */
 	@Override
-	public void dispose() {
+	public synchronized void dispose() {
 		logger.finer("dispose()");
 		this.rootOntology.getOWLOntologyManager().removeOntologyChangeListener(this);
+		this.disposed = true;
+		interrupt();
+		this.pendingChanges.clear();
+		this.compiler = null;
+		this.compiledOntology = null;
+		this.classification = null;
+		this.processorCore.close();
+	}
+
+	void checkNotDisposed() {
+		if (this.disposed) {
+			throw new IllegalStateException(DISPOSED_MSG);
+		}
 	}
 
 	@Override
-	public void flush() {
+	public synchronized void flush() {
 		logger.finer("flush()");
+		if (!this.pendingChanges.isEmpty()) {
+			applyChanges(this.pendingChanges, false);
+			this.pendingChanges.clear();
+		}
 	}
 
-	@Override
-	public Node<OWLClass> getBottomClassNode() {
+	/**
+	 * Applies the given changes to the compiled state of the ontology, or
+	 * undoes them if requested. The changes are reduced to the axioms that are
+	 * added and the axioms that are removed, so an axiom that is added and
+	 * then removed is not compiled. If the ontology has not been compiled yet,
+	 * there is nothing to update.
+	 * 
+	 * @param changes
+	 *            axiom changes of the root ontology
+	 * @param undoing
+	 *            <code>true</code> if and only if the changes are undone
+	 */
+	void applyChanges(List<OWLOntologyChange> changes, boolean undoing) {
+		if (Objects.nonNull(this.compiler) && !changes.isEmpty()) {
+			Set<OWLAxiom> axiomsToAdd = new LinkedHashSet<>();
+			Set<OWLAxiom> axiomsToRemove = new LinkedHashSet<>();
+			List<OWLOntologyChange> orderedChanges = new ArrayList<>(changes);
+			if (undoing) {
+				Collections.reverse(orderedChanges);
+			}
+			orderedChanges.forEach(change -> {
+				OWLAxiom axiom = change.getAxiom();
+				if (change.isAddAxiom() != undoing) {
+					if (!axiomsToRemove.remove(axiom)) {
+						axiomsToAdd.add(axiom);
+					}
+				} else if (!axiomsToAdd.remove(axiom)) {
+					axiomsToRemove.add(axiom);
+				}
+			});
+			this.compiler.update(axiomsToAdd, axiomsToRemove);
+			this.compiledOntology = null;
+			this.classification = null;
+		}
+	}
+
+	/**
+	 * Returns the root ontology translated, normalized, and indexed for module
+	 * extraction, as it was after the last flush if the reasoner is buffering.
+	 * The ontology is compiled the first time, and after that, only the
+	 * changed axioms are compiled again. The compiler updates its module index
+	 * in place, so the compiled ontology of each state of the ontology is a
+	 * view of the compiler that does not copy the axioms, and it has to be
+	 * read while holding its read lock. The changes wait until the compiled
+	 * ontologies are not being read.
+	 * 
+	 * @param useOfDefaultCompletionRules
+	 *            <code>true</code> if and only if the default completion rules
+	 *            are used
+	 * @param additionalCompletionRules
+	 *            additional completion rules
+	 * @return the root ontology translated, normalized, and indexed for
+	 *         module extraction
+	 * @throws IllegalStateException
+	 *             if the reasoner has been disposed
+	 */
+	public synchronized CompiledOntology getCompiledOntology(boolean useOfDefaultCompletionRules,
+			String additionalCompletionRules) {
+		Objects.requireNonNull(additionalCompletionRules);
+		checkNotDisposed();
+		if (Objects.isNull(this.compiler)) {
+			this.compiler = new IncrementalOntologyCompiler(this.rootOntology);
+			// the ontology already has the pending changes, so they are undone
+			// in the compiled state until the next flush
+			applyChanges(this.pendingChanges, true);
+		}
+		if (Objects.isNull(this.compiledOntology)
+				|| this.compiledOntology.hasDefaultCompletionRules() != useOfDefaultCompletionRules
+				|| !this.compiledOntology.getAdditionalCompletionRules().equals(additionalCompletionRules)) {
+			this.compiledOntology = new CompiledOntology(this.compiler, useOfDefaultCompletionRules,
+					additionalCompletionRules);
+		}
+		return this.compiledOntology;
+	}
+
+	/**
+	 * Answers asynchronously the probabilistic queries of the given
+	 * configuration on the root ontology. The ontology of the configuration is
+	 * not used. The execution stops if it does not finish within the time out
+	 * of the reasoner, or if {@link #interrupt()} is called. The ontology can
+	 * change while the query is running, since the query holds the read lock
+	 * of the compiled ontology while it reads it.
+	 * 
+	 * @param conf
+	 *            configuration with the Bayesian network, the query, and the
+	 *            query processor
+	 * @return a future with the execution result
+	 * @throws IllegalStateException
+	 *             if the reasoner has been disposed
+	 * @see ProcessorCore#submit(ProcessorConfiguration, CompiledOntology, long)
+	 */
+	public synchronized CompletableFuture<ProcessorExecutionResult> submit(ProcessorConfiguration conf) {
+		Objects.requireNonNull(conf);
+		logger.finer("submit(" + conf.getQuery() + ")");
+		checkNotDisposed();
+		CompiledOntology compiled = getCompiledOntology(conf.hasDefaultCompletionRules(),
+				conf.getAdditionalCompletionRules());
+		long timeout = (this.timeOut == Long.MAX_VALUE) ? ProcessorCore.NO_TIMEOUT : this.timeOut;
+		CompletableFuture<ProcessorExecutionResult> ret = this.processorCore.submit(conf, compiled, timeout);
+		this.runningQueries.add(ret);
+		ret.whenComplete((executionResult, exception) -> this.runningQueries.remove(ret));
+		return ret;
+	}
+
+	/**
+	 * Returns the classification of the root ontology, where all the axioms
+	 * hold, including the annotated ones. The ontology is classified the
+	 * first time, and the classification is kept until the ontology changes.
+	 * 
+	 * @return the classification of the root ontology
+	 * @throws IllegalStateException
+	 *             if the reasoner has been disposed
+	 */
+	public synchronized CrispClassification getClassification() {
+		checkNotDisposed();
+		if (Objects.isNull(this.classification)) {
+			CompiledOntology compiled = getCompiledOntology(true, "");
+			try {
+				this.classification = new CrispClassification(compiled);
+			} catch (UnsupportedOperationException e) {
+				throw new UnsupportedReasonerOperationInBornException(
+						"Unsupported ontology for classification : " + e.getMessage());
+			}
+			logger.fine("Classification: " + this.classification);
+		}
+		return this.classification;
+	}
+
+	/**
+	 * Returns the class that corresponds to the given class expression, or an
+	 * empty optional if it is not a class of the root ontology.
+	 */
+	Optional<Integer> getClassId(OWLClassExpression classExpression) {
+		if (classExpression.isAnonymous()) {
+			throw new UnsupportedReasonerOperationInBornException(
+					"Unsupported class expression : " + classExpression);
+		} else if (classExpression.isOWLThing()) {
+			return Optional.of(IntegerEntityManager.topClassId);
+		} else if (classExpression.isOWLNothing()) {
+			return Optional.of(IntegerEntityManager.bottomClassId);
+		} else {
+			return getClassification().getClass(classExpression.asOWLClass().getIRI().toString());
+		}
+	}
+
+	Optional<Integer> getIndividualId(OWLNamedIndividual individual) {
+		return getClassification().getIndividual(individual.getIRI().toString());
+	}
+
+	OWLClass getOWLClass(int classId) {
+		OWLDataFactory dataFactory = this.rootOntology.getOWLOntologyManager().getOWLDataFactory();
+		if (classId == IntegerEntityManager.topClassId) {
+			return dataFactory.getOWLThing();
+		} else if (classId == IntegerEntityManager.bottomClassId) {
+			return dataFactory.getOWLNothing();
+		} else {
+			return getCompiledOntology(true, "").getTranslator().getTranslationRepository().getOWLClass(classId);
+		}
+	}
+
+	Node<OWLClass> getClassNode(Set<Integer> classes) {
+		Set<OWLClass> owlClasses = new HashSet<>();
+		classes.forEach(classId -> owlClasses.add(getOWLClass(classId)));
+		return new OWLClassNode(owlClasses);
+	}
+
+	/**
+	 * Returns the nodes of the given classes, where equivalent classes are in
+	 * the same node.
+	 */
+	NodeSet<OWLClass> getClassNodeSet(Set<Integer> classes) {
+		CrispClassification currentClassification = getClassification();
+		Set<Node<OWLClass>> nodes = new HashSet<>();
+		Set<Integer> visited = new HashSet<>();
+		classes.forEach(classId -> {
+			if (!visited.contains(classId)) {
+				Set<Integer> equivalentClasses = currentClassification.getEquivalentClasses(classId);
+				visited.addAll(equivalentClasses);
+				nodes.add(getClassNode(equivalentClasses));
+			}
+		});
+		return new OWLClassNodeSet(nodes);
+	}
+
+	NodeSet<OWLNamedIndividual> getIndividualNodeSet(Set<Integer> individuals) {
+		Set<Node<OWLNamedIndividual>> nodes = new HashSet<>();
+		individuals.forEach(individual -> nodes.add(new OWLNamedIndividualNode(
+				getCompiledOntology(true, "").getTranslator().getTranslationRepository()
+						.getOWLNamedIndividual(individual))));
+		return new OWLNamedIndividualNodeSet(nodes);
+	}
+
+	@Override
+	public synchronized Node<OWLClass> getBottomClassNode() {
 		logger.finer("getBottomClassNode()");
-		throw new UnsupportedReasonerOperationInBornException("Unsupported operation : getBottomClassNode()");
+		return getClassNode(getClassification().getEquivalentClasses(IntegerEntityManager.bottomClassId));
 	}
 
 	@Override
@@ -190,11 +455,15 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	}
 
 	@Override
-	public Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
+	public synchronized Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
 		Objects.requireNonNull(classExpression);
 		logger.finer("getEquivalentClasses(" + classExpression + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation :  getEquivalentClasses(OWLClassExpression)");
+		Optional<Integer> classId = getClassId(classExpression);
+		if (classId.isPresent()) {
+			return getClassNode(getClassification().getEquivalentClasses(classId.get()));
+		} else {
+			return new OWLClassNode(classExpression.asOWLClass());
+		}
 	}
 
 	@Override
@@ -230,13 +499,58 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	}
 
 	@Override
-	public NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression, boolean direct)
+	public synchronized NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression, boolean direct)
 			throws InconsistentOntologyException, ClassExpressionNotInProfileException, FreshEntitiesException,
 			ReasonerInterruptedException, TimeOutException {
 		Objects.requireNonNull(classExpression);
 		logger.finer("getInstances(" + classExpression + ", " + direct + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation : getInstances(OWLClassExpression, boolean)");
+		Optional<Integer> classId = getClassId(classExpression);
+		if (classId.isPresent()) {
+			return getIndividualNodeSet(getClassification().getInstances(classId.get(), direct));
+		} else {
+			return new OWLNamedIndividualNodeSet();
+		}
+	}
+
+	/**
+	 * Returns the individuals whose probability of being an instance of the
+	 * given class is greater than the given threshold, ranked by decreasing
+	 * probability. All the individuals are retrieved with a single module and
+	 * a single inference, without ProbLog.
+	 * 
+	 * @param classExpression
+	 *            class
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param threshold
+	 *            probability that the instances must exceed
+	 * @return the individuals whose probability of being an instance of the
+	 *         given class is greater than the given threshold, with their
+	 *         probabilities, ranked by decreasing probability
+	 * @see InstanceRetrieval
+	 */
+	public synchronized Map<OWLNamedIndividual, Double> getInstances(OWLClassExpression classExpression,
+			String bayesianNetwork, double threshold) {
+		Objects.requireNonNull(classExpression);
+		Objects.requireNonNull(bayesianNetwork);
+		logger.finer("getInstances(" + classExpression + ", " + threshold + ")");
+		if (classExpression.isAnonymous()) {
+			throw new UnsupportedReasonerOperationInBornException(
+					"Unsupported class expression : " + classExpression);
+		}
+		List<InstanceProbability> instances;
+		try {
+			instances = new InstanceRetrieval().run(getCompiledOntology(true, ""), bayesianNetwork,
+					classExpression.asOWLClass().getIRI().toString(), threshold, new ProcessorExecutionResultImpl());
+		} catch (UnsupportedOperationException e) {
+			throw new UnsupportedReasonerOperationInBornException(
+					"Unsupported ontology for instance retrieval : " + e.getMessage());
+		}
+		OWLDataFactory dataFactory = this.rootOntology.getOWLOntologyManager().getOWLDataFactory();
+		Map<OWLNamedIndividual, Double> ret = new LinkedHashMap<>();
+		instances.forEach(instance -> ret.put(dataFactory.getOWLNamedIndividual(IRI.create(instance.getIndividual())),
+				instance.getProbability()));
+		return Collections.unmodifiableMap(ret);
 	}
 
 	@Override
@@ -281,25 +595,29 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	}
 
 	@Override
-	public Set<OWLAxiom> getPendingAxiomAdditions() {
+	public synchronized Set<OWLAxiom> getPendingAxiomAdditions() {
 		logger.finer("getPendingAxiomAdditions()");
 		Set<OWLAxiom> ret = new HashSet<>();
+		this.pendingChanges.stream().filter(change -> change.isAddAxiom())
+				.forEach(change -> ret.add(change.getAxiom()));
 		logger.finer("" + ret);
 		return Collections.unmodifiableSet(ret);
 	}
 
 	@Override
-	public Set<OWLAxiom> getPendingAxiomRemovals() {
+	public synchronized Set<OWLAxiom> getPendingAxiomRemovals() {
 		logger.finer("getPendingAxiomRemovals()");
 		Set<OWLAxiom> ret = new HashSet<>();
+		this.pendingChanges.stream().filter(change -> change.isRemoveAxiom())
+				.forEach(change -> ret.add(change.getAxiom()));
 		logger.finer("" + ret);
 		return Collections.unmodifiableSet(ret);
 	}
 
 	@Override
-	public List<OWLOntologyChange> getPendingChanges() {
+	public synchronized List<OWLOntologyChange> getPendingChanges() {
 		logger.finer("getPendingChanges()");
-		List<OWLOntologyChange> ret = new ArrayList<>();
+		List<OWLOntologyChange> ret = new ArrayList<>(this.pendingChanges);
 		logger.finer("" + ret);
 		return Collections.unmodifiableList(ret);
 	}
@@ -309,11 +627,7 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 		logger.finer("getPrecomputableInferenceTypes()");
 		Set<InferenceType> ret = new HashSet<>();
 		ret.add(InferenceType.CLASS_HIERARCHY);
-		ret.add(InferenceType.OBJECT_PROPERTY_HIERARCHY);
 		ret.add(InferenceType.CLASS_ASSERTIONS);
-		ret.add(InferenceType.OBJECT_PROPERTY_ASSERTIONS);
-		ret.add(InferenceType.SAME_INDIVIDUAL);
-		ret.add(InferenceType.DIFFERENT_INDIVIDUALS);
 		logger.finer("" + ret);
 		return ret;
 	}
@@ -362,11 +676,15 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	}
 
 	@Override
-	public NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression, boolean direct) {
+	public synchronized NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression, boolean direct) {
 		Objects.requireNonNull(classExpression);
 		logger.finer("getSubClasses(" + classExpression + ", " + direct + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation : getSubClasses(OWLClassExpression, boolean)");
+		Optional<Integer> classId = getClassId(classExpression);
+		if (classId.isPresent()) {
+			return getClassNodeSet(getClassification().getSubClasses(classId.get(), direct));
+		} else {
+			return getClassNodeSet(Collections.singleton(IntegerEntityManager.bottomClassId));
+		}
 	}
 
 	@Override
@@ -390,13 +708,17 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	}
 
 	@Override
-	public NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression, boolean direct)
+	public synchronized NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression, boolean direct)
 			throws InconsistentOntologyException, ClassExpressionNotInProfileException, FreshEntitiesException,
 			ReasonerInterruptedException, TimeOutException {
 		Objects.requireNonNull(classExpression);
 		logger.finer("getSuperClasses(" + classExpression + ", " + direct + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation : getSuperClasses(OWLClassExpression, boolean)");
+		Optional<Integer> classId = getClassId(classExpression);
+		if (classId.isPresent()) {
+			return getClassNodeSet(getClassification().getSuperClasses(classId.get(), direct));
+		} else {
+			return getClassNodeSet(Collections.singleton(IntegerEntityManager.topClassId));
+		}
 	}
 
 	@Override
@@ -428,9 +750,9 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	}
 
 	@Override
-	public Node<OWLClass> getTopClassNode() {
+	public synchronized Node<OWLClass> getTopClassNode() {
 		logger.finer("getTopClassNode()");
-		throw new UnsupportedReasonerOperationInBornException("Unsupported operation :  getTopClassNode() ");
+		return getClassNode(getClassification().getEquivalentClasses(IntegerEntityManager.topClassId));
 	}
 
 	@Override
@@ -446,77 +768,133 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 	}
 
 	@Override
-	public NodeSet<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct)
+	public synchronized NodeSet<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct)
 			throws InconsistentOntologyException, FreshEntitiesException, ReasonerInterruptedException,
 			TimeOutException {
 		Objects.requireNonNull(individual);
 		logger.finer("getTypes(" + individual + ", " + direct + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation : getTypes(OWLNamedIndividual, boolean)");
+		Optional<Integer> individualId = getIndividualId(individual);
+		if (individualId.isPresent()) {
+			return getClassNodeSet(getClassification().getTypes(individualId.get(), direct));
+		} else {
+			return getClassNodeSet(Collections.singleton(IntegerEntityManager.topClassId));
+		}
 	}
 
 	@Override
-	public Node<OWLClass> getUnsatisfiableClasses() throws ReasonerInterruptedException, TimeOutException {
+	public synchronized Node<OWLClass> getUnsatisfiableClasses()
+			throws ReasonerInterruptedException, TimeOutException {
 		logger.finer("getUnsatisfiableClasses()");
-		throw new UnsupportedReasonerOperationInBornException("Unsupported operation : getUnsatisfiableClasses()");
+		return getClassNode(getClassification().getUnsatisfiableClasses());
 	}
 
 	@Override
 	public void interrupt() {
 		logger.finer("interrupt()");
-		throw new UnsupportedReasonerOperationInBornException("Unsupported operation : interrupt()");
+		new ArrayList<>(this.runningQueries).forEach(future -> future.cancel(true));
 	}
 
 	@Override
-	public boolean isConsistent() throws ReasonerInterruptedException, TimeOutException {
+	public synchronized boolean isConsistent() throws ReasonerInterruptedException, TimeOutException {
 		logger.finer("isConsistent()");
-		throw new UnsupportedReasonerOperationInBornException("Unsupported operation : isConsistent()");
+		boolean ret = getClassification().isConsistent();
+		logger.finer("" + ret);
+		return ret;
 	}
 
 	@Override
-	public boolean isEntailed(OWLAxiom axiom) throws ReasonerInterruptedException, UnsupportedEntailmentTypeException,
-			TimeOutException, AxiomNotInProfileException, FreshEntitiesException {
+	public synchronized boolean isEntailed(OWLAxiom axiom) throws ReasonerInterruptedException,
+			UnsupportedEntailmentTypeException, TimeOutException, AxiomNotInProfileException, FreshEntitiesException {
 		Objects.requireNonNull(axiom);
 		logger.finer("isEntailed((OWLAxiom) " + axiom + ")");
-		throw new UnsupportedReasonerOperationInBornException("Unsupported operation :  isEntailed(OWLAxiom)");
+		if (!isEntailmentCheckingSupported(axiom.getAxiomType())) {
+			throw new UnsupportedEntailmentTypeException(axiom);
+		}
+		boolean ret;
+		if (axiom instanceof OWLSubClassOfAxiom) {
+			OWLSubClassOfAxiom subClassOfAxiom = (OWLSubClassOfAxiom) axiom;
+			ret = isSubsumed(subClassOfAxiom.getSubClass(), subClassOfAxiom.getSuperClass());
+
+		} else if (axiom instanceof OWLEquivalentClassesAxiom) {
+			Set<OWLClassExpression> classExpressions = ((OWLEquivalentClassesAxiom) axiom).getClassExpressions();
+			ret = classExpressions.stream().allMatch(subClass -> classExpressions.stream()
+					.allMatch(superClass -> isSubsumed(subClass, superClass)));
+
+		} else {
+			OWLClassAssertionAxiom classAssertionAxiom = (OWLClassAssertionAxiom) axiom;
+			if (!classAssertionAxiom.getIndividual().isNamed()) {
+				throw new UnsupportedEntailmentTypeException(axiom);
+			}
+			Optional<Integer> individualId = getIndividualId(
+					classAssertionAxiom.getIndividual().asOWLNamedIndividual());
+			Optional<Integer> classId = getClassId(classAssertionAxiom.getClassExpression());
+			ret = classId.isPresent() && (classId.get() == IntegerEntityManager.topClassId
+					|| (individualId.isPresent() && getClassification().isInstance(individualId.get(), classId.get())));
+		}
+		logger.finer("" + ret);
+		return ret;
+	}
+
+	boolean isSubsumed(OWLClassExpression subClass, OWLClassExpression superClass) {
+		Optional<Integer> subClassId = getClassId(subClass);
+		Optional<Integer> superClassId = getClassId(superClass);
+		if (subClassId.isPresent() && superClassId.isPresent()) {
+			return getClassification().isSubsumed(subClassId.get(), superClassId.get());
+		} else {
+			return subClass.equals(superClass) || superClass.isOWLThing() || subClass.isOWLNothing();
+		}
 	}
 
 	@Override
-	public boolean isEntailed(Set<? extends OWLAxiom> axiomSet) throws ReasonerInterruptedException,
+	public synchronized boolean isEntailed(Set<? extends OWLAxiom> axiomSet) throws ReasonerInterruptedException,
 			UnsupportedEntailmentTypeException, TimeOutException, AxiomNotInProfileException, FreshEntitiesException {
 		Objects.requireNonNull(axiomSet);
 		logger.finer("isEntailed((Set<? extends OWLAxiom>) " + axiomSet + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation : isEntailed(Set<? extends OWLAxiom>)");
+		return axiomSet.stream().allMatch(this::isEntailed);
 	}
 
 	@Override
 	public boolean isEntailmentCheckingSupported(AxiomType<?> axiomType) {
 		Objects.requireNonNull(axiomType);
 		logger.finer("isEntailmentCheckingSupported(" + axiomType + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation : isEntailmentCheckingSupported(AxiomType<?>)");
+		boolean ret = axiomType.equals(AxiomType.SUBCLASS_OF) || axiomType.equals(AxiomType.EQUIVALENT_CLASSES)
+				|| axiomType.equals(AxiomType.CLASS_ASSERTION);
+		logger.finer("" + ret);
+		return ret;
 	}
 
 	@Override
-	public boolean isPrecomputed(InferenceType inferenceType) {
+	public synchronized boolean isPrecomputed(InferenceType inferenceType) {
 		Objects.requireNonNull(inferenceType);
 		logger.finer("isPrecomputed(" + inferenceType + ")");
-		throw new UnsupportedReasonerOperationInBornException("Unsupported operation : isPrecomputed()");
+		boolean ret = Objects.nonNull(this.classification) && (inferenceType.equals(InferenceType.CLASS_HIERARCHY)
+				|| inferenceType.equals(InferenceType.CLASS_ASSERTIONS));
+		logger.finer("" + ret);
+		return ret;
 	}
 
 	@Override
-	public boolean isSatisfiable(OWLClassExpression classExpression) {
+	public synchronized boolean isSatisfiable(OWLClassExpression classExpression) {
 		Objects.requireNonNull(classExpression);
 		logger.finer("isSatisfiable(" + classExpression + ")");
-		throw new UnsupportedReasonerOperationInBornException(
-				"Unsupported operation : isSatisfiable(OWLClassExpression)");
+		Optional<Integer> classId = getClassId(classExpression);
+		boolean ret = !classId.isPresent() || getClassification().isSatisfiable(classId.get());
+		logger.finer("" + ret);
+		return ret;
 	}
 
 	@Override
-	public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+	public synchronized void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
 		Objects.requireNonNull(changes);
-		// TODO not implemented
+		logger.finer("ontologiesChanged(" + changes + ")");
+		List<OWLOntologyChange> axiomChanges = new ArrayList<>();
+		changes.stream().filter(change -> change.isAxiomChange() && change.getOntology() == this.rootOntology)
+				.forEach(axiomChanges::add);
+		if (this.buffering) {
+			this.pendingChanges.addAll(axiomChanges);
+		} else {
+			applyChanges(axiomChanges, false);
+		}
 	}
 
 	@Override
@@ -531,6 +909,11 @@ public class BornReasoner implements OWLReasoner, OWLOntologyChangeListener {
 
 		logger.finer("preparing ontology ...");
 		Date start = new Date();
+		getCompiledOntology(true, "");
+		if (Arrays.asList(inferenceTypes).contains(InferenceType.CLASS_HIERARCHY)
+				|| Arrays.asList(inferenceTypes).contains(InferenceType.CLASS_ASSERTIONS)) {
+			getClassification();
+		}
 		logger.finer("BORN prepared the ontology in " + ((new Date()).getTime() - start.getTime()) + "ms");
 
 		if (Objects.nonNull(this.reasonerConfiguration)) {
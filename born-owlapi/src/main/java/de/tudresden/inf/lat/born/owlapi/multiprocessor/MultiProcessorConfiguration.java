@@ -71,6 +71,24 @@ public interface MultiProcessorConfiguration {
 	 */
 	void setSeed(int seed);
 
+	/**
+	 * Returns the number of threads used to answer the queries. If it is 1,
+	 * the queries are answered one after the other.
+	 * 
+	 * @return the number of threads used to answer the queries
+	 */
+	int getNumberOfThreads();
+
+	/**
+	 * Sets the number of threads used to answer the queries.
+	 * 
+	 * @param numberOfThreads
+	 *            number of threads used to answer the queries
+	 * @throws IllegalArgumentException
+	 *             if the number of threads is not positive
+	 */
+	void setNumberOfThreads(int numberOfThreads);
+
 	/**
 	 * Returns the query processor.
 	 * 
@@ -20,6 +20,7 @@ public class MultiProcessorConfigurationImpl implements MultiProcessorConfigurat
 	private boolean showingLog = true;
 	private int seed = 1;
 	private int numberOfQueries = 1;
+	private int numberOfThreads = 1;
 
 	@Override
 	public List<OntologyAndNetwork> getOntologyList() {
@@ -61,6 +62,19 @@ public class MultiProcessorConfigurationImpl implements MultiProcessorConfigurat
 		this.seed = seed;
 	}
 
+	@Override
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	@Override
+	public void setNumberOfThreads(int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: '" + numberOfThreads + "'.");
+		}
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	@Override
 	public Function<String, String> getQueryProcessor() {
 		return queryProcessor;
@@ -91,6 +105,7 @@ public class MultiProcessorConfigurationImpl implements MultiProcessorConfigurat
 			MultiProcessorConfiguration other = (MultiProcessorConfiguration) obj;
 			return getOntologyList().equals(other.getOntologyList())
 					&& (getNumberOfQueries() == other.getNumberOfQueries()) && (getSeed() == other.getSeed())
+					&& (getNumberOfThreads() == other.getNumberOfThreads())
 					&& getOutputDirectory().equals(other.getOutputDirectory())
 					&& getQueryProcessor().equals(other.getQueryProcessor())
 					&& (isShowingLog() == other.isShowingLog());
@@ -105,7 +120,7 @@ public class MultiProcessorConfigurationImpl implements MultiProcessorConfigurat
 	@Override
 	public String toString() {
 		return this.ontologyList.size() + " ontologies, number of queries=" + this.numberOfQueries + ", seed="
-				+ this.seed + " " + this.outputDirectory + " " + this.queryProcessor + " " + this.showingLog;
+				+ this.seed + ", number of threads=" + this.numberOfThreads + " " + this.outputDirectory + " " + this.queryProcessor + " " + this.showingLog;
 	}
 
 }
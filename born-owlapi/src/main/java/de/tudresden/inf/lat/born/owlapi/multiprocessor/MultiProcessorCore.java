@@ -14,6 +14,12 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 import org.semanticweb.owlapi.model.OWLClass;
@@ -27,6 +33,7 @@ import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
 import de.tudresden.inf.lat.born.owlapi.processor.ProcessorCore;
 import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
 import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.QueryProcessorPool;
 
 /**
  * An object of this class processed several ontologies with their respective
@@ -35,7 +42,7 @@ import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
  * @author Julian Mendez
  *
  */
-public class MultiProcessorCore {
+public class MultiProcessorCore implements AutoCloseable {
 
 	public static final char TAB_CHAR = '\t';
 	public static final String LINE_SEPARATOR = Symbol.LINE_SEPARATOR;
@@ -48,13 +55,38 @@ public class MultiProcessorCore {
 
 	public static final String[] FIRST_LINE = { "ontology file name", "Bayesian network file name", "sub class",
 			"super class", "query", "result", "translation time", "normalization time", "module extraction time",
-			"ProbLog reasoning time", "total time", "ontology size", "normalized ontology size", "module size" };
+			"ProbLog reasoning time", "total time", "ontology size", "normalized ontology size", "module size",
+			"Bayesian network size", "pruned Bayesian network size" };
 	public static final List<String> FIRST_LINE_LIST = Arrays.asList(FIRST_LINE);
 
+	private final ProcessorCore processorCore;
+
 	/**
 	 * Constructs a new multi processor core.
 	 */
 	public MultiProcessorCore() {
+		this(new ProcessorCore());
+	}
+
+	/**
+	 * Constructs a new multi processor core that uses the given processor. The
+	 * processor keeps the compiled ontologies, so that each ontology is
+	 * translated and normalized only once for all its queries.
+	 * 
+	 * @param processorCore
+	 *            processor core
+	 */
+	public MultiProcessorCore(ProcessorCore processorCore) {
+		this.processorCore = Objects.requireNonNull(processorCore);
+	}
+
+	/**
+	 * Closes the processor core, so that the compiled ontologies are not kept
+	 * after the run.
+	 */
+	@Override
+	public void close() {
+		this.processorCore.close();
 	}
 
 	List<OWLClass> getClasses(OWLOntology ontology) {
@@ -130,7 +162,7 @@ public class MultiProcessorCore {
 	 *            execution result
 	 * @return the result of one query as presented in the CSV file
 	 */
-	List<String> getResult(ProcessorExecutionResult executionResult) {
+	public List<String> getResult(ProcessorExecutionResult executionResult) {
 		List<String> ret = new ArrayList<>();
 
 		String result = executionResult.getResult().trim();
@@ -148,6 +180,8 @@ public class MultiProcessorCore {
 		ret.add("" + executionResult.getOntologySize());
 		ret.add("" + executionResult.getNormalizedOntologySize());
 		ret.add("" + executionResult.getModuleSize());
+		ret.add("" + executionResult.getBayesianNetworkSize());
+		ret.add("" + executionResult.getPrunedBayesianNetworkSize());
 		return ret;
 	}
 
@@ -161,47 +195,142 @@ public class MultiProcessorCore {
 		return str;
 	}
 
+	/**
+	 * Answers one query and returns the line of the CSV file with the
+	 * conditions and the result.
+	 * 
+	 * @param ontPair
+	 *            ontology-network pair
+	 * @param query
+	 *            query
+	 * @param queryProcessor
+	 *            query processor
+	 * @param conf
+	 *            configuration
+	 * @param start
+	 *            execution start
+	 * @return the line of the CSV file with the conditions and the result
+	 */
+	String answer(OntologyAndNetwork ontPair, SubsumptionQuery query, Function<String, String> queryProcessor,
+			MultiProcessorConfiguration conf, long start) {
+		String temporaryFileName = conf.getOutputDirectory() + FILE_SEPARATOR + ontPair.getOntologyName()
+				+ TEMP_FILE_SUFFIX;
+		ProcessorConfiguration configuration = new ProcessorConfigurationImpl();
+		configuration.setOntology(ontPair.getOntology());
+		configuration.setBayesianNetwork(ontPair.getBayesianNetwork());
+		configuration.setOutputFileName(temporaryFileName);
+		configuration.setQueryProcessor(queryProcessor);
+		configuration.setShowingLog(conf.isShowingLog());
+		configuration.setQuery(query.asProblogString());
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		this.processorCore.run(configuration, start, executionResult);
+		return makeLine(getConditions(ontPair, configuration, query))
+				+ makeLine(getResult(executionResult)).trim() + LINE_SEPARATOR;
+	}
+
+	/**
+	 * Returns the answers of the queries, as lines of the CSV files, in the
+	 * same order as the queries. The first query of each ontology is answered
+	 * before the other ones, so that the ontology is compiled only once. The
+	 * first query of an ontology waits for the queries of the ontology that
+	 * is as many positions before as compiled ontologies fit in the cache.
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @param queries
+	 *            queries of each ontology
+	 * @param executor
+	 *            executor
+	 * @param start
+	 *            execution start
+	 * @return the answers of the queries, as lines of the CSV files
+	 */
+	List<List<CompletableFuture<String>>> submit(MultiProcessorConfiguration conf,
+			List<List<SubsumptionQuery>> queries, Executor executor, long start) {
+		Function<String, String> queryProcessor = QueryProcessorPool.synchronizedUnlessPool(conf.getQueryProcessor());
+		int capacity = this.processorCore.getCompiledOntologyCache().getCapacity();
+		List<OntologyAndNetwork> ontologyList = conf.getOntologyList();
+		List<List<CompletableFuture<String>>> ret = new ArrayList<>();
+		for (int index = 0; index < ontologyList.size(); index++) {
+			OntologyAndNetwork ontPair = ontologyList.get(index);
+			CompletableFuture<?> previous = CompletableFuture.completedFuture(null);
+			if (index >= capacity) {
+				previous = CompletableFuture.allOf(ret.get(index - capacity).toArray(new CompletableFuture<?>[0]));
+			}
+			List<CompletableFuture<String>> answers = new ArrayList<>();
+			CompletableFuture<?> first = previous;
+			for (SubsumptionQuery query : queries.get(index)) {
+				CompletableFuture<String> answer = first
+						.thenApplyAsync(x -> answer(ontPair, query, queryProcessor, conf, start), executor);
+				if (answers.isEmpty()) {
+					first = answer;
+				}
+				answers.add(answer);
+			}
+			ret.add(answers);
+		}
+		return ret;
+	}
+
+	String join(CompletableFuture<String> answer) {
+		try {
+			return answer.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else {
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Runs the queries of each ontology. The queries are generated before
+	 * answering them, so that they depend only on the seed. If the
+	 * configuration has more than one thread, the queries are answered in
+	 * parallel, both of the same ontology and of different ontologies. The
+	 * calls to the query processor are serialized, unless it is a
+	 * {@link QueryProcessorPool}, which limits the concurrent calls by itself.
+	 * The log and CSV files are written in the same order as the queries, no
+	 * matter when each query is answered.
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @param start
+	 *            execution start
+	 * @return the content of the CSV file of each ontology
+	 */
 	public List<String> run(MultiProcessorConfiguration conf, long start) {
 		Objects.requireNonNull(conf);
 		List<String> ret = new ArrayList<>();
 		PseudorandomNumberGenerator random = new PseudorandomNumberGenerator(conf.getSeed());
-		ProcessorCore core = new ProcessorCore();
+		List<List<SubsumptionQuery>> queries = new ArrayList<>();
+		conf.getOntologyList().forEach(
+				ontPair -> queries.add(getQueries(ontPair.getOntology(), conf.getNumberOfQueries(), random)));
 
-		conf.getOntologyList().forEach(ontPair -> {
-			try {
+		ExecutorService executor = Executors.newFixedThreadPool(conf.getNumberOfThreads());
+		try {
+			List<List<CompletableFuture<String>>> answers = submit(conf, queries, executor, start);
 
+			Iterator<List<CompletableFuture<String>>> answersIt = answers.iterator();
+			for (OntologyAndNetwork ontPair : conf.getOntologyList()) {
 				String resultFileName = conf.getOutputDirectory() + FILE_SEPARATOR + ontPair.getOntologyName()
 						+ LOG_EXTENSION;
 				Writer output = new FileWriter(ResourceUtil.ensurePath(resultFileName), true);
 
-				String temporaryFileName = conf.getOutputDirectory() + FILE_SEPARATOR + ontPair.getOntologyName()
-						+ TEMP_FILE_SUFFIX;
-				ProcessorConfiguration configuration = new ProcessorConfigurationImpl();
-				configuration.setOntology(ontPair.getOntology());
-				configuration.setBayesianNetwork(ontPair.getBayesianNetwork());
-				configuration.setOutputFileName(temporaryFileName);
-				configuration.setQueryProcessor(conf.getQueryProcessor());
-				configuration.setShowingLog(conf.isShowingLog());
-				List<SubsumptionQuery> queries = getQueries(ontPair.getOntology(), conf.getNumberOfQueries(), random);
-
 				StringBuffer sbuf = new StringBuffer();
 				sbuf.append(write(output, makeLine(FIRST_LINE_LIST) + LINE_SEPARATOR));
-
-				queries.forEach(query -> {
-					configuration.setQuery(query.asProblogString());
-					sbuf.append(write(output, makeLine(getConditions(ontPair, configuration, query))));
-					ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
-					core.run(configuration, start, executionResult);
-					sbuf.append(write(output, makeLine(getResult(executionResult)).trim() + LINE_SEPARATOR));
-				});
+				answersIt.next().forEach(answer -> sbuf.append(write(output, join(answer))));
 				ret.add(sbuf.toString());
 				output.flush();
 				output.close();
-
-			} catch (IOException e) {
-				throw new UncheckedIOException(e);
 			}
-		});
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			executor.shutdownNow();
+		}
 		return ret;
 	}
 
@@ -2,10 +2,14 @@ package de.tudresden.inf.lat.born.owlapi.multiprocessor;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import de.tudresden.inf.lat.born.core.term.SubApp;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorOptions;
+import de.tudresden.inf.lat.born.owlapi.processor.QueryProcessorPool;
 import de.tudresden.inf.lat.jproblog.JProblog;
 
 /**
@@ -20,35 +24,66 @@ import de.tudresden.inf.lat.jproblog.JProblog;
 public class MultiProcessorSubApp implements SubApp {
 
 	static final String LOGGING_OPTION = "--log";
+	static final String THREADS_OPTION = "--threads=";
+	static final String WORKERS_OPTION = "--workers=";
 	public static final String COMMAND = "experiment";
 	static final String HELP = ""
-			+ "\nParameters: [--log] <directory of ontologies> <directory of Bayesian networks> <number of queries> <seed> <directory of results> [<ProbLog directory>]"
+			+ "\nParameters: [--log] [--threads=<number>] [--workers=<number>] <directory of ontologies> <directory of Bayesian networks> <number of queries> <seed> <directory of results> [<ProbLog directory>]"
 			+ "\n"
 			+ "\n  <directory of ontologies>         : directory of probabilistic ontology files, only '.owl' files are read"
 			+ "\n  <directory of Bayesian networks>  : directory of Bayesian network files, the file names must coincide with the ontology files, and only '.pl' files are read"
 			+ "\n  <number of queries>               : number of queries to generate"
 			+ "\n  <seed>                            : seed used by the pseudorandom number generator"
 			+ "\n  <directory of results>            : directory to write the output files, each output file has the ontology name and a '.csv' extension"
-			+ "\n" + "\n Option:" + "\n   --log                            : shows log" + "\n" + "\nExamples:" + "\n"
+			+ "\n" + "\n Options:" + "\n   --log                            : shows log"
+			+ "\n   --threads=<number>               : number of queries answered at the same time (default 1)"
+			+ "\n   --workers=<number>               : keeps the given number of ProbLog processes running, which answer queries at the same time, instead of starting ProbLog for each query"
+			+ "\n"
+			+ "\nExamples:" + "\n"
 			+ "\n Execution:" + "\n  java -jar born.jar " + COMMAND + " ontologies/ networks/ 10 127 results/" + "\n"
 			+ "\n Execution not showing log:" + "\n  java -jar born.jar " + COMMAND
 			+ " ontologies/ networks/ 10 127 results/" + "\n" //
 			+ "\n Execution showing log:" + "\n  java -jar born.jar " + COMMAND
-			+ " --log ontologies/ networks/ 10 127 results/" + "\n"
+			+ " --log ontologies/ networks/ 10 127 results/" + "\n" //
+			+ "\n Execution answering 8 queries at the same time:" + "\n  java -jar born.jar " + COMMAND
+			+ " --threads=8 ontologies/ networks/ 10 127 results/" + "\n"
 			+ "\nNote: this program requires an Internet connection to install ProbLog." + "\n" //
 			+ "\n";
 
+	private final ProcessorOptions options = new ProcessorOptions();
+
 	/**
 	 * Constructs a new processor.
 	 */
 	public MultiProcessorSubApp() {
 	}
 
+	boolean isThreadsOption(String arg) {
+		return this.options.isPositiveIntegerOption(THREADS_OPTION, arg);
+	}
+
+	boolean isWorkersOption(String arg) {
+		return this.options.isPositiveIntegerOption(WORKERS_OPTION, arg);
+	}
+
+	boolean isOption(String arg) {
+		return arg.equals(LOGGING_OPTION) || isThreadsOption(arg) || isWorkersOption(arg);
+	}
+
+	List<String> getParameters(String[] args) {
+		List<String> ret = new ArrayList<>();
+		for (String arg : args) {
+			if (!isOption(arg)) {
+				ret.add(arg);
+			}
+		}
+		return ret;
+	}
+
 	@Override
 	public boolean isValid(String[] args) {
 		Objects.requireNonNull(args);
-		return (((args.length == 5) && !args[0].equals(LOGGING_OPTION))
-				|| ((args.length == 6) && args[0].equals(LOGGING_OPTION)));
+		return getParameters(args).size() == 5;
 	}
 
 	@Override
@@ -65,33 +100,45 @@ public class MultiProcessorSubApp implements SubApp {
 			MultiProcessorConfiguration conf = new MultiProcessorConfigurationImpl();
 
 			StringBuilder sb = new StringBuilder();
-			String[] newArgs = null;
-			if (args[0].equals(LOGGING_OPTION)) {
-				newArgs = new String[args.length - 1];
-				System.arraycopy(args, 1, newArgs, 0, args.length - 1);
-				conf.setShowingLog(true);
-			} else {
-				newArgs = new String[args.length];
-				System.arraycopy(args, 0, newArgs, 0, args.length);
-				conf.setShowingLog(false);
+			conf.setShowingLog(false);
+			int numberOfWorkers = 0;
+			for (String arg : args) {
+				if (arg.equals(LOGGING_OPTION)) {
+					conf.setShowingLog(true);
+				} else if (isThreadsOption(arg)) {
+					conf.setNumberOfThreads(Integer.parseInt(arg.substring(THREADS_OPTION.length())));
+				} else if (isWorkersOption(arg)) {
+					numberOfWorkers = Integer.parseInt(arg.substring(WORKERS_OPTION.length()));
+				}
 			}
+			List<String> newArgs = getParameters(args);
 
-			conf.setOntologyList(MultiProcessorCore.getOntologyAndNetworkList(newArgs[0], newArgs[1]));
-			conf.setNumberOfQueries(Integer.parseInt(newArgs[2]));
-			conf.setSeed(Integer.parseInt(newArgs[3]));
-			conf.setOutputDirectory(newArgs[4]);
+			conf.setOntologyList(MultiProcessorCore.getOntologyAndNetworkList(newArgs.get(0), newArgs.get(1)));
+			conf.setNumberOfQueries(Integer.parseInt(newArgs.get(2)));
+			conf.setSeed(Integer.parseInt(newArgs.get(3)));
+			conf.setOutputDirectory(newArgs.get(4));
 
-			JProblog queryProcessor = new JProblog();
-			conf.setQueryProcessor(queryProcessor);
+			Optional<QueryProcessorPool> pool = Optional.empty();
+			if (numberOfWorkers > 0) {
+				try {
+					pool = Optional.of(QueryProcessorPool.createProcessPool(numberOfWorkers));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				conf.setQueryProcessor(pool.get());
+			} else {
+				conf.setQueryProcessor(new JProblog());
+			}
 
-			MultiProcessorCore core = new MultiProcessorCore();
-			List<String> coreResult = core.run(conf, start);
-			try {
+			try (MultiProcessorCore core = new MultiProcessorCore()) {
+				List<String> coreResult = core.run(conf, start);
 				core.storeResults(conf, coreResult);
+				sb.append(coreResult);
 			} catch (IOException e) {
 				throw new UncheckedIOException(e);
+			} finally {
+				pool.ifPresent(QueryProcessorPool::close);
 			}
-			sb.append(coreResult);
 
 			result = sb.toString();
 		} else {
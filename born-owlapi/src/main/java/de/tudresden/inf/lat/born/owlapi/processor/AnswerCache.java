@@ -0,0 +1,500 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class keeps the answers of the query processor on disk,
+ * so that they survive the process. The key of an answer is a digest of the
+ * ProbLog program, which contains the clauses of the module, the pruned
+ * Bayesian network, the completion rules, and the query. Therefore, the same
+ * program always has the same key.
+ * <p>
+ * The answers are appended to a file. Each record has the length of the key,
+ * the key, the length of the answer, and the answer, where the lengths are
+ * integers and the strings are in UTF-8. A record that is only partially
+ * written is discarded when the file is opened. The most recently used
+ * answers are also kept in memory. When the file reaches the maximum size,
+ * new answers are not stored. The file is locked while the cache is open, so
+ * that it is not shared by different processes.
+ * <p>
+ * The file is memory-mapped for reading in segments of the same size. A
+ * segment is mapped only once, when it is complete, and the last segment,
+ * which is not complete, is kept in memory. Thus, storing an answer does not
+ * map the file again.
+ * <p>
+ * The file channel is only used by a thread of the answer cache, because
+ * interrupting a thread that uses a file channel closes the channel for
+ * every thread. The threads that store answers wait for that thread without
+ * being interrupted, and keep their interrupted status.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class AnswerCache implements Closeable {
+
+	private static final Logger logger = Logger.getLogger(AnswerCache.class.getName());
+
+	public static final String FILE_NAME = "answers.dat";
+	public static final String DIGEST_ALGORITHM = "SHA-256";
+	public static final long DEFAULT_MAXIMUM_SIZE = 0x4000000;
+	public static final int DEFAULT_NUMBER_OF_ANSWERS_IN_MEMORY = 0x400;
+	public static final int DEFAULT_SEGMENT_SIZE = 0x100000;
+	static final String THREAD_NAME = "born-answer-cache";
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final int LENGTH_SIZE = Integer.BYTES;
+
+	private final Path file;
+	private final long maximumSize;
+	private final int segmentSize;
+	private final FileChannel channel;
+	private final OptMap<String, Long> positions = new OptMapImpl<>(new HashMap<>());
+	private final OptMap<String, String> recentAnswers;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, THREAD_NAME);
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+	private final ByteBuffer lastSegment;
+	private long size;
+
+	/**
+	 * Constructs a new answer cache, which stores the answers in the given
+	 * directory. The directory is created if it does not exist.
+	 *
+	 * @param directory
+	 *            directory of the answer cache
+	 * @param maximumSize
+	 *            maximum size of the file in bytes
+	 * @param numberOfAnswersInMemory
+	 *            number of recently used answers kept in memory
+	 * @param segmentSize
+	 *            size in bytes of the segments of the file that are mapped
+	 * @throws IOException
+	 *             if something goes wrong with I/O, or if the file is locked
+	 *             by another process
+	 */
+	public AnswerCache(Path directory, long maximumSize, int numberOfAnswersInMemory, int segmentSize)
+			throws IOException {
+		Objects.requireNonNull(directory);
+		if (maximumSize < 0) {
+			throw new IllegalArgumentException("Invalid maximum size: '" + maximumSize + "'.");
+		}
+		if (numberOfAnswersInMemory < 0) {
+			throw new IllegalArgumentException(
+					"Invalid number of answers in memory: '" + numberOfAnswersInMemory + "'.");
+		}
+		if (segmentSize < 1) {
+			throw new IllegalArgumentException("Invalid segment size: '" + segmentSize + "'.");
+		}
+		this.maximumSize = maximumSize;
+		this.segmentSize = segmentSize;
+		this.lastSegment = ByteBuffer.allocate(segmentSize);
+		this.recentAnswers = new OptMapImpl<>(new LinkedHashMap<String, String>(0x10, 0.75f, true) {
+
+			private static final long serialVersionUID = -4087364937829712413L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > numberOfAnswersInMemory;
+			}
+
+		});
+		Files.createDirectories(directory);
+		this.file = directory.resolve(FILE_NAME);
+		this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			runUninterruptibly(() -> {
+				lock();
+				this.size = this.channel.size();
+				mapSegments();
+				loadPositions();
+				return null;
+			});
+		} catch (IOException | RuntimeException e) {
+			this.executor.shutdown();
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Constructs a new answer cache with the default segment size.
+	 *
+	 * @param directory
+	 *            directory of the answer cache
+	 * @param maximumSize
+	 *            maximum size of the file in bytes
+	 * @param numberOfAnswersInMemory
+	 *            number of recently used answers kept in memory
+	 * @throws IOException
+	 *             if something goes wrong with I/O, or if the file is locked
+	 *             by another process
+	 */
+	public AnswerCache(Path directory, long maximumSize, int numberOfAnswersInMemory) throws IOException {
+		this(directory, maximumSize, numberOfAnswersInMemory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Constructs a new answer cache with the default maximum size, number of
+	 * answers in memory, and segment size.
+	 *
+	 * @param directory
+	 *            directory of the answer cache
+	 * @throws IOException
+	 *             if something goes wrong with I/O, or if the file is locked
+	 *             by another process
+	 */
+	public AnswerCache(Path directory) throws IOException {
+		this(directory, DEFAULT_MAXIMUM_SIZE, DEFAULT_NUMBER_OF_ANSWERS_IN_MEMORY);
+	}
+
+	/**
+	 * Runs the given operation on the file channel in the thread of the answer
+	 * cache, and waits for it without being interrupted. If the current thread
+	 * is interrupted while waiting, it is interrupted again afterwards.
+	 */
+	<T> T runUninterruptibly(Callable<T> operation) throws IOException {
+		Future<T> future = this.executor.submit(operation);
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return future.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else {
+				throw new IllegalStateException(e.getCause());
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Locks the file, so that it is not used by another process. The lock is
+	 * released when the channel is closed.
+	 */
+	void lock() throws IOException {
+		FileLock lock;
+		try {
+			lock = this.channel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		}
+		if (Objects.isNull(lock)) {
+			throw new IOException("Answer cache '" + this.file + "' is being used by another process.");
+		}
+	}
+
+	/**
+	 * Maps the complete segments of the file, and reads the last segment into
+	 * memory.
+	 */
+	void mapSegments() throws IOException {
+		this.segments.clear();
+		long numberOfSegments = this.size / this.segmentSize;
+		for (long segment = 0; segment < numberOfSegments; segment++) {
+			this.segments.add(this.channel.map(FileChannel.MapMode.READ_ONLY, segment * this.segmentSize,
+					this.segmentSize));
+		}
+		this.lastSegment.clear();
+		this.lastSegment.limit((int) (this.size - numberOfSegments * this.segmentSize));
+		while (this.lastSegment.hasRemaining()) {
+			if (this.channel.read(this.lastSegment, numberOfSegments * this.segmentSize
+					+ this.lastSegment.position()) < 0) {
+				throw new IOException("Unexpected end of file '" + this.file + "'.");
+			}
+		}
+		this.lastSegment.limit(this.segmentSize);
+	}
+
+	/**
+	 * Appends the given record to the last segment, and maps the last segment
+	 * when it is complete. The record must have been written to the file.
+	 */
+	void appendToSegments(ByteBuffer record) throws IOException {
+		while (record.hasRemaining()) {
+			ByteBuffer part = record.duplicate();
+			part.limit(part.position() + Math.min(part.remaining(), this.lastSegment.remaining()));
+			this.lastSegment.put(part);
+			record.position(part.position());
+			if (!this.lastSegment.hasRemaining()) {
+				this.segments.add(this.channel.map(FileChannel.MapMode.READ_ONLY,
+						((long) this.segments.size()) * this.segmentSize, this.segmentSize));
+				this.lastSegment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Reads the bytes of the file that start at the given position. The bytes
+	 * must be in the file.
+	 */
+	void read(long position, byte[] bytes) {
+		int offset = 0;
+		while (offset < bytes.length) {
+			long current = position + offset;
+			int segment = (int) (current / this.segmentSize);
+			int positionInSegment = (int) (current % this.segmentSize);
+			ByteBuffer buffer = (segment < this.segments.size() ? this.segments.get(segment) : this.lastSegment)
+					.duplicate();
+			buffer.limit(this.segmentSize);
+			buffer.position(positionInSegment);
+			int length = Math.min(bytes.length - offset, this.segmentSize - positionInSegment);
+			buffer.get(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	/**
+	 * Reads the keys of the file and their positions. If the last record is
+	 * incomplete, the file is truncated before it.
+	 */
+	void loadPositions() throws IOException {
+		long position = 0;
+		boolean complete = true;
+		while (complete && position < this.size) {
+			Optional<String> key = readString(position);
+			if (key.isPresent()) {
+				long answerPosition = position + LENGTH_SIZE + key.get().getBytes(StandardCharsets.UTF_8).length;
+				Optional<Integer> answerLength = readLength(answerPosition);
+				if (answerLength.isPresent()) {
+					this.positions.put(key.get(), answerPosition);
+					position = answerPosition + LENGTH_SIZE + answerLength.get();
+				} else {
+					complete = false;
+				}
+			} else {
+				complete = false;
+			}
+		}
+		if (position < this.size) {
+			logger.warning("Discarding incomplete record at position " + position + " of '" + this.file + "'.");
+			this.channel.truncate(position);
+			this.size = position;
+			mapSegments();
+		}
+		logger.fine("Answer cache '" + this.file + "' opened with " + this.positions.size() + " answers.");
+	}
+
+	Optional<Integer> readLength(long position) {
+		if (position + LENGTH_SIZE > this.size) {
+			return Optional.empty();
+		} else {
+			byte[] bytes = new byte[LENGTH_SIZE];
+			read(position, bytes);
+			int length = ByteBuffer.wrap(bytes).getInt();
+			if (length < 0 || position + LENGTH_SIZE + length > this.size) {
+				return Optional.empty();
+			} else {
+				return Optional.of(length);
+			}
+		}
+	}
+
+	Optional<String> readString(long position) {
+		Optional<Integer> length = readLength(position);
+		if (!length.isPresent()) {
+			return Optional.empty();
+		} else {
+			byte[] bytes = new byte[length.get()];
+			read(position + LENGTH_SIZE, bytes);
+			return Optional.of(new String(bytes, StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Returns a new message digest to compute the keys.
+	 *
+	 * @return a new message digest to compute the keys
+	 */
+	public static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns the key computed by the given message digest. The digest is
+	 * reset afterwards.
+	 *
+	 * @param digest
+	 *            message digest
+	 * @return the key computed by the given message digest
+	 */
+	public static String getKey(MessageDigest digest) {
+		Objects.requireNonNull(digest);
+		byte[] bytes = digest.digest();
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes) {
+			sb.append(HEX_DIGITS[(b >> 4) & 0xF]);
+			sb.append(HEX_DIGITS[b & 0xF]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the key of the given ProbLog program.
+	 *
+	 * @param problogProgram
+	 *            ProbLog program
+	 * @return the key of the given ProbLog program
+	 */
+	public static String getKey(String problogProgram) {
+		Objects.requireNonNull(problogProgram);
+		MessageDigest digest = createDigest();
+		digest.update(problogProgram.getBytes(StandardCharsets.UTF_8));
+		return getKey(digest);
+	}
+
+	/**
+	 * Returns the answer stored with the given key, if there is one.
+	 *
+	 * @param key
+	 *            key
+	 * @return the answer stored with the given key, if there is one
+	 */
+	public synchronized Optional<String> get(String key) {
+		Objects.requireNonNull(key);
+		Optional<String> ret = this.recentAnswers.get(key);
+		if (!ret.isPresent()) {
+			Optional<Long> position = this.positions.get(key);
+			if (position.isPresent()) {
+				ret = readString(position.get());
+				ret.ifPresent(answer -> this.recentAnswers.put(key, answer));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Stores the given answer with the given key, and returns
+	 * <code>true</code> if it was stored. An answer is not stored if there is
+	 * already an answer with the same key or if the file would exceed the
+	 * maximum size.
+	 *
+	 * @param key
+	 *            key
+	 * @param answer
+	 *            answer
+	 * @return <code>true</code> if and only if the answer was stored
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	public synchronized boolean put(String key, String answer) throws IOException {
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(answer);
+		if (this.positions.containsKey(key)) {
+			return false;
+		}
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		byte[] answerBytes = answer.getBytes(StandardCharsets.UTF_8);
+		long recordSize = LENGTH_SIZE + keyBytes.length + LENGTH_SIZE + answerBytes.length;
+		if (this.size + recordSize > this.maximumSize || recordSize > Integer.MAX_VALUE) {
+			logger.fine("Answer cache '" + this.file + "' is full.");
+			return false;
+		}
+		ByteBuffer record = ByteBuffer.allocate((int) recordSize);
+		record.putInt(keyBytes.length);
+		record.put(keyBytes);
+		record.putInt(answerBytes.length);
+		record.put(answerBytes);
+		record.flip();
+		long position = this.size;
+		runUninterruptibly(() -> {
+			while (record.hasRemaining()) {
+				this.channel.write(record, position + record.position());
+			}
+			record.rewind();
+			appendToSegments(record);
+			return null;
+		});
+		this.size += recordSize;
+		this.positions.put(key, position + LENGTH_SIZE + keyBytes.length);
+		this.recentAnswers.put(key, answer);
+		return true;
+	}
+
+	/**
+	 * Returns the number of stored answers.
+	 *
+	 * @return the number of stored answers
+	 */
+	public synchronized int getNumberOfAnswers() {
+		return this.positions.size();
+	}
+
+	/**
+	 * Returns the size of the file in bytes.
+	 *
+	 * @return the size of the file in bytes
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Closes the file, which releases its lock. The mapped segments are
+	 * released, and no answers are found afterwards.
+	 *
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		this.executor.shutdown();
+		this.channel.close();
+		this.positions.clear();
+		this.recentAnswers.clear();
+		this.segments.clear();
+	}
+
+	@Override
+	public String toString() {
+		return this.file + " (" + getNumberOfAnswers() + " answers, " + getSize() + " bytes)";
+	}
+
+}
@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import de.tudresden.inf.lat.born.core.rule.FormulaConstructor;
@@ -37,6 +38,8 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	public static final char BACKSLASH = '\\';
 
 	private final IntegerOntologyObjectFactory factory;
+	private final FormulaConstructor formulaConstructor = new FormulaConstructor();
+	private final Optional<SymbolAliasTable> aliasTable;
 
 	/**
 	 * Constructs an new axiom renderer.
@@ -46,6 +49,22 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	 */
 	public AxiomRenderer(IntegerOntologyObjectFactory factory) {
 		this.factory = Objects.requireNonNull(factory);
+		this.aliasTable = Optional.empty();
+	}
+
+	/**
+	 * Constructs an new axiom renderer that writes the entities with their
+	 * aliases, instead of their quoted names. Entities without alias are
+	 * written with their quoted names.
+	 * 
+	 * @param factory
+	 *            ontology factory
+	 * @param aliasTable
+	 *            symbol alias table
+	 */
+	public AxiomRenderer(IntegerOntologyObjectFactory factory, SymbolAliasTable aliasTable) {
+		this.factory = Objects.requireNonNull(factory);
+		this.aliasTable = Optional.of(aliasTable);
 	}
 
 	String removeDoubleBackslash(String str) {
@@ -104,9 +123,9 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 		return result;
 	}
 
-	Term get(int identifier) {
-		Term result = new TermImpl();
-		FormulaConstructor c = new FormulaConstructor();
+	Term getQuoted(int identifier) {
+		Term result;
+		FormulaConstructor c = this.formulaConstructor;
 		if (identifier == IntegerEntityManager.topClassId) {
 			result = c.top();
 		} else {
@@ -117,16 +136,37 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 		return result;
 	}
 
+	Term get(int identifier) {
+		Optional<String> alias = Optional.empty();
+		if (this.aliasTable.isPresent() && identifier != IntegerEntityManager.topClassId) {
+			alias = this.aliasTable.get().getAlias(this.factory.getEntityManager().getName(identifier).trim());
+		}
+		return alias.isPresent() ? this.formulaConstructor.newCons(alias.get()) : getQuoted(identifier);
+	}
+
+	/**
+	 * Returns the value of the given annotation as it is written in the
+	 * ProbLog program, e.g. <code>x0</code> or <code>\+x0</code>.
+	 * 
+	 * @param annotation
+	 *            annotation
+	 * @return the value of the given annotation as it is written in the
+	 *         ProbLog program
+	 */
+	public String getAnnotationValue(IntegerAnnotation annotation) {
+		Objects.requireNonNull(annotation);
+		return removeApostrophes(getValue(getQuoted(annotation.getAnnotationValue()).asString()));
+	}
+
 	Clause ax(Term str, Set<IntegerAnnotation> annotations) {
-		Clause result = new ClauseImpl();
-		FormulaConstructor c = new FormulaConstructor();
+		Clause result;
+		FormulaConstructor c = this.formulaConstructor;
 		if (annotations.isEmpty()) {
 			List<Term> emptyList = Collections.emptyList();
 			result = c.rule(str, emptyList);
 
 		} else if (annotations.size() == 1) {
-			IntegerAnnotation annotation = annotations.iterator().next();
-			String value = removeApostrophes(getValue(get(annotation.getAnnotationValue()).asString()));
+			String value = getAnnotationValue(annotations.iterator().next());
 			Term newCons = c.newCons(value);
 			List<Term> preconditions = new ArrayList<>();
 			preconditions.add(newCons);
@@ -149,7 +189,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	 */
 	public Clause renderDeclarationOfClass(Integer classId) {
 		Objects.requireNonNull(classId);
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term a = get(classId);
 		Set<IntegerAnnotation> emptySet = Collections.emptySet();
 		Clause result = ax(c.con(a), emptySet);
@@ -166,7 +206,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	 */
 	public Clause renderDeclarationOfObjectProperty(Integer objectPropertyId) {
 		Objects.requireNonNull(objectPropertyId);
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term a = get(objectPropertyId);
 		Set<IntegerAnnotation> emptySet = Collections.emptySet();
 		Clause result = ax(c.role(a), emptySet);
@@ -183,7 +223,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	 */
 	public Clause renderDeclarationOfIndividual(Integer individualId) {
 		Objects.requireNonNull(individualId);
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term a = get(individualId);
 		Set<IntegerAnnotation> emptySet = Collections.emptySet();
 		Clause result = ax(c.indiv(a), emptySet);
@@ -200,7 +240,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	@Override
 	public Set<Clause> visit(GCI0Axiom axiom) {
 		Objects.requireNonNull(axiom);
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term a = get(axiom.getSubClass());
 		Term b = get(axiom.getSuperClass());
 
@@ -210,7 +250,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	@Override
 	public Set<Clause> visit(GCI1Axiom axiom) {
 		Objects.requireNonNull(axiom);
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term a1 = get(axiom.getLeftSubClass());
 		Term a2 = get(axiom.getRightSubClass());
 		Term b = get(axiom.getSuperClass());
@@ -221,7 +261,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	@Override
 	public Set<Clause> visit(GCI2Axiom axiom) {
 		Objects.requireNonNull(axiom);
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term a = get(axiom.getSubClass());
 		Term r = get(axiom.getPropertyInSuperClass());
 		Term b = get(axiom.getClassInSuperClass());
@@ -232,7 +272,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	@Override
 	public Set<Clause> visit(GCI3Axiom axiom) {
 		Objects.requireNonNull(axiom);
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term r = get(axiom.getPropertyInSubClass());
 		Term a = get(axiom.getClassInSubClass());
 		Term b = get(axiom.getSuperClass());
@@ -244,7 +284,7 @@ public class AxiomRenderer implements NormalizedIntegerAxiomVisitor<Set<Clause>>
 	public Set<Clause> visit(NominalAxiom axiom) {
 		Objects.requireNonNull(axiom);
 		Set<Clause> ret = new HashSet<>();
-		FormulaConstructor c = new FormulaConstructor();
+		FormulaConstructor c = this.formulaConstructor;
 		Term i = get(axiom.getIndividual());
 		Term a = get(axiom.getClassExpression());
 
@@ -0,0 +1,153 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+import de.tudresden.inf.lat.born.core.term.ProbClause;
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.born.problog.parser.BayesianNetworkParser;
+import de.tudresden.inf.lat.born.problog.parser.ParseException;
+import de.tudresden.inf.lat.born.problog.parser.ProblogLexer;
+import de.tudresden.inf.lat.born.problog.parser.TokenType;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.IntegerAnnotation;
+
+/**
+ * An object of this class removes from a Bayesian network the variables that
+ * are not needed to answer the queries. The needed variables are the ones used
+ * in the annotations of the axioms of the module, and the ones mentioned in
+ * the queries or in the additional completion rules. The pruned network has
+ * the clauses of the needed variables and of their ancestors, in the same
+ * order. The other variables are descendants that are never observed, so
+ * removing them does not change the probabilities of the queries.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BayesianNetworkPruner {
+
+	private static final Logger logger = Logger.getLogger(BayesianNetworkPruner.class.getName());
+
+	/**
+	 * Constructs a new Bayesian network pruner.
+	 */
+	public BayesianNetworkPruner() {
+	}
+
+	/**
+	 * Returns the names of the variables used in the annotations of the axioms
+	 * of the given module.
+	 *
+	 * @param renderer
+	 *            axiom renderer
+	 * @param module
+	 *            module
+	 * @return the names of the variables used in the annotations of the
+	 *         axioms of the given module
+	 */
+	public Set<String> getVariables(AxiomRenderer renderer, Module module) {
+		Objects.requireNonNull(renderer);
+		Objects.requireNonNull(module);
+		Set<String> ret = new TreeSet<>();
+		module.getAxioms().forEach(axiom -> {
+			for (IntegerAnnotation annotation : axiom.getAnnotations()) {
+				String value = renderer.getAnnotationValue(annotation);
+				for (String literal : value.split("" + Symbol.COMMA_CHAR)) {
+					String name = literal.trim();
+					if (name.startsWith(BayesianNetwork.NEGATION_PREFIX)) {
+						name = name.substring(BayesianNetwork.NEGATION_PREFIX.length()).trim();
+					}
+					ret.add(name);
+				}
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * Returns the identifiers that appear in the given ProbLog text.
+	 *
+	 * @param text
+	 *            ProbLog text
+	 * @return the identifiers that appear in the given ProbLog text
+	 */
+	public Set<String> getIdentifiers(String text) {
+		Objects.requireNonNull(text);
+		Set<String> ret = new TreeSet<>();
+		ProblogLexer lexer = new ProblogLexer(new StringReader(text));
+		try {
+			while (lexer.next()) {
+				if (lexer.getType().equals(TokenType.IDENTIFIER)) {
+					ret.add(lexer.getValue());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the Bayesian network with only the given variables and their
+	 * ancestors. Names that are not variables of the network are ignored. The
+	 * number of variables of the original and of the pruned network are
+	 * recorded in the execution result. If the network cannot be parsed, it is
+	 * returned unchanged, and both sizes are recorded as -1.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param variables
+	 *            names of the needed variables
+	 * @param executionResult
+	 *            execution result
+	 * @return the Bayesian network with only the given variables and their
+	 *         ancestors
+	 */
+	public String prune(String bayesianNetwork, Set<String> variables, ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(variables);
+		Objects.requireNonNull(executionResult);
+		List<ProbClause> clauses;
+		BayesianNetwork network;
+		try {
+			clauses = new BayesianNetworkParser().parse(new StringReader(bayesianNetwork));
+			network = BayesianNetwork.create(clauses);
+		} catch (ParseException e) {
+			logger.fine("The Bayesian network is not pruned: " + e.getMessage());
+			executionResult.setBayesianNetworkSize(-1);
+			executionResult.setPrunedBayesianNetworkSize(-1);
+			return bayesianNetwork;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		BitSet needed = new BitSet(network.getNumberOfVariables());
+		variables.forEach(name -> {
+			Optional<Integer> optVariable = network.getVariable(name);
+			if (optVariable.isPresent()) {
+				needed.set(optVariable.get());
+			}
+		});
+		BitSet kept = network.getAncestors(needed);
+
+		StringBuilder sb = new StringBuilder();
+		clauses.forEach(clause -> {
+			if (kept.get(network.getVariable(clause.getHead().getName()).get())) {
+				sb.append(clause.asString());
+			}
+		});
+		executionResult.setBayesianNetworkSize(network.getNumberOfVariables());
+		executionResult.setPrunedBayesianNetworkSize(kept.cardinality());
+		return sb.toString();
+	}
+
+}
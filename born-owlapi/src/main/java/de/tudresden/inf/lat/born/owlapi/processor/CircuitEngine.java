@@ -0,0 +1,277 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.engine.DecisionCircuit;
+import de.tudresden.inf.lat.born.engine.Provenance;
+import de.tudresden.inf.lat.born.engine.ProvenanceCompletion;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class answers queries without ProbLog, like the
+ * {@link NativeEngine}, but keeps the provenance formula of each query
+ * compiled into a {@link DecisionCircuit}. The circuits are kept for each
+ * compiled ontology, query, and structure of the Bayesian network. If only
+ * the probabilities of the Bayesian network or the evidence change, the
+ * queries are answered again by evaluating the circuits, without extracting
+ * the module or applying the completion rules.
+ * <p>
+ * The evidence gives a value to some variables of the Bayesian network, and
+ * the answers are the probabilities of the queries given the evidence. The
+ * circuits are compiled again if there is evidence on a variable that was
+ * not observable in them.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CircuitEngine {
+
+	public static final int DEFAULT_NUMBER_OF_QUERIES_IN_MEMORY = 0x400;
+
+	/**
+	 * This is an auxiliary class that keeps the circuits of the queries of a
+	 * text.
+	 */
+	static class CompiledQueries {
+
+		private final List<String> queries;
+		private final List<DecisionCircuit> circuits;
+		private final DecisionCircuit evidenceCircuit;
+
+		CompiledQueries(List<String> queries, List<DecisionCircuit> circuits, DecisionCircuit evidenceCircuit) {
+			this.queries = queries;
+			this.circuits = circuits;
+			this.evidenceCircuit = evidenceCircuit;
+		}
+
+		List<String> getQueries() {
+			return this.queries;
+		}
+
+		List<DecisionCircuit> getCircuits() {
+			return this.circuits;
+		}
+
+		DecisionCircuit getEvidenceCircuit() {
+			return this.evidenceCircuit;
+		}
+
+	}
+
+	private final int numberOfQueriesInMemory;
+	private final Map<CompiledOntology, OptMap<String, CompiledQueries>> cache = new WeakHashMap<>();
+
+	/**
+	 * Constructs a new circuit engine.
+	 */
+	public CircuitEngine() {
+		this(DEFAULT_NUMBER_OF_QUERIES_IN_MEMORY);
+	}
+
+	/**
+	 * Constructs a new circuit engine.
+	 *
+	 * @param numberOfQueriesInMemory
+	 *            maximum number of query texts whose circuits are kept for
+	 *            each compiled ontology
+	 */
+	public CircuitEngine(int numberOfQueriesInMemory) {
+		if (numberOfQueriesInMemory < 0) {
+			throw new IllegalArgumentException("Invalid number of queries in memory: " + numberOfQueriesInMemory + ".");
+		}
+		this.numberOfQueriesInMemory = numberOfQueriesInMemory;
+	}
+
+	OptMap<String, CompiledQueries> createQueryCache() {
+		int maximumSize = this.numberOfQueriesInMemory;
+		return new OptMapImpl<>(new LinkedHashMap<String, CompiledQueries>(0x10, 0.75f, true) {
+
+			private static final long serialVersionUID = 3125869712584270413L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CompiledQueries> eldest) {
+				return size() > maximumSize;
+			}
+
+		});
+	}
+
+	/**
+	 * Returns a string with the variables of the given Bayesian network and
+	 * their parents, which does not depend on the probabilities.
+	 */
+	String getStructure(BayesianNetwork network) {
+		StringBuilder sb = new StringBuilder();
+		for (int variable = 0; variable < network.getNumberOfVariables(); variable++) {
+			sb.append(network.getVariableName(variable));
+			for (int parent : network.getParents(variable)) {
+				sb.append(Symbol.COMMA_CHAR);
+				sb.append(parent);
+			}
+			sb.append(Symbol.NEW_LINE_CHAR);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the variables of the Bayesian network with their values in the
+	 * given evidence.
+	 */
+	Map<Integer, Boolean> getEvidence(BayesianNetwork network, Map<String, Boolean> evidence) {
+		Map<Integer, Boolean> ret = new HashMap<>();
+		evidence.forEach((name, value) -> {
+			Optional<Integer> variable = network.getVariable(name);
+			if (!variable.isPresent()) {
+				throw new IllegalArgumentException("Unknown variable in evidence: '" + name + "'.");
+			}
+			ret.put(variable.get(), Objects.requireNonNull(value));
+		});
+		return ret;
+	}
+
+	/**
+	 * Extracts the module, applies the completion rules, and compiles the
+	 * circuits of the given queries.
+	 */
+	CompiledQueries compile(CompiledOntology compiledOntology, BayesianNetwork network, String expandedQuery,
+			BitSet observableVariables, ProcessorExecutionResult executionResult) {
+		NativeEngine engine = new NativeEngine();
+		Module module = new ProblogInputCreator().extractModule(compiledOntology, expandedQuery, executionResult);
+		NativeEngine.Labeling labeling = new NativeEngine.Labeling(new AxiomRenderer(compiledOntology.getFactory()),
+				network);
+		ProvenanceCompletion completion = new ProvenanceCompletion(module.getAxioms(),
+				engine.getNodes(compiledOntology, module), labeling::apply);
+		List<String> queries = new ArrayList<>();
+		List<DecisionCircuit> circuits = new ArrayList<>();
+		engine.getQueries(expandedQuery).forEach(query -> {
+			Provenance provenance = engine.getProvenance(compiledOntology, module, completion, query);
+			queries.add(engine.asString(query));
+			circuits.add(DecisionCircuit.compile(network, provenance, observableVariables));
+		});
+		return new CompiledQueries(Collections.unmodifiableList(queries), Collections.unmodifiableList(circuits),
+				DecisionCircuit.compile(network, Provenance.TRUE, observableVariables));
+	}
+
+	/**
+	 * Returns the circuits of the given queries, compiling them if they are
+	 * not kept or if they cannot observe all the variables of the evidence.
+	 * The cache is only locked to look up and to keep the circuits, so that a
+	 * slow compilation does not block the queries that are already compiled.
+	 * If two threads compile the same queries at the same time, the circuits
+	 * that observe more variables are kept.
+	 */
+	CompiledQueries getCompiledQueries(CompiledOntology compiledOntology, BayesianNetwork network,
+			String expandedQuery, BitSet evidenceVariables, ProcessorExecutionResult executionResult) {
+		String key = getStructure(network) + Symbol.NEW_LINE_CHAR + expandedQuery;
+		BitSet observableVariables = (BitSet) evidenceVariables.clone();
+		Optional<CompiledQueries> optCompiledQueries = getCachedQueries(compiledOntology, key);
+		if (optCompiledQueries.isPresent()) {
+			BitSet missing = (BitSet) evidenceVariables.clone();
+			missing.andNot(optCompiledQueries.get().getEvidenceCircuit().getObservableVariables());
+			if (missing.isEmpty()) {
+				return optCompiledQueries.get();
+			}
+			observableVariables.or(optCompiledQueries.get().getEvidenceCircuit().getObservableVariables());
+		}
+		CompiledQueries ret = compile(compiledOntology, network, expandedQuery, observableVariables, executionResult);
+		putCachedQueries(compiledOntology, key, ret);
+		return ret;
+	}
+
+	synchronized Optional<CompiledQueries> getCachedQueries(CompiledOntology compiledOntology, String key) {
+		return this.cache.computeIfAbsent(compiledOntology, ontology -> createQueryCache()).get(key);
+	}
+
+	synchronized void putCachedQueries(CompiledOntology compiledOntology, String key,
+			CompiledQueries compiledQueries) {
+		OptMap<String, CompiledQueries> queryCache = this.cache.computeIfAbsent(compiledOntology,
+				ontology -> createQueryCache());
+		Optional<CompiledQueries> optCompiledQueries = queryCache.get(key);
+		BitSet observableVariables = compiledQueries.getEvidenceCircuit().getObservableVariables();
+		if (!optCompiledQueries.isPresent() || observableVariables.cardinality() >= optCompiledQueries.get()
+				.getEvidenceCircuit().getObservableVariables().cardinality()) {
+			queryCache.put(key, compiledQueries);
+		}
+	}
+
+	/**
+	 * Answers the given queries given the evidence, and returns the answers
+	 * in the same format as ProbLog. The ontology and normalized ontology
+	 * sizes, and the reasoning time are recorded in the execution result. The
+	 * module size and the module extraction time are only recorded when the
+	 * circuits are compiled.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            queries
+	 * @param evidence
+	 *            value of each observed variable of the Bayesian network
+	 * @param executionResult
+	 *            execution result
+	 * @return the answers in the same format as ProbLog
+	 * @throws UnsupportedOperationException
+	 *             if the compiled ontology uses completion rules other than
+	 *             the default ones, or if a query or an axiom is not supported
+	 * @throws IllegalArgumentException
+	 *             if the evidence has a variable that is not in the Bayesian
+	 *             network, or if the evidence has probability 0
+	 */
+	public String run(CompiledOntology compiledOntology, String bayesianNetwork, String query,
+			Map<String, Boolean> evidence, ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(evidence);
+		Objects.requireNonNull(executionResult);
+		if (!compiledOntology.hasDefaultCompletionRules()
+				|| !compiledOntology.getAdditionalCompletionRules().trim().isEmpty()) {
+			throw new UnsupportedOperationException("The circuit engine only supports the default completion rules.");
+		}
+
+		executionResult.setOntologySize(compiledOntology.getOntologySize());
+		executionResult.setNormalizedOntologySize(compiledOntology.getNormalizedAxioms().size());
+
+		long reasoningStart = System.nanoTime();
+		BayesianNetwork network = BayesianNetwork.parse(bayesianNetwork);
+		Map<Integer, Boolean> observations = getEvidence(network, evidence);
+		BitSet evidenceVariables = new BitSet();
+		observations.keySet().forEach(evidenceVariables::set);
+		String expandedQuery = compiledOntology.getPrefixExpander().rewrite(query);
+		CompiledQueries compiledQueries = getCompiledQueries(compiledOntology, network, expandedQuery,
+				evidenceVariables, executionResult);
+
+		double probabilityOfEvidence = compiledQueries.getEvidenceCircuit().getWeightedModelCount(network,
+				observations);
+		if (probabilityOfEvidence == 0) {
+			throw new IllegalArgumentException("The evidence has probability 0.");
+		}
+		ProblogAnswerFormatter formatter = new ProblogAnswerFormatter();
+		TreeMap<String, String> answers = new TreeMap<>();
+		for (int index = 0; index < compiledQueries.getQueries().size(); index++) {
+			double probability = compiledQueries.getCircuits().get(index).getWeightedModelCount(network,
+					observations) / probabilityOfEvidence;
+			answers.put(compiledQueries.getQueries().get(index), formatter.formatProbability(probability));
+		}
+		executionResult.setProblogReasoningTime(System.nanoTime() - reasoningStart);
+		return formatter.format(answers);
+	}
+
+}
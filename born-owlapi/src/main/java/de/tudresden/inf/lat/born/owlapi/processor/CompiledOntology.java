@@ -0,0 +1,343 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import org.semanticweb.owlapi.formats.PrefixDocumentFormat;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import de.tudresden.inf.lat.born.core.rule.CompletionRule;
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.jcel.ontology.axiom.complex.ComplexIntegerAxiom;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactory;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+import de.tudresden.inf.lat.jcel.ontology.normalization.OntologyNormalizer;
+import de.tudresden.inf.lat.jcel.owlapi.translator.Translator;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class is an OWL ontology that has been translated,
+ * normalized, and indexed for module extraction, together with the
+ * completion rules used to query it. It is built once and can be used to
+ * answer many queries, as long as the ontology does not change. A compiled
+ * ontology built from an {@link IncrementalOntologyCompiler} shares its state
+ * with the compiler, so it has to be read while holding
+ * {@link #getReadLock()}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CompiledOntology {
+
+	private static final Logger logger = Logger.getLogger(CompiledOntology.class.getName());
+
+	private final OWLOntology ontology;
+	private final boolean useOfDefaultCompletionRules;
+	private final String additionalCompletionRules;
+	private final List<CompletionRule> completionRules;
+	private final IntegerOntologyObjectFactory factory;
+	private final Translator translator;
+	private final int ontologySize;
+	private final Set<NormalizedIntegerAxiom> normalizedAxioms;
+	private final ModuleIndex moduleIndex;
+	private final OptMap<String, Integer> mapOfNames;
+	private final long translationTime;
+	private final long normalizationTime;
+	private final PrefixRewriter prefixExpander;
+	private final PrefixRewriter prefixCompressor;
+	private final SymbolAliasTable symbolAliasTable;
+	private final Lock readLock;
+
+	/**
+	 * Constructs a new compiled ontology. This translates and normalizes the
+	 * given OWL ontology.
+	 *
+	 * @param ontology
+	 *            OWL ontology
+	 * @param useOfDefaultCompletionRules
+	 *            <code>true</code> if and only if the default completion rules
+	 *            are used
+	 * @param additionalCompletionRules
+	 *            additional completion rules
+	 */
+	public CompiledOntology(OWLOntology ontology, boolean useOfDefaultCompletionRules,
+			String additionalCompletionRules) {
+		this.ontology = Objects.requireNonNull(ontology);
+		this.useOfDefaultCompletionRules = useOfDefaultCompletionRules;
+		this.additionalCompletionRules = Objects.requireNonNull(additionalCompletionRules);
+		ProblogInputCreator creator = new ProblogInputCreator();
+		if (useOfDefaultCompletionRules) {
+			this.completionRules = Collections.unmodifiableList(creator.getDefaultCompletionRules());
+		} else {
+			this.completionRules = Collections.emptyList();
+		}
+
+		this.factory = new IntegerOntologyObjectFactoryImpl();
+
+		long translationStart = System.nanoTime();
+		logger.fine("OWL Axioms: " + ontology.getAxioms());
+		this.translator = new Translator(ontology.getOWLOntologyManager().getOWLDataFactory(), this.factory);
+		Set<ComplexIntegerAxiom> axioms = this.translator.translateSA(ontology.getAxioms());
+		logger.fine("Integer Axioms: " + axioms);
+		this.ontologySize = axioms.size();
+		this.translationTime = System.nanoTime() - translationStart;
+
+		long normalizationStart = System.nanoTime();
+		OntologyNormalizer normalizer = new OntologyNormalizer();
+		this.normalizedAxioms = Collections.unmodifiableSet(
+				creator.removeUnnecessaryAnnotations(normalizer.normalize(axioms, this.factory), this.factory));
+		logger.fine("Normalized Axioms: " + this.normalizedAxioms);
+		this.moduleIndex = new ModuleIndex(this.normalizedAxioms);
+		this.mapOfNames = buildMapOfNames(this.factory.getEntityManager());
+		this.normalizationTime = System.nanoTime() - normalizationStart;
+
+		PrefixDocumentFormat prefixes = ProcessorConfigurationImpl.getPrefixes(ontology);
+		this.prefixExpander = PrefixRewriter.getExpander(prefixes);
+		this.prefixCompressor = PrefixRewriter.getCompressor(prefixes);
+		this.symbolAliasTable = new SymbolAliasTable(this.factory.getEntityManager());
+		this.readLock = new ReentrantReadWriteLock().readLock();
+	}
+
+	/**
+	 * Constructs a new compiled ontology with the current state of the given
+	 * incremental compiler. The ontology is not translated or normalized
+	 * again, and nothing is copied: the normalized axioms are a view of the
+	 * module index, which the compiler updates in place, and the map of names
+	 * and the table of aliases are the ones kept by the compiler. The entity
+	 * manager and the translator are changed by the updates of the compiler,
+	 * so the read lock of this compiled ontology is the one of the compiler.
+	 * The translation and normalization times are the ones of the last update
+	 * of the compiler.
+	 *
+	 * @param compiler
+	 *            incremental ontology compiler
+	 * @param useOfDefaultCompletionRules
+	 *            <code>true</code> if and only if the default completion rules
+	 *            are used
+	 * @param additionalCompletionRules
+	 *            additional completion rules
+	 */
+	public CompiledOntology(IncrementalOntologyCompiler compiler, boolean useOfDefaultCompletionRules,
+			String additionalCompletionRules) {
+		Objects.requireNonNull(compiler);
+		this.ontology = compiler.getOntology();
+		this.useOfDefaultCompletionRules = useOfDefaultCompletionRules;
+		this.additionalCompletionRules = Objects.requireNonNull(additionalCompletionRules);
+		ProblogInputCreator creator = new ProblogInputCreator();
+		if (useOfDefaultCompletionRules) {
+			this.completionRules = Collections.unmodifiableList(creator.getDefaultCompletionRules());
+		} else {
+			this.completionRules = Collections.emptyList();
+		}
+
+		this.factory = compiler.getFactory();
+		this.translator = compiler.getTranslator();
+		this.ontologySize = compiler.getOntologySize();
+		this.translationTime = compiler.getTranslationTime();
+		this.moduleIndex = compiler.getModuleIndex();
+		this.normalizedAxioms = this.moduleIndex.getAxioms();
+		this.mapOfNames = compiler.getMapOfNames();
+		this.normalizationTime = compiler.getNormalizationTime();
+
+		PrefixDocumentFormat prefixes = ProcessorConfigurationImpl.getPrefixes(this.ontology);
+		this.prefixExpander = PrefixRewriter.getExpander(prefixes);
+		this.prefixCompressor = PrefixRewriter.getCompressor(prefixes);
+		this.symbolAliasTable = compiler.getSymbolAliasTable();
+		this.readLock = compiler.getReadLock();
+	}
+
+	static OptMap<String, Integer> buildMapOfNames(IntegerEntityManager entityManager) {
+		OptMap<String, Integer> map = new OptMapImpl<>(new TreeMap<>());
+		entityManager.getEntities(IntegerEntityType.CLASS, false)
+				.forEach(id -> map.put(entityManager.getName(id), id));
+		entityManager.getEntities(IntegerEntityType.INDIVIDUAL, false)
+				.forEach(id -> map.put(entityManager.getName(id), id));
+		return map;
+	}
+
+	/**
+	 * Returns the OWL ontology.
+	 *
+	 * @return the OWL ontology
+	 */
+	public OWLOntology getOntology() {
+		return this.ontology;
+	}
+
+	/**
+	 * Returns <code>true</code> if and only if the default completion rules
+	 * are used.
+	 *
+	 * @return <code>true</code> if and only if the default completion rules
+	 *         are used
+	 */
+	public boolean hasDefaultCompletionRules() {
+		return this.useOfDefaultCompletionRules;
+	}
+
+	/**
+	 * Returns the additional completion rules.
+	 *
+	 * @return the additional completion rules
+	 */
+	public String getAdditionalCompletionRules() {
+		return this.additionalCompletionRules;
+	}
+
+	/**
+	 * Returns the completion rules, which are empty if the default completion
+	 * rules are not used.
+	 *
+	 * @return the completion rules
+	 */
+	public List<CompletionRule> getCompletionRules() {
+		return this.completionRules;
+	}
+
+	/**
+	 * Returns the integer ontology object factory.
+	 *
+	 * @return the integer ontology object factory
+	 */
+	public IntegerOntologyObjectFactory getFactory() {
+		return this.factory;
+	}
+
+	/**
+	 * Returns the entity manager.
+	 *
+	 * @return the entity manager
+	 */
+	public IntegerEntityManager getEntityManager() {
+		return this.factory.getEntityManager();
+	}
+
+	/**
+	 * Returns the translator used to translate the OWL ontology.
+	 *
+	 * @return the translator used to translate the OWL ontology
+	 */
+	public Translator getTranslator() {
+		return this.translator;
+	}
+
+	/**
+	 * Returns the number of axioms after translation.
+	 *
+	 * @return the number of axioms after translation
+	 */
+	public int getOntologySize() {
+		return this.ontologySize;
+	}
+
+	/**
+	 * Returns the normalized axioms.
+	 *
+	 * @return the normalized axioms
+	 */
+	public Set<NormalizedIntegerAxiom> getNormalizedAxioms() {
+		return this.normalizedAxioms;
+	}
+
+	/**
+	 * Returns the index used to extract modules.
+	 *
+	 * @return the index used to extract modules
+	 */
+	public ModuleIndex getModuleIndex() {
+		return this.moduleIndex;
+	}
+
+	/**
+	 * Returns a map from names of classes and individuals to their
+	 * identifiers.
+	 *
+	 * @return a map from names of classes and individuals to their identifiers
+	 */
+	public OptMap<String, Integer> getMapOfNames() {
+		return this.mapOfNames;
+	}
+
+	/**
+	 * Returns the time in nanoseconds that it took to translate the ontology.
+	 *
+	 * @return the time in nanoseconds that it took to translate the ontology
+	 */
+	public long getTranslationTime() {
+		return this.translationTime;
+	}
+
+	/**
+	 * Returns the time in nanoseconds that it took to normalize and index the
+	 * ontology.
+	 *
+	 * @return the time in nanoseconds that it took to normalize and index the
+	 *         ontology
+	 */
+	public long getNormalizationTime() {
+		return this.normalizationTime;
+	}
+
+	/**
+	 * Returns the prefix rewriter that expands the prefixes of the ontology.
+	 *
+	 * @return the prefix rewriter that expands the prefixes of the ontology
+	 */
+	public PrefixRewriter getPrefixExpander() {
+		return this.prefixExpander;
+	}
+
+	/**
+	 * Returns the prefix rewriter that compresses IRIs using the prefixes of
+	 * the ontology.
+	 *
+	 * @return the prefix rewriter that compresses IRIs using the prefixes of
+	 *         the ontology
+	 */
+	public PrefixRewriter getPrefixCompressor() {
+		return this.prefixCompressor;
+	}
+
+	/**
+	 * Returns the table with the short aliases of the entities, which can be
+	 * used instead of their names in the ProbLog program.
+	 *
+	 * @return the table with the short aliases of the entities
+	 */
+	public SymbolAliasTable getSymbolAliasTable() {
+		return this.symbolAliasTable;
+	}
+
+	/**
+	 * Returns the lock to hold while reading this compiled ontology. Only a
+	 * compiled ontology built from an {@link IncrementalOntologyCompiler} can
+	 * be changed while the lock is not held.
+	 *
+	 * @return the lock to hold while reading this compiled ontology
+	 */
+	public Lock getReadLock() {
+		return this.readLock;
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sbuf = new StringBuffer();
+		sbuf.append(" [ ");
+		sbuf.append("ontology_size=" + this.ontologySize);
+		sbuf.append(", normalized_ontology_size=" + this.normalizedAxioms.size());
+		sbuf.append(", default_completion_rules=" + this.useOfDefaultCompletionRules);
+		sbuf.append(" ] ");
+		return sbuf.toString();
+	}
+
+}
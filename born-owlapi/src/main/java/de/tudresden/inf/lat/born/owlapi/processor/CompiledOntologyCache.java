@@ -0,0 +1,242 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * An object of this class keeps the most recently used compiled ontologies,
+ * so that ontologies are translated and normalized only once for many
+ * queries. Ontologies are compared by identity, and a compiled ontology is
+ * discarded as soon as its ontology is changed. The ontology managers are
+ * only weakly referenced, and the cache stops listening to them when it is
+ * closed. This class is thread-safe.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CompiledOntologyCache implements OWLOntologyChangeListener, AutoCloseable {
+
+	/**
+	 * Default maximum number of compiled ontologies kept in the cache.
+	 */
+	public static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * Key of the cache. The ontology is compared by identity, because the
+	 * equality of OWL ontologies only considers their identifiers.
+	 */
+	static class Key {
+
+		private final OWLOntology ontology;
+		private final boolean useOfDefaultCompletionRules;
+		private final String additionalCompletionRules;
+
+		Key(OWLOntology ontology, boolean useOfDefaultCompletionRules, String additionalCompletionRules) {
+			this.ontology = Objects.requireNonNull(ontology);
+			this.useOfDefaultCompletionRules = useOfDefaultCompletionRules;
+			this.additionalCompletionRules = Objects.requireNonNull(additionalCompletionRules);
+		}
+
+		OWLOntology getOntology() {
+			return this.ontology;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.ontology) + //
+					0x1F * ((this.useOfDefaultCompletionRules ? 1 : 0) + //
+							0x1F * this.additionalCompletionRules.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (!(obj instanceof Key)) {
+				return false;
+			} else {
+				Key other = (Key) obj;
+				return this.ontology == other.ontology
+						&& this.useOfDefaultCompletionRules == other.useOfDefaultCompletionRules
+						&& this.additionalCompletionRules.equals(other.additionalCompletionRules);
+			}
+		}
+
+	}
+
+	private final int capacity;
+	private final Map<Key, CompiledOntology> entries;
+	private final Set<OWLOntologyManager> managers = Collections.newSetFromMap(new WeakHashMap<>());
+	private long generation = 0;
+
+	/**
+	 * Constructs a new compiled ontology cache with the default capacity.
+	 */
+	public CompiledOntologyCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new compiled ontology cache.
+	 *
+	 * @param capacity
+	 *            maximum number of compiled ontologies kept in the cache
+	 */
+	public CompiledOntologyCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid capacity: '" + capacity + "'.");
+		}
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<Key, CompiledOntology>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 5064117455384305391L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CompiledOntology> eldest) {
+				return size() > CompiledOntologyCache.this.capacity;
+			}
+
+		};
+	}
+
+	/**
+	 * Returns the compiled ontology for the given ontology and completion
+	 * rules. If the ontology is not in the cache, it is compiled and stored.
+	 * The translation and normalization times are recorded in the given
+	 * execution result, and are 0 if the compiled ontology was found in the
+	 * cache.
+	 *
+	 * @param ontology
+	 *            OWL ontology
+	 * @param useOfDefaultCompletionRules
+	 *            <code>true</code> if and only if the default completion rules
+	 *            are used
+	 * @param additionalCompletionRules
+	 *            additional completion rules
+	 * @param executionResult
+	 *            execution result
+	 * @return the compiled ontology for the given ontology and completion rules
+	 */
+	public CompiledOntology get(OWLOntology ontology, boolean useOfDefaultCompletionRules,
+			String additionalCompletionRules, ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(ontology);
+		Objects.requireNonNull(additionalCompletionRules);
+		Objects.requireNonNull(executionResult);
+		Key key = new Key(ontology, useOfDefaultCompletionRules, additionalCompletionRules);
+		long generationAtStart;
+		synchronized (this.entries) {
+			CompiledOntology cached = this.entries.get(key);
+			if (Objects.nonNull(cached)) {
+				executionResult.setTranslationTime(0);
+				executionResult.setNormalizationTime(0);
+				return cached;
+			}
+			register(ontology.getOWLOntologyManager());
+			generationAtStart = this.generation;
+		}
+
+		// the compilation is done outside the lock, because the ontology
+		// manager can notify changes while the ontology is being read
+		CompiledOntology compiled = new CompiledOntology(ontology, useOfDefaultCompletionRules,
+				additionalCompletionRules);
+		executionResult.setTranslationTime(compiled.getTranslationTime());
+		executionResult.setNormalizationTime(compiled.getNormalizationTime());
+
+		synchronized (this.entries) {
+			if (this.generation == generationAtStart) {
+				this.entries.put(key, compiled);
+			}
+		}
+		return compiled;
+	}
+
+	void register(OWLOntologyManager manager) {
+		if (Objects.nonNull(manager) && this.managers.add(manager)) {
+			manager.addOntologyChangeListener(this);
+		}
+	}
+
+	/**
+	 * Returns the number of ontology managers that this cache listens to.
+	 *
+	 * @return the number of ontology managers that this cache listens to
+	 */
+	int getNumberOfManagers() {
+		synchronized (this.entries) {
+			return this.managers.size();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of compiled ontologies in the cache.
+	 *
+	 * @return the maximum number of compiled ontologies in the cache
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the number of compiled ontologies in the cache.
+	 *
+	 * @return the number of compiled ontologies in the cache
+	 */
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * Removes all the compiled ontologies of the given ontology.
+	 *
+	 * @param ontology
+	 *            OWL ontology
+	 */
+	public void invalidate(OWLOntology ontology) {
+		Objects.requireNonNull(ontology);
+		synchronized (this.entries) {
+			this.generation++;
+			this.entries.keySet().removeIf(key -> key.getOntology() == ontology);
+		}
+	}
+
+	/**
+	 * Removes all the compiled ontologies and stops listening to changes.
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.generation++;
+			this.entries.clear();
+			new ArrayList<>(this.managers).forEach(manager -> manager.removeOntologyChangeListener(this));
+			this.managers.clear();
+		}
+	}
+
+	/**
+	 * Removes all the compiled ontologies and stops listening to changes. The
+	 * cache can still be used after it is closed.
+	 */
+	@Override
+	public void close() {
+		clear();
+	}
+
+	@Override
+	public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+		Objects.requireNonNull(changes);
+		changes.forEach(change -> invalidate(change.getOntology()));
+	}
+
+}
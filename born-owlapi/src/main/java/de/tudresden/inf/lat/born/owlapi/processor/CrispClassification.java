@@ -0,0 +1,509 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+import de.tudresden.inf.lat.born.engine.BitsetCompletion;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.FunctObjectPropAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class is the classification of a compiled ontology
+ * without probabilities, i.e. where every axiom holds, including the
+ * annotated ones. The subsumptions are computed once with a
+ * {@link BitsetCompletion}, and the named superclasses, the direct
+ * superclasses, and the direct subclasses of each named class, and the types
+ * of each named individual are kept, so that the hierarchy can be queried
+ * without reasoning. A class is unsatisfiable if the completion derives that
+ * it is subsumed by the bottom class, which is propagated through the
+ * existential restrictions. The unsatisfiable classes are equivalent to the
+ * bottom class. Axioms of functional object properties are not supported by
+ * the bitset completion and are left out with a warning, so that the
+ * classification is sound, but could miss subsumptions that depend on them.
+ * <p>
+ * Classes and individuals are identified by their identifiers in the entity
+ * manager of the compiled ontology. This class is immutable.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CrispClassification {
+
+	private static final Logger logger = Logger.getLogger(CrispClassification.class.getName());
+
+	private static final int[] EMPTY = new int[0];
+
+	private final int[] classes;
+	private final int[] individuals;
+	private final OptMap<Integer, Integer> classPositions = new OptMapImpl<>(new HashMap<>());
+	private final OptMap<Integer, Integer> individualPositions = new OptMapImpl<>(new HashMap<>());
+	private final OptMap<String, Integer> classNames = new OptMapImpl<>(new HashMap<>());
+	private final OptMap<String, Integer> individualNames = new OptMapImpl<>(new HashMap<>());
+	private final BitSet unsatisfiable = new BitSet();
+	private final int[][] superClasses;
+	private final int[][] equivalentClasses;
+	private final int[][] directSuperClasses;
+	private final int[][] directSubClasses;
+	private final int[][] types;
+	private final int[][] directTypes;
+	private final int[][] directInstances;
+	private final boolean consistent;
+	private final long classificationTime;
+
+	/**
+	 * Constructs a new classification of the given compiled ontology.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 */
+	public CrispClassification(CompiledOntology compiledOntology) {
+		this(compiledOntology.getEntityManager(), compiledOntology.getNormalizedAxioms());
+	}
+
+	/**
+	 * Constructs a new classification of the given normalized axioms.
+	 *
+	 * @param entityManager
+	 *            entity manager
+	 * @param normalizedAxioms
+	 *            normalized axioms
+	 */
+	public CrispClassification(IntegerEntityManager entityManager,
+			Collection<NormalizedIntegerAxiom> normalizedAxioms) {
+		Objects.requireNonNull(entityManager);
+		Objects.requireNonNull(normalizedAxioms);
+		long start = System.nanoTime();
+		Set<Integer> namedClasses = new TreeSet<>(entityManager.getEntities(IntegerEntityType.CLASS, false));
+		namedClasses.add(IntegerEntityManager.bottomClassId);
+		namedClasses.add(IntegerEntityManager.topClassId);
+		this.classes = namedClasses.stream().mapToInt(Integer::intValue).toArray();
+		this.individuals = new TreeSet<>(entityManager.getEntities(IntegerEntityType.INDIVIDUAL, false)).stream()
+				.mapToInt(Integer::intValue).toArray();
+		for (int position = 0; position < this.classes.length; position++) {
+			this.classPositions.put(this.classes[position], position);
+			this.classNames.put(entityManager.getName(this.classes[position]), this.classes[position]);
+		}
+		for (int position = 0; position < this.individuals.length; position++) {
+			this.individualPositions.put(this.individuals[position], position);
+			this.individualNames.put(entityManager.getName(this.individuals[position]), this.individuals[position]);
+		}
+
+		Set<Integer> nodes = new HashSet<>(namedClasses);
+		Arrays.stream(this.individuals).forEach(nodes::add);
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>();
+		normalizedAxioms.stream().filter(axiom -> !(axiom instanceof FunctObjectPropAxiom)).forEach(axioms::add);
+		if (axioms.size() < normalizedAxioms.size()) {
+			logger.warning("Axioms of functional object properties are not used in the classification: "
+					+ (normalizedAxioms.size() - axioms.size()) + ".");
+		}
+		BitsetCompletion completion = new BitsetCompletion(axioms, nodes);
+		completion.complete();
+
+		for (int position = 0; position < this.classes.length; position++) {
+			if (completion.isSubsumed(this.classes[position], IntegerEntityManager.bottomClassId)) {
+				this.unsatisfiable.set(position);
+			}
+		}
+		this.consistent = !completion.isSubsumed(IntegerEntityManager.topClassId, IntegerEntityManager.bottomClassId)
+				&& Arrays.stream(this.individuals)
+						.noneMatch(individual -> completion.isSubsumed(individual, IntegerEntityManager.bottomClassId));
+
+		this.superClasses = new int[this.classes.length][];
+		for (int position = 0; position < this.classes.length; position++) {
+			this.superClasses[position] = this.unsatisfiable.get(position) ? EMPTY
+					: getNamedClasses(completion.getSubsumers(this.classes[position]));
+		}
+		this.equivalentClasses = new int[this.classes.length][];
+		int[] unsatisfiableClasses = this.unsatisfiable.stream().toArray();
+		for (int position = 0; position < this.classes.length; position++) {
+			if (this.unsatisfiable.get(position)) {
+				this.equivalentClasses[position] = unsatisfiableClasses;
+			} else {
+				int current = position;
+				this.equivalentClasses[position] = Arrays.stream(this.superClasses[position])
+						.filter(superClass -> contains(this.superClasses[superClass], current)).toArray();
+			}
+		}
+
+		BitSet marks = new BitSet(this.classes.length);
+		this.directSuperClasses = new int[this.classes.length][];
+		for (int position = 0; position < this.classes.length; position++) {
+			this.directSuperClasses[position] = this.unsatisfiable.get(position) ? EMPTY
+					: getDirect(this.superClasses[position], this.equivalentClasses[position], marks);
+		}
+		this.directSubClasses = invert(this.directSuperClasses, this.classes.length);
+
+		this.types = new int[this.individuals.length][];
+		this.directTypes = new int[this.individuals.length][];
+		for (int position = 0; position < this.individuals.length; position++) {
+			this.types[position] = getNamedClasses(completion.getSubsumers(this.individuals[position]));
+			this.directTypes[position] = getDirect(this.types[position], EMPTY, marks);
+		}
+		this.directInstances = invert(this.directTypes, this.classes.length);
+		this.classificationTime = System.nanoTime() - start;
+		logger.fine("Ontology classified in " + this.classificationTime + " ns.");
+	}
+
+	/**
+	 * Returns the sorted positions of the named classes in the given set of
+	 * entities.
+	 */
+	int[] getNamedClasses(Set<Integer> entities) {
+		return entities.stream().map(this.classPositions::get).filter(position -> position.isPresent())
+				.mapToInt(position -> position.get()).filter(position -> !this.unsatisfiable.get(position)).sorted()
+				.toArray();
+	}
+
+	/**
+	 * Returns the classes of the given sorted array that are not equivalent
+	 * classes and are not strict superclasses of other classes of the array.
+	 * The marks are cleared after use.
+	 */
+	int[] getDirect(int[] subsumers, int[] equivalents, BitSet marks) {
+		for (int superClass : subsumers) {
+			if (!contains(equivalents, superClass)) {
+				for (int other : this.superClasses[superClass]) {
+					if (!contains(this.equivalentClasses[superClass], other)) {
+						marks.set(other);
+					}
+				}
+			}
+		}
+		int[] ret = Arrays.stream(subsumers).filter(superClass -> !contains(equivalents, superClass))
+				.filter(superClass -> !marks.get(superClass)).toArray();
+		marks.clear();
+		return ret;
+	}
+
+	/**
+	 * Returns the inverse of the given relation, with the given number of
+	 * rows.
+	 */
+	static int[][] invert(int[][] relation, int size) {
+		int[] counts = new int[size];
+		for (int[] row : relation) {
+			for (int value : row) {
+				counts[value]++;
+			}
+		}
+		int[][] ret = new int[size][];
+		for (int index = 0; index < size; index++) {
+			ret[index] = counts[index] == 0 ? EMPTY : new int[counts[index]];
+			counts[index] = 0;
+		}
+		for (int index = 0; index < relation.length; index++) {
+			for (int value : relation[index]) {
+				ret[value][counts[value]] = index;
+				counts[value]++;
+			}
+		}
+		return ret;
+	}
+
+	static boolean contains(int[] sortedArray, int value) {
+		return Arrays.binarySearch(sortedArray, value) >= 0;
+	}
+
+	Set<Integer> asClasses(int[] positions) {
+		Set<Integer> ret = new HashSet<>();
+		for (int position : positions) {
+			ret.add(this.classes[position]);
+		}
+		return ret;
+	}
+
+	int getClassPosition(int classId) {
+		return this.classPositions.get(classId).orElseThrow(
+				() -> new IllegalArgumentException("Unknown class: '" + classId + "'."));
+	}
+
+	int getIndividualPosition(int individual) {
+		return this.individualPositions.get(individual).orElseThrow(
+				() -> new IllegalArgumentException("Unknown individual: '" + individual + "'."));
+	}
+
+	/**
+	 * Tells whether the given class is a named class of the classification.
+	 *
+	 * @param classId
+	 *            class
+	 * @return <code>true</code> if and only if the given class is a named
+	 *         class of the classification
+	 */
+	public boolean hasClass(int classId) {
+		return this.classPositions.containsKey(classId);
+	}
+
+	/**
+	 * Tells whether the given individual is a named individual of the
+	 * classification.
+	 *
+	 * @param individual
+	 *            individual
+	 * @return <code>true</code> if and only if the given individual is a named
+	 *         individual of the classification
+	 */
+	public boolean hasIndividual(int individual) {
+		return this.individualPositions.containsKey(individual);
+	}
+
+	/**
+	 * Returns the named class with the given name, if it is a class of the
+	 * classification.
+	 *
+	 * @param name
+	 *            name of the class
+	 * @return the named class with the given name, if it is a class of the
+	 *         classification
+	 */
+	public Optional<Integer> getClass(String name) {
+		Objects.requireNonNull(name);
+		return this.classNames.get(name);
+	}
+
+	/**
+	 * Returns the named individual with the given name, if it is an
+	 * individual of the classification.
+	 *
+	 * @param name
+	 *            name of the individual
+	 * @return the named individual with the given name, if it is an individual
+	 *         of the classification
+	 */
+	public Optional<Integer> getIndividual(String name) {
+		Objects.requireNonNull(name);
+		return this.individualNames.get(name);
+	}
+
+	/**
+	 * Tells whether the ontology is consistent, i.e. whether the top class
+	 * and every named individual are satisfiable.
+	 *
+	 * @return <code>true</code> if and only if the ontology is consistent
+	 */
+	public boolean isConsistent() {
+		return this.consistent;
+	}
+
+	/**
+	 * Tells whether the given class is satisfiable.
+	 *
+	 * @param classId
+	 *            class
+	 * @return <code>true</code> if and only if the given class is satisfiable
+	 */
+	public boolean isSatisfiable(int classId) {
+		return !this.unsatisfiable.get(getClassPosition(classId));
+	}
+
+	/**
+	 * Returns the unsatisfiable classes, including the bottom class.
+	 *
+	 * @return the unsatisfiable classes
+	 */
+	public Set<Integer> getUnsatisfiableClasses() {
+		return asClasses(this.unsatisfiable.stream().toArray());
+	}
+
+	/**
+	 * Tells whether the first class is subsumed by the second class.
+	 *
+	 * @param subClass
+	 *            subclass
+	 * @param superClass
+	 *            superclass
+	 * @return <code>true</code> if and only if the first class is subsumed by
+	 *         the second class
+	 */
+	public boolean isSubsumed(int subClass, int superClass) {
+		int subClassPosition = getClassPosition(subClass);
+		return this.unsatisfiable.get(subClassPosition)
+				|| contains(this.superClasses[subClassPosition], getClassPosition(superClass));
+	}
+
+	/**
+	 * Returns the classes that are equivalent to the given class, including
+	 * the class itself.
+	 *
+	 * @param classId
+	 *            class
+	 * @return the classes that are equivalent to the given class
+	 */
+	public Set<Integer> getEquivalentClasses(int classId) {
+		return asClasses(this.equivalentClasses[getClassPosition(classId)]);
+	}
+
+	/**
+	 * Returns the strict superclasses of the given class, i.e. the
+	 * superclasses that are not equivalent to it. The superclasses of an
+	 * unsatisfiable class are all the satisfiable classes.
+	 *
+	 * @param classId
+	 *            class
+	 * @param direct
+	 *            <code>true</code> if and only if only the direct
+	 *            superclasses are returned
+	 * @return the strict superclasses of the given class
+	 */
+	public Set<Integer> getSuperClasses(int classId, boolean direct) {
+		int position = getClassPosition(classId);
+		if (this.unsatisfiable.get(position)) {
+			BitSet satisfiable = new BitSet();
+			satisfiable.set(0, this.classes.length);
+			satisfiable.andNot(this.unsatisfiable);
+			if (direct) {
+				return asClasses(satisfiable.stream().filter(other -> this.directSubClasses[other].length == 0)
+						.toArray());
+			} else {
+				return asClasses(satisfiable.stream().toArray());
+			}
+		} else if (direct) {
+			return asClasses(this.directSuperClasses[position]);
+		} else {
+			int[] equivalents = this.equivalentClasses[position];
+			return asClasses(Arrays.stream(this.superClasses[position])
+					.filter(superClass -> !contains(equivalents, superClass)).toArray());
+		}
+	}
+
+	/**
+	 * Returns the satisfiable classes that are subsumed by the given class
+	 * and are not equivalent to it, and those that are also subsumed by one of
+	 * the others, if not only the direct ones are requested.
+	 */
+	BitSet getSatisfiableSubClasses(int position, boolean direct) {
+		BitSet ret = new BitSet();
+		Deque<Integer> toVisit = new ArrayDeque<>();
+		toVisit.push(position);
+		while (!toVisit.isEmpty()) {
+			int current = toVisit.pop();
+			for (int subClass : this.directSubClasses[current]) {
+				if (!ret.get(subClass)) {
+					ret.set(subClass);
+					if (!direct) {
+						toVisit.push(subClass);
+					}
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the strict subclasses of the given class, i.e. the subclasses
+	 * that are not equivalent to it. The unsatisfiable classes are subclasses
+	 * of every satisfiable class, and they are direct subclasses of the
+	 * classes without other subclasses.
+	 *
+	 * @param classId
+	 *            class
+	 * @param direct
+	 *            <code>true</code> if and only if only the direct subclasses
+	 *            are returned
+	 * @return the strict subclasses of the given class
+	 */
+	public Set<Integer> getSubClasses(int classId, boolean direct) {
+		int position = getClassPosition(classId);
+		if (this.unsatisfiable.get(position)) {
+			return Collections.emptySet();
+		} else {
+			BitSet subClasses = getSatisfiableSubClasses(position, direct);
+			if (!direct || subClasses.isEmpty()) {
+				subClasses.or(this.unsatisfiable);
+			}
+			return asClasses(subClasses.stream().toArray());
+		}
+	}
+
+	/**
+	 * Returns the named classes of the given individual.
+	 *
+	 * @param individual
+	 *            individual
+	 * @param direct
+	 *            <code>true</code> if and only if only the direct classes are
+	 *            returned
+	 * @return the named classes of the given individual
+	 */
+	public Set<Integer> getTypes(int individual, boolean direct) {
+		int position = getIndividualPosition(individual);
+		return asClasses(direct ? this.directTypes[position] : this.types[position]);
+	}
+
+	/**
+	 * Tells whether the given individual is an instance of the given class.
+	 *
+	 * @param individual
+	 *            individual
+	 * @param classId
+	 *            class
+	 * @return <code>true</code> if and only if the given individual is an
+	 *         instance of the given class
+	 */
+	public boolean isInstance(int individual, int classId) {
+		return contains(this.types[getIndividualPosition(individual)], getClassPosition(classId));
+	}
+
+	/**
+	 * Returns the named individuals that are instances of the given class.
+	 *
+	 * @param classId
+	 *            class
+	 * @param direct
+	 *            <code>true</code> if and only if only the individuals that
+	 *            have the given class as a direct class are returned
+	 * @return the named individuals that are instances of the given class
+	 */
+	public Set<Integer> getInstances(int classId, boolean direct) {
+		int position = getClassPosition(classId);
+		Set<Integer> ret = new HashSet<>();
+		if (this.unsatisfiable.get(position)) {
+			return ret;
+		}
+		List<Integer> classesToCheck = new ArrayList<>();
+		Arrays.stream(this.equivalentClasses[position]).forEach(classesToCheck::add);
+		if (!direct) {
+			getSatisfiableSubClasses(position, false).stream().forEach(classesToCheck::add);
+		}
+		classesToCheck.forEach(current -> {
+			for (int individual : this.directInstances[current]) {
+				ret.add(this.individuals[individual]);
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * Returns the time in nanoseconds spent classifying the ontology.
+	 *
+	 * @return the time in nanoseconds spent classifying the ontology
+	 */
+	public long getClassificationTime() {
+		return this.classificationTime;
+	}
+
+	@Override
+	public String toString() {
+		return "classes=" + this.classes.length + " individuals=" + this.individuals.length + " unsatisfiable="
+				+ this.unsatisfiable.cardinality();
+	}
+
+}
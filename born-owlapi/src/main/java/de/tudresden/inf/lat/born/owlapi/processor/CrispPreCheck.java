@@ -0,0 +1,160 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import de.tudresden.inf.lat.born.engine.BitsetCompletion;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.FunctObjectPropAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+
+/**
+ * An object of this class tries to answer queries without computing
+ * probabilities. It applies the default completion rules to the module twice,
+ * without probabilities: once with all the axioms, and once with only the
+ * axioms without annotations. Since the completion rules are monotone, a
+ * query that does not follow from all the axioms has probability 0, and a
+ * query that follows from the axioms without annotations has probability 1.
+ * As in ProbLog, there are no rules for the bottom class, so an unsatisfiable
+ * class is not subsumed by every class.
+ * The queries are answered only if every query has probability 0 or 1. The
+ * answers are written by a {@link ProblogAnswerFormatter}, so that the output
+ * does not depend on whether the queries were answered by this pre-check or
+ * by ProbLog.
+ * <p>
+ * This pre-check has a limitation with functional object properties. Their
+ * axioms are not supported by the bitset completion and are left out.
+ * Without them, a query that follows from the axioms without annotations
+ * still has probability 1, but a query that does not follow from all the
+ * axioms could still have positive probability. Thus, if the module has any
+ * axiom of a functional object property, the pre-check can only answer 1, and
+ * the queries are answered only if every query has probability 1. Queries
+ * with probability 0 are then left to ProbLog.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CrispPreCheck {
+
+	private final NativeEngine nativeEngine = new NativeEngine();
+	private final SamplingEngine samplingEngine = new SamplingEngine();
+
+	/**
+	 * Constructs a new crisp pre-check.
+	 */
+	public CrispPreCheck() {
+	}
+
+	/**
+	 * Returns the answers in the same format as ProbLog, if every query has
+	 * probability 0 or 1. The module is extracted with
+	 * {@link ProblogInputCreator#extractModule(CompiledOntology, String, ProcessorExecutionResult)}
+	 * . The ontology, normalized ontology, and module sizes, and the module
+	 * extraction time are recorded in the execution result.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param query
+	 *            queries
+	 * @param executionResult
+	 *            execution result
+	 * @return the answers in the same format as ProbLog, if every query has
+	 *         probability 0 or 1
+	 * @see #run(CompiledOntology, Module, String, ProcessorExecutionResult)
+	 */
+	public Optional<String> run(CompiledOntology compiledOntology, String query,
+			ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(executionResult);
+		Module module = new ProblogInputCreator().extractModule(compiledOntology,
+				compiledOntology.getPrefixExpander().rewrite(query), executionResult);
+		return run(compiledOntology, module, query, executionResult);
+	}
+
+	/**
+	 * Returns the answers in the same format as ProbLog, if every query has
+	 * probability 0 or 1, using a module that was already extracted. The
+	 * queries are not answered if the compiled ontology uses completion rules
+	 * other than the default ones, or if a query is not supported by the
+	 * bitset completion.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param module
+	 *            module of the compiled ontology that is relevant to answer
+	 *            the queries
+	 * @param query
+	 *            queries
+	 * @param executionResult
+	 *            execution result
+	 * @return the answers in the same format as ProbLog, if every query has
+	 *         probability 0 or 1
+	 */
+	public Optional<String> run(CompiledOntology compiledOntology, Module module, String query,
+			ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(module);
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(executionResult);
+		if (!compiledOntology.hasDefaultCompletionRules()
+				|| !compiledOntology.getAdditionalCompletionRules().trim().isEmpty()) {
+			return Optional.empty();
+		}
+
+		String expandedQuery = compiledOntology.getPrefixExpander().rewrite(query);
+		List<List<String>> queries = this.nativeEngine.getQueries(expandedQuery);
+		if (queries.isEmpty() || !queries.stream().allMatch(this.nativeEngine::isSupported)) {
+			return Optional.empty();
+		}
+
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>();
+		module.getAxioms().stream().filter(axiom -> !(axiom instanceof FunctObjectPropAxiom))
+				.forEach(axioms::add);
+		boolean allAxioms = (axioms.size() == module.getAxioms().size());
+
+		long reasoningStart = System.nanoTime();
+		BitsetCompletion completion = new BitsetCompletion(axioms,
+				this.nativeEngine.getNodes(compiledOntology, module), false);
+		List<Predicate<BitsetCompletion>> tests = new ArrayList<>();
+		queries.forEach(currentQuery -> tests.add(this.samplingEngine.getTest(compiledOntology, module, currentQuery)));
+
+		completion.complete();
+		boolean[] possible = new boolean[tests.size()];
+		for (int index = 0; index < possible.length; index++) {
+			possible[index] = tests.get(index).test(completion);
+			if (!possible[index] && !allAxioms) {
+				return Optional.empty();
+			}
+		}
+
+		BitSet axiomsWithoutAnnotations = new BitSet();
+		for (int index = 0; index < axioms.size(); index++) {
+			if (axioms.get(index).getAnnotations().isEmpty()) {
+				axiomsWithoutAnnotations.set(index);
+			}
+		}
+		completion.complete(axiomsWithoutAnnotations);
+
+		TreeMap<String, String> answers = new TreeMap<>();
+		for (int index = 0; index < possible.length; index++) {
+			String probability = ProblogAnswerFormatter.PROBLOG_ZERO;
+			if (possible[index]) {
+				if (tests.get(index).test(completion)) {
+					probability = ProblogAnswerFormatter.PROBLOG_ONE;
+				} else {
+					return Optional.empty();
+				}
+			}
+			answers.put(this.nativeEngine.asString(queries.get(index)), probability);
+		}
+		executionResult.setProblogReasoningTime(System.nanoTime() - reasoningStart);
+		return Optional.of(new ProblogAnswerFormatter().format(answers));
+	}
+
+}
@@ -0,0 +1,69 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This enumeration models the engine used to compute the probabilities.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public enum EngineType {
+
+	/**
+	 * Creates a ProbLog program and gives it to the query processor.
+	 */
+	PROBLOG, //
+
+	/**
+	 * Applies the completion rules and computes the exact probabilities in
+	 * the Java virtual machine.
+	 */
+	NATIVE, //
+
+	/**
+	 * Applies the completion rules to sampled worlds of the Bayesian network
+	 * and estimates the probabilities within an error bound.
+	 */
+	SAMPLING, //
+
+	/**
+	 * Applies the completion rules, compiles the provenance of each query into
+	 * a circuit, and evaluates the circuit with the probabilities of the
+	 * Bayesian network and the evidence. The circuits are kept and evaluated
+	 * again when only the probabilities or the evidence change.
+	 */
+	CIRCUIT; //
+
+	/**
+	 * Returns the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return name().toLowerCase();
+	}
+
+	/**
+	 * Returns the engine type with the given name, if it exists.
+	 * 
+	 * @param name
+	 *            name
+	 * @return the engine type with the given name, if it exists
+	 */
+	public static Optional<EngineType> get(String name) {
+		return getValues().stream().filter(engineType -> engineType.getName().equals(name)).findFirst();
+	}
+
+	/**
+	 * Returns the values.
+	 * 
+	 * @return the values
+	 */
+	public static List<EngineType> getValues() {
+		return Arrays.asList(values());
+	}
+
+}
@@ -0,0 +1,445 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLObjectInverseOf;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.util.OWLObjectComponentCollector;
+
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.ontology.axiom.complex.ComplexIntegerAxiom;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactory;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+import de.tudresden.inf.lat.jcel.ontology.normalization.OntologyNormalizer;
+import de.tudresden.inf.lat.jcel.owlapi.translator.Translator;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class keeps an OWL ontology translated, normalized, and
+ * indexed for module extraction, while axioms are added and removed. Each OWL
+ * axiom is translated and normalized on its own, and the normalized axioms
+ * obtained from it are kept, so that adding or removing an axiom only needs
+ * to translate and normalize that axiom. A normalized axiom obtained from
+ * several OWL axioms is kept until all of them are removed. The only
+ * exception are axioms with inverse object properties, i.e. axioms of inverse
+ * object properties, symmetric object properties, inverse functional object
+ * properties, and axioms with <code>ObjectInverseOf</code>: the axioms that
+ * the normalizer obtains for inverse object properties depend on the other
+ * axioms of the set it normalizes, so these axioms cannot be normalized on
+ * their own. While the ontology has any of them, every update that changes
+ * the ontology normalizes all the translated axioms together, as
+ * {@link CompiledOntology} does when it compiles an ontology. The module
+ * index is updated in place with the changes the next time it is requested,
+ * and the map of names and the table of aliases are built again only if
+ * there are new entities. This class is not thread-safe, but the compiled
+ * ontologies built from it can be read in other threads while holding its
+ * read lock, since every change of the state shared with them is made while
+ * holding the write lock.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class IncrementalOntologyCompiler {
+
+	private static final Logger logger = Logger.getLogger(IncrementalOntologyCompiler.class.getName());
+
+	private final OWLOntology ontology;
+	private final IntegerOntologyObjectFactory factory = new IntegerOntologyObjectFactoryImpl();
+	private final Translator translator;
+	private final OntologyNormalizer normalizer = new OntologyNormalizer();
+	private final ProblogInputCreator creator = new ProblogInputCreator();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final OptMap<OWLAxiom, Set<ComplexIntegerAxiom>> translatedAxiomsOfAxiom = new OptMapImpl<>(
+			new HashMap<>());
+	private final Set<OWLAxiom> axiomsWithInverses = new HashSet<>();
+	private final OptMap<OWLAxiom, Set<NormalizedIntegerAxiom>> normalizedAxiomsOfAxiom = new OptMapImpl<>(
+			new HashMap<>());
+	private final OptMap<NormalizedIntegerAxiom, Integer> occurrences = new OptMapImpl<>(new HashMap<>());
+	private final Set<NormalizedIntegerAxiom> addedAxioms = new HashSet<>();
+	private final Set<NormalizedIntegerAxiom> removedAxioms = new HashSet<>();
+	private Set<NormalizedIntegerAxiom> normalizedAxiomsOfOntology = Collections.emptySet();
+	private ModuleIndex moduleIndex = new ModuleIndex(Collections.emptySet());
+	private int numberOfEntities = -1;
+	private OptMap<String, Integer> mapOfNames = null;
+	private SymbolAliasTable symbolAliasTable = null;
+	private int ontologySize = 0;
+	private long translationTime = 0;
+	private long normalizationTime = 0;
+
+	/**
+	 * Constructs a new incremental ontology compiler, and compiles the axioms
+	 * of the given ontology.
+	 *
+	 * @param ontology
+	 *            OWL ontology
+	 */
+	public IncrementalOntologyCompiler(OWLOntology ontology) {
+		this.ontology = Objects.requireNonNull(ontology);
+		this.translator = new Translator(ontology.getOWLOntologyManager().getOWLDataFactory(), this.factory);
+		update(ontology.getAxioms(), Collections.emptySet());
+	}
+
+	/**
+	 * Adds and removes the given OWL axioms. Axioms that are already compiled
+	 * are not added again, and axioms that are not compiled are not removed.
+	 * If the ontology has axioms with inverse object properties after the
+	 * update, all the axioms are normalized together. The translation and
+	 * normalization times of this update replace the ones of the previous
+	 * update. This method waits until the read lock is not held.
+	 *
+	 * @param axiomsToAdd
+	 *            OWL axioms to add
+	 * @param axiomsToRemove
+	 *            OWL axioms to remove
+	 */
+	public void update(Collection<OWLAxiom> axiomsToAdd, Collection<OWLAxiom> axiomsToRemove) {
+		Objects.requireNonNull(axiomsToAdd);
+		Objects.requireNonNull(axiomsToRemove);
+		this.lock.writeLock().lock();
+		try {
+			this.translationTime = 0;
+			this.normalizationTime = 0;
+			boolean wasNormalizedTogether = isNormalizedTogether();
+			boolean changed = false;
+			for (OWLAxiom axiom : axiomsToRemove) {
+				changed |= removeAxiom(axiom);
+			}
+			List<OWLAxiom> addedAxioms = new ArrayList<>();
+			for (OWLAxiom axiom : axiomsToAdd) {
+				if (addAxiom(axiom)) {
+					addedAxioms.add(axiom);
+				}
+			}
+			changed |= !addedAxioms.isEmpty();
+
+			if (isNormalizedTogether()) {
+				if (changed) {
+					normalizeTogether();
+				}
+			} else if (wasNormalizedTogether) {
+				this.normalizedAxiomsOfOntology.forEach(this::removeNormalizedAxiom);
+				this.normalizedAxiomsOfOntology = Collections.emptySet();
+				this.translatedAxiomsOfAxiom.keySet().forEach(this::normalizeAxiom);
+			} else {
+				addedAxioms.forEach(this::normalizeAxiom);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+		logger.fine("Compiled ontology updated: " + axiomsToAdd.size() + " additions, " + axiomsToRemove.size()
+				+ " removals.");
+	}
+
+	/**
+	 * Tells whether the given OWL axiom has inverse object properties, and
+	 * therefore cannot be normalized on its own.
+	 *
+	 * @param axiom
+	 *            OWL axiom
+	 * @return <code>true</code> if and only if the given OWL axiom has inverse
+	 *         object properties
+	 */
+	static boolean hasInverseObjectProperties(OWLAxiom axiom) {
+		return axiom.isOfType(AxiomType.INVERSE_OBJECT_PROPERTIES, AxiomType.SYMMETRIC_OBJECT_PROPERTY,
+				AxiomType.INVERSE_FUNCTIONAL_OBJECT_PROPERTY)
+				|| new OWLObjectComponentCollector().getComponents(axiom).stream()
+						.anyMatch(component -> component instanceof OWLObjectInverseOf);
+	}
+
+	/**
+	 * Tells whether the axioms are normalized together, which is the case if
+	 * and only if the ontology has axioms with inverse object properties.
+	 *
+	 * @return <code>true</code> if and only if the axioms are normalized
+	 *         together
+	 */
+	boolean isNormalizedTogether() {
+		return !this.axiomsWithInverses.isEmpty();
+	}
+
+	/**
+	 * Translates the given OWL axiom, if it is not compiled. The axiom is
+	 * normalized afterwards, depending on whether the axioms are normalized
+	 * together.
+	 *
+	 * @return <code>true</code> if and only if the axiom was not compiled
+	 */
+	boolean addAxiom(OWLAxiom axiom) {
+		if (this.translatedAxiomsOfAxiom.containsKey(axiom)) {
+			return false;
+		} else {
+			long translationStart = System.nanoTime();
+			Set<ComplexIntegerAxiom> translatedAxioms = this.translator.translateSA(Collections.singleton(axiom));
+			this.translationTime += System.nanoTime() - translationStart;
+
+			this.translatedAxiomsOfAxiom.put(axiom, translatedAxioms);
+			this.ontologySize += translatedAxioms.size();
+			if (hasInverseObjectProperties(axiom)) {
+				this.axiomsWithInverses.add(axiom);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Removes the given OWL axiom, if it is compiled, together with the
+	 * normalized axioms obtained from it alone.
+	 *
+	 * @return <code>true</code> if and only if the axiom was compiled
+	 */
+	boolean removeAxiom(OWLAxiom axiom) {
+		Optional<Set<ComplexIntegerAxiom>> translatedAxioms = this.translatedAxiomsOfAxiom.remove(axiom);
+		translatedAxioms.ifPresent(axioms -> {
+			this.ontologySize -= axioms.size();
+			this.axiomsWithInverses.remove(axiom);
+			this.normalizedAxiomsOfAxiom.remove(axiom)
+					.ifPresent(normalizedAxioms -> normalizedAxioms.forEach(this::removeNormalizedAxiom));
+		});
+		return translatedAxioms.isPresent();
+	}
+
+	/**
+	 * Returns the normalization of the given translated axioms.
+	 */
+	Set<NormalizedIntegerAxiom> normalize(Set<ComplexIntegerAxiom> translatedAxioms) {
+		long normalizationStart = System.nanoTime();
+		Set<NormalizedIntegerAxiom> ret = this.creator
+				.removeUnnecessaryAnnotations(this.normalizer.normalize(translatedAxioms, this.factory), this.factory);
+		this.normalizationTime += System.nanoTime() - normalizationStart;
+		return ret;
+	}
+
+	/**
+	 * Normalizes the given OWL axiom on its own.
+	 */
+	void normalizeAxiom(OWLAxiom axiom) {
+		Set<NormalizedIntegerAxiom> normalizedAxioms = normalize(this.translatedAxiomsOfAxiom.get(axiom).get());
+		normalizedAxioms.forEach(this::addNormalizedAxiom);
+		this.normalizedAxiomsOfAxiom.put(axiom, normalizedAxioms);
+	}
+
+	/**
+	 * Normalizes all the translated axioms together, and replaces the
+	 * normalized axioms obtained before.
+	 */
+	void normalizeTogether() {
+		Set<ComplexIntegerAxiom> translatedAxioms = new HashSet<>();
+		this.translatedAxiomsOfAxiom.keySet()
+				.forEach(axiom -> translatedAxioms.addAll(this.translatedAxiomsOfAxiom.get(axiom).get()));
+		Set<NormalizedIntegerAxiom> normalizedAxioms = normalize(translatedAxioms);
+
+		new ArrayList<>(this.normalizedAxiomsOfAxiom.keySet()).forEach(axiom -> this.normalizedAxiomsOfAxiom
+				.remove(axiom).ifPresent(normalizedAxiomsOfAxiom -> normalizedAxiomsOfAxiom
+						.forEach(this::removeNormalizedAxiom)));
+		this.normalizedAxiomsOfOntology.forEach(this::removeNormalizedAxiom);
+		normalizedAxioms.forEach(this::addNormalizedAxiom);
+		this.normalizedAxiomsOfOntology = normalizedAxioms;
+	}
+
+	void addNormalizedAxiom(NormalizedIntegerAxiom axiom) {
+		int count = this.occurrences.get(axiom).orElse(0);
+		this.occurrences.put(axiom, count + 1);
+		if (count == 0 && !this.removedAxioms.remove(axiom)) {
+			this.addedAxioms.add(axiom);
+		}
+	}
+
+	void removeNormalizedAxiom(NormalizedIntegerAxiom axiom) {
+		int count = this.occurrences.get(axiom).orElse(0);
+		if (count > 1) {
+			this.occurrences.put(axiom, count - 1);
+		} else if (count == 1) {
+			this.occurrences.remove(axiom);
+			if (!this.addedAxioms.remove(axiom)) {
+				this.removedAxioms.add(axiom);
+			}
+		}
+	}
+
+	/**
+	 * Returns the lock to hold while reading a compiled ontology built from
+	 * this compiler, in particular its entity manager, translator, and module
+	 * index. The compiler does not change them while the lock is held.
+	 *
+	 * @return the lock to hold while reading a compiled ontology built from
+	 *         this compiler
+	 */
+	public Lock getReadLock() {
+		return this.lock.readLock();
+	}
+
+	/**
+	 * Returns the OWL ontology.
+	 *
+	 * @return the OWL ontology
+	 */
+	public OWLOntology getOntology() {
+		return this.ontology;
+	}
+
+	/**
+	 * Returns the factory of the integer ontology objects.
+	 *
+	 * @return the factory of the integer ontology objects
+	 */
+	public IntegerOntologyObjectFactory getFactory() {
+		return this.factory;
+	}
+
+	/**
+	 * Returns the translator, which keeps the translation repository.
+	 *
+	 * @return the translator
+	 */
+	public Translator getTranslator() {
+		return this.translator;
+	}
+
+	/**
+	 * Returns the number of compiled OWL axioms.
+	 *
+	 * @return the number of compiled OWL axioms
+	 */
+	public int getNumberOfAxioms() {
+		return this.translatedAxiomsOfAxiom.size();
+	}
+
+	/**
+	 * Returns the normalized axioms obtained from the given OWL axiom, or an
+	 * empty set if the axiom is not compiled. If the axioms are normalized
+	 * together, these are the normalized axioms obtained from all of them.
+	 *
+	 * @param axiom
+	 *            OWL axiom
+	 * @return the normalized axioms obtained from the given OWL axiom
+	 */
+	public Set<NormalizedIntegerAxiom> getNormalizedAxioms(OWLAxiom axiom) {
+		Objects.requireNonNull(axiom);
+		if (isNormalizedTogether() && this.translatedAxiomsOfAxiom.containsKey(axiom)) {
+			return Collections.unmodifiableSet(this.normalizedAxiomsOfOntology);
+		}
+		return Collections.unmodifiableSet(this.normalizedAxiomsOfAxiom.get(axiom).orElse(Collections.emptySet()));
+	}
+
+	/**
+	 * Returns the normalized axioms of the ontology.
+	 *
+	 * @return the normalized axioms of the ontology
+	 */
+	public Set<NormalizedIntegerAxiom> getNormalizedAxioms() {
+		return Collections.unmodifiableSet(this.occurrences.keySet());
+	}
+
+	/**
+	 * Returns the number of translated axioms of the ontology.
+	 *
+	 * @return the number of translated axioms of the ontology
+	 */
+	public int getOntologySize() {
+		return this.ontologySize;
+	}
+
+	/**
+	 * Returns the module index of the normalized axioms. The index is updated
+	 * in place with the normalized axioms added and removed since the last
+	 * time it was requested, and the indexes returned before keep the axioms
+	 * they had.
+	 *
+	 * @return the module index of the normalized axioms
+	 */
+	public ModuleIndex getModuleIndex() {
+		if (!this.addedAxioms.isEmpty() || !this.removedAxioms.isEmpty()) {
+			this.lock.writeLock().lock();
+			try {
+				this.moduleIndex = this.moduleIndex.update(this.addedAxioms, this.removedAxioms);
+				this.addedAxioms.clear();
+				this.removedAxioms.clear();
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+		return this.moduleIndex;
+	}
+
+	/**
+	 * Builds the map of names and the table of aliases again if the entity
+	 * manager has new entities. Entities are never removed from the entity
+	 * manager.
+	 */
+	void updateEntities() {
+		IntegerEntityManager entityManager = this.factory.getEntityManager();
+		if (entityManager.size() != this.numberOfEntities) {
+			this.mapOfNames = CompiledOntology.buildMapOfNames(entityManager);
+			this.symbolAliasTable = new SymbolAliasTable(entityManager);
+			this.numberOfEntities = entityManager.size();
+		}
+	}
+
+	/**
+	 * Returns a map from names of classes and individuals to their
+	 * identifiers. The map is not modified, and a new one is built if there
+	 * are new entities.
+	 *
+	 * @return a map from names of classes and individuals to their identifiers
+	 */
+	public OptMap<String, Integer> getMapOfNames() {
+		updateEntities();
+		return this.mapOfNames;
+	}
+
+	/**
+	 * Returns the table with the short aliases of the entities. The table is
+	 * not modified, and a new one is built if there are new entities.
+	 *
+	 * @return the table with the short aliases of the entities
+	 */
+	public SymbolAliasTable getSymbolAliasTable() {
+		updateEntities();
+		return this.symbolAliasTable;
+	}
+
+	/**
+	 * Returns the time in nanoseconds spent translating the axioms of the last
+	 * update.
+	 *
+	 * @return the time in nanoseconds spent translating the axioms of the last
+	 *         update
+	 */
+	public long getTranslationTime() {
+		return this.translationTime;
+	}
+
+	/**
+	 * Returns the time in nanoseconds spent normalizing the axioms of the last
+	 * update.
+	 *
+	 * @return the time in nanoseconds spent normalizing the axioms of the last
+	 *         update
+	 */
+	public long getNormalizationTime() {
+		return this.normalizationTime;
+	}
+
+	@Override
+	public String toString() {
+		return "axioms=" + getNumberOfAxioms() + " normalized_axioms=" + this.occurrences.size();
+	}
+
+}
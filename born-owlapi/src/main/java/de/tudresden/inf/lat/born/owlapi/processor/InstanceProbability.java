@@ -0,0 +1,76 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.Objects;
+
+/**
+ * An object of this class is an individual with the probability of being an
+ * instance of a class.
+ *
+ * @see InstanceRetrieval
+ *
+ * @author Julian Mendez
+ *
+ */
+public class InstanceProbability {
+
+	private final String individual;
+	private final double probability;
+
+	/**
+	 * Constructs a new instance probability.
+	 *
+	 * @param individual
+	 *            IRI of the individual
+	 * @param probability
+	 *            probability of the individual of being an instance of the
+	 *            class
+	 */
+	public InstanceProbability(String individual, double probability) {
+		this.individual = Objects.requireNonNull(individual);
+		this.probability = probability;
+	}
+
+	/**
+	 * Returns the IRI of the individual.
+	 *
+	 * @return the IRI of the individual
+	 */
+	public String getIndividual() {
+		return this.individual;
+	}
+
+	/**
+	 * Returns the probability of the individual of being an instance of the
+	 * class.
+	 *
+	 * @return the probability of the individual of being an instance of the
+	 *         class
+	 */
+	public double getProbability() {
+		return this.probability;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof InstanceProbability)) {
+			return false;
+		} else {
+			InstanceProbability other = (InstanceProbability) obj;
+			return getIndividual().equals(other.getIndividual())
+					&& Double.compare(getProbability(), other.getProbability()) == 0;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return this.individual.hashCode() + 0x1F * Double.hashCode(this.probability);
+	}
+
+	@Override
+	public String toString() {
+		return this.individual + NativeEngine.ANSWER_SEPARATOR + this.probability;
+	}
+
+}
@@ -0,0 +1,161 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.born.engine.ExactInference;
+import de.tudresden.inf.lat.born.engine.Provenance;
+import de.tudresden.inf.lat.born.engine.ProvenanceCompletion;
+import de.tudresden.inf.lat.born.module.DefaultModuleExtractor;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class retrieves the instances of a class with their
+ * probabilities, without ProbLog. It extracts a single module for the class
+ * and all the individuals, applies the default completion rules to the module
+ * once, keeping a provenance formula for each derived class assertion, and
+ * computes the probability of each formula in the Bayesian network.
+ * Individuals with the same formula share the computation of the
+ * probability. The instances are ranked by decreasing probability, and then
+ * by IRI.
+ *
+ * @see NativeEngine
+ *
+ * @author Julian Mendez
+ *
+ */
+public class InstanceRetrieval {
+
+	/**
+	 * Constructs a new instance retrieval.
+	 */
+	public InstanceRetrieval() {
+	}
+
+	/**
+	 * Returns the individuals whose probability of being an instance of the
+	 * given class is greater than the given threshold, ranked by decreasing
+	 * probability. The ontology, normalized ontology, and module sizes, and
+	 * the module extraction and reasoning times are recorded in the execution
+	 * result.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param className
+	 *            IRI of the class, which can use the prefixes of the ontology
+	 * @param threshold
+	 *            probability that the instances must exceed
+	 * @param executionResult
+	 *            execution result
+	 * @return the individuals whose probability of being an instance of the
+	 *         given class is greater than the given threshold, ranked by
+	 *         decreasing probability
+	 * @throws UnsupportedOperationException
+	 *             if the compiled ontology uses completion rules other than
+	 *             the default ones, or if an axiom is not supported
+	 */
+	public List<InstanceProbability> run(CompiledOntology compiledOntology, String bayesianNetwork, String className,
+			double threshold, ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(className);
+		Objects.requireNonNull(executionResult);
+		if (!compiledOntology.hasDefaultCompletionRules()
+				|| !compiledOntology.getAdditionalCompletionRules().trim().isEmpty()) {
+			throw new UnsupportedOperationException(
+					"The instance retrieval only supports the default completion rules.");
+		}
+		executionResult.setOntologySize(compiledOntology.getOntologySize());
+		executionResult.setNormalizedOntologySize(compiledOntology.getNormalizedAxioms().size());
+
+		IntegerEntityManager entityManager = compiledOntology.getEntityManager();
+		Optional<Integer> classId = new ProblogInputCreator().getId(compiledOntology.getMapOfNames(),
+				compiledOntology.getPrefixExpander().rewrite(className.trim()));
+		if (!classId.isPresent() || (classId.get() != IntegerEntityManager.topClassId
+				&& !entityManager.getType(classId.get()).equals(IntegerEntityType.CLASS))) {
+			return Collections.emptyList();
+		}
+
+		BayesianNetwork network = BayesianNetwork.parse(bayesianNetwork);
+		NativeEngine.Labeling labeling = new NativeEngine.Labeling(new AxiomRenderer(compiledOntology.getFactory()),
+				network);
+		return retrieve(entityManager, compiledOntology.getModuleIndex(), classId.get(), labeling::apply,
+				new ExactInference(network), threshold, executionResult);
+	}
+
+	/**
+	 * Returns the individuals whose probability of being an instance of the
+	 * given class is greater than the given threshold, ranked by decreasing
+	 * probability.
+	 *
+	 * @param entityManager
+	 *            entity manager
+	 * @param moduleIndex
+	 *            module index of the normalized axioms
+	 * @param classId
+	 *            class
+	 * @param labeling
+	 *            function that returns the provenance formula of each axiom
+	 * @param inference
+	 *            exact inference in the Bayesian network
+	 * @param threshold
+	 *            probability that the instances must exceed
+	 * @param executionResult
+	 *            execution result
+	 * @return the individuals whose probability of being an instance of the
+	 *         given class is greater than the given threshold, ranked by
+	 *         decreasing probability
+	 */
+	List<InstanceProbability> retrieve(IntegerEntityManager entityManager, ModuleIndex moduleIndex, int classId,
+			Function<NormalizedIntegerAxiom, Provenance> labeling, ExactInference inference, double threshold,
+			ProcessorExecutionResult executionResult) {
+		long moduleExtractionStart = System.nanoTime();
+		Set<Integer> individuals = new TreeSet<>(entityManager.getEntities(IntegerEntityType.INDIVIDUAL, false));
+		Set<Integer> setOfClasses = new TreeSet<>(individuals);
+		setOfClasses.add(classId);
+		individuals.forEach(individual -> entityManager.getAuxiliaryNominal(individual).ifPresent(setOfClasses::add));
+		Module module = new DefaultModuleExtractor().extractModule(moduleIndex, setOfClasses);
+		executionResult.setModuleExtractionTime(System.nanoTime() - moduleExtractionStart);
+		executionResult.setModuleSize(module.getNumberOfAxioms());
+
+		long reasoningStart = System.nanoTime();
+		ProvenanceCompletion completion = new ProvenanceCompletion(module.getAxioms(), individuals, labeling);
+		OptMap<Provenance, Double> probabilities = new OptMapImpl<>(new HashMap<>());
+		List<InstanceProbability> ret = new ArrayList<>();
+		individuals.forEach(individual -> {
+			Provenance formula = completion.getSubsumption(individual, classId);
+			if (!formula.isFalse()) {
+				Optional<Double> optProbability = probabilities.get(formula);
+				if (!optProbability.isPresent()) {
+					optProbability = Optional.of(inference.getProbability(formula));
+					probabilities.put(formula, optProbability.get());
+				}
+				if (optProbability.get() > threshold) {
+					ret.add(new InstanceProbability(entityManager.getName(individual), optProbability.get()));
+				}
+			}
+		});
+		ret.sort(Comparator.comparingDouble(InstanceProbability::getProbability).reversed()
+				.thenComparing(InstanceProbability::getIndividual));
+		executionResult.setProblogReasoningTime(System.nanoTime() - reasoningStart);
+		return ret;
+	}
+
+}
@@ -0,0 +1,84 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * An object of this class is a query processor worker that runs in the same
+ * Java virtual machine. It applies a function to each ProbLog program, and it
+ * can be used without an external process, for example to test a
+ * {@link QueryProcessorPool}. An exception thrown by the function rejects the
+ * program, but it does not stop the worker.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class LocalQueryProcessorWorker implements QueryProcessorWorker {
+
+	private final Function<String, String> queryProcessor;
+	private final LongSupplier memoryUsageSupplier;
+	private long memoryUsage = 0;
+	private volatile boolean alive = true;
+
+	/**
+	 * Constructs a new local query processor worker.
+	 *
+	 * @param queryProcessor
+	 *            query processor
+	 * @param memoryUsageSupplier
+	 *            supplier of the memory used by the query processor
+	 */
+	public LocalQueryProcessorWorker(Function<String, String> queryProcessor, LongSupplier memoryUsageSupplier) {
+		this.queryProcessor = Objects.requireNonNull(queryProcessor);
+		this.memoryUsageSupplier = Objects.requireNonNull(memoryUsageSupplier);
+	}
+
+	/**
+	 * Constructs a new local query processor worker that does not report its
+	 * memory usage.
+	 *
+	 * @param queryProcessor
+	 *            query processor
+	 */
+	public LocalQueryProcessorWorker(Function<String, String> queryProcessor) {
+		this(queryProcessor, () -> 0);
+	}
+
+	@Override
+	public String process(String problogProgram) throws IOException {
+		Objects.requireNonNull(problogProgram);
+		if (!this.alive) {
+			throw new IOException("The worker is closed.");
+		}
+		try {
+			String ret = this.queryProcessor.apply(problogProgram);
+			this.memoryUsage = this.memoryUsageSupplier.getAsLong();
+			return ret;
+		} catch (RuntimeException e) {
+			throw new RejectedProgramException("The worker could not process the program: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean isAlive() {
+		return this.alive;
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		return this.memoryUsage;
+	}
+
+	@Override
+	public void close() {
+		this.alive = false;
+	}
+
+	@Override
+	public String toString() {
+		return "local worker " + this.queryProcessor;
+	}
+
+}
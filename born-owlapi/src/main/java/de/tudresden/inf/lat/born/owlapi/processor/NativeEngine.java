@@ -0,0 +1,286 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import de.tudresden.inf.lat.born.core.rule.FormulaConstructor;
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.engine.ExactInference;
+import de.tudresden.inf.lat.born.engine.Provenance;
+import de.tudresden.inf.lat.born.engine.ProvenanceCompletion;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.born.problog.parser.ParseException;
+import de.tudresden.inf.lat.born.problog.parser.Token;
+import de.tudresden.inf.lat.born.problog.parser.TokenCreator;
+import de.tudresden.inf.lat.born.problog.parser.TokenType;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.IntegerAnnotation;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class answers queries without ProbLog. It extracts the
+ * same module as the ProbLog engine, applies the default completion rules to
+ * the module keeping a provenance formula for each derived subsumption, and
+ * computes the probability of each formula in the Bayesian network. The
+ * result is written by a {@link ProblogAnswerFormatter}, so that it has
+ * exactly the same format as the output of ProbLog.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class NativeEngine {
+
+	public static final String ANSWER_SEPARATOR = "" + Symbol.COLON_CHAR + '\t';
+
+	/**
+	 * This is an auxiliary class that translates annotations to provenance
+	 * formulas. Variables of the annotations that are not defined in the
+	 * Bayesian network get new numbers after the ones of the Bayesian network.
+	 */
+	static class Labeling {
+
+		private final AxiomRenderer renderer;
+		private final BayesianNetwork bayesianNetwork;
+		private final OptMap<String, Integer> undefinedVariables = new OptMapImpl<>(new TreeMap<>());
+
+		Labeling(AxiomRenderer renderer, BayesianNetwork bayesianNetwork) {
+			this.renderer = renderer;
+			this.bayesianNetwork = bayesianNetwork;
+		}
+
+		int getVariable(String name) {
+			Optional<Integer> optVariable = this.bayesianNetwork.getVariable(name);
+			if (!optVariable.isPresent()) {
+				optVariable = this.undefinedVariables.get(name);
+				if (!optVariable.isPresent()) {
+					optVariable = Optional
+							.of(this.bayesianNetwork.getNumberOfVariables() + this.undefinedVariables.size());
+					this.undefinedVariables.put(name, optVariable.get());
+				}
+			}
+			return optVariable.get();
+		}
+
+		int getLiteral(String str) {
+			String name = str.trim();
+			boolean negated = name.startsWith(BayesianNetwork.NEGATION_PREFIX);
+			if (negated) {
+				name = name.substring(BayesianNetwork.NEGATION_PREFIX.length()).trim();
+			}
+			if (name.isEmpty()) {
+				throw new ParseException("Invalid annotation: '" + str + "'.");
+			}
+			return BayesianNetwork.getLiteral(getVariable(name), negated);
+		}
+
+		Provenance apply(NormalizedIntegerAxiom axiom) {
+			Set<IntegerAnnotation> annotations = axiom.getAnnotations();
+			if (annotations.isEmpty()) {
+				return Provenance.TRUE;
+			} else if (annotations.size() == 1) {
+				String value = this.renderer.getAnnotationValue(annotations.iterator().next());
+				return Provenance.of(Arrays.stream(value.split("" + Symbol.COMMA_CHAR))
+						.mapToInt(literal -> getLiteral(literal)).toArray());
+			} else {
+				throw new RuntimeException("Too many annotations in axiom: " + annotations.toString());
+			}
+		}
+
+	}
+
+	/**
+	 * Constructs a new native engine.
+	 */
+	public NativeEngine() {
+	}
+
+	/**
+	 * Returns the queries of the given text. Each query is a list with the
+	 * name of the predicate followed by its arguments, e.g.
+	 * <code>[sub, 'A', 'B']</code> for <code>query(sub('A', 'B')).</code>.
+	 *
+	 * @param text
+	 *            text with queries
+	 * @return the queries of the given text
+	 */
+	List<List<String>> getQueries(String text) {
+		List<List<String>> ret = new ArrayList<>();
+		List<Token> tokens = new TokenCreator().createTokens(new StringReader(text));
+		List<String> statement = new ArrayList<>();
+		tokens.forEach(token -> {
+			if (token.getType().equals(TokenType.IDENTIFIER) || token.getType().equals(TokenType.CONSTANT)) {
+				statement.add(token.getValue());
+			} else if (token.getValue().equals("" + Symbol.POINT_CHAR)) {
+				if (statement.size() > 1 && statement.get(0).equals(FormulaConstructor.QUERY)) {
+					ret.add(new ArrayList<>(statement.subList(1, statement.size())));
+				}
+				statement.clear();
+			}
+		});
+		return ret;
+	}
+
+	String asString(List<String> query) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(query.get(0));
+		sb.append(Symbol.PAR_A_CHAR);
+		for (int index = 1; index < query.size(); index++) {
+			if (index > 1) {
+				sb.append(Symbol.COMMA_CHAR);
+			}
+			sb.append(query.get(index));
+		}
+		sb.append(Symbol.PAR_B_CHAR);
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the identifier of the entity with the given name, if it belongs
+	 * to the module and has the given type.
+	 */
+	Optional<Integer> getEntity(CompiledOntology compiledOntology, Module module, String name,
+			IntegerEntityType type) {
+		ProblogInputCreator creator = new ProblogInputCreator();
+		IntegerEntityManager entityManager = compiledOntology.getFactory().getEntityManager();
+		Optional<Integer> ret = Optional.empty();
+		if (type.equals(IntegerEntityType.OBJECT_PROPERTY)) {
+			String objectPropertyName = creator.removeApostrophes(name);
+			ret = entityManager.getEntities(IntegerEntityType.OBJECT_PROPERTY, false).stream()
+					.filter(id -> entityManager.getName(id).equals(objectPropertyName)).findFirst();
+		} else {
+			ret = creator.getId(compiledOntology.getMapOfNames(), name);
+		}
+		if (ret.isPresent() && (!module.containsEntity(ret.get())
+				|| (ret.get() != IntegerEntityManager.topClassId && !entityManager.getType(ret.get()).equals(type)))) {
+			ret = Optional.empty();
+		}
+		return ret;
+	}
+
+	/**
+	 * Tells whether the given query is a subsumption or an instance query.
+	 */
+	boolean isSupported(List<String> query) {
+		String predicate = query.get(0);
+		return (predicate.equals(FormulaConstructor.SUB) && query.size() == 3)
+				|| (predicate.equals(FormulaConstructor.INST) && (query.size() == 3 || query.size() == 4));
+	}
+
+	/**
+	 * Returns the provenance formula of the given query.
+	 */
+	Provenance getProvenance(CompiledOntology compiledOntology, Module module, ProvenanceCompletion completion,
+			List<String> query) {
+		Provenance ret = Provenance.FALSE;
+		String predicate = query.get(0);
+		if (predicate.equals(FormulaConstructor.SUB) && query.size() == 3) {
+			Optional<Integer> subClass = getEntity(compiledOntology, module, query.get(1), IntegerEntityType.CLASS);
+			Optional<Integer> superClass = getEntity(compiledOntology, module, query.get(2), IntegerEntityType.CLASS);
+			if (subClass.isPresent() && superClass.isPresent()) {
+				ret = completion.getSubsumption(subClass.get(), superClass.get());
+			}
+
+		} else if (predicate.equals(FormulaConstructor.INST) && query.size() == 3) {
+			Optional<Integer> individual = getEntity(compiledOntology, module, query.get(1),
+					IntegerEntityType.INDIVIDUAL);
+			Optional<Integer> superClass = getEntity(compiledOntology, module, query.get(2), IntegerEntityType.CLASS);
+			if (individual.isPresent() && superClass.isPresent()) {
+				ret = completion.getSubsumption(individual.get(), superClass.get());
+			}
+
+		} else if (predicate.equals(FormulaConstructor.INST) && query.size() == 4) {
+			Optional<Integer> objectProperty = getEntity(compiledOntology, module, query.get(1),
+					IntegerEntityType.OBJECT_PROPERTY);
+			Optional<Integer> subject = getEntity(compiledOntology, module, query.get(2),
+					IntegerEntityType.INDIVIDUAL);
+			Optional<Integer> object = getEntity(compiledOntology, module, query.get(3),
+					IntegerEntityType.INDIVIDUAL);
+			if (objectProperty.isPresent() && subject.isPresent() && object.isPresent()) {
+				ret = completion.getRoleAssertion(objectProperty.get(), subject.get(), object.get());
+			}
+
+		} else {
+			throw new UnsupportedOperationException("Unsupported query: '" + asString(query) + "'.");
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the classes and individuals of the given module.
+	 */
+	Set<Integer> getNodes(CompiledOntology compiledOntology, Module module) {
+		IntegerEntityManager entityManager = compiledOntology.getFactory().getEntityManager();
+		Set<Integer> ret = new HashSet<>();
+		for (int position = 0; position < module.getNumberOfEntities(); position++) {
+			int entity = module.getEntity(position);
+			IntegerEntityType type = entityManager.getType(entity);
+			if (type.equals(IntegerEntityType.CLASS) || type.equals(IntegerEntityType.INDIVIDUAL)) {
+				ret.add(entity);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Answers the given queries and returns the answers in the same format as
+	 * ProbLog. The ontology, normalized ontology, and module sizes, and the
+	 * module extraction and reasoning times are recorded in the execution
+	 * result.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            queries
+	 * @param executionResult
+	 *            execution result
+	 * @return the answers in the same format as ProbLog
+	 * @throws UnsupportedOperationException
+	 *             if the compiled ontology uses completion rules other than
+	 *             the default ones, or if a query or an axiom is not supported
+	 */
+	public String run(CompiledOntology compiledOntology, String bayesianNetwork, String query,
+			ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(executionResult);
+		if (!compiledOntology.hasDefaultCompletionRules()
+				|| !compiledOntology.getAdditionalCompletionRules().trim().isEmpty()) {
+			throw new UnsupportedOperationException("The native engine only supports the default completion rules.");
+		}
+
+		ProblogInputCreator creator = new ProblogInputCreator();
+		String expandedQuery = compiledOntology.getPrefixExpander().rewrite(query);
+		Module module = creator.extractModule(compiledOntology, expandedQuery, executionResult);
+
+		long reasoningStart = System.nanoTime();
+		BayesianNetwork network = BayesianNetwork.parse(bayesianNetwork);
+		Labeling labeling = new Labeling(new AxiomRenderer(compiledOntology.getFactory()), network);
+		ProvenanceCompletion completion = new ProvenanceCompletion(module.getAxioms(),
+				getNodes(compiledOntology, module), labeling::apply);
+		ExactInference inference = new ExactInference(network);
+
+		ProblogAnswerFormatter formatter = new ProblogAnswerFormatter();
+		TreeMap<String, String> answers = new TreeMap<>();
+		getQueries(expandedQuery).forEach(currentQuery -> {
+			Provenance provenance = getProvenance(compiledOntology, module, completion, currentQuery);
+			answers.put(asString(currentQuery), formatter.formatProbability(inference.getProbability(provenance)));
+		});
+		executionResult.setProblogReasoningTime(System.nanoTime() - reasoningStart);
+		return formatter.format(answers);
+	}
+
+}
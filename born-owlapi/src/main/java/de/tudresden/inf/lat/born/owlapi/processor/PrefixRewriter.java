@@ -0,0 +1,222 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.semanticweb.owlapi.formats.PrefixDocumentFormat;
+
+/**
+ * An object of this class replaces strings in a text in a single pass. The
+ * strings to replace are stored in a trie. At each position of the text, the
+ * longest string that starts at that position is replaced, and the text
+ * continues after it. Replaced text is never replaced again. Objects of this
+ * class are immutable, and can be shared among threads.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class PrefixRewriter {
+
+	public static final int BUFFER_SIZE = 0x2000;
+
+	/**
+	 * Node of the trie.
+	 */
+	static class Node {
+
+		private final Map<Character, Node> children = new HashMap<>();
+		private String replacement = null;
+
+		Node getChild(char ch) {
+			return this.children.get(ch);
+		}
+
+		Node getOrCreateChild(char ch) {
+			return this.children.computeIfAbsent(ch, key -> new Node());
+		}
+
+		String getReplacement() {
+			return this.replacement;
+		}
+
+		void setReplacement(String replacement) {
+			this.replacement = replacement;
+		}
+
+	}
+
+	private final Node root = new Node();
+	private final int maxLength;
+
+	/**
+	 * Constructs a new prefix rewriter. Empty keys are ignored.
+	 *
+	 * @param replacements
+	 *            map from each string to its replacement
+	 */
+	public PrefixRewriter(Map<String, String> replacements) {
+		Objects.requireNonNull(replacements);
+		int length = 0;
+		for (Map.Entry<String, String> entry : replacements.entrySet()) {
+			String key = Objects.requireNonNull(entry.getKey());
+			if (!key.isEmpty()) {
+				Node node = this.root;
+				for (int index = 0; index < key.length(); index++) {
+					node = node.getOrCreateChild(key.charAt(index));
+				}
+				node.setReplacement(Objects.requireNonNull(entry.getValue()));
+				length = Math.max(length, key.length());
+			}
+		}
+		this.maxLength = length;
+	}
+
+	/**
+	 * Returns a prefix rewriter that expands the prefixes of the given format,
+	 * e.g. <code>ont:a</code> into <code>http://example.org/ont#a</code>.
+	 * Prefix names with only one character, like the default prefix
+	 * <code>:</code>, are not expanded.
+	 *
+	 * @param prefixes
+	 *            document format with prefixes
+	 * @return a prefix rewriter that expands the prefixes of the given format
+	 */
+	public static PrefixRewriter getExpander(PrefixDocumentFormat prefixes) {
+		Objects.requireNonNull(prefixes);
+		Map<String, String> map = new HashMap<>();
+		prefixes.getPrefixNames().forEach(prefixName -> {
+			if (prefixName.length() > 1) {
+				map.put(prefixName, prefixes.getIRI(prefixName).toString());
+			}
+		});
+		return new PrefixRewriter(map);
+	}
+
+	/**
+	 * Returns a prefix rewriter that compresses the IRIs of the given format
+	 * using their prefixes, e.g. <code>http://example.org/ont#a</code> into
+	 * <code>ont:a</code>. Prefix names with only one character, like the
+	 * default prefix <code>:</code>, are not used.
+	 *
+	 * @param prefixes
+	 *            document format with prefixes
+	 * @return a prefix rewriter that compresses the IRIs of the given format
+	 */
+	public static PrefixRewriter getCompressor(PrefixDocumentFormat prefixes) {
+		Objects.requireNonNull(prefixes);
+		Map<String, String> map = new HashMap<>();
+		prefixes.getPrefixNames().forEach(prefixName -> {
+			if (prefixName.length() > 1) {
+				map.put(prefixes.getIRI(prefixName).toString(), prefixName);
+			}
+		});
+		return new PrefixRewriter(map);
+	}
+
+	/**
+	 * Returns the length of the longest key that starts at the given position
+	 * of the buffer, or 0 if there is none. The key must end before the given
+	 * end.
+	 */
+	int getMatchLength(char[] buffer, int start, int end) {
+		int ret = 0;
+		Node node = this.root;
+		for (int index = start; Objects.nonNull(node) && index < end; index++) {
+			node = node.getChild(buffer[index]);
+			if (Objects.nonNull(node) && Objects.nonNull(node.getReplacement())) {
+				ret = index - start + 1;
+			}
+		}
+		return ret;
+	}
+
+	String getReplacement(char[] buffer, int start, int length) {
+		Node node = this.root;
+		for (int index = start; index < start + length; index++) {
+			node = node.getChild(buffer[index]);
+		}
+		return node.getReplacement();
+	}
+
+	/**
+	 * Reads the given reader, replaces the keys, and writes the result to the
+	 * given writer. The writer is flushed but not closed.
+	 *
+	 * @param input
+	 *            reader
+	 * @param output
+	 *            writer
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	public void rewrite(Reader input, Writer output) throws IOException {
+		Objects.requireNonNull(input);
+		Objects.requireNonNull(output);
+		char[] buffer = new char[Math.max(BUFFER_SIZE, 2 * this.maxLength)];
+		int start = 0;
+		int end = 0;
+		boolean finished = false;
+		while (!finished || start < end) {
+
+			// keeps at least the longest key in the buffer, unless the input
+			// is finished
+			if (!finished && end - start < this.maxLength + 1) {
+				System.arraycopy(buffer, start, buffer, 0, end - start);
+				end = end - start;
+				start = 0;
+				while (!finished && end < buffer.length) {
+					int count = input.read(buffer, end, buffer.length - end);
+					if (count == -1) {
+						finished = true;
+					} else {
+						end += count;
+					}
+				}
+			}
+
+			// copies the characters that do not start a key
+			int limit = finished ? end : end - this.maxLength;
+			int unchanged = start;
+			int length = 0;
+			while (unchanged < limit && (length = getMatchLength(buffer, unchanged, end)) == 0) {
+				unchanged++;
+			}
+			output.write(buffer, start, unchanged - start);
+			start = unchanged;
+			if (start < limit) {
+				output.write(getReplacement(buffer, start, length));
+				start += length;
+			}
+		}
+		output.flush();
+	}
+
+	/**
+	 * Returns the given text after replacing the keys.
+	 *
+	 * @param text
+	 *            text
+	 * @return the given text after replacing the keys
+	 */
+	public String rewrite(String text) {
+		Objects.requireNonNull(text);
+		if (this.maxLength == 0) {
+			return text;
+		}
+		StringWriter output = new StringWriter(text.length());
+		try {
+			rewrite(new StringReader(text), output);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return output.toString();
+	}
+
+}
@@ -0,0 +1,266 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.engine.ExactInference;
+import de.tudresden.inf.lat.born.engine.Provenance;
+import de.tudresden.inf.lat.born.engine.ProvenanceCompletion;
+import de.tudresden.inf.lat.born.module.DefaultModuleExtractor;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class computes the probability of every subsumption
+ * between named classes of a probabilistic ontology in a single run. The
+ * named classes are classified in batches: for each batch, it extracts the
+ * module of the classes of the batch, applies the default completion rules to
+ * the module, keeping a provenance formula for each derived subsumption, and
+ * computes the probability of each formula in the Bayesian network. Only the
+ * formulas of one batch are kept in memory. Subsumptions with the same
+ * formula share the computation of the probability, also between batches.
+ * <p>
+ * The result is written as it is computed, with one line per subsumption
+ * <i>A</i> &#8849; <i>B</i> with positive probability, containing the IRI of
+ * <i>A</i>, the IRI of <i>B</i>, and the probability, separated by tabs. The
+ * lines are sorted by <i>A</i> and then by <i>B</i>. The trivial subsumptions
+ * <i>A</i> &#8849; <i>A</i> and <i>A</i> &#8849; &#8868; are not written.
+ * </p>
+ *
+ * @see NativeEngine
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProbabilisticClassifier {
+
+	public static final char COLUMN_SEPARATOR = '\t';
+	public static final int DEFAULT_NUMBER_OF_PROBABILITIES_IN_MEMORY = 0x10000;
+	public static final int DEFAULT_NUMBER_OF_CLASSES_PER_BATCH = 0x100;
+
+	private final int numberOfProbabilitiesInMemory;
+	private final int numberOfClassesPerBatch;
+
+	/**
+	 * Constructs a new probabilistic classifier.
+	 */
+	public ProbabilisticClassifier() {
+		this(DEFAULT_NUMBER_OF_PROBABILITIES_IN_MEMORY, DEFAULT_NUMBER_OF_CLASSES_PER_BATCH);
+	}
+
+	/**
+	 * Constructs a new probabilistic classifier.
+	 *
+	 * @param numberOfProbabilitiesInMemory
+	 *            maximum number of probabilities of formulas that are kept to
+	 *            be reused
+	 * @param numberOfClassesPerBatch
+	 *            maximum number of named classes that are classified together
+	 * @throws IllegalArgumentException
+	 *             if the number of probabilities is negative, or if the number
+	 *             of classes per batch is not positive
+	 */
+	public ProbabilisticClassifier(int numberOfProbabilitiesInMemory, int numberOfClassesPerBatch) {
+		if (numberOfProbabilitiesInMemory < 0) {
+			throw new IllegalArgumentException(
+					"Invalid number of probabilities in memory: " + numberOfProbabilitiesInMemory + ".");
+		}
+		if (numberOfClassesPerBatch < 1) {
+			throw new IllegalArgumentException("Invalid number of classes per batch: " + numberOfClassesPerBatch + ".");
+		}
+		this.numberOfProbabilitiesInMemory = numberOfProbabilitiesInMemory;
+		this.numberOfClassesPerBatch = numberOfClassesPerBatch;
+	}
+
+	/**
+	 * Returns the maximum number of probabilities of formulas that are kept to
+	 * be reused.
+	 *
+	 * @return the maximum number of probabilities of formulas that are kept to
+	 *         be reused
+	 */
+	public int getNumberOfProbabilitiesInMemory() {
+		return this.numberOfProbabilitiesInMemory;
+	}
+
+	/**
+	 * Returns the maximum number of named classes that are classified
+	 * together.
+	 *
+	 * @return the maximum number of named classes that are classified
+	 *         together
+	 */
+	public int getNumberOfClassesPerBatch() {
+		return this.numberOfClassesPerBatch;
+	}
+
+	/**
+	 * Returns a map of probabilities that discards the least recently used
+	 * entry when it is full.
+	 */
+	OptMap<Provenance, Double> createProbabilityCache() {
+		int maximumSize = this.numberOfProbabilitiesInMemory;
+		return new OptMapImpl<>(new LinkedHashMap<Provenance, Double>(0x10, 0.75f, true) {
+
+			private static final long serialVersionUID = -4436270377011407245L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Provenance, Double> eldest) {
+				return size() > maximumSize;
+			}
+
+		});
+	}
+
+	/**
+	 * Computes the probabilities of the subsumptions between named classes of
+	 * the given compiled ontology, and writes them to the given writer. The
+	 * ontology and normalized ontology sizes, the Bayesian network size, and
+	 * the reasoning time are recorded in the execution result.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param output
+	 *            writer of the result
+	 * @param executionResult
+	 *            execution result
+	 * @return the number of subsumptions written
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 * @throws UnsupportedOperationException
+	 *             if the compiled ontology uses completion rules other than
+	 *             the default ones, or if an axiom is not supported
+	 */
+	public long run(CompiledOntology compiledOntology, String bayesianNetwork, Writer output,
+			ProcessorExecutionResult executionResult) throws IOException {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(output);
+		Objects.requireNonNull(executionResult);
+		if (!compiledOntology.hasDefaultCompletionRules()
+				|| !compiledOntology.getAdditionalCompletionRules().trim().isEmpty()) {
+			throw new UnsupportedOperationException(
+					"The probabilistic classifier only supports the default completion rules.");
+		}
+		executionResult.setOntologySize(compiledOntology.getOntologySize());
+		executionResult.setNormalizedOntologySize(compiledOntology.getNormalizedAxioms().size());
+		executionResult.setTranslationTime(compiledOntology.getTranslationTime());
+		executionResult.setNormalizationTime(compiledOntology.getNormalizationTime());
+
+		long reasoningStart = System.nanoTime();
+		BayesianNetwork network = BayesianNetwork.parse(bayesianNetwork);
+		executionResult.setBayesianNetworkSize(network.getNumberOfVariables());
+		NativeEngine.Labeling labeling = new NativeEngine.Labeling(new AxiomRenderer(compiledOntology.getFactory()),
+				network);
+		long ret = classify(compiledOntology.getEntityManager(), compiledOntology.getModuleIndex(), labeling::apply,
+				new ExactInference(network), output);
+		executionResult.setProblogReasoningTime(System.nanoTime() - reasoningStart);
+		return ret;
+	}
+
+	/**
+	 * Computes the probabilities of the subsumptions between the named classes
+	 * of the given entity manager that follow from the axioms of the given
+	 * module index, and writes them to the given writer.
+	 *
+	 * @param entityManager
+	 *            entity manager
+	 * @param moduleIndex
+	 *            module index of the normalized axioms
+	 * @param labeling
+	 *            function that returns the provenance formula of each axiom
+	 * @param inference
+	 *            exact inference in the Bayesian network
+	 * @param output
+	 *            writer of the result
+	 * @return the number of subsumptions written
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	long classify(IntegerEntityManager entityManager, ModuleIndex moduleIndex,
+			Function<NormalizedIntegerAxiom, Provenance> labeling, ExactInference inference, Writer output)
+			throws IOException {
+		Set<Integer> classes = new TreeSet<>(entityManager.getEntities(IntegerEntityType.CLASS, false));
+		TreeMap<String, Integer> subClasses = new TreeMap<>();
+		classes.forEach(classId -> subClasses.put(entityManager.getName(classId), classId));
+		OptMap<Provenance, Double> probabilities = createProbabilityCache();
+		ProblogAnswerFormatter formatter = new ProblogAnswerFormatter();
+		DefaultModuleExtractor moduleExtractor = new DefaultModuleExtractor();
+
+		long ret = 0;
+		List<Map.Entry<String, Integer>> batch = new ArrayList<>();
+		for (Map.Entry<String, Integer> subClass : subClasses.entrySet()) {
+			batch.add(subClass);
+			if (batch.size() == this.numberOfClassesPerBatch || subClass.getKey().equals(subClasses.lastKey())) {
+				Set<Integer> classesOfBatch = new TreeSet<>();
+				batch.forEach(entry -> classesOfBatch.add(entry.getValue()));
+				Module module = moduleExtractor.extractModule(moduleIndex, classesOfBatch);
+				ProvenanceCompletion completion = new ProvenanceCompletion(module.getAxioms(), classesOfBatch,
+						labeling);
+				for (Map.Entry<String, Integer> entry : batch) {
+					ret += write(entityManager, classes, completion, entry, probabilities, inference, formatter,
+							output);
+				}
+				batch.clear();
+			}
+		}
+		output.flush();
+		return ret;
+	}
+
+	/**
+	 * Writes the subsumptions of the given named class with positive
+	 * probability, sorted by superclass, and returns the number of
+	 * subsumptions written.
+	 */
+	private long write(IntegerEntityManager entityManager, Set<Integer> classes, ProvenanceCompletion completion,
+			Map.Entry<String, Integer> subClass, OptMap<Provenance, Double> probabilities, ExactInference inference,
+			ProblogAnswerFormatter formatter, Writer output) throws IOException {
+		TreeMap<String, Provenance> superClasses = new TreeMap<>();
+		completion.getSubsumers(subClass.getValue()).forEach((superClass, formula) -> {
+			if (!superClass.equals(subClass.getValue()) && superClass != IntegerEntityManager.topClassId
+					&& (classes.contains(superClass) || superClass == IntegerEntityManager.bottomClassId)) {
+				superClasses.put(entityManager.getName(superClass), formula);
+			}
+		});
+		long ret = 0;
+		for (Map.Entry<String, Provenance> superClass : superClasses.entrySet()) {
+			Provenance formula = superClass.getValue();
+			Optional<Double> optProbability = probabilities.get(formula);
+			if (!optProbability.isPresent()) {
+				optProbability = Optional.of(inference.getProbability(formula));
+				probabilities.put(formula, optProbability.get());
+			}
+			if (optProbability.get() > 0) {
+				output.write(subClass.getKey());
+				output.write(COLUMN_SEPARATOR);
+				output.write(superClass.getKey());
+				output.write(COLUMN_SEPARATOR);
+				output.write(formatter.formatProbability(optProbability.get()));
+				output.write(Symbol.NEW_LINE_CHAR);
+				ret++;
+			}
+		}
+		return ret;
+	}
+
+}
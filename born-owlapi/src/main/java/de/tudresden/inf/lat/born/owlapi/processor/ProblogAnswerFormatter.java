@@ -0,0 +1,94 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import de.tudresden.inf.lat.born.core.term.Symbol;
+
+/**
+ * An object of this class writes answers exactly as ProbLog writes them, i.e.
+ * one line per term, sorted by term, where each line has an indentation, the
+ * term aligned to the right with at least one space before the longest term,
+ * a colon, a tab, and the probability. The probability is written with at
+ * most 8 significant digits and without trailing zeros, e.g. <code>0</code>,
+ * <code>1</code>, <code>0.25</code> or <code>1e-05</code>. This way, the
+ * output does not depend on the engine that answered the queries.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProblogAnswerFormatter {
+
+	public static final String PROBLOG_INDENTATION = "\t";
+	public static final String PROBLOG_ZERO = "0";
+	public static final String PROBLOG_ONE = "1";
+	public static final int SIGNIFICANT_DIGITS = 8;
+	public static final char EXPONENT_CHAR = 'e';
+	public static final int MINIMUM_EXPONENT_FOR_FIXED_POINT = -4;
+	public static final int MINIMUM_EXPONENT_DIGITS = 2;
+
+	/**
+	 * Constructs a new ProbLog answer formatter.
+	 */
+	public ProblogAnswerFormatter() {
+	}
+
+	/**
+	 * Returns the given probability as ProbLog writes it, i.e. with at most 8
+	 * significant digits and without trailing zeros, in scientific notation
+	 * if its exponent is less than -4.
+	 *
+	 * @param probability
+	 *            probability
+	 * @return the given probability as ProbLog writes it
+	 */
+	public String formatProbability(double probability) {
+		if (probability == 0) {
+			return PROBLOG_ZERO;
+		}
+		BigDecimal value = new BigDecimal(probability)
+				.round(new MathContext(SIGNIFICANT_DIGITS, RoundingMode.HALF_EVEN)).stripTrailingZeros();
+		int exponent = value.precision() - value.scale() - 1;
+		if (exponent >= MINIMUM_EXPONENT_FOR_FIXED_POINT && exponent < SIGNIFICANT_DIGITS) {
+			return value.toPlainString();
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append(value.movePointLeft(exponent).toPlainString());
+		sb.append(EXPONENT_CHAR);
+		sb.append(exponent < 0 ? '-' : '+');
+		String digits = "" + Math.abs(exponent);
+		for (int index = digits.length(); index < MINIMUM_EXPONENT_DIGITS; index++) {
+			sb.append('0');
+		}
+		sb.append(digits);
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the given answers as ProbLog writes them.
+	 *
+	 * @param answers
+	 *            map from each term to its probability as written by ProbLog
+	 * @return the given answers as ProbLog writes them
+	 */
+	public String format(TreeMap<String, String> answers) {
+		Objects.requireNonNull(answers);
+		int width = 1 + answers.keySet().stream().mapToInt(String::length).max().orElse(0);
+		StringBuilder sb = new StringBuilder();
+		answers.forEach((term, probability) -> {
+			sb.append(PROBLOG_INDENTATION);
+			for (int index = term.length(); index < width; index++) {
+				sb.append(Symbol.SPACE_CHAR);
+			}
+			sb.append(term);
+			sb.append(NativeEngine.ANSWER_SEPARATOR);
+			sb.append(probability);
+			sb.append(Symbol.NEW_LINE_CHAR);
+		});
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,136 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.born.core.term.Symbol;
+
+/**
+ * An object of this class is a query processor that runs an installed ProbLog
+ * on the file containing the ProbLog program. The path of the file is added
+ * as the last argument of the command, and the answer is the standard output
+ * of the process. Thus, the ProbLog program is never stored as a string. The
+ * standard error of the process is inherited.
+ *
+ * @see ProcessorConfiguration#setFileQueryProcessor(Function)
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProblogCommand implements Function<Path, String> {
+
+	public static final String DEFAULT_COMMAND = "problog";
+
+	private final List<String> command;
+
+	/**
+	 * Constructs a new query processor that runs the given command.
+	 *
+	 * @param command
+	 *            command that runs ProbLog, without the path of the file
+	 */
+	public ProblogCommand(List<String> command) {
+		Objects.requireNonNull(command);
+		if (command.isEmpty()) {
+			throw new IllegalArgumentException("The command cannot be empty.");
+		}
+		this.command = Collections.unmodifiableList(new ArrayList<>(command));
+	}
+
+	/**
+	 * Constructs a new query processor that runs the given command, where the
+	 * arguments are separated by spaces.
+	 *
+	 * @param command
+	 *            command that runs ProbLog, without the path of the file
+	 */
+	public ProblogCommand(String command) {
+		this(Arrays.asList(Objects.requireNonNull(command).trim().split(" +")));
+	}
+
+	/**
+	 * Constructs a new query processor that runs {@link #DEFAULT_COMMAND}.
+	 */
+	public ProblogCommand() {
+		this(DEFAULT_COMMAND);
+	}
+
+	/**
+	 * Returns the command that runs ProbLog, without the path of the file.
+	 *
+	 * @return the command that runs ProbLog, without the path of the file
+	 */
+	public List<String> getCommand() {
+		return this.command;
+	}
+
+	/**
+	 * Runs ProbLog on the given file, and returns its standard output. If the
+	 * current thread is interrupted while waiting for ProbLog, the process is
+	 * destroyed.
+	 *
+	 * @param problogProgram
+	 *            file containing the ProbLog program
+	 * @return the standard output of ProbLog
+	 * @throws UncheckedIOException
+	 *             if the process cannot be started or read
+	 * @throws IllegalStateException
+	 *             if ProbLog ends with an error, or if the current thread is
+	 *             interrupted
+	 */
+	@Override
+	public String apply(Path problogProgram) {
+		Objects.requireNonNull(problogProgram);
+		List<String> commandWithFile = new ArrayList<>(this.command);
+		commandWithFile.add(problogProgram.toString());
+		ProcessBuilder processBuilder = new ProcessBuilder(commandWithFile);
+		processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		Process process;
+		try {
+			process = processBuilder.start();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		try {
+			StringBuilder sb = new StringBuilder();
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+				reader.lines().forEach(line -> {
+					sb.append(line);
+					sb.append(Symbol.NEW_LINE_CHAR);
+				});
+			}
+			int exitValue = process.waitFor();
+			if (exitValue != 0) {
+				throw new IllegalStateException("ProbLog ended with exit value " + exitValue + ".");
+			}
+			return sb.toString();
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			if (process.isAlive()) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.command.toString();
+	}
+
+}
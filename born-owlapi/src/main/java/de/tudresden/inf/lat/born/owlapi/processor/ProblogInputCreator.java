@@ -6,12 +6,9 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -20,9 +17,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
-import org.semanticweb.owlapi.formats.PrefixDocumentFormat;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 
@@ -56,11 +51,7 @@ import de.tudresden.inf.lat.jcel.coreontology.axiom.NominalAxiom;
 import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
 import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
 import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
-import de.tudresden.inf.lat.jcel.ontology.axiom.complex.ComplexIntegerAxiom;
 import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactory;
-import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
-import de.tudresden.inf.lat.jcel.ontology.normalization.OntologyNormalizer;
-import de.tudresden.inf.lat.jcel.owlapi.translator.Translator;
 import de.tudresden.inf.lat.util.map.OptMap;
 import de.tudresden.inf.lat.util.map.OptMapImpl;
 
@@ -84,15 +75,10 @@ public class ProblogInputCreator {
 	static final String EL_COMPLETION_RULES_MSG = " EL complettion rules";
 	static final String RULES_TO_AVOID_EMPTY_PREDICATES_OF_ENTITIES_MSG = " Rules to avoid empty predicates of entities";
 
-	Set<String> parseRelevantSymbols(Reader reader) throws IOException {
+	Set<String> parseRelevantSymbols(List<String> statement) {
 		Set<String> result = new TreeSet<>();
-		TokenCreator c = new TokenCreator();
-		List<Token> tokens = c.createTokens(reader);
-		List<String> list = tokens.stream().filter(
-				token -> (token.getType().equals(TokenType.IDENTIFIER) || token.getType().equals(TokenType.CONSTANT)))
-				.map(token -> token.getValue()).collect(Collectors.toList());
-
-		if (list.get(0).equals(FormulaConstructor.QUERY)) {
+		List<String> list = new ArrayList<>(statement);
+		if (list.size() > 1 && list.get(0).equals(FormulaConstructor.QUERY)) {
 			list.remove(FormulaConstructor.QUERY);
 			if (list.get(0).equals(FormulaConstructor.SUB)) {
 				list.remove(FormulaConstructor.SUB);
@@ -108,6 +94,35 @@ public class ProblogInputCreator {
 				}
 			}
 		}
+		return result;
+	}
+
+	/**
+	 * Returns the symbols that are relevant to answer the queries read from
+	 * the given reader. Each statement ending with a point is considered a
+	 * query.
+	 * 
+	 * @param reader
+	 *            reader
+	 * @return the symbols that are relevant to answer the queries read from
+	 *         the given reader
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	Set<String> parseRelevantSymbols(Reader reader) throws IOException {
+		Set<String> result = new TreeSet<>();
+		TokenCreator c = new TokenCreator();
+		List<Token> tokens = c.createTokens(reader);
+		List<String> statement = new ArrayList<>();
+		tokens.forEach(token -> {
+			if (token.getType().equals(TokenType.IDENTIFIER) || token.getType().equals(TokenType.CONSTANT)) {
+				statement.add(token.getValue());
+			} else if (token.getValue().equals("" + Symbol.POINT_CHAR)) {
+				result.addAll(parseRelevantSymbols(statement));
+				statement.clear();
+			}
+		});
+		result.addAll(parseRelevantSymbols(statement));
 
 		return result;
 	}
@@ -152,20 +167,22 @@ public class ProblogInputCreator {
 		Objects.requireNonNull(output);
 		Objects.requireNonNull(program);
 		BufferedWriter writer = new BufferedWriter(output);
-		writer.write(program.asString());
+		program.write(writer);
 		writer.flush();
-		writer.close();
 	}
 
 	List<Clause> getDeclarations(IntegerOntologyObjectFactory factory, Module module) {
+		return getDeclarations(factory, module, new AxiomRenderer(factory));
+	}
+
+	List<Clause> getDeclarations(IntegerOntologyObjectFactory factory, Module module, AxiomRenderer renderer) {
 		List<Clause> result = new ArrayList<>();
-		AxiomRenderer renderer = new AxiomRenderer(factory);
 
 		Set<Integer> classes = new TreeSet<>();
 		Set<Integer> objectProperties = new TreeSet<>();
 		Set<Integer> individuals = new TreeSet<>();
-		Set<Integer> entities = module.getEntities();
-		entities.forEach(entity -> {
+		for (int position = 0; position < module.getNumberOfEntities(); position++) {
+			int entity = module.getEntity(position);
 			if (factory.getEntityManager().getType(entity).equals(IntegerEntityType.INDIVIDUAL)) {
 				individuals.add(entity);
 			} else if (factory.getEntityManager().getType(entity).equals(IntegerEntityType.CLASS)) {
@@ -175,7 +192,7 @@ public class ProblogInputCreator {
 			} else {
 				throw new IllegalStateException("Entity of unknown type: '" + entity + "'.");
 			}
-		});
+		}
 		module.getAxioms().forEach(axiom -> {
 			// classes.addAll(axiom.getClassesInSignature());
 			objectProperties.addAll(axiom.getObjectPropertiesInSignature());
@@ -190,9 +207,13 @@ public class ProblogInputCreator {
 	}
 
 	List<Clause> getClauses(IntegerOntologyObjectFactory factory, Module module) throws IOException {
+		return getClauses(factory, module, new AxiomRenderer(factory));
+	}
+
+	List<Clause> getClauses(IntegerOntologyObjectFactory factory, Module module, AxiomRenderer renderer)
+			throws IOException {
 		List<Clause> result = new ArrayList<>();
-		AxiomRenderer renderer = new AxiomRenderer(factory);
-		result.addAll(getDeclarations(factory, module));
+		result.addAll(getDeclarations(factory, module, renderer));
 
 		module.getAxioms().forEach(axiom -> {
 			Set<Clause> clauses = axiom.accept(renderer);
@@ -229,13 +250,16 @@ public class ProblogInputCreator {
 	}
 
 	Set<Integer> getSetOfEntities(IntegerOntologyObjectFactory factory, Set<String> symbolStrSet) {
-		Set<Integer> result = new TreeSet<>();
 		OptMap<String, Integer> map = new OptMapImpl<>(new TreeMap<>());
 		factory.getEntityManager().getEntities(IntegerEntityType.CLASS, false)
 				.forEach(id -> map.put(factory.getEntityManager().getName(id), id));
 		factory.getEntityManager().getEntities(IntegerEntityType.INDIVIDUAL, false)
 				.forEach(id -> map.put(factory.getEntityManager().getName(id), id));
+		return getSetOfEntities(map, symbolStrSet);
+	}
 
+	Set<Integer> getSetOfEntities(OptMap<String, Integer> map, Set<String> symbolStrSet) {
+		Set<Integer> result = new TreeSet<>();
 		symbolStrSet.forEach(symbolStr -> {
 			Optional<Integer> optId = getId(map, symbolStr);
 			if (optId.isPresent()) {
@@ -279,36 +303,6 @@ public class ProblogInputCreator {
 		return result;
 	}
 
-	List<String> orderByLongestFirst(Collection<String> oldList) {
-		List<String> result = new ArrayList<>();
-		result.addAll(oldList);
-		Collections.sort(result, new Comparator<String>() {
-			@Override
-			public int compare(String str0, String str1) {
-				int str0len = str0 == null ? -1 : str0.length();
-				int str1len = str1 == null ? -1 : str1.length();
-				int ret = str1len - str0len;
-				if (ret == 0 && str0 != null) {
-					ret = str0.compareTo(str1);
-				}
-				return ret;
-			}
-		});
-
-		return result;
-	}
-
-	String replaceAll(OptMap<String, String> map, String text) {
-		String[] current = new String[1];
-		current[0] = text;
-		List<String> keys = orderByLongestFirst(map.keySet());
-		keys.forEach(key -> {
-			String value = map.get(key).get();
-			current[0] = current[0].replaceAll(key, value);
-		});
-		return current[0];
-	}
-
 	/**
 	 * Returns the given text with its prefixes expanded. The prefixes are
 	 * defined in the given ontology.
@@ -322,14 +316,7 @@ public class ProblogInputCreator {
 	public String expandPrefixes(OWLOntology ontology, String text) {
 		Objects.requireNonNull(ontology);
 		Objects.requireNonNull(text);
-		PrefixDocumentFormat prefixes = ProcessorConfigurationImpl.getPrefixes(ontology);
-		OptMap<String, String> prefixNames = new OptMapImpl<>(new HashMap<>());
-		prefixes.getPrefixNames().forEach(prefixName -> {
-			if (prefixName.length() > 1) {
-				prefixNames.put(prefixName, prefixes.getIRI(prefixName).toString());
-			}
-		});
-		return replaceAll(prefixNames, text);
+		return PrefixRewriter.getExpander(ProcessorConfigurationImpl.getPrefixes(ontology)).rewrite(text);
 	}
 
 	/**
@@ -345,14 +332,7 @@ public class ProblogInputCreator {
 	public String replaceByPrefixes(OWLOntology ontology, String text) {
 		Objects.requireNonNull(ontology);
 		Objects.requireNonNull(text);
-		PrefixDocumentFormat prefixes = ProcessorConfigurationImpl.getPrefixes(ontology);
-		OptMap<String, String> revPrefixNames = new OptMapImpl<>(new HashMap<>());
-		prefixes.getPrefixNames().forEach(prefixName -> {
-			if (prefixName.length() > 1) {
-				revPrefixNames.put(prefixes.getIRI(prefixName).toString(), prefixName);
-			}
-		});
-		return replaceAll(revPrefixNames, text);
+		return PrefixRewriter.getCompressor(ProcessorConfigurationImpl.getPrefixes(ontology)).rewrite(text);
 	}
 
 	/**
@@ -384,9 +364,228 @@ public class ProblogInputCreator {
 			ProcessorExecutionResult executionResult) throws IOException, OWLOntologyCreationException {
 		Objects.requireNonNull(additionalCompletionRules);
 		Objects.requireNonNull(owlOntology);
+		Objects.requireNonNull(executionResult);
+		CompiledOntology compiledOntology = new CompiledOntology(owlOntology, useOfDefaultCompletionRules,
+				additionalCompletionRules);
+		executionResult.setTranslationTime(compiledOntology.getTranslationTime());
+		executionResult.setNormalizationTime(compiledOntology.getNormalizationTime());
+		return createProblogFile(compiledOntology, bayesianNetwork, query, resultOutputStream, executionResult);
+	}
+
+	/**
+	 * Returns the module of the compiled ontology that is relevant to answer
+	 * the given queries. The ontology, normalized ontology, and module sizes,
+	 * and the module extraction time are recorded in the execution result.
+	 * 
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param expandedQuery
+	 *            queries without prefixes
+	 * @param executionResult
+	 *            result of the processor execution
+	 * @return the module of the compiled ontology that is relevant to answer
+	 *         the given queries
+	 */
+	public Module extractModule(CompiledOntology compiledOntology, String expandedQuery,
+			ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(expandedQuery);
+		Objects.requireNonNull(executionResult);
+		Set<String> relevantSymbols;
+		try {
+			relevantSymbols = parseRelevantSymbols(new StringReader(expandedQuery));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		executionResult.setOntologySize(compiledOntology.getOntologySize());
+		executionResult.setNormalizedOntologySize(compiledOntology.getNormalizedAxioms().size());
+
+		long moduleExtractionStart = System.nanoTime();
+		DefaultModuleExtractor moduleExtractor = new DefaultModuleExtractor();
+		Set<Integer> setOfEntities = getSetOfEntities(compiledOntology.getMapOfNames(), relevantSymbols);
+		Set<Integer> setOfClasses = getSetOfClasses(compiledOntology.getFactory(), setOfEntities);
+
+		Module module = moduleExtractor.extractModule(compiledOntology.getModuleIndex(), setOfClasses);
+		logger.fine("Module entities: " + module.getEntities());
+		logger.fine("Module axioms: " + module.getAxioms());
+
+		executionResult.setModuleExtractionTime(System.nanoTime() - moduleExtractionStart);
+		executionResult.setModuleSize(module.getNumberOfAxioms());
+		return module;
+	}
+
+	/**
+	 * Returns a ProbLog program with the given parameters, using an ontology
+	 * that was already translated and normalized. The translation and
+	 * normalization times are not modified in the execution result.
+	 * 
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            query
+	 * @param resultOutputStream
+	 *            output stream for the result
+	 * @param executionResult
+	 *            result of the processor execution
+	 * @return a ProbLog program with the given parameters
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	public String createProblogFile(CompiledOntology compiledOntology, String bayesianNetwork, String query,
+			OutputStream resultOutputStream, ProcessorExecutionResult executionResult) throws IOException {
+		Objects.requireNonNull(resultOutputStream);
+		Writer output = new OutputStreamWriter(resultOutputStream);
+		String ret = createProblogFile(compiledOntology, bayesianNetwork, query, output, executionResult);
+		output.close();
+		return ret;
+	}
+
+	/**
+	 * Writes a ProbLog program with the given parameters, using an ontology
+	 * that was already translated and normalized. The program is written
+	 * section by section, and the writer is flushed but not closed. The
+	 * translation and normalization times are not modified in the execution
+	 * result.
+	 * 
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            query
+	 * @param output
+	 *            writer for the ProbLog program
+	 * @param executionResult
+	 *            result of the processor execution
+	 * @return information about the sizes of the ontology and the module
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	public String createProblogFile(CompiledOntology compiledOntology, String bayesianNetwork, String query,
+			Writer output, ProcessorExecutionResult executionResult) throws IOException {
+		return createProblogFile(compiledOntology, bayesianNetwork, query, false, output, executionResult);
+	}
+
+	/**
+	 * Writes a ProbLog program with the given parameters, using an ontology
+	 * that was already translated and normalized. If aliases are used, the
+	 * entities are written with the short aliases of the symbol alias table of
+	 * the compiled ontology, and the names in the queries and in the
+	 * additional completion rules are replaced by their aliases. In that case,
+	 * the answers of ProbLog need to be decoded with the same table. The
+	 * Bayesian network is pruned to the variables used by the module and their
+	 * ancestors, and both sizes are recorded in the execution result. The
+	 * program is written section by section, and the writer is flushed but not
+	 * closed. The translation and normalization times are not modified in the
+	 * execution result.
+	 * 
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            query
+	 * @param usingAliases
+	 *            <code>true</code> if and only if the entities are written
+	 *            with their aliases
+	 * @param output
+	 *            writer for the ProbLog program
+	 * @param executionResult
+	 *            result of the processor execution
+	 * @return information about the sizes of the ontology and the module
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	public String createProblogFile(CompiledOntology compiledOntology, String bayesianNetwork, String query,
+			boolean usingAliases, Writer output, ProcessorExecutionResult executionResult) throws IOException {
+		return createProblogFile(compiledOntology, bayesianNetwork, query, usingAliases, output, executionResult,
+				() -> {
+				});
+	}
+
+	/**
+	 * Writes a ProbLog program like
+	 * {@link #createProblogFile(CompiledOntology, String, String, boolean, Writer, ProcessorExecutionResult)}
+	 * , and runs the given checkpoint after extracting the module and after
+	 * rendering its axioms. The checkpoint can stop the execution by throwing
+	 * an unchecked exception, for example if the execution was cancelled.
+	 * 
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            query
+	 * @param usingAliases
+	 *            <code>true</code> if and only if the entities are written
+	 *            with their aliases
+	 * @param output
+	 *            writer for the ProbLog program
+	 * @param executionResult
+	 *            result of the processor execution
+	 * @param checkpoint
+	 *            checkpoint run between the phases
+	 * @return information about the sizes of the ontology and the module
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	public String createProblogFile(CompiledOntology compiledOntology, String bayesianNetwork, String query,
+			boolean usingAliases, Writer output, ProcessorExecutionResult executionResult, Runnable checkpoint)
+			throws IOException {
+		Objects.requireNonNull(checkpoint);
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(executionResult);
+		Module module = extractModule(compiledOntology, compiledOntology.getPrefixExpander().rewrite(query),
+				executionResult);
+		checkpoint.run();
+		return createProblogFile(compiledOntology, module, bayesianNetwork, query, usingAliases, output,
+				executionResult, checkpoint);
+	}
+
+	/**
+	 * Writes a ProbLog program like
+	 * {@link #createProblogFile(CompiledOntology, String, String, boolean, Writer, ProcessorExecutionResult, Runnable)}
+	 * , using a module that was already extracted with
+	 * {@link #extractModule(CompiledOntology, String, ProcessorExecutionResult)}
+	 * , and runs the given checkpoint after rendering its axioms.
+	 * 
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param module
+	 *            module of the compiled ontology that is relevant to answer
+	 *            the query
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            query
+	 * @param usingAliases
+	 *            <code>true</code> if and only if the entities are written
+	 *            with their aliases
+	 * @param output
+	 *            writer for the ProbLog program
+	 * @param executionResult
+	 *            result of the processor execution
+	 * @param checkpoint
+	 *            checkpoint run between the phases
+	 * @return information about the sizes of the ontology and the module
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	public String createProblogFile(CompiledOntology compiledOntology, Module module, String bayesianNetwork,
+			String query, boolean usingAliases, Writer output, ProcessorExecutionResult executionResult,
+			Runnable checkpoint) throws IOException {
+		Objects.requireNonNull(checkpoint);
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(module);
 		Objects.requireNonNull(bayesianNetwork);
 		Objects.requireNonNull(query);
-		Objects.requireNonNull(resultOutputStream);
+		Objects.requireNonNull(output);
+		Objects.requireNonNull(executionResult);
+		OWLOntology owlOntology = compiledOntology.getOntology();
+		IntegerOntologyObjectFactory factory = compiledOntology.getFactory();
 		StringBuffer sbuf = new StringBuffer();
 		sbuf.append(Symbol.NEW_LINE_CHAR);
 
@@ -394,68 +593,41 @@ public class ProblogInputCreator {
 		sbuf.append(Symbol.NEW_LINE_CHAR);
 
 		ProblogProgram program = new ProblogProgram();
-		String expandedQuery = expandPrefixes(owlOntology, query);
-		program.setQueryListAddendum(expandedQuery);
-
-		Set<String> relevantSymbols = parseRelevantSymbols(new StringReader(expandedQuery));
-
-		IntegerOntologyObjectFactory factory = new IntegerOntologyObjectFactoryImpl();
+		SymbolAliasTable aliasTable = compiledOntology.getSymbolAliasTable();
+		String expandedQuery = compiledOntology.getPrefixExpander().rewrite(query);
+		program.setQueryListAddendum(usingAliases ? aliasTable.encode(expandedQuery) : expandedQuery);
 
-		long translationStart = System.nanoTime();
-		logger.fine("OWL Axioms: " + owlOntology.getAxioms());
-
-		Translator translator = new Translator(owlOntology.getOWLOntologyManager().getOWLDataFactory(), factory);
-		Set<ComplexIntegerAxiom> axioms = translator.translateSA(owlOntology.getAxioms());
-		logger.fine("Integer Axioms: " + axioms);
-
-		executionResult.setTranslationTime(System.nanoTime() - translationStart);
-		executionResult.setOntologySize(axioms.size());
-		sbuf.append(NUMBER_OF_AXIOMS_MSG + axioms.size());
+		sbuf.append(NUMBER_OF_AXIOMS_MSG + compiledOntology.getOntologySize());
 		sbuf.append(Symbol.NEW_LINE_CHAR);
 
-		long normalizationStart = System.nanoTime();
-		OntologyNormalizer normalizer = new OntologyNormalizer();
-		Set<NormalizedIntegerAxiom> normalizedAxioms = removeUnnecessaryAnnotations(
-				normalizer.normalize(axioms, factory), factory);
-		logger.fine("Normalized Axioms: " + normalizedAxioms);
-
-		executionResult.setNormalizationTime(System.nanoTime() - normalizationStart);
-		executionResult.setNormalizedOntologySize(normalizedAxioms.size());
-		sbuf.append(NUMBER_OF_NORM_AXIOMS_MSG + normalizedAxioms.size());
+		sbuf.append(NUMBER_OF_NORM_AXIOMS_MSG + compiledOntology.getNormalizedAxioms().size());
 		sbuf.append(Symbol.NEW_LINE_CHAR);
 
-		long moduleExtractionStart = System.nanoTime();
-		DefaultModuleExtractor moduleExtractor = new DefaultModuleExtractor();
-		Set<Integer> setOfEntities = getSetOfEntities(factory, relevantSymbols);
-		Set<Integer> setOfClasses = getSetOfClasses(factory, setOfEntities);
-
-		Module module = moduleExtractor.extractModule(normalizedAxioms, setOfClasses);
-		logger.fine("Module entities: " + module.getEntities());
-		logger.fine("Module axioms: " + module.getAxioms());
-
-		executionResult.setModuleExtractionTime(System.nanoTime() - moduleExtractionStart);
-		executionResult.setModuleSize(module.getAxioms().size());
-		sbuf.append(NUMBER_OF_AXIOMS_IN_MODULE + module.getAxioms().size());
+		sbuf.append(NUMBER_OF_AXIOMS_IN_MODULE + module.getNumberOfAxioms());
 		sbuf.append(Symbol.NEW_LINE_CHAR);
 
-		List<Clause> clauses = getClauses(factory, module);
+		AxiomRenderer renderer = usingAliases ? new AxiomRenderer(factory, aliasTable) : new AxiomRenderer(factory);
+		List<Clause> clauses = getClauses(factory, module, renderer);
 		program.getData().setOntology(clauses);
 		logger.fine("Ontology: " + program.getData().getOntology());
+		checkpoint.run();
 
-		if (useOfDefaultCompletionRules) {
-			program.getData().setCompletionRules(getDefaultCompletionRules());
-		} else {
-			program.getData().setCompletionRules(Collections.emptyList());
-		}
+		program.getData().setCompletionRules(compiledOntology.getCompletionRules());
 		logger.fine("Completion Rules: " + program.getData().getCompletionRules());
 
-		program.setAdditionalCompletionRulesAsText(additionalCompletionRules);
+		String additionalCompletionRules = compiledOntology.getAdditionalCompletionRules();
+		program.setAdditionalCompletionRulesAsText(
+				usingAliases ? aliasTable.encode(additionalCompletionRules) : additionalCompletionRules);
 		logger.fine("Additional Completion Rules: " + program.getAdditionalCompletionRulesAsText());
 
-		program.setBayesianNetworkAddendum(bayesianNetwork);
+		BayesianNetworkPruner pruner = new BayesianNetworkPruner();
+		Set<String> variables = pruner.getVariables(renderer, module);
+		variables.addAll(pruner.getIdentifiers(expandedQuery));
+		variables.addAll(pruner.getIdentifiers(additionalCompletionRules));
+		program.setBayesianNetworkAddendum(pruner.prune(bayesianNetwork, variables, executionResult));
 		logger.fine("Bayesian Network: " + program.getBayesianNetworkAddendum());
 
-		write(new OutputStreamWriter(resultOutputStream), program);
+		write(output, program);
 
 		return sbuf.toString();
 	}
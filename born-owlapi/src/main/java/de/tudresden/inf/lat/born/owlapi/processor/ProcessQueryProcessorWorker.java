@@ -0,0 +1,133 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An object of this class is a query processor worker that runs in an
+ * external process, and receives the ProbLog programs through its standard
+ * input. The process is started once and kept running, so that the query
+ * processor does not need to start again for each program.
+ * <p>
+ * Each request is a string, and each response is a status byte, a string,
+ * which is the answer or an error message, and the number of bytes of memory
+ * used by the process. Each string is written as the number of bytes followed
+ * by the bytes in UTF-8. An error status means that ProbLog rejected the
+ * program, and the process can still process more programs. The standard
+ * error of the process is inherited.
+ *
+ * @see QueryProcessorWorkerMain
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProcessQueryProcessorWorker implements QueryProcessorWorker {
+
+	static final byte STATUS_OK = 0;
+	static final byte STATUS_ERROR = 1;
+
+	private final Process process;
+	private final DataOutputStream input;
+	private final DataInputStream output;
+	private long memoryUsage = 0;
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructs a new query processor worker, and starts the process with the
+	 * given command.
+	 *
+	 * @param command
+	 *            command that starts the process
+	 * @throws IOException
+	 *             if the process cannot be started
+	 */
+	public ProcessQueryProcessorWorker(List<String> command) throws IOException {
+		Objects.requireNonNull(command);
+		ProcessBuilder processBuilder = new ProcessBuilder(command);
+		processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		this.process = processBuilder.start();
+		this.input = new DataOutputStream(new BufferedOutputStream(this.process.getOutputStream()));
+		this.output = new DataInputStream(new BufferedInputStream(this.process.getInputStream()));
+	}
+
+	/**
+	 * Returns the command that starts a Java virtual machine with the same
+	 * class path as this one, running a {@link QueryProcessorWorkerMain}.
+	 *
+	 * @return the command that starts a Java virtual machine with the same
+	 *         class path as this one, running a query processor worker
+	 */
+	public static List<String> getDefaultCommand() {
+		List<String> ret = new ArrayList<>();
+		ret.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		ret.add("-cp");
+		ret.add(System.getProperty("java.class.path"));
+		ret.add(QueryProcessorWorkerMain.class.getName());
+		return ret;
+	}
+
+	static void writeString(DataOutputStream output, String str) throws IOException {
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	static String readString(DataInputStream input) throws IOException {
+		int length = input.readInt();
+		if (length < 0) {
+			throw new IOException("Invalid length: " + length + ".");
+		}
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String process(String problogProgram) throws IOException {
+		Objects.requireNonNull(problogProgram);
+		try {
+			writeString(this.input, problogProgram);
+			this.input.flush();
+			byte status = this.output.readByte();
+			String message = readString(this.output);
+			this.memoryUsage = this.output.readLong();
+			if (status != STATUS_OK) {
+				throw new RejectedProgramException("The worker could not process the program: " + message);
+			}
+			return message;
+		} catch (EOFException e) {
+			throw new IOException("The worker terminated.", e);
+		}
+	}
+
+	@Override
+	public boolean isAlive() {
+		return !this.closed && this.process.isAlive();
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		return this.memoryUsage;
+	}
+
+	@Override
+	public void close() {
+		this.closed = true;
+		this.process.destroyForcibly();
+	}
+
+	@Override
+	public String toString() {
+		return "process worker " + this.process;
+	}
+
+}
@@ -1,5 +1,9 @@
 package de.tudresden.inf.lat.born.owlapi.processor;
 
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -118,6 +122,126 @@ public interface ProcessorConfiguration {
 	 */
 	void setQueryProcessor(Function<String, String> queryProcessor);
 
+	/**
+	 * Returns the query processor that reads the ProbLog program from a file,
+	 * if it is set. In that case, the ProbLog program is written to a
+	 * temporary file and this query processor is used instead of the one that
+	 * receives the ProbLog program as a string.
+	 * 
+	 * @return the query processor that reads the ProbLog program from a file,
+	 *         if it is set
+	 */
+	Optional<Function<Path, String>> getFileQueryProcessor();
+
+	/**
+	 * Sets the query processor that reads the ProbLog program from a file.
+	 * 
+	 * @param fileQueryProcessor
+	 *            the query processor that reads the ProbLog program from a
+	 *            file
+	 */
+	void setFileQueryProcessor(Function<Path, String> fileQueryProcessor);
+
+	/**
+	 * Sets a query processor that reads the ProbLog program from an input
+	 * stream. The ProbLog program is written to a temporary file, as for a
+	 * query processor that reads it from a file, and the given query
+	 * processor reads it from a stream of that file.
+	 * 
+	 * @param streamQueryProcessor
+	 *            the query processor that reads the ProbLog program from an
+	 *            input stream
+	 * @see #setFileQueryProcessor(Function)
+	 */
+	void setStreamQueryProcessor(Function<InputStream, String> streamQueryProcessor);
+
+	/**
+	 * Returns the engine used to compute the probabilities.
+	 * 
+	 * @return the engine used to compute the probabilities
+	 */
+	EngineType getEngineType();
+
+	/**
+	 * Sets the engine used to compute the probabilities. The query processor
+	 * is only used by the ProbLog engine.
+	 * 
+	 * @param engineType
+	 *            the engine used to compute the probabilities
+	 */
+	void setEngineType(EngineType engineType);
+
+	/**
+	 * Returns the parameters of the sampling engine.
+	 * 
+	 * @return the parameters of the sampling engine
+	 */
+	SamplingConfiguration getSamplingConfiguration();
+
+	/**
+	 * Sets the parameters of the sampling engine. They are only used by the
+	 * sampling engine.
+	 * 
+	 * @param samplingConfiguration
+	 *            the parameters of the sampling engine
+	 */
+	void setSamplingConfiguration(SamplingConfiguration samplingConfiguration);
+
+	/**
+	 * Returns the evidence, i.e. the value of each observed variable of the
+	 * Bayesian network.
+	 * 
+	 * @return the evidence
+	 */
+	Map<String, Boolean> getEvidence();
+
+	/**
+	 * Sets the evidence, i.e. the value of each observed variable of the
+	 * Bayesian network. The probabilities of the queries are computed given
+	 * the evidence. This is only supported by the circuit engine.
+	 * 
+	 * @param evidence
+	 *            the evidence
+	 */
+	void setEvidence(Map<String, Boolean> evidence);
+
+	/**
+	 * Tells whether the ProbLog program uses short aliases instead of the
+	 * names of the entities.
+	 * 
+	 * @return <code>true</code> if and only if the ProbLog program uses short
+	 *         aliases instead of the names of the entities
+	 */
+	boolean isUsingAliases();
+
+	/**
+	 * Sets whether the ProbLog program uses short aliases instead of the names
+	 * of the entities. The answers are always shown with the names. This is
+	 * only used by the ProbLog engine.
+	 * 
+	 * @param usingAliases
+	 *            <code>true</code> if and only if the ProbLog program uses
+	 *            short aliases instead of the names of the entities
+	 */
+	void setUsingAliases(boolean usingAliases);
+
+	/**
+	 * Returns the cache of answers of the query processor, if it is set.
+	 * 
+	 * @return the cache of answers of the query processor, if it is set
+	 */
+	Optional<AnswerCache> getAnswerCache();
+
+	/**
+	 * Sets the cache of answers of the query processor. It is consulted before
+	 * executing the query processor, and it is only used by the ProbLog
+	 * engine.
+	 * 
+	 * @param answerCache
+	 *            the cache of answers of the query processor
+	 */
+	void setAnswerCache(AnswerCache answerCache);
+
 	/**
 	 * Tells whether the log is showing.
 	 * 
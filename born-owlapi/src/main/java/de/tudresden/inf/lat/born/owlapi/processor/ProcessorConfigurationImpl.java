@@ -1,12 +1,20 @@
 package de.tudresden.inf.lat.born.owlapi.processor;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.function.Function;
 
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -16,6 +24,7 @@ import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
 
 /**
  * 
@@ -31,6 +40,12 @@ public class ProcessorConfigurationImpl implements ProcessorConfiguration {
 	private String query = "";
 	private String outputFileName = "";
 	private Function<String, String> queryProcessor = null;
+	private Optional<Function<Path, String>> fileQueryProcessor = Optional.empty();
+	private EngineType engineType = EngineType.PROBLOG;
+	private SamplingConfiguration samplingConfiguration = new SamplingConfigurationImpl();
+	private Map<String, Boolean> evidence = Collections.emptyMap();
+	private boolean usingAliases = false;
+	private Optional<AnswerCache> answerCache = Optional.empty();
 	private boolean showingLog = true;
 
 	/**
@@ -115,6 +130,78 @@ public class ProcessorConfigurationImpl implements ProcessorConfiguration {
 		this.queryProcessor = Objects.requireNonNull(queryProcessor);
 	}
 
+	@Override
+	public Optional<Function<Path, String>> getFileQueryProcessor() {
+		return this.fileQueryProcessor;
+	}
+
+	@Override
+	public void setFileQueryProcessor(Function<Path, String> fileQueryProcessor) {
+		this.fileQueryProcessor = Optional.of(fileQueryProcessor);
+	}
+
+	@Override
+	public void setStreamQueryProcessor(Function<InputStream, String> streamQueryProcessor) {
+		Objects.requireNonNull(streamQueryProcessor);
+		setFileQueryProcessor(file -> {
+			try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+				return streamQueryProcessor.apply(input);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	@Override
+	public EngineType getEngineType() {
+		return this.engineType;
+	}
+
+	@Override
+	public void setEngineType(EngineType engineType) {
+		this.engineType = Objects.requireNonNull(engineType);
+	}
+
+	@Override
+	public SamplingConfiguration getSamplingConfiguration() {
+		return this.samplingConfiguration;
+	}
+
+	@Override
+	public void setSamplingConfiguration(SamplingConfiguration samplingConfiguration) {
+		this.samplingConfiguration = Objects.requireNonNull(samplingConfiguration);
+	}
+
+	@Override
+	public Map<String, Boolean> getEvidence() {
+		return this.evidence;
+	}
+
+	@Override
+	public void setEvidence(Map<String, Boolean> evidence) {
+		this.evidence = Collections.unmodifiableMap(new TreeMap<>(Objects.requireNonNull(evidence)));
+	}
+
+	@Override
+	public boolean isUsingAliases() {
+		return this.usingAliases;
+	}
+
+	@Override
+	public void setUsingAliases(boolean usingAliases) {
+		this.usingAliases = usingAliases;
+	}
+
+	@Override
+	public Optional<AnswerCache> getAnswerCache() {
+		return this.answerCache;
+	}
+
+	@Override
+	public void setAnswerCache(AnswerCache answerCache) {
+		this.answerCache = Optional.of(answerCache);
+	}
+
 	@Override
 	public boolean isShowingLog() {
 		return showingLog;
@@ -139,6 +226,12 @@ public class ProcessorConfigurationImpl implements ProcessorConfiguration {
 					&& getBayesianNetwork().equals(other.getBayesianNetwork()) && getQuery().equals(other.getQuery())
 					&& getOutputFileName().equals(other.getOutputFileName())
 					&& getQueryProcessor().equals(other.getQueryProcessor())
+					&& getFileQueryProcessor().equals(other.getFileQueryProcessor())
+					&& getEngineType().equals(other.getEngineType())
+					&& getSamplingConfiguration().equals(other.getSamplingConfiguration())
+					&& getEvidence().equals(other.getEvidence())
+					&& (isUsingAliases() == other.isUsingAliases())
+					&& getAnswerCache().equals(other.getAnswerCache())
 					&& (isShowingLog() == other.isShowingLog());
 		}
 	}
@@ -152,14 +245,21 @@ public class ProcessorConfigurationImpl implements ProcessorConfiguration {
 										0x1F * (this.query.hashCode() + //
 												0x1F * (this.outputFileName.hashCode() + //
 														0x1F * (this.queryProcessor.hashCode() + //
-																0x1F * (this.showingLog ? 1 : 0)))))));
+																0x1F * (this.fileQueryProcessor.hashCode() + //
+																		0x1F * (this.engineType.hashCode() + //
+																				0x1F * (this.samplingConfiguration.hashCode() + //
+																						0x1F * (this.evidence.hashCode() + //
+																								0x1F * ((this.usingAliases ? 1 : 0) + //
+																										0x1F * (this.answerCache.hashCode() + //
+																												0x1F * (this.showingLog ? 1 : 0)))))))))))));
 	}
 
 	@Override
 	public String toString() {
 		return this.hasDefaultCompletionRules + "  " + this.completionRules + " " + this.ontology + " "
 				+ this.bayesianNetwork + " " + this.query + " " + this.outputFileName + " " + this.queryProcessor + " "
-				+ this.showingLog;
+				+ this.fileQueryProcessor + " " + this.engineType + " " + this.samplingConfiguration + " "
+				+ this.evidence + " " + this.usingAliases + " " + this.answerCache + " " + this.showingLog;
 	}
 
 	/**
@@ -204,6 +304,41 @@ public class ProcessorConfigurationImpl implements ProcessorConfiguration {
 		output.flush();
 	}
 
+	/**
+	 * Returns the evidence written as comma-separated literals of variables
+	 * of the Bayesian network, where a negated literal starts with
+	 * <code>\+</code>. For example, <code>x0,\+x1</code> observes
+	 * <code>x0</code> as true and <code>x1</code> as false.
+	 * 
+	 * @param text
+	 *            comma-separated literals
+	 * @return the evidence written as comma-separated literals
+	 * @throws IllegalArgumentException
+	 *             if a literal has no variable, or if a variable is observed
+	 *             with both values
+	 */
+	public static Map<String, Boolean> parseEvidence(String text) {
+		Objects.requireNonNull(text);
+		Map<String, Boolean> ret = new TreeMap<>();
+		if (!text.trim().isEmpty()) {
+			for (String literal : text.split("" + Symbol.COMMA_CHAR)) {
+				String name = literal.trim();
+				boolean value = !name.startsWith(BayesianNetwork.NEGATION_PREFIX);
+				if (!value) {
+					name = name.substring(BayesianNetwork.NEGATION_PREFIX.length()).trim();
+				}
+				if (name.isEmpty()) {
+					throw new IllegalArgumentException("Invalid evidence: '" + text + "'.");
+				}
+				Boolean previous = ret.put(name, value);
+				if (Objects.nonNull(previous) && previous != value) {
+					throw new IllegalArgumentException("Contradictory evidence on variable '" + name + "'.");
+				}
+			}
+		}
+		return ret;
+	}
+
 	/**
 	 * Returns an OWL ontology after reading the input stream.
 	 * 
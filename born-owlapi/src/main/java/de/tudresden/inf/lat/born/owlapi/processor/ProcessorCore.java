@@ -1,17 +1,35 @@
 package de.tudresden.inf.lat.born.owlapi.processor;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
-
-import org.semanticweb.owlapi.model.OWLOntology;
-import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import java.util.function.Supplier;
 
 import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.module.Module;
 
 /**
  * An object of this class processes an OWL ontology, produces a ProbLog file,
@@ -20,14 +38,94 @@ import de.tudresden.inf.lat.born.core.term.Symbol;
  * @author Julian Mendez
  *
  */
-public class ProcessorCore {
+public class ProcessorCore implements AutoCloseable {
+
+	public static final String TEMP_FILE_PREFIX = "born";
+	public static final String TEMP_FILE_SUFFIX = ".pl";
+	public static final long NO_TIMEOUT = 0;
+	static final String THREAD_NAME = "born-processor";
+
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, THREAD_NAME);
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
 
 	private boolean isShowingLog = false;
+	private final CompiledOntologyCache compiledOntologyCache;
+	private final CircuitEngine circuitEngine = new CircuitEngine();
+
+	/**
+	 * This is an auxiliary class that holds the read lock of a compiled
+	 * ontology from its construction until it is run for the first time.
+	 */
+	static class ReadLockHolder implements Runnable {
+
+		private final Lock lock;
+		private boolean held;
+
+		ReadLockHolder(Lock lock) {
+			this.lock = Objects.requireNonNull(lock);
+			this.lock.lock();
+			this.held = true;
+		}
+
+		@Override
+		public void run() {
+			if (this.held) {
+				this.held = false;
+				this.lock.unlock();
+			}
+		}
+
+	}
+
+	static ScheduledThreadPoolExecutor createScheduler() {
+		ScheduledThreadPoolExecutor ret = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		ret.setRemoveOnCancelPolicy(true);
+		return ret;
+	}
 
 	/**
 	 * Constructs a new processor.
 	 */
 	public ProcessorCore() {
+		this(new CompiledOntologyCache());
+	}
+
+	/**
+	 * Constructs a new processor that uses the given cache of compiled
+	 * ontologies. The cache can be shared among processors.
+	 * 
+	 * @param compiledOntologyCache
+	 *            cache of compiled ontologies
+	 */
+	public ProcessorCore(CompiledOntologyCache compiledOntologyCache) {
+		this.compiledOntologyCache = Objects.requireNonNull(compiledOntologyCache);
+	}
+
+	/**
+	 * Returns the cache of compiled ontologies.
+	 * 
+	 * @return the cache of compiled ontologies
+	 */
+	public CompiledOntologyCache getCompiledOntologyCache() {
+		return this.compiledOntologyCache;
+	}
+
+	/**
+	 * Closes the cache of compiled ontologies, so that it stops listening to
+	 * the changes of the OWL ontology managers and removes the compiled
+	 * ontologies. The processor can still be used after it is closed.
+	 */
+	@Override
+	public void close() {
+		this.compiledOntologyCache.close();
 	}
 
 	/**
@@ -70,46 +168,182 @@ public class ProcessorCore {
 	}
 
 	/**
-	 * Creates the content of the ProbLog input file and returns this content as
-	 * a string.
+	 * Writes the ProbLog input file and returns information about the sizes of
+	 * the ontology and the module.
 	 * 
 	 * @param start
 	 *            execution start
-	 * @param useOfDefaultCompletionRules
-	 *            use of default completion rules
-	 * @param additionalCompletionRules
-	 *            additional completion rules
-	 * @param ontology
-	 *            OWL ontology
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param module
+	 *            module of the compiled ontology that is relevant to answer
+	 *            the query
 	 * @param bayesianNetwork
 	 *            Bayesian network
 	 * @param query
 	 *            query
+	 * @param usingAliases
+	 *            <code>true</code> if and only if the entities are written
+	 *            with their aliases
 	 * @param executionResult
 	 *            execution result
 	 * @param inputForProblog
-	 *            input for ProbLog
-	 * @return the content of the ProbLog input file
-	 * @throws OWLOntologyCreationException
-	 *             if the ontology was not created
+	 *            writer for the input for ProbLog
+	 * @param checkpoint
+	 *            checkpoint run between the phases
+	 * @return information about the sizes of the ontology and the module
 	 * @throws IOException
 	 *             if something goes wrong with I/O
 	 */
-	String createProblogFile(long start, boolean useOfDefaultCompletionRules, String additionalCompletionRules,
-			OWLOntology ontology, String bayesianNetwork, String query, ProcessorExecutionResult executionResult,
-			OutputStream inputForProblog) throws OWLOntologyCreationException, IOException {
-		Objects.requireNonNull(additionalCompletionRules);
-		Objects.requireNonNull(ontology);
+	String createProblogFile(long start, CompiledOntology compiledOntology, Module module, String bayesianNetwork,
+			String query, boolean usingAliases, ProcessorExecutionResult executionResult, Writer inputForProblog,
+			Runnable checkpoint) throws IOException {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(module);
 		Objects.requireNonNull(bayesianNetwork);
 		Objects.requireNonNull(query);
 		log("Create ProbLog file.", start);
 		ProblogInputCreator instance = new ProblogInputCreator();
-		String result = instance.createProblogFile(useOfDefaultCompletionRules, additionalCompletionRules, ontology,
-				bayesianNetwork, query, inputForProblog, executionResult);
+		String result = instance.createProblogFile(compiledOntology, module, bayesianNetwork, query, usingAliases,
+				inputForProblog, executionResult, checkpoint);
 
 		return result;
 	}
 
+	/**
+	 * Writes the ProbLog program to a temporary file, and executes the given
+	 * query processor on that file. The temporary file is deleted afterwards.
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param module
+	 *            module of the compiled ontology that is relevant to answer
+	 *            the query
+	 * @param fileQueryProcessor
+	 *            query processor that reads the ProbLog program from a file
+	 * @param start
+	 *            execution start
+	 * @param executionResult
+	 *            execution result
+	 * @param checkpoint
+	 *            checkpoint run between the phases
+	 * @param endOfReading
+	 *            action run when the compiled ontology is not read anymore,
+	 *            before executing the query processor
+	 * @return the result of the query processor
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	String runWithFile(ProcessorConfiguration conf, CompiledOntology compiledOntology, Module module,
+			Function<Path, String> fileQueryProcessor, long start, ProcessorExecutionResult executionResult,
+			Runnable checkpoint, Runnable endOfReading) throws IOException {
+		Path inputForProblog = Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+		try {
+			MessageDigest digest = AnswerCache.createDigest();
+			try (Writer output = new BufferedWriter(new OutputStreamWriter(
+					new DigestOutputStream(Files.newOutputStream(inputForProblog), digest), StandardCharsets.UTF_8))) {
+				String info = createProblogFile(start, compiledOntology, module, conf.getBayesianNetwork(),
+						conf.getQuery(), conf.isUsingAliases(), executionResult, output, checkpoint);
+				log(info, start);
+			}
+			endOfReading.run();
+			checkpoint.run();
+
+			return process(conf.getAnswerCache(), AnswerCache.getKey(digest),
+					() -> fileQueryProcessor.apply(inputForProblog), start, executionResult, checkpoint);
+
+		} finally {
+			Files.deleteIfExists(inputForProblog);
+		}
+	}
+
+	/**
+	 * Writes the ProbLog program to a string, and executes the given query
+	 * processor on that string.
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param module
+	 *            module of the compiled ontology that is relevant to answer
+	 *            the query
+	 * @param queryProcessor
+	 *            query processor
+	 * @param start
+	 *            execution start
+	 * @param executionResult
+	 *            execution result
+	 * @param checkpoint
+	 *            checkpoint run between the phases
+	 * @param endOfReading
+	 *            action run when the compiled ontology is not read anymore,
+	 *            before executing the query processor
+	 * @return the result of the query processor
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	String runWithString(ProcessorConfiguration conf, CompiledOntology compiledOntology, Module module,
+			Function<String, String> queryProcessor, long start, ProcessorExecutionResult executionResult,
+			Runnable checkpoint, Runnable endOfReading) throws IOException {
+		StringWriter inputForProblog = new StringWriter();
+		String info = createProblogFile(start, compiledOntology, module, conf.getBayesianNetwork(), conf.getQuery(),
+				conf.isUsingAliases(), executionResult, inputForProblog, checkpoint);
+		log(info, start);
+		endOfReading.run();
+		checkpoint.run();
+
+		String problogProgram = inputForProblog.toString();
+		return process(conf.getAnswerCache(), AnswerCache.getKey(problogProgram),
+				() -> queryProcessor.apply(problogProgram), start, executionResult, checkpoint);
+	}
+
+	/**
+	 * Returns the answer of the given query processor. If there is an answer
+	 * cache, the answer is taken from it if possible, and otherwise the answer
+	 * of the query processor is stored in it. The checkpoint is run after the
+	 * query processor, so that the answer of a cancelled execution is not
+	 * stored.
+	 * 
+	 * @param answerCache
+	 *            answer cache, if there is one
+	 * @param key
+	 *            key of the ProbLog program
+	 * @param queryProcessor
+	 *            query processor on the ProbLog program
+	 * @param start
+	 *            execution start
+	 * @param executionResult
+	 *            execution result
+	 * @param checkpoint
+	 *            checkpoint run before storing the answer
+	 * @return the answer of the given query processor
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	String process(Optional<AnswerCache> answerCache, String key, Supplier<String> queryProcessor, long start,
+			ProcessorExecutionResult executionResult, Runnable checkpoint) throws IOException {
+		Optional<String> cachedResult = answerCache.flatMap(cache -> cache.get(key));
+		if (cachedResult.isPresent()) {
+			log("Take the answer from the answer cache.", start);
+			executionResult.setResultSource(ResultSource.ANSWER_CACHE);
+			executionResult.setProblogReasoningTime(0);
+			return cachedResult.get();
+
+		} else {
+			long queryProcessingStart = System.nanoTime();
+			String result = queryProcessor.get();
+			executionResult.setProblogReasoningTime(System.nanoTime() - queryProcessingStart);
+			checkpoint.run();
+			if (answerCache.isPresent()) {
+				answerCache.get().put(key, result);
+			}
+			return result;
+		}
+	}
+
 	/**
 	 * Runs the processor with the given configuration.
 	 * 
@@ -121,36 +355,223 @@ public class ProcessorCore {
 	 *            execution result
 	 */
 	public void run(ProcessorConfiguration conf, long start, ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(conf);
+		run(conf, () -> this.compiledOntologyCache.get(conf.getOntology(), conf.hasDefaultCompletionRules(),
+				conf.getAdditionalCompletionRules(), executionResult), start, executionResult, () -> {
+				});
+	}
+
+	/**
+	 * Runs the processor with the given configuration and the compiled
+	 * ontology given by the supplier. The checkpoint is run between the phases
+	 * of the execution, and it can stop the execution by throwing an unchecked
+	 * exception. The read lock of the compiled ontology is held while it is
+	 * read, i.e. until the ProbLog program is written, so that the compiled
+	 * ontology is not changed by an update of its compiler in the meantime,
+	 * but not while the query processor runs.
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @param compiledOntologySupplier
+	 *            supplier of the compiled ontology
+	 * @param start
+	 *            starting point measured in nanoseconds
+	 * @param executionResult
+	 *            execution result
+	 * @param checkpoint
+	 *            checkpoint run between the phases
+	 */
+	void run(ProcessorConfiguration conf, Supplier<CompiledOntology> compiledOntologySupplier, long start,
+			ProcessorExecutionResult executionResult, Runnable checkpoint) {
 		long processorStart = System.nanoTime();
 		Objects.requireNonNull(conf);
+		Objects.requireNonNull(compiledOntologySupplier);
 		Objects.requireNonNull(executionResult);
+		Objects.requireNonNull(checkpoint);
 		StringBuilder sb = new StringBuilder();
+		Runnable readLockHolder = () -> {
+		};
 		try {
 			log("Start. Each row shows nanoseconds from start and task that is starting.", start);
+			checkpoint.run();
+			CompiledOntology compiledOntology = compiledOntologySupplier.get();
+			readLockHolder = new ReadLockHolder(compiledOntology.getReadLock());
+			checkpoint.run();
 
-			Function<String, String> queryProcessor = conf.getQueryProcessor();
+			if (!conf.getEvidence().isEmpty() && !conf.getEngineType().equals(EngineType.CIRCUIT)) {
+				throw new UnsupportedOperationException("Evidence is only supported by the circuit engine.");
+			}
 
-			ByteArrayOutputStream inputForProblogByteArray = new ByteArrayOutputStream();
-			String info = createProblogFile(start, conf.hasDefaultCompletionRules(),
-					conf.getAdditionalCompletionRules(), conf.getOntology(), conf.getBayesianNetwork(), conf.getQuery(),
-					executionResult, inputForProblogByteArray);
-			log(info, start);
+			if (conf.getEngineType().equals(EngineType.NATIVE)) {
+				log("Compute probabilities with the native engine.", start);
+				String result = new NativeEngine().run(compiledOntology, conf.getBayesianNetwork(), conf.getQuery(),
+						executionResult);
+				executionResult.setResultSource(ResultSource.NATIVE_ENGINE);
 
-			long queryProcessingStart = System.nanoTime();
-			String inputForProblog = new String(inputForProblogByteArray.toByteArray());
-			String result = queryProcessor.apply(inputForProblog);
-			executionResult.setProblogReasoningTime(System.nanoTime() - queryProcessingStart);
+				log("End and show results.", start);
+
+				sb.append(result);
+
+			} else if (conf.getEngineType().equals(EngineType.CIRCUIT)) {
+				log("Compute probabilities with the circuit engine.", start);
+				String result = this.circuitEngine.run(compiledOntology, conf.getBayesianNetwork(), conf.getQuery(),
+						conf.getEvidence(), executionResult);
+				executionResult.setResultSource(ResultSource.CIRCUIT_ENGINE);
+
+				log("End and show results.", start);
+
+				sb.append(result);
+
+			} else if (conf.getEngineType().equals(EngineType.SAMPLING)) {
+				log("Estimate probabilities with the sampling engine.", start);
+				String result = new SamplingEngine().run(compiledOntology, conf.getBayesianNetwork(), conf.getQuery(),
+						conf.getSamplingConfiguration(), executionResult);
+				executionResult.setResultSource(ResultSource.SAMPLING_ENGINE);
+
+				log("End and show results.", start);
+
+				sb.append(result);
 
-			log("End and show results.", start);
+			} else {
+				log("Extract the module.", start);
+				Module module = new ProblogInputCreator().extractModule(compiledOntology,
+						compiledOntology.getPrefixExpander().rewrite(conf.getQuery()), executionResult);
+				checkpoint.run();
 
-			sb.append(result);
+				log("Try to answer with the crisp pre-check.", start);
+				Optional<String> preCheckResult = new CrispPreCheck().run(compiledOntology, module, conf.getQuery(),
+						executionResult);
+				String result;
+				if (preCheckResult.isPresent()) {
+					executionResult.setResultSource(ResultSource.CRISP_PRE_CHECK);
+					result = preCheckResult.get();
 
-		} catch (IOException | OWLOntologyCreationException e) {
-			throw new RuntimeException(e);
+				} else {
+					checkpoint.run();
+					executionResult.setResultSource(ResultSource.QUERY_PROCESSOR);
+					Optional<Function<Path, String>> fileQueryProcessor = conf.getFileQueryProcessor();
+					result = fileQueryProcessor.isPresent()
+							? runWithFile(conf, compiledOntology, module, fileQueryProcessor.get(), start,
+									executionResult, checkpoint, readLockHolder)
+							: runWithString(conf, compiledOntology, module, conf.getQueryProcessor(), start,
+									executionResult, checkpoint, readLockHolder);
+					if (conf.isUsingAliases()) {
+						result = compiledOntology.getSymbolAliasTable().decode(result);
+					}
+				}
+
+				log("End and show results.", start);
+
+				sb.append(result);
+			}
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			readLockHolder.run();
 		}
 
 		executionResult.setResult(sb.toString());
 		executionResult.setTotalTime(System.nanoTime() - processorStart);
 	}
 
+	/**
+	 * Runs the processor asynchronously with the given configuration, without
+	 * time limit.
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @return a future with the execution result
+	 * @see #submit(ProcessorConfiguration, long)
+	 */
+	public CompletableFuture<ProcessorExecutionResult> submit(ProcessorConfiguration conf) {
+		return submit(conf, NO_TIMEOUT);
+	}
+
+	/**
+	 * Runs the processor asynchronously with the given configuration. If the
+	 * returned future is cancelled, or if the execution does not finish within
+	 * the timeout, the execution stops at the next phase, i.e. before
+	 * compiling the ontology, extracting the module, rendering the axioms, or
+	 * executing the query processor, and the thread running the execution is
+	 * interrupted. Only a {@link QueryProcessorPool} stops while it is
+	 * processing a program, because the interruption closes the worker that
+	 * is processing it. Any other query processor runs until it finishes, and
+	 * then its answer is discarded and not stored in the answer cache. After a
+	 * timeout, the future completes exceptionally with a
+	 * {@link TimeoutException}.
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @param timeout
+	 *            maximum time in milliseconds for the execution, or
+	 *            {@link #NO_TIMEOUT}
+	 * @return a future with the execution result
+	 */
+	public CompletableFuture<ProcessorExecutionResult> submit(ProcessorConfiguration conf, long timeout) {
+		Objects.requireNonNull(conf);
+		return submit(conf, executionResult -> this.compiledOntologyCache.get(conf.getOntology(),
+				conf.hasDefaultCompletionRules(), conf.getAdditionalCompletionRules(), executionResult), timeout);
+	}
+
+	/**
+	 * Runs the processor asynchronously with the given configuration, using
+	 * the given compiled ontology instead of the ontology of the
+	 * configuration. It works like {@link #submit(ProcessorConfiguration, long)}
+	 * .
+	 * 
+	 * @param conf
+	 *            configuration
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param timeout
+	 *            maximum time in milliseconds for the execution, or
+	 *            {@link #NO_TIMEOUT}
+	 * @return a future with the execution result
+	 */
+	public CompletableFuture<ProcessorExecutionResult> submit(ProcessorConfiguration conf,
+			CompiledOntology compiledOntology, long timeout) {
+		Objects.requireNonNull(compiledOntology);
+		return submit(conf, executionResult -> compiledOntology, timeout);
+	}
+
+	CompletableFuture<ProcessorExecutionResult> submit(ProcessorConfiguration conf,
+			Function<ProcessorExecutionResult, CompiledOntology> compiledOntologyFunction, long timeout) {
+		Objects.requireNonNull(conf);
+		Objects.requireNonNull(compiledOntologyFunction);
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Invalid timeout: " + timeout + ".");
+		}
+		long start = System.nanoTime();
+		CompletableFuture<ProcessorExecutionResult> ret = new CompletableFuture<>();
+		Runnable checkpoint = () -> {
+			if (ret.isDone() || Thread.currentThread().isInterrupted()) {
+				throw new CancellationException();
+			}
+		};
+		Future<?> task = EXECUTOR.submit(() -> {
+			try {
+				ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+				run(conf, () -> compiledOntologyFunction.apply(executionResult), start, executionResult,
+						checkpoint);
+				ret.complete(executionResult);
+			} catch (Throwable e) {
+				ret.completeExceptionally(e);
+			}
+		});
+		ret.whenComplete((executionResult, exception) -> {
+			if (Objects.nonNull(exception)) {
+				task.cancel(true);
+			}
+		});
+		if (timeout != NO_TIMEOUT) {
+			ScheduledFuture<?> deadline = SCHEDULER.schedule(() -> {
+				ret.completeExceptionally(
+						new TimeoutException("The execution did not finish within " + timeout + " ms."));
+			}, timeout, TimeUnit.MILLISECONDS);
+			ret.whenComplete((executionResult, exception) -> deadline.cancel(false));
+		}
+		return ret;
+	}
+
 }
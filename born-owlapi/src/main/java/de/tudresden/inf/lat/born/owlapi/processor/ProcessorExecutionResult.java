@@ -130,6 +130,89 @@ public interface ProcessorExecutionResult {
 	 */
 	void setModuleSize(int moduleSize);
 
+	/**
+	 * Returns the number of variables of the Bayesian network, or -1 if the
+	 * Bayesian network was not analyzed.
+	 * 
+	 * @return the number of variables of the Bayesian network
+	 */
+	int getBayesianNetworkSize();
+
+	/**
+	 * Sets the Bayesian network size.
+	 * 
+	 * @param bayesianNetworkSize
+	 *            Bayesian network size
+	 */
+	void setBayesianNetworkSize(int bayesianNetworkSize);
+
+	/**
+	 * Returns the number of variables of the Bayesian network after removing
+	 * the variables that are not relevant to the module, or -1 if the Bayesian
+	 * network was not pruned.
+	 * 
+	 * @return the number of variables of the pruned Bayesian network
+	 */
+	int getPrunedBayesianNetworkSize();
+
+	/**
+	 * Sets the pruned Bayesian network size.
+	 * 
+	 * @param prunedBayesianNetworkSize
+	 *            pruned Bayesian network size
+	 */
+	void setPrunedBayesianNetworkSize(int prunedBayesianNetworkSize);
+
+	/**
+	 * Returns the number of worlds sampled to estimate the probabilities, or
+	 * -1 if the probabilities were not estimated by sampling.
+	 * 
+	 * @return the number of worlds sampled to estimate the probabilities
+	 */
+	long getNumberOfSamples();
+
+	/**
+	 * Sets the number of samples.
+	 * 
+	 * @param numberOfSamples
+	 *            number of samples
+	 */
+	void setNumberOfSamples(long numberOfSamples);
+
+	/**
+	 * Returns the largest half-width of the confidence intervals of the
+	 * estimated probabilities, i.e. each probability is in the interval of
+	 * the estimate plus or minus this value, or -1 if the probabilities were
+	 * not estimated by sampling.
+	 * 
+	 * @return the largest half-width of the confidence intervals of the
+	 *         estimated probabilities
+	 */
+	double getErrorBound();
+
+	/**
+	 * Sets the error bound.
+	 * 
+	 * @param errorBound
+	 *            error bound
+	 */
+	void setErrorBound(double errorBound);
+
+	/**
+	 * Returns the way the result was obtained.
+	 * 
+	 * @return the way the result was obtained
+	 */
+	ResultSource getResultSource();
+
+	/**
+	 * Sets the way the result was obtained.
+	 * 
+	 * @param resultSource
+	 *            the way the result was obtained
+	 */
+	void setResultSource(ResultSource resultSource);
+
 	/**
 	 * Returns the results of the processing.
 	 * 
@@ -1,5 +1,7 @@
 package de.tudresden.inf.lat.born.owlapi.processor;
 
+import java.util.Objects;
+
 /**
  * This is the default implementation of a processor execution result.
  * 
@@ -16,6 +18,11 @@ public class ProcessorExecutionResultImpl implements ProcessorExecutionResult {
 	private int normalizedOntologySize = -1;
 	private int ontologySize = -1;
 	private int moduleSize = -1;
+	private int bayesianNetworkSize = -1;
+	private int prunedBayesianNetworkSize = -1;
+	private long numberOfSamples = -1;
+	private double errorBound = -1;
+	private ResultSource resultSource = ResultSource.QUERY_PROCESSOR;
 	private String result = "";
 
 	/**
@@ -104,6 +111,56 @@ public class ProcessorExecutionResultImpl implements ProcessorExecutionResult {
 		this.moduleSize = moduleSize;
 	}
 
+	@Override
+	public int getBayesianNetworkSize() {
+		return this.bayesianNetworkSize;
+	}
+
+	@Override
+	public void setBayesianNetworkSize(int bayesianNetworkSize) {
+		this.bayesianNetworkSize = bayesianNetworkSize;
+	}
+
+	@Override
+	public int getPrunedBayesianNetworkSize() {
+		return this.prunedBayesianNetworkSize;
+	}
+
+	@Override
+	public void setPrunedBayesianNetworkSize(int prunedBayesianNetworkSize) {
+		this.prunedBayesianNetworkSize = prunedBayesianNetworkSize;
+	}
+
+	@Override
+	public long getNumberOfSamples() {
+		return this.numberOfSamples;
+	}
+
+	@Override
+	public void setNumberOfSamples(long numberOfSamples) {
+		this.numberOfSamples = numberOfSamples;
+	}
+
+	@Override
+	public double getErrorBound() {
+		return this.errorBound;
+	}
+
+	@Override
+	public void setErrorBound(double errorBound) {
+		this.errorBound = errorBound;
+	}
+
+	@Override
+	public ResultSource getResultSource() {
+		return this.resultSource;
+	}
+
+	@Override
+	public void setResultSource(ResultSource resultSource) {
+		this.resultSource = Objects.requireNonNull(resultSource);
+	}
+
 	@Override
 	public String getResult() {
 		return this.result;
@@ -124,7 +181,12 @@ public class ProcessorExecutionResultImpl implements ProcessorExecutionResult {
 												+ 0x1F * (this.ontologySize //
 														+ 0x1F * (this.normalizedOntologySize //
 																+ 0x1F * (this.moduleSize //
-																		+ 0x1F * this.result.hashCode()))))))));
+																		+ 0x1F * (this.bayesianNetworkSize //
+																				+ 0x1F * (this.prunedBayesianNetworkSize //
+																						+ 0x1F * (this.numberOfSamples //
+																								+ 0x1F * (Double.hashCode(this.errorBound) //
+																										+ 0x1F * (this.resultSource.hashCode() //
+																												+ 0x1F * this.result.hashCode())))))))))))));
 	}
 
 	@Override
@@ -141,7 +203,12 @@ public class ProcessorExecutionResultImpl implements ProcessorExecutionResult {
 					&& (getProblogReasoningTime() == other.getProblogReasoningTime())
 					&& (getTotalTime() == other.getTotalTime()) && (getOntologySize() == other.getOntologySize())
 					&& (getNormalizedOntologySize() == other.getNormalizedOntologySize())
-					&& (getModuleSize() == other.getModuleSize()) && (getResult().equals(other.getResult()));
+					&& (getModuleSize() == other.getModuleSize())
+					&& (getBayesianNetworkSize() == other.getBayesianNetworkSize())
+					&& (getPrunedBayesianNetworkSize() == other.getPrunedBayesianNetworkSize())
+					&& (getNumberOfSamples() == other.getNumberOfSamples())
+					&& (getErrorBound() == other.getErrorBound())
+					&& getResultSource().equals(other.getResultSource()) && (getResult().equals(other.getResult()));
 		}
 	}
 
@@ -164,6 +231,16 @@ public class ProcessorExecutionResultImpl implements ProcessorExecutionResult {
 		sb.append("" + normalizedOntologySize);
 		sb.append(" , module_size=");
 		sb.append("" + moduleSize);
+		sb.append(" , bayesian_network_size=");
+		sb.append("" + bayesianNetworkSize);
+		sb.append(" , pruned_bayesian_network_size=");
+		sb.append("" + prunedBayesianNetworkSize);
+		sb.append(" , samples=");
+		sb.append("" + numberOfSamples);
+		sb.append(" , error_bound=");
+		sb.append("" + errorBound);
+		sb.append(" , result_source=");
+		sb.append("" + resultSource);
 		sb.append(" , result=\"");
 		sb.append("\" ] ");
 		return sb.toString();
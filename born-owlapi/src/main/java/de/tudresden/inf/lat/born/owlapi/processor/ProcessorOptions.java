@@ -0,0 +1,268 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An object of this class parses the command line options that configure a
+ * processor, which are shared by the sub applications that answer queries.
+ *
+ * @see ProcessorSubApp
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProcessorOptions {
+
+	public static final String LOGGING_OPTION = "--log";
+	public static final String ENGINE_OPTION = "--engine=";
+	public static final String EVIDENCE_OPTION = "--evidence=";
+	public static final String ALIASES_OPTION = "--aliases";
+	public static final String CACHE_OPTION = "--cache=";
+	public static final String CACHE_SIZE_OPTION = "--cache-size=";
+	public static final String PROBLOG_OPTION = "--problog=";
+	public static final String ERROR_BOUND_OPTION = "--error-bound=";
+	public static final String CONFIDENCE_OPTION = "--confidence=";
+	public static final String THREADS_OPTION = "--threads=";
+	public static final String SEED_OPTION = "--seed=";
+	public static final long MEGABYTE = 0x100000;
+	public static final String PARAMETERS = "[--engine=<engine>] [--evidence=<literals>] [--aliases] [--cache=<directory>] [--cache-size=<number>] [--problog=<command>] [--error-bound=<number>] [--confidence=<number>] [--threads=<number>] [--seed=<number>]";
+	public static final String HELP = ""
+			+ "\n   --engine=<engine>       : engine that computes the probabilities, " + EngineType.PROBLOG.getName()
+			+ " (default), " + EngineType.NATIVE.getName() + ", " + EngineType.SAMPLING.getName() + ", or "
+			+ EngineType.CIRCUIT.getName() //
+			+ "\n   --evidence=<literals>   : observes the given comma-separated variables of the Bayesian network, where '\\+' negates a variable, only with engine "
+			+ EngineType.CIRCUIT.getName() //
+			+ "\n   --aliases               : writes the entities in the ProbLog program with short aliases" //
+			+ "\n   --cache=<directory>     : keeps the answers of ProbLog in the given directory, and reuses them for the same ProbLog program" //
+			+ "\n   --cache-size=<number>   : maximum size of the answer cache in megabytes (default "
+			+ (AnswerCache.DEFAULT_MAXIMUM_SIZE / MEGABYTE) + ")" //
+			+ "\n   --problog=<command>     : runs the given command of an installed ProbLog on a file with the ProbLog program, instead of the embedded ProbLog" //
+			+ "\n   --error-bound=<number>  : maximum error of the estimated probabilities, between 0 and 1 (default "
+			+ SamplingConfigurationImpl.DEFAULT_ERROR_BOUND + "), only with engine " + EngineType.SAMPLING.getName() //
+			+ "\n   --confidence=<number>   : confidence level of the error bound, between 0 and 1 (default "
+			+ SamplingConfigurationImpl.DEFAULT_CONFIDENCE_LEVEL + "), only with engine "
+			+ EngineType.SAMPLING.getName() //
+			+ "\n   --threads=<number>      : number of threads that draw samples (default: number of available processors), only with engine "
+			+ EngineType.SAMPLING.getName() //
+			+ "\n   --seed=<number>         : seed of the random number generator (default "
+			+ SamplingConfigurationImpl.DEFAULT_SEED + "), only with engine " + EngineType.SAMPLING.getName();
+
+	/**
+	 * Constructs a new parser of processor options.
+	 */
+	public ProcessorOptions() {
+	}
+
+	/**
+	 * Tells whether the given argument is the given option followed by a
+	 * positive integer.
+	 *
+	 * @param option
+	 *            option, including the equals sign
+	 * @param arg
+	 *            argument
+	 * @return <code>true</code> if and only if the given argument is the
+	 *         given option followed by a positive integer
+	 */
+	public boolean isPositiveIntegerOption(String option, String arg) {
+		Objects.requireNonNull(option);
+		Objects.requireNonNull(arg);
+		if (!arg.startsWith(option)) {
+			return false;
+		} else {
+			try {
+				return Integer.parseInt(arg.substring(option.length())) > 0;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Tells whether the given argument is the given option followed by a
+	 * number greater than 0 and less than 1.
+	 *
+	 * @param option
+	 *            option, including the equals sign
+	 * @param arg
+	 *            argument
+	 * @return <code>true</code> if and only if the given argument is the
+	 *         given option followed by a number greater than 0 and less than 1
+	 */
+	public boolean isProbabilityOption(String option, String arg) {
+		Objects.requireNonNull(option);
+		Objects.requireNonNull(arg);
+		if (!arg.startsWith(option)) {
+			return false;
+		} else {
+			try {
+				double value = Double.parseDouble(arg.substring(option.length()));
+				return value > 0 && value < 1;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+	}
+
+	boolean isSeedOption(String arg) {
+		if (!arg.startsWith(SEED_OPTION)) {
+			return false;
+		} else {
+			try {
+				Long.parseLong(arg.substring(SEED_OPTION.length()));
+				return true;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+	}
+
+	boolean isCacheOption(String arg) {
+		return arg.startsWith(CACHE_OPTION) && arg.length() > CACHE_OPTION.length();
+	}
+
+	boolean isCacheSizeOption(String arg) {
+		if (!arg.startsWith(CACHE_SIZE_OPTION)) {
+			return false;
+		} else {
+			try {
+				return Long.parseLong(arg.substring(CACHE_SIZE_OPTION.length())) > 0;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+	}
+
+	boolean isProblogOption(String arg) {
+		return arg.startsWith(PROBLOG_OPTION) && !arg.substring(PROBLOG_OPTION.length()).trim().isEmpty();
+	}
+
+	boolean isEngineOption(String arg) {
+		return arg.startsWith(ENGINE_OPTION) && EngineType.get(arg.substring(ENGINE_OPTION.length())).isPresent();
+	}
+
+	boolean isEvidenceOption(String arg) {
+		return arg.startsWith(EVIDENCE_OPTION) && arg.length() > EVIDENCE_OPTION.length();
+	}
+
+	/**
+	 * Tells whether the given argument is a processor option.
+	 *
+	 * @param arg
+	 *            argument
+	 * @return <code>true</code> if and only if the given argument is a
+	 *         processor option
+	 */
+	public boolean isOption(String arg) {
+		Objects.requireNonNull(arg);
+		return arg.equals(LOGGING_OPTION) || isEngineOption(arg) || isEvidenceOption(arg)
+				|| arg.equals(ALIASES_OPTION) || isCacheSizeOption(arg) || isCacheOption(arg)
+				|| isProblogOption(arg) || isProbabilityOption(ERROR_BOUND_OPTION, arg)
+				|| isProbabilityOption(CONFIDENCE_OPTION, arg) || isPositiveIntegerOption(THREADS_OPTION, arg)
+				|| isSeedOption(arg);
+	}
+
+	/**
+	 * Sets the answer cache in the given configuration, if the options ask for
+	 * it.
+	 */
+	void setAnswerCache(ProcessorConfiguration conf, String[] args) {
+		Optional<Path> directory = Optional.empty();
+		long maximumSize = AnswerCache.DEFAULT_MAXIMUM_SIZE;
+		for (String arg : args) {
+			if (isCacheSizeOption(arg)) {
+				maximumSize = Long.parseLong(arg.substring(CACHE_SIZE_OPTION.length())) * MEGABYTE;
+			} else if (isCacheOption(arg)) {
+				directory = Optional.of(Paths.get(arg.substring(CACHE_OPTION.length())));
+			}
+		}
+		if (directory.isPresent()) {
+			try {
+				conf.setAnswerCache(new AnswerCache(directory.get(), maximumSize,
+						AnswerCache.DEFAULT_NUMBER_OF_ANSWERS_IN_MEMORY));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Sets in the given configuration a sampling configuration with the
+	 * sampling options given in the arguments, and the default values for the
+	 * other ones.
+	 */
+	void setSamplingConfiguration(ProcessorConfiguration conf, String[] args) {
+		SamplingConfiguration samplingConfiguration = new SamplingConfigurationImpl();
+		for (String arg : args) {
+			if (isProbabilityOption(ERROR_BOUND_OPTION, arg)) {
+				samplingConfiguration.setErrorBound(Double.parseDouble(arg.substring(ERROR_BOUND_OPTION.length())));
+			} else if (isProbabilityOption(CONFIDENCE_OPTION, arg)) {
+				samplingConfiguration
+						.setConfidenceLevel(Double.parseDouble(arg.substring(CONFIDENCE_OPTION.length())));
+			} else if (isPositiveIntegerOption(THREADS_OPTION, arg)) {
+				samplingConfiguration.setNumberOfThreads(Integer.parseInt(arg.substring(THREADS_OPTION.length())));
+			} else if (isSeedOption(arg)) {
+				samplingConfiguration.setSeed(Long.parseLong(arg.substring(SEED_OPTION.length())));
+			}
+		}
+		conf.setSamplingConfiguration(samplingConfiguration);
+	}
+
+	/**
+	 * Sets in the given configuration the processor options given in the
+	 * arguments. The answer cache has to be closed with
+	 * {@link #closeAnswerCache(ProcessorConfiguration)}.
+	 *
+	 * @param conf
+	 *            processor configuration
+	 * @param args
+	 *            arguments
+	 * @throws UncheckedIOException
+	 *             if the answer cache could not be opened
+	 */
+	public void configure(ProcessorConfiguration conf, String[] args) {
+		Objects.requireNonNull(conf);
+		Objects.requireNonNull(args);
+		conf.setShowingLog(false);
+		for (String arg : args) {
+			if (arg.equals(LOGGING_OPTION)) {
+				conf.setShowingLog(true);
+			} else if (isEngineOption(arg)) {
+				conf.setEngineType(EngineType.get(arg.substring(ENGINE_OPTION.length())).get());
+			} else if (isEvidenceOption(arg)) {
+				conf.setEvidence(ProcessorConfigurationImpl.parseEvidence(arg.substring(EVIDENCE_OPTION.length())));
+			} else if (arg.equals(ALIASES_OPTION)) {
+				conf.setUsingAliases(true);
+			} else if (isProblogOption(arg)) {
+				conf.setFileQueryProcessor(new ProblogCommand(arg.substring(PROBLOG_OPTION.length())));
+			}
+		}
+		setSamplingConfiguration(conf, args);
+		setAnswerCache(conf, args);
+	}
+
+	/**
+	 * Closes the answer cache of the given configuration, if it has one.
+	 *
+	 * @param conf
+	 *            processor configuration
+	 * @throws UncheckedIOException
+	 *             if the answer cache could not be closed
+	 */
+	public void closeAnswerCache(ProcessorConfiguration conf) {
+		Objects.requireNonNull(conf);
+		if (conf.getAnswerCache().isPresent()) {
+			try {
+				conf.getAnswerCache().get().close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+}
@@ -4,6 +4,8 @@ import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
@@ -22,21 +24,26 @@ import de.tudresden.inf.lat.jproblog.JProblog;
  */
 public class ProcessorSubApp implements SubApp {
 
-	static final String LOGGING_OPTION = "--log";
 	public static final String COMMAND = "get";
-	static final String HELP = ""
-			+ "\nParameters: [--log] <ontology file> <Bayesian network file> <query file> <output file> [<ProbLog directory>]"
+	static final String HELP = "\nParameters: [--log] " + ProcessorOptions.PARAMETERS
+			+ " <ontology file> <Bayesian network file> <query file> <output file> [<ProbLog directory>]"
 			+ "\n"
 			+ "\n  <ontology file>          : file name of the probabilistic ontology, i.e. the OWL file with annotations"
 			+ "\n  <Bayesian network file>  : file name of the Bayesian network"
 			+ "\n  <query file>             : file name of the query"
 			+ "\n  <output file>            : file name of the output"
 			+ "\n  <ProbLog directory>      : (optional) directory where ProbLog is installed" + "\n" + "\n Option:"
-			+ "\n   --log                   : shows log" + "\n" + "\nExamples:" + "\n" + "\n Execution:"
+			+ "\n   --log                   : shows log" //
+			+ ProcessorOptions.HELP //
+			+ "\n"
+			+ "\nExamples:" + "\n" + "\n Execution:"
 			+ "\n  java -jar born.jar " + COMMAND + " ontology.owl network.pl query.pl output.pl" + "\n"
 			+ "\n Execution not showing log:" + "\n  java -jar born.jar " + COMMAND
 			+ " ontology.owl network.pl query.pl output.pl" + "\n" + "\n Execution showing log:"
 			+ "\n  java -jar born.jar " + COMMAND + " --log ontology.owl network.pl query.pl output.pl" + "\n"
+			+ "\n Execution without ProbLog:" + "\n  java -jar born.jar " + COMMAND + " "
+			+ ProcessorOptions.ENGINE_OPTION + EngineType.NATIVE.getName() + " ontology.owl network.pl query.pl output.pl"
+			+ "\n"
 			+ "\n Example of Bayesian network:" + "\n  0.58::x1." + "\n  0.35::x2." + "\n" + "\n Example of query:"
 			+ "\n  query(sub('A', 'C'))." + "\n" + "\n" + "\n"
 			+ "\nNote: this program requires an Internet connection to install ProbLog." + "\n" //
@@ -44,17 +51,28 @@ public class ProcessorSubApp implements SubApp {
 			+ "\n" //
 			+ "\n";
 
+	private final ProcessorOptions options = new ProcessorOptions();
+
 	/**
 	 * Constructs a new processor.
 	 */
 	public ProcessorSubApp() {
 	}
 
+	List<String> getParameters(String[] args) {
+		List<String> ret = new ArrayList<>();
+		for (String arg : args) {
+			if (!this.options.isOption(arg)) {
+				ret.add(arg);
+			}
+		}
+		return ret;
+	}
+
 	@Override
 	public boolean isValid(String[] args) {
 		Objects.requireNonNull(args);
-		return (((args.length == 4) && !args[0].equals(LOGGING_OPTION))
-				|| ((args.length == 5) && args[0].equals(LOGGING_OPTION)));
+		return getParameters(args).size() == 4;
 	}
 
 	@Override
@@ -70,34 +88,29 @@ public class ProcessorSubApp implements SubApp {
 			ProcessorConfiguration conf = new ProcessorConfigurationImpl();
 
 			StringBuffer sbuf = new StringBuffer();
-			String[] newArgs = null;
-			if (args[0].equals(LOGGING_OPTION)) {
-				newArgs = new String[args.length - 1];
-				System.arraycopy(args, 1, newArgs, 0, args.length - 1);
-				conf.setShowingLog(true);
-			} else {
-				newArgs = new String[args.length];
-				System.arraycopy(args, 0, newArgs, 0, args.length);
-				conf.setShowingLog(false);
-			}
+			this.options.configure(conf, args);
+			List<String> newArgs = getParameters(args);
 
 			try {
-				conf.setOntology(ProcessorConfigurationImpl.readOntology(new FileInputStream(newArgs[0])));
-				conf.setBayesianNetwork(ProcessorConfigurationImpl.read(new FileReader(newArgs[1])));
-				conf.setQuery(ProcessorConfigurationImpl.read(new FileReader(newArgs[2])));
+				conf.setOntology(ProcessorConfigurationImpl.readOntology(new FileInputStream(newArgs.get(0))));
+				conf.setBayesianNetwork(ProcessorConfigurationImpl.read(new FileReader(newArgs.get(1))));
+				conf.setQuery(ProcessorConfigurationImpl.read(new FileReader(newArgs.get(2))));
 			} catch (IOException e) {
 				throw new UncheckedIOException(e);
 			} catch (OWLOntologyCreationException e) {
 				throw new RuntimeException(e);
 			}
-			conf.setOutputFileName(newArgs[3]);
+			conf.setOutputFileName(newArgs.get(3));
 
 			JProblog queryProcessor = new JProblog();
 			conf.setQueryProcessor(queryProcessor);
 
-			ProcessorCore core = new ProcessorCore();
 			ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
-			core.run(conf, start, executionResult);
+			try (ProcessorCore core = new ProcessorCore()) {
+				core.run(conf, start, executionResult);
+			} finally {
+				this.options.closeAnswerCache(conf);
+			}
 			sbuf.append(executionResult.getResult());
 
 			return sbuf.toString();
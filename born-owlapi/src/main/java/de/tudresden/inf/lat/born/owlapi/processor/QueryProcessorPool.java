@@ -0,0 +1,458 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * An object of this class is a query processor that keeps a fixed number of
+ * workers running, and hands each ProbLog program to an idle worker. If all
+ * the workers are busy, the program waits until one of them is idle, so the
+ * number of programs processed at the same time is limited by the number of
+ * workers.
+ * <p>
+ * A worker is replaced by a new one if it crashes, if it does not answer
+ * within the timeout, if it terminates, or if it uses more memory than the
+ * memory threshold. A worker that does not answer within the timeout is
+ * closed, and the program fails. A program rejected by the query processor
+ * fails with a {@link RejectedProgramException}, and the worker is kept. A
+ * worker closed by the pool is never used again, even if its process has not
+ * terminated yet. The pool can be used by several threads at the same time.
+ * When the pool is closed, the programs waiting for an idle worker fail.
+ *
+ * @see QueryProcessorWorker
+ *
+ * @author Julian Mendez
+ *
+ */
+public class QueryProcessorPool implements Function<String, String>, Closeable {
+
+	private static final Logger logger = Logger.getLogger(QueryProcessorPool.class.getName());
+
+	public static final long NO_TIMEOUT = 0;
+	public static final long DEFAULT_MEMORY_THRESHOLD = 0x40000000L;
+	static final long CLOSED_CHECK_INTERVAL = 0x40;
+	static final String THREAD_NAME = "born-query-processor";
+
+	private final Callable<QueryProcessorWorker> workerFactory;
+	private final int numberOfWorkers;
+	private final long timeout;
+	private final long memoryThreshold;
+	private final BlockingQueue<QueryProcessorWorker> idleWorkers = new LinkedBlockingQueue<>();
+	private final Set<QueryProcessorWorker> closedWorkers = ConcurrentHashMap.newKeySet();
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, THREAD_NAME);
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final long creationTime = System.nanoTime();
+	private final LongAdder numberOfCalls = new LongAdder();
+	private final LongAdder numberOfFailures = new LongAdder();
+	private final LongAdder numberOfTimeouts = new LongAdder();
+	private final LongAdder numberOfRecycledWorkers = new LongAdder();
+	private final LongAdder queueWaitTime = new LongAdder();
+	private final LongAdder processingTime = new LongAdder();
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructs a new query processor pool, and starts its workers.
+	 *
+	 * @param workerFactory
+	 *            factory of workers
+	 * @param numberOfWorkers
+	 *            number of workers
+	 * @param timeout
+	 *            maximum time in milliseconds to process a program, or
+	 *            {@link #NO_TIMEOUT}
+	 * @param memoryThreshold
+	 *            memory in bytes that a worker can use before it is replaced
+	 * @throws IOException
+	 *             if a worker cannot be started
+	 */
+	public QueryProcessorPool(Callable<QueryProcessorWorker> workerFactory, int numberOfWorkers, long timeout,
+			long memoryThreshold) throws IOException {
+		this.workerFactory = Objects.requireNonNull(workerFactory);
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("Invalid number of workers: " + numberOfWorkers + ".");
+		}
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Invalid timeout: " + timeout + ".");
+		}
+		this.numberOfWorkers = numberOfWorkers;
+		this.timeout = timeout;
+		this.memoryThreshold = memoryThreshold;
+		List<QueryProcessorWorker> workers = new ArrayList<>();
+		try {
+			for (int index = 0; index < numberOfWorkers; index++) {
+				workers.add(createWorker());
+			}
+		} catch (IOException e) {
+			for (QueryProcessorWorker worker : workers) {
+				worker.close();
+			}
+			throw e;
+		}
+		this.idleWorkers.addAll(workers);
+	}
+
+	/**
+	 * Constructs a new query processor pool of workers that run ProbLog in
+	 * external processes, without timeout and with the default memory
+	 * threshold.
+	 *
+	 * @param numberOfWorkers
+	 *            number of workers
+	 * @return a new query processor pool of workers that run ProbLog in
+	 *         external processes
+	 * @throws IOException
+	 *             if a worker cannot be started
+	 */
+	public static QueryProcessorPool createProcessPool(int numberOfWorkers) throws IOException {
+		return createProcessPool(numberOfWorkers, NO_TIMEOUT);
+	}
+
+	/**
+	 * Constructs a new query processor pool of workers that run ProbLog in
+	 * external processes, with the default memory threshold.
+	 *
+	 * @param numberOfWorkers
+	 *            number of workers
+	 * @param timeout
+	 *            maximum time in milliseconds to process a program, or
+	 *            {@link #NO_TIMEOUT}
+	 * @return a new query processor pool of workers that run ProbLog in
+	 *         external processes
+	 * @throws IOException
+	 *             if a worker cannot be started
+	 */
+	public static QueryProcessorPool createProcessPool(int numberOfWorkers, long timeout) throws IOException {
+		return new QueryProcessorPool(
+				() -> new ProcessQueryProcessorWorker(ProcessQueryProcessorWorker.getDefaultCommand()),
+				numberOfWorkers, timeout, DEFAULT_MEMORY_THRESHOLD);
+	}
+
+	/**
+	 * Returns a query processor that can be called by several threads at the
+	 * same time. A query processor pool is returned as it is, because it
+	 * limits the concurrent calls by itself. The calls to any other query
+	 * processor are serialized.
+	 *
+	 * @param queryProcessor
+	 *            query processor
+	 * @return a query processor that can be called by several threads at the
+	 *         same time
+	 */
+	public static Function<String, String> synchronizedUnlessPool(Function<String, String> queryProcessor) {
+		Objects.requireNonNull(queryProcessor);
+		if (queryProcessor instanceof QueryProcessorPool) {
+			return queryProcessor;
+		} else {
+			return input -> {
+				synchronized (queryProcessor) {
+					return queryProcessor.apply(input);
+				}
+			};
+		}
+	}
+
+	QueryProcessorWorker createWorker() throws IOException {
+		try {
+			return Objects.requireNonNull(this.workerFactory.call());
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+	}
+
+	boolean isHealthy(QueryProcessorWorker worker) {
+		return !this.closedWorkers.contains(worker) && worker.isAlive()
+				&& worker.getMemoryUsage() <= this.memoryThreshold;
+	}
+
+	/**
+	 * Returns a healthy worker in place of the given one. If the given worker
+	 * is not healthy, it is closed and replaced by a new one. A worker closed
+	 * by the pool is not healthy, and it is forgotten once it is replaced.
+	 */
+	QueryProcessorWorker renew(QueryProcessorWorker worker) throws IOException {
+		if (isHealthy(worker)) {
+			return worker;
+		} else {
+			logger.fine("Replacing worker " + worker + " (memory usage: " + worker.getMemoryUsage() + ").");
+			closeQuietly(worker);
+			this.numberOfRecycledWorkers.increment();
+			QueryProcessorWorker ret = createWorker();
+			this.closedWorkers.remove(worker);
+			return ret;
+		}
+	}
+
+	/**
+	 * Takes an idle worker, waiting if necessary. While waiting, it checks
+	 * every {@link #CLOSED_CHECK_INTERVAL} milliseconds whether the pool is
+	 * closed.
+	 *
+	 * @throws IllegalStateException
+	 *             if the pool is closed
+	 */
+	QueryProcessorWorker acquire() throws InterruptedException {
+		QueryProcessorWorker worker = null;
+		while (Objects.isNull(worker)) {
+			if (this.closed) {
+				throw new IllegalStateException("The query processor pool is closed.");
+			}
+			worker = this.idleWorkers.poll(CLOSED_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+		}
+		if (this.closed) {
+			closeQuietly(worker);
+			throw new IllegalStateException("The query processor pool is closed.");
+		}
+		try {
+			return renew(worker);
+		} catch (IOException e) {
+			addIdleWorker(worker);
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the given worker to the idle workers, replacing it first if it
+	 * is not healthy. If the worker cannot be replaced, it is kept, and the
+	 * replacement is tried again the next time it is taken.
+	 */
+	void release(QueryProcessorWorker worker) {
+		QueryProcessorWorker next = worker;
+		if (this.closed) {
+			closeQuietly(worker);
+		} else {
+			try {
+				next = renew(worker);
+			} catch (IOException e) {
+				logger.warning("A worker could not be replaced: " + e.getMessage());
+			}
+			addIdleWorker(next);
+		}
+	}
+
+	/**
+	 * Adds the given worker to the idle workers. If the pool was closed in
+	 * the meantime, the idle workers are closed again, since the pool could
+	 * have closed them before the worker was added.
+	 */
+	void addIdleWorker(QueryProcessorWorker worker) {
+		this.idleWorkers.add(worker);
+		if (this.closed) {
+			closeIdleWorkers();
+		}
+	}
+
+	/**
+	 * Closes all the idle workers.
+	 */
+	void closeIdleWorkers() {
+		List<QueryProcessorWorker> workers = new ArrayList<>();
+		this.idleWorkers.drainTo(workers);
+		workers.forEach(this::closeQuietly);
+	}
+
+	/**
+	 * Closes the given worker, and marks it as closed, because a worker whose
+	 * process is being destroyed can still look alive.
+	 */
+	void closeQuietly(QueryProcessorWorker worker) {
+		this.closedWorkers.add(worker);
+		try {
+			worker.close();
+		} catch (IOException e) {
+			logger.fine("A worker could not be closed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the answer of an idle worker to the given ProbLog program,
+	 * waiting if all the workers are busy.
+	 *
+	 * @param problogProgram
+	 *            ProbLog program
+	 * @return the answer of an idle worker to the given ProbLog program
+	 * @throws RejectedProgramException
+	 *             if the query processor rejects the program
+	 * @throws IllegalStateException
+	 *             if the pool is closed, or if the current thread is
+	 *             interrupted
+	 */
+	@Override
+	public String apply(String problogProgram) {
+		Objects.requireNonNull(problogProgram);
+		long waitStart = System.nanoTime();
+		QueryProcessorWorker worker;
+		try {
+			worker = acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		long processingStart = System.nanoTime();
+		this.queueWaitTime.add(processingStart - waitStart);
+		Future<String> future = this.executor.submit(() -> worker.process(problogProgram));
+		try {
+			return (this.timeout == NO_TIMEOUT) ? future.get() : future.get(this.timeout, TimeUnit.MILLISECONDS);
+
+		} catch (TimeoutException e) {
+			this.numberOfTimeouts.increment();
+			future.cancel(true);
+			closeQuietly(worker);
+			throw new RuntimeException("The query processor did not answer within " + this.timeout + " ms.", e);
+
+		} catch (ExecutionException e) {
+			this.numberOfFailures.increment();
+			if (e.getCause() instanceof RejectedProgramException) {
+				throw (RejectedProgramException) e.getCause();
+			}
+			closeQuietly(worker);
+			throw new RuntimeException(e.getCause());
+
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			closeQuietly(worker);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+
+		} finally {
+			this.processingTime.add(System.nanoTime() - processingStart);
+			this.numberOfCalls.increment();
+			release(worker);
+		}
+	}
+
+	/**
+	 * Returns the number of workers.
+	 *
+	 * @return the number of workers
+	 */
+	public int getNumberOfWorkers() {
+		return this.numberOfWorkers;
+	}
+
+	/**
+	 * Returns the number of workers that are not processing a program.
+	 *
+	 * @return the number of workers that are not processing a program
+	 */
+	public int getNumberOfIdleWorkers() {
+		return this.idleWorkers.size();
+	}
+
+	/**
+	 * Returns the number of programs processed, including the ones that
+	 * failed.
+	 *
+	 * @return the number of programs processed
+	 */
+	public long getNumberOfCalls() {
+		return this.numberOfCalls.sum();
+	}
+
+	/**
+	 * Returns the number of programs that failed, without counting the
+	 * timeouts.
+	 *
+	 * @return the number of programs that failed
+	 */
+	public long getNumberOfFailures() {
+		return this.numberOfFailures.sum();
+	}
+
+	/**
+	 * Returns the number of programs that were not answered within the
+	 * timeout.
+	 *
+	 * @return the number of programs that were not answered within the
+	 *         timeout
+	 */
+	public long getNumberOfTimeouts() {
+		return this.numberOfTimeouts.sum();
+	}
+
+	/**
+	 * Returns the number of workers that were replaced.
+	 *
+	 * @return the number of workers that were replaced
+	 */
+	public long getNumberOfRecycledWorkers() {
+		return this.numberOfRecycledWorkers.sum();
+	}
+
+	/**
+	 * Returns the total time in nanoseconds that the programs waited for an
+	 * idle worker.
+	 *
+	 * @return the total time in nanoseconds that the programs waited for an
+	 *         idle worker
+	 */
+	public long getQueueWaitTime() {
+		return this.queueWaitTime.sum();
+	}
+
+	/**
+	 * Returns the total time in nanoseconds that the workers spent processing
+	 * programs.
+	 *
+	 * @return the total time in nanoseconds that the workers spent processing
+	 *         programs
+	 */
+	public long getProcessingTime() {
+		return this.processingTime.sum();
+	}
+
+	/**
+	 * Returns the number of programs processed per second since this pool was
+	 * created.
+	 *
+	 * @return the number of programs processed per second since this pool was
+	 *         created
+	 */
+	public double getThroughput() {
+		long elapsedTime = System.nanoTime() - this.creationTime;
+		return (elapsedTime == 0) ? 0 : getNumberOfCalls() * 1e9 / elapsedTime;
+	}
+
+	/**
+	 * Closes this pool and all its idle workers. Busy workers are closed when
+	 * they finish, and the programs waiting for an idle worker fail with an
+	 * {@link IllegalStateException}.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		closeIdleWorkers();
+		this.executor.shutdownNow();
+	}
+
+	@Override
+	public String toString() {
+		return "workers=" + getNumberOfWorkers() + " idle_workers=" + getNumberOfIdleWorkers() + " calls="
+				+ getNumberOfCalls() + " failures=" + getNumberOfFailures() + " timeouts=" + getNumberOfTimeouts()
+				+ " recycled_workers=" + getNumberOfRecycledWorkers() + " queue_wait_time=" + getQueueWaitTime()
+				+ " processing_time=" + getProcessingTime() + " throughput=" + getThroughput();
+	}
+
+}
@@ -0,0 +1,49 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * This models a query processor that is kept running to process many ProbLog
+ * programs, one at a time.
+ *
+ * @see QueryProcessorPool
+ *
+ * @author Julian Mendez
+ *
+ */
+public interface QueryProcessorWorker extends Closeable {
+
+	/**
+	 * Returns the answer to the given ProbLog program.
+	 *
+	 * @param problogProgram
+	 *            ProbLog program
+	 * @return the answer to the given ProbLog program
+	 * @throws IOException
+	 *             if the worker cannot process the program, for example
+	 *             because it crashed
+	 * @throws RejectedProgramException
+	 *             if the query processor rejects the program, in which case
+	 *             the worker can still process more programs
+	 */
+	String process(String problogProgram) throws IOException;
+
+	/**
+	 * Tells whether this worker can process more programs.
+	 *
+	 * @return <code>true</code> if and only if this worker can process more
+	 *         programs
+	 */
+	boolean isAlive();
+
+	/**
+	 * Returns the memory in bytes used by this worker after processing the
+	 * last program, or 0 if it is unknown.
+	 *
+	 * @return the memory in bytes used by this worker after processing the
+	 *         last program
+	 */
+	long getMemoryUsage();
+
+}
@@ -0,0 +1,94 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.jproblog.JProblog;
+
+/**
+ * This is the entry point of the process started by a
+ * {@link ProcessQueryProcessorWorker}. It keeps ProbLog loaded, and answers
+ * the ProbLog programs read from the standard input until the input ends.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class QueryProcessorWorkerMain {
+
+	/**
+	 * Answers the requests read from the given input stream with the given
+	 * query processor, until the input ends.
+	 *
+	 * @param queryProcessor
+	 *            query processor
+	 * @param input
+	 *            input stream of requests
+	 * @param output
+	 *            output stream of responses
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	public static void serve(Function<String, String> queryProcessor, InputStream input, OutputStream output)
+			throws IOException {
+		Objects.requireNonNull(queryProcessor);
+		Objects.requireNonNull(input);
+		Objects.requireNonNull(output);
+		DataInputStream requests = new DataInputStream(new BufferedInputStream(input));
+		DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(output));
+		boolean hasNext = true;
+		while (hasNext) {
+			String problogProgram;
+			try {
+				problogProgram = ProcessQueryProcessorWorker.readString(requests);
+			} catch (EOFException e) {
+				problogProgram = null;
+				hasNext = false;
+			}
+			if (hasNext) {
+				byte status;
+				String message;
+				try {
+					message = queryProcessor.apply(problogProgram);
+					status = ProcessQueryProcessorWorker.STATUS_OK;
+				} catch (RuntimeException e) {
+					message = "" + e.getMessage();
+					status = ProcessQueryProcessorWorker.STATUS_ERROR;
+				}
+				Runtime runtime = Runtime.getRuntime();
+				responses.writeByte(status);
+				ProcessQueryProcessorWorker.writeString(responses, message);
+				responses.writeLong(runtime.totalMemory() - runtime.freeMemory());
+				responses.flush();
+			}
+		}
+	}
+
+	/**
+	 * Starts a query processor worker that uses ProbLog. The standard output
+	 * is reserved for the responses, so anything else written to it goes to
+	 * the standard error.
+	 *
+	 * @param args
+	 *            not used
+	 */
+	public static void main(String[] args) {
+		PrintStream responses = System.out;
+		System.setOut(System.err);
+		try {
+			serve(new JProblog(), System.in, responses);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
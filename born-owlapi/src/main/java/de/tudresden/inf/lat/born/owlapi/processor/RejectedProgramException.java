@@ -0,0 +1,39 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+/**
+ * This exception is thrown when a query processor rejects a ProbLog program,
+ * for example because the program cannot be parsed. The query processor can
+ * still process other programs.
+ *
+ * @see QueryProcessorWorker
+ *
+ * @author Julian Mendez
+ *
+ */
+public class RejectedProgramException extends RuntimeException {
+
+	private static final long serialVersionUID = 2935217396027734571L;
+
+	/**
+	 * Constructs a new rejected program exception.
+	 *
+	 * @param message
+	 *            message to be displayed
+	 */
+	public RejectedProgramException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Constructs a new rejected program exception.
+	 *
+	 * @param message
+	 *            message to be displayed
+	 * @param cause
+	 *            cause of the exception
+	 */
+	public RejectedProgramException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -0,0 +1,46 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+/**
+ * This enumeration models the way the result of a processor execution was
+ * obtained.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public enum ResultSource {
+
+	/**
+	 * The query processor, usually ProbLog, computed the probabilities.
+	 */
+	QUERY_PROCESSOR, //
+
+	/**
+	 * The native engine computed the exact probabilities.
+	 */
+	NATIVE_ENGINE, //
+
+	/**
+	 * The sampling engine estimated the probabilities.
+	 */
+	SAMPLING_ENGINE, //
+
+	/**
+	 * The circuit engine computed the exact probabilities.
+	 */
+	CIRCUIT_ENGINE, //
+
+	/**
+	 * The classical completion of the module showed that each probability is
+	 * either 0, because the query does not follow even if all the axioms
+	 * hold, or 1, because the query follows from the axioms without
+	 * annotations.
+	 */
+	CRISP_PRE_CHECK, //
+
+	/**
+	 * The answer cache had the answer of the query processor for the same
+	 * ProbLog program.
+	 */
+	ANSWER_CACHE; //
+
+}
@@ -0,0 +1,74 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+/**
+ * This models the parameters of the sampling engine.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public interface SamplingConfiguration {
+
+	/**
+	 * Returns the largest half-width accepted for the confidence interval of
+	 * each estimated probability.
+	 * 
+	 * @return the largest half-width accepted for the confidence interval of
+	 *         each estimated probability
+	 */
+	double getErrorBound();
+
+	/**
+	 * Sets the error bound.
+	 * 
+	 * @param errorBound
+	 *            error bound, strictly between 0 and 1
+	 */
+	void setErrorBound(double errorBound);
+
+	/**
+	 * Returns the confidence level of the intervals.
+	 * 
+	 * @return the confidence level of the intervals
+	 */
+	double getConfidenceLevel();
+
+	/**
+	 * Sets the confidence level.
+	 * 
+	 * @param confidenceLevel
+	 *            confidence level, strictly between 0 and 1
+	 */
+	void setConfidenceLevel(double confidenceLevel);
+
+	/**
+	 * Returns the number of threads that sample worlds.
+	 * 
+	 * @return the number of threads that sample worlds
+	 */
+	int getNumberOfThreads();
+
+	/**
+	 * Sets the number of threads.
+	 * 
+	 * @param numberOfThreads
+	 *            number of threads
+	 */
+	void setNumberOfThreads(int numberOfThreads);
+
+	/**
+	 * Returns the seed of the random generators. The estimates only depend on
+	 * the seed and the number of threads.
+	 * 
+	 * @return the seed of the random generators
+	 */
+	long getSeed();
+
+	/**
+	 * Sets the seed.
+	 * 
+	 * @param seed
+	 *            seed
+	 */
+	void setSeed(long seed);
+
+}
@@ -0,0 +1,103 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+/**
+ * This is the default implementation of a sampling configuration. By
+ * default, the probabilities are estimated within 0.01 with a confidence
+ * level of 0.99, using one thread per available processor.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public class SamplingConfigurationImpl implements SamplingConfiguration {
+
+	public static final double DEFAULT_ERROR_BOUND = 0.01;
+	public static final double DEFAULT_CONFIDENCE_LEVEL = 0.99;
+	public static final long DEFAULT_SEED = 0;
+
+	private double errorBound = DEFAULT_ERROR_BOUND;
+	private double confidenceLevel = DEFAULT_CONFIDENCE_LEVEL;
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+	private long seed = DEFAULT_SEED;
+
+	/**
+	 * Constructs a new sampling configuration.
+	 */
+	public SamplingConfigurationImpl() {
+	}
+
+	@Override
+	public double getErrorBound() {
+		return this.errorBound;
+	}
+
+	@Override
+	public void setErrorBound(double errorBound) {
+		if (!(errorBound > 0 && errorBound < 1)) {
+			throw new IllegalArgumentException("Invalid error bound: " + errorBound + ".");
+		}
+		this.errorBound = errorBound;
+	}
+
+	@Override
+	public double getConfidenceLevel() {
+		return this.confidenceLevel;
+	}
+
+	@Override
+	public void setConfidenceLevel(double confidenceLevel) {
+		if (!(confidenceLevel > 0 && confidenceLevel < 1)) {
+			throw new IllegalArgumentException("Invalid confidence level: " + confidenceLevel + ".");
+		}
+		this.confidenceLevel = confidenceLevel;
+	}
+
+	@Override
+	public int getNumberOfThreads() {
+		return this.numberOfThreads;
+	}
+
+	@Override
+	public void setNumberOfThreads(int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads + ".");
+		}
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	@Override
+	public long getSeed() {
+		return this.seed;
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof SamplingConfiguration)) {
+			return false;
+		} else {
+			SamplingConfiguration other = (SamplingConfiguration) obj;
+			return (getErrorBound() == other.getErrorBound()) && (getConfidenceLevel() == other.getConfidenceLevel())
+					&& (getNumberOfThreads() == other.getNumberOfThreads()) && (getSeed() == other.getSeed());
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Double.hashCode(this.errorBound) + //
+				0x1F * (Double.hashCode(this.confidenceLevel) + //
+						0x1F * (this.numberOfThreads + //
+								0x1F * Long.hashCode(this.seed)));
+	}
+
+	@Override
+	public String toString() {
+		return this.errorBound + " " + this.confidenceLevel + " " + this.numberOfThreads + " " + this.seed;
+	}
+
+}
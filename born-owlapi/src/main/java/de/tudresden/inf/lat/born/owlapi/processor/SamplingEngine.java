@@ -0,0 +1,149 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import de.tudresden.inf.lat.born.core.rule.FormulaConstructor;
+import de.tudresden.inf.lat.born.engine.BitsetCompletion;
+import de.tudresden.inf.lat.born.engine.MonteCarloInference;
+import de.tudresden.inf.lat.born.engine.SamplingResult;
+import de.tudresden.inf.lat.born.module.Module;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+
+/**
+ * An object of this class answers queries by sampling worlds of the Bayesian
+ * network. It extracts the same module as the other engines, and for each
+ * sampled world, it applies the default completion rules to the axioms whose
+ * context holds in that world. The probability of each query is the fraction
+ * of sampled worlds where the query is entailed. The result is written by a
+ * {@link ProblogAnswerFormatter}, and the number of samples and the error
+ * bound are recorded in the execution result.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class SamplingEngine {
+
+	private final NativeEngine nativeEngine = new NativeEngine();
+
+	/**
+	 * Constructs a new sampling engine.
+	 */
+	public SamplingEngine() {
+	}
+
+	/**
+	 * Returns the test of the given query on a bitset completion. As in the
+	 * ProbLog programs, an unsatisfiable class is not subsumed by every
+	 * class.
+	 */
+	Predicate<BitsetCompletion> getTest(CompiledOntology compiledOntology, Module module, List<String> query) {
+		Predicate<BitsetCompletion> ret = completion -> false;
+		String predicate = query.get(0);
+		if (predicate.equals(FormulaConstructor.SUB) && query.size() == 3) {
+			Optional<Integer> subClass = this.nativeEngine.getEntity(compiledOntology, module, query.get(1),
+					IntegerEntityType.CLASS);
+			Optional<Integer> superClass = this.nativeEngine.getEntity(compiledOntology, module, query.get(2),
+					IntegerEntityType.CLASS);
+			if (subClass.isPresent() && superClass.isPresent()) {
+				ret = completion -> completion.hasSubsumer(subClass.get(), superClass.get());
+			}
+
+		} else if (predicate.equals(FormulaConstructor.INST) && query.size() == 3) {
+			Optional<Integer> individual = this.nativeEngine.getEntity(compiledOntology, module, query.get(1),
+					IntegerEntityType.INDIVIDUAL);
+			Optional<Integer> superClass = this.nativeEngine.getEntity(compiledOntology, module, query.get(2),
+					IntegerEntityType.CLASS);
+			if (individual.isPresent() && superClass.isPresent()) {
+				ret = completion -> completion.hasSubsumer(individual.get(), superClass.get());
+			}
+
+		} else if (predicate.equals(FormulaConstructor.INST) && query.size() == 4) {
+			Optional<Integer> objectProperty = this.nativeEngine.getEntity(compiledOntology, module, query.get(1),
+					IntegerEntityType.OBJECT_PROPERTY);
+			Optional<Integer> subject = this.nativeEngine.getEntity(compiledOntology, module, query.get(2),
+					IntegerEntityType.INDIVIDUAL);
+			Optional<Integer> object = this.nativeEngine.getEntity(compiledOntology, module, query.get(3),
+					IntegerEntityType.INDIVIDUAL);
+			if (objectProperty.isPresent() && subject.isPresent() && object.isPresent()) {
+				ret = completion -> completion.hasRoleAssertion(objectProperty.get(), subject.get(), object.get());
+			}
+
+		} else {
+			throw new UnsupportedOperationException("Unsupported query: '" + this.nativeEngine.asString(query) + "'.");
+		}
+		return ret;
+	}
+
+	/**
+	 * Answers the given queries and returns the estimated probabilities in the
+	 * same format as ProbLog. The ontology, normalized ontology, and module
+	 * sizes, the module extraction and reasoning times, the number of samples
+	 * and the error bound are recorded in the execution result.
+	 *
+	 * @param compiledOntology
+	 *            compiled ontology
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param query
+	 *            queries
+	 * @param samplingConfiguration
+	 *            parameters of the sampling
+	 * @param executionResult
+	 *            execution result
+	 * @return the estimated probabilities in the same format as ProbLog
+	 * @throws UnsupportedOperationException
+	 *             if the compiled ontology uses completion rules other than
+	 *             the default ones, or if a query or an axiom is not supported
+	 */
+	public String run(CompiledOntology compiledOntology, String bayesianNetwork, String query,
+			SamplingConfiguration samplingConfiguration, ProcessorExecutionResult executionResult) {
+		Objects.requireNonNull(compiledOntology);
+		Objects.requireNonNull(bayesianNetwork);
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(samplingConfiguration);
+		Objects.requireNonNull(executionResult);
+		if (!compiledOntology.hasDefaultCompletionRules()
+				|| !compiledOntology.getAdditionalCompletionRules().trim().isEmpty()) {
+			throw new UnsupportedOperationException(
+					"The sampling engine only supports the default completion rules.");
+		}
+
+		ProblogInputCreator creator = new ProblogInputCreator();
+		String expandedQuery = compiledOntology.getPrefixExpander().rewrite(query);
+		Module module = creator.extractModule(compiledOntology, expandedQuery, executionResult);
+
+		long reasoningStart = System.nanoTime();
+		BayesianNetwork network = BayesianNetwork.parse(bayesianNetwork);
+		NativeEngine.Labeling labeling = new NativeEngine.Labeling(new AxiomRenderer(compiledOntology.getFactory()),
+				network);
+		MonteCarloInference inference = new MonteCarloInference(network,
+				new ArrayList<NormalizedIntegerAxiom>(module.getAxioms()),
+				this.nativeEngine.getNodes(compiledOntology, module), labeling::apply);
+
+		List<List<String>> queries = this.nativeEngine.getQueries(expandedQuery);
+		List<Predicate<BitsetCompletion>> tests = new ArrayList<>();
+		queries.forEach(currentQuery -> tests.add(getTest(compiledOntology, module, currentQuery)));
+		SamplingResult samplingResult = inference.estimate(tests, samplingConfiguration.getErrorBound(),
+				samplingConfiguration.getConfidenceLevel(), samplingConfiguration.getNumberOfThreads(),
+				samplingConfiguration.getSeed());
+
+		ProblogAnswerFormatter formatter = new ProblogAnswerFormatter();
+		TreeMap<String, String> answers = new TreeMap<>();
+		for (int index = 0; index < queries.size(); index++) {
+			answers.put(this.nativeEngine.asString(queries.get(index)),
+					formatter.formatProbability(samplingResult.getProbability(index)));
+		}
+		executionResult.setProblogReasoningTime(System.nanoTime() - reasoningStart);
+		executionResult.setNumberOfSamples(samplingResult.getNumberOfSamples());
+		executionResult.setErrorBound(samplingResult.getErrorBound());
+		return formatter.format(answers);
+	}
+
+}
@@ -0,0 +1,232 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+
+/**
+ * An object of this class assigns a short atom to each name of a class, object
+ * property, or individual, e.g. <code>c123</code>, <code>r7</code>, or
+ * <code>i42</code>. The number of the alias is the identifier given by the
+ * entity manager. Entities with the same name get the same alias, so a ProbLog
+ * program written with aliases is equivalent to the one written with quoted
+ * names. The table translates queries into aliases and answers back into
+ * quoted names. Objects of this class are immutable, and can be shared among
+ * threads.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class SymbolAliasTable {
+
+	public static final String CLASS_PREFIX = "c";
+	public static final String OBJECT_PROPERTY_PREFIX = "r";
+	public static final String INDIVIDUAL_PREFIX = "i";
+
+	static final char BACKSLASH_CHAR = '\\';
+
+	private final Map<String, String> aliasOfName;
+	private final Map<String, String> nameOfAlias;
+
+	/**
+	 * Constructs a new symbol alias table for the classes, object properties,
+	 * and individuals of the given entity manager, including the auxiliary
+	 * ones. The top and bottom entities do not get aliases.
+	 *
+	 * @param entityManager
+	 *            entity manager
+	 */
+	public SymbolAliasTable(IntegerEntityManager entityManager) {
+		Objects.requireNonNull(entityManager);
+		Map<String, String> aliasOfName = new HashMap<>();
+		Map<String, String> nameOfAlias = new HashMap<>();
+		Set<Integer> entities = new TreeSet<>();
+		for (IntegerEntityType type : new IntegerEntityType[] { IntegerEntityType.CLASS,
+				IntegerEntityType.OBJECT_PROPERTY, IntegerEntityType.INDIVIDUAL }) {
+			entities.addAll(entityManager.getEntities(type, false));
+			entities.addAll(entityManager.getEntities(type, true));
+		}
+		entities.forEach(entity -> {
+			if (entity >= IntegerEntityManager.firstUsableId) {
+				String name = entityManager.getName(entity).trim();
+				if (!aliasOfName.containsKey(name)) {
+					String alias = getPrefix(entityManager.getType(entity)) + entity;
+					aliasOfName.put(name, alias);
+					nameOfAlias.put(alias, name);
+				}
+			}
+		});
+		this.aliasOfName = Collections.unmodifiableMap(aliasOfName);
+		this.nameOfAlias = Collections.unmodifiableMap(nameOfAlias);
+	}
+
+	String getPrefix(IntegerEntityType type) {
+		if (type.equals(IntegerEntityType.CLASS)) {
+			return CLASS_PREFIX;
+		} else if (type.equals(IntegerEntityType.OBJECT_PROPERTY)) {
+			return OBJECT_PROPERTY_PREFIX;
+		} else if (type.equals(IntegerEntityType.INDIVIDUAL)) {
+			return INDIVIDUAL_PREFIX;
+		} else {
+			throw new IllegalArgumentException("Entity of unsupported type: '" + type + "'.");
+		}
+	}
+
+	/**
+	 * Returns the alias of the given name, if the name has one.
+	 *
+	 * @param name
+	 *            name of a class, object property, or individual, without
+	 *            apostrophes
+	 * @return the alias of the given name, if the name has one
+	 */
+	public Optional<String> getAlias(String name) {
+		Objects.requireNonNull(name);
+		return Optional.ofNullable(this.aliasOfName.get(name));
+	}
+
+	/**
+	 * Returns the name of the given alias, if it is an alias.
+	 *
+	 * @param alias
+	 *            alias
+	 * @return the name of the given alias, if it is an alias
+	 */
+	public Optional<String> getName(String alias) {
+		Objects.requireNonNull(alias);
+		return Optional.ofNullable(this.nameOfAlias.get(alias));
+	}
+
+	/**
+	 * Returns the number of aliases.
+	 *
+	 * @return the number of aliases
+	 */
+	public int size() {
+		return this.aliasOfName.size();
+	}
+
+	/**
+	 * Returns the position after the quoted text that starts at the given
+	 * position, or the length of the text if the quoted text is not closed.
+	 */
+	int skipQuoted(String text, int start) {
+		char quote = text.charAt(start);
+		int index = start + 1;
+		while (index < text.length() && text.charAt(index) != quote) {
+			if (text.charAt(index) == BACKSLASH_CHAR) {
+				index++;
+			}
+			index++;
+		}
+		return Math.min(index + 1, text.length());
+	}
+
+	/**
+	 * Returns the position of the end of the line that contains the given
+	 * position, or the length of the text if it is the last line.
+	 */
+	int skipComment(String text, int start) {
+		int ret = text.indexOf(Symbol.NEW_LINE_CHAR, start);
+		return ret == -1 ? text.length() : ret;
+	}
+
+	boolean isIdentifierChar(char ch) {
+		return Character.isLetterOrDigit(ch) || ch == Symbol.UNDERSCORE_CHAR;
+	}
+
+	/**
+	 * Returns the given ProbLog text after replacing each quoted name that has
+	 * an alias by its alias, e.g. <code>query(sub('A', 'B')).</code> by
+	 * <code>query(sub(c12, c13)).</code>. Comments and text in quotes are not
+	 * changed.
+	 *
+	 * @param text
+	 *            ProbLog text
+	 * @return the given ProbLog text after replacing each quoted name that has
+	 *         an alias by its alias
+	 */
+	public String encode(String text) {
+		Objects.requireNonNull(text);
+		StringBuilder sb = new StringBuilder(text.length());
+		int index = 0;
+		while (index < text.length()) {
+			char ch = text.charAt(index);
+			int next;
+			if (ch == Symbol.APOSTROPHE_CHAR) {
+				next = skipQuoted(text, index);
+				String quoted = text.substring(index, next);
+				Optional<String> alias = quoted.length() > 1 && quoted.charAt(quoted.length() - 1) == ch
+						? getAlias(quoted.substring(1, quoted.length() - 1)) : Optional.empty();
+				sb.append(alias.isPresent() ? alias.get() : quoted);
+			} else if (ch == Symbol.QUOTES_CHAR) {
+				next = skipQuoted(text, index);
+				sb.append(text, index, next);
+			} else if (ch == Symbol.PERCENT_CHAR) {
+				next = skipComment(text, index);
+				sb.append(text, index, next);
+			} else {
+				next = index + 1;
+				sb.append(ch);
+			}
+			index = next;
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the given ProbLog text after replacing each alias by its quoted
+	 * name, e.g. <code>sub(c12,c13):	0.5</code> by
+	 * <code>sub('A','B'):	0.5</code>. Only whole atoms are replaced, and
+	 * comments and text in quotes are not changed.
+	 *
+	 * @param text
+	 *            ProbLog text
+	 * @return the given ProbLog text after replacing each alias by its quoted
+	 *         name
+	 */
+	public String decode(String text) {
+		Objects.requireNonNull(text);
+		StringBuilder sb = new StringBuilder(text.length() + (text.length() >> 1));
+		int index = 0;
+		while (index < text.length()) {
+			char ch = text.charAt(index);
+			int next;
+			if (ch == Symbol.APOSTROPHE_CHAR || ch == Symbol.QUOTES_CHAR) {
+				next = skipQuoted(text, index);
+				sb.append(text, index, next);
+			} else if (ch == Symbol.PERCENT_CHAR) {
+				next = skipComment(text, index);
+				sb.append(text, index, next);
+			} else if (isIdentifierChar(ch)) {
+				next = index + 1;
+				while (next < text.length() && isIdentifierChar(text.charAt(next))) {
+					next++;
+				}
+				String atom = text.substring(index, next);
+				Optional<String> name = getName(atom);
+				if (name.isPresent()) {
+					sb.append(Symbol.APOSTROPHE_CHAR);
+					sb.append(name.get());
+					sb.append(Symbol.APOSTROPHE_CHAR);
+				} else {
+					sb.append(atom);
+				}
+			} else {
+				next = index + 1;
+				sb.append(ch);
+			}
+			index = next;
+		}
+		return sb.toString();
+	}
+
+}
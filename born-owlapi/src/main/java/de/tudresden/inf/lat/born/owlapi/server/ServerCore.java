@@ -0,0 +1,268 @@
+package de.tudresden.inf.lat.born.owlapi.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.owlapi.processor.ProblogCommand;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorCore;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResultImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.QueryProcessorPool;
+
+/**
+ * An object of this class keeps an OWL ontology and a Bayesian network in
+ * memory, and answers queries received line by line. Each request is a line
+ * containing one or more ProbLog queries. Each response is one line of
+ * tab-separated values: the word <code>ok</code>, the translation,
+ * normalization, module extraction, ProbLog reasoning, and total times in
+ * nanoseconds, the ontology, normalized ontology, and module sizes, and then
+ * each answered term followed by its probability. If a request cannot be
+ * answered, the response is the word <code>error</code> followed by a
+ * message. The line <code>quit</code> closes the connection.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ServerCore implements AutoCloseable {
+
+	public static final char TAB_CHAR = '\t';
+	public static final String OK = "ok";
+	public static final String ERROR = "error";
+	public static final String QUIT = "quit";
+
+	private final ProcessorConfiguration template;
+	private final ProcessorCore processorCore = new ProcessorCore();
+	private final Function<String, String> queryProcessor;
+	private final Optional<Function<Path, String>> fileQueryProcessor;
+
+	/**
+	 * Constructs a new server core. The ontology, Bayesian network, completion
+	 * rules, and query processors are taken from the given configuration.
+	 * Calls to each query processor are serialized, unless it is a
+	 * {@link QueryProcessorPool}, which limits the concurrent calls by itself,
+	 * or a {@link ProblogCommand}, which starts a process for each call.
+	 *
+	 * @param template
+	 *            configuration used to answer every query
+	 */
+	public ServerCore(ProcessorConfiguration template) {
+		this.template = Objects.requireNonNull(template);
+		this.queryProcessor = QueryProcessorPool.synchronizedUnlessPool(template.getQueryProcessor());
+		this.fileQueryProcessor = template.getFileQueryProcessor()
+				.map(originalFileQueryProcessor -> originalFileQueryProcessor instanceof ProblogCommand
+						? originalFileQueryProcessor
+						: input -> {
+							synchronized (originalFileQueryProcessor) {
+								return originalFileQueryProcessor.apply(input);
+							}
+						});
+	}
+
+	/**
+	 * Closes the processor core, so that the compiled ontology and the OWL
+	 * ontology manager are not kept after the server ends.
+	 */
+	@Override
+	public void close() {
+		this.processorCore.close();
+	}
+
+	void log(String str, long start) {
+		if (this.template.isShowingLog()) {
+			System.err.println("" + (System.nanoTime() - start) + Symbol.TAB_AND_COLON + str);
+		}
+	}
+
+	/**
+	 * Translates and normalizes the ontology, so that the first query does not
+	 * need to wait for it.
+	 *
+	 * @return the execution result of the compilation
+	 */
+	public ProcessorExecutionResult compile() {
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		this.processorCore.getCompiledOntologyCache().get(this.template.getOntology(),
+				this.template.hasDefaultCompletionRules(), this.template.getAdditionalCompletionRules(),
+				executionResult);
+		return executionResult;
+	}
+
+	/**
+	 * Returns a new configuration with the same content as the template, to be
+	 * used by one connection.
+	 *
+	 * @return a new configuration with the same content as the template
+	 */
+	ProcessorConfiguration createConfiguration() {
+		ProcessorConfiguration ret = new ProcessorConfigurationImpl();
+		ret.setUseOfDefaultCompletionRules(this.template.hasDefaultCompletionRules());
+		ret.setAdditionalCompletionRules(this.template.getAdditionalCompletionRules());
+		ret.setOntology(this.template.getOntology());
+		ret.setBayesianNetwork(this.template.getBayesianNetwork());
+		ret.setQueryProcessor(this.queryProcessor);
+		this.fileQueryProcessor.ifPresent(ret::setFileQueryProcessor);
+		ret.setShowingLog(this.template.isShowingLog());
+		ret.setEngineType(this.template.getEngineType());
+		ret.setSamplingConfiguration(this.template.getSamplingConfiguration());
+		ret.setEvidence(this.template.getEvidence());
+		ret.setUsingAliases(this.template.isUsingAliases());
+		this.template.getAnswerCache().ifPresent(ret::setAnswerCache);
+		return ret;
+	}
+
+	/**
+	 * Returns the fields of the response to a successful request.
+	 *
+	 * @param executionResult
+	 *            execution result
+	 * @return the fields of the response to a successful request
+	 */
+	List<String> getResponse(ProcessorExecutionResult executionResult) {
+		List<String> ret = new ArrayList<>();
+		ret.add(OK);
+		ret.add("" + executionResult.getTranslationTime());
+		ret.add("" + executionResult.getNormalizationTime());
+		ret.add("" + executionResult.getModuleExtractionTime());
+		ret.add("" + executionResult.getProblogReasoningTime());
+		ret.add("" + executionResult.getTotalTime());
+		ret.add("" + executionResult.getOntologySize());
+		ret.add("" + executionResult.getNormalizedOntologySize());
+		ret.add("" + executionResult.getModuleSize());
+		new BufferedReader(new StringReader(executionResult.getResult())).lines().forEach(line -> {
+			int pos = line.lastIndexOf(Symbol.COLON_CHAR);
+			if (pos != -1) {
+				ret.add(line.substring(0, pos).trim());
+				ret.add(line.substring(pos + 1).trim());
+			}
+		});
+		return ret;
+	}
+
+	String makeLine(List<String> fields) {
+		StringBuilder sb = new StringBuilder();
+		fields.forEach(field -> {
+			if (sb.length() > 0) {
+				sb.append(TAB_CHAR);
+			}
+			sb.append(field.replace(TAB_CHAR, Symbol.SPACE_CHAR).replace(Symbol.NEW_LINE_CHAR, Symbol.SPACE_CHAR));
+		});
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the response to the given request.
+	 *
+	 * @param conf
+	 *            configuration of the connection
+	 * @param request
+	 *            line containing one or more ProbLog queries
+	 * @return the response to the given request
+	 */
+	public String answer(ProcessorConfiguration conf, String request) {
+		Objects.requireNonNull(conf);
+		Objects.requireNonNull(request);
+		List<String> response = new ArrayList<>();
+		try {
+			conf.setQuery(request);
+			ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+			this.processorCore.run(conf, System.nanoTime(), executionResult);
+			response.addAll(getResponse(executionResult));
+		} catch (RuntimeException e) {
+			response.clear();
+			response.add(ERROR);
+			response.add("" + e.getMessage());
+		}
+		return makeLine(response);
+	}
+
+	/**
+	 * Answers the requests read from the given reader, writing one response
+	 * line per request. It stops at the end of the input or when a line
+	 * <code>quit</code> is read.
+	 *
+	 * @param input
+	 *            reader of requests
+	 * @param output
+	 *            writer of responses
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	public void serve(Reader input, Writer output) throws IOException {
+		Objects.requireNonNull(input);
+		Objects.requireNonNull(output);
+		long start = System.nanoTime();
+		ProcessorConfiguration conf = createConfiguration();
+		BufferedReader reader = new BufferedReader(input);
+		BufferedWriter writer = new BufferedWriter(output);
+		boolean finished = false;
+		while (!finished) {
+			String line = reader.readLine();
+			if (Objects.isNull(line) || line.trim().equals(QUIT)) {
+				finished = true;
+			} else if (!line.trim().isEmpty()) {
+				log("Request: " + line, start);
+				writer.write(answer(conf, line));
+				writer.newLine();
+				writer.flush();
+			}
+		}
+	}
+
+	/**
+	 * Accepts connections on the given server socket, and answers the
+	 * requests of each connection in a separate thread. This method returns
+	 * when the server socket is closed.
+	 *
+	 * @param serverSocket
+	 *            server socket
+	 * @param numberOfThreads
+	 *            maximum number of connections served at the same time
+	 */
+	public void serve(ServerSocket serverSocket, int numberOfThreads) {
+		Objects.requireNonNull(serverSocket);
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			while (!serverSocket.isClosed()) {
+				Socket socket = serverSocket.accept();
+				log("Connection from " + socket.getRemoteSocketAddress(), start);
+				executor.execute(() -> {
+					try (Socket client = socket) {
+						serve(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8),
+								new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8));
+					} catch (IOException e) {
+						log("Connection closed: " + e.getMessage(), start);
+					}
+				});
+			}
+		} catch (IOException e) {
+			if (!serverSocket.isClosed()) {
+				throw new UncheckedIOException(e);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,181 @@
+package de.tudresden.inf.lat.born.owlapi.server;
+
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.core.term.SubApp;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorOptions;
+import de.tudresden.inf.lat.born.owlapi.processor.QueryProcessorPool;
+import de.tudresden.inf.lat.jproblog.JProblog;
+
+/**
+ * An object of this class loads an OWL ontology and a Bayesian network once,
+ * and answers queries received line by line from the standard input or from
+ * a TCP socket on the loopback interface.
+ *
+ * @see ServerCore
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ServerSubApp implements SubApp {
+
+	static final String PORT_OPTION = "--port=";
+	static final String CONNECTIONS_OPTION = "--connections=";
+	static final String WORKERS_OPTION = "--workers=";
+	static final String TIMEOUT_OPTION = "--timeout=";
+	static final int DEFAULT_NUMBER_OF_CONNECTIONS = 4;
+	public static final String COMMAND = "serve";
+	static final String HELP = ""
+			+ "\nParameters: [--log] [--port=<port>] [--connections=<number>] [--workers=<number>] [--timeout=<seconds>] "
+			+ ProcessorOptions.PARAMETERS + " <ontology file> <Bayesian network file>"
+			+ "\n"
+			+ "\n  <ontology file>          : file name of the probabilistic ontology, i.e. the OWL file with annotations"
+			+ "\n  <Bayesian network file>  : file name of the Bayesian network" + "\n" + "\n Options:"
+			+ "\n   --log                   : shows log on the standard error"
+			+ "\n   --port=<port>           : listens on the given TCP port of the loopback interface, instead of reading the standard input"
+			+ "\n   --connections=<number>  : maximum number of connections served at the same time (default "
+			+ DEFAULT_NUMBER_OF_CONNECTIONS + ")" //
+			+ "\n   --workers=<number>      : keeps the given number of ProbLog processes running, instead of starting ProbLog for each request" //
+			+ "\n   --timeout=<seconds>     : maximum time for each ProbLog process to answer a request, only with option --workers" //
+			+ ProcessorOptions.HELP //
+			+ "\n"
+			+ "\n Protocol:"
+			+ "\n  Each request is a line with one or more queries. The line 'quit' closes the connection."
+			+ "\n  Each response is a line of tab-separated values: 'ok', translation time, normalization time,"
+			+ "\n  module extraction time, ProbLog reasoning time, total time (all in nanoseconds), ontology size,"
+			+ "\n  normalized ontology size, module size, and then each term followed by its probability."
+			+ "\n  If the request fails, the response is 'error' followed by a message." + "\n" + "\nExamples:"
+			+ "\n" + "\n Execution reading the standard input:" + "\n  java -jar born.jar " + COMMAND
+			+ " ontology.owl network.pl" + "\n" + "\n Execution listening on port 8901:" + "\n  java -jar born.jar "
+			+ COMMAND + " --port=8901 ontology.owl network.pl" + "\n" + "\n Example of request:"
+			+ "\n  query(sub('A', 'C'))." + "\n" + "\n"
+			+ "\nNote: this program requires an Internet connection to install ProbLog." + "\n" //
+			+ "\n";
+
+	private final ProcessorOptions options = new ProcessorOptions();
+
+	/**
+	 * Constructs a new server sub application.
+	 */
+	public ServerSubApp() {
+	}
+
+	boolean isOption(String arg) {
+		return this.options.isOption(arg) || this.options.isPositiveIntegerOption(PORT_OPTION, arg)
+				|| this.options.isPositiveIntegerOption(CONNECTIONS_OPTION, arg)
+				|| this.options.isPositiveIntegerOption(WORKERS_OPTION, arg)
+				|| this.options.isPositiveIntegerOption(TIMEOUT_OPTION, arg);
+	}
+
+	List<String> getParameters(String[] args) {
+		List<String> ret = new ArrayList<>();
+		for (String arg : args) {
+			if (!isOption(arg)) {
+				ret.add(arg);
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public boolean isValid(String[] args) {
+		Objects.requireNonNull(args);
+		return getParameters(args).size() == 2;
+	}
+
+	@Override
+	public String getHelp() {
+		return HELP;
+	}
+
+	@Override
+	public String run(String[] args) {
+		Objects.requireNonNull(args);
+		if (isValid(args)) {
+			ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+			int port = 0;
+			int numberOfConnections = DEFAULT_NUMBER_OF_CONNECTIONS;
+			int numberOfWorkers = 0;
+			long timeout = QueryProcessorPool.NO_TIMEOUT;
+			for (String arg : args) {
+				if (this.options.isPositiveIntegerOption(PORT_OPTION, arg)) {
+					port = Integer.parseInt(arg.substring(PORT_OPTION.length()));
+				} else if (this.options.isPositiveIntegerOption(CONNECTIONS_OPTION, arg)) {
+					numberOfConnections = Integer.parseInt(arg.substring(CONNECTIONS_OPTION.length()));
+				} else if (this.options.isPositiveIntegerOption(WORKERS_OPTION, arg)) {
+					numberOfWorkers = Integer.parseInt(arg.substring(WORKERS_OPTION.length()));
+				} else if (this.options.isPositiveIntegerOption(TIMEOUT_OPTION, arg)) {
+					timeout = TimeUnit.SECONDS.toMillis(Integer.parseInt(arg.substring(TIMEOUT_OPTION.length())));
+				}
+			}
+			this.options.configure(conf, args);
+			List<String> parameters = getParameters(args);
+
+			try {
+				conf.setOntology(ProcessorConfigurationImpl.readOntology(new FileInputStream(parameters.get(0))));
+				conf.setBayesianNetwork(ProcessorConfigurationImpl.read(new FileReader(parameters.get(1))));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (OWLOntologyCreationException e) {
+				throw new RuntimeException(e);
+			}
+			Optional<QueryProcessorPool> pool = Optional.empty();
+			if (numberOfWorkers > 0 && !conf.getFileQueryProcessor().isPresent()) {
+				try {
+					pool = Optional.of(QueryProcessorPool.createProcessPool(numberOfWorkers, timeout));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				conf.setQueryProcessor(pool.get());
+			} else {
+				conf.setQueryProcessor(new JProblog());
+			}
+
+			try (ServerCore core = new ServerCore(conf)) {
+				ProcessorExecutionResult compilation = core.compile();
+				if (conf.isShowingLog()) {
+					System.err.println("Ontology loaded." + compilation);
+				}
+
+				if (port == 0) {
+					core.serve(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+							new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+				} else {
+					try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+						core.serve(serverSocket, numberOfConnections);
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				this.options.closeAnswerCache(conf);
+				pool.ifPresent(QueryProcessorPool::close);
+				if (conf.isShowingLog()) {
+					pool.ifPresent(queryProcessorPool -> System.err.println("Workers: " + queryProcessorPool));
+				}
+			}
+			return "";
+		} else {
+			return getHelp();
+		}
+	}
+
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains classes to keep an OWL ontology and a Bayesian
+ * network in memory, and answer queries received line by line.
+ */
+package de.tudresden.inf.lat.born.owlapi.server;
@@ -0,0 +1,430 @@
+package de.tudresden.inf.lat.born.problog.connector;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import de.tudresden.inf.lat.born.core.term.ProbClause;
+import de.tudresden.inf.lat.born.core.term.Term;
+import de.tudresden.inf.lat.born.problog.parser.BayesianNetworkParser;
+import de.tudresden.inf.lat.born.problog.parser.ParseException;
+import de.tudresden.inf.lat.util.map.OptMap;
+import de.tudresden.inf.lat.util.map.OptMapImpl;
+
+/**
+ * An object of this class is a Bayesian network written as a ProbLog program.
+ * Each clause has the form <code>p::x :- l1, ..., ln.</code>, where
+ * <code>p</code> is a probability, <code>x</code> is a variable, and each
+ * <code>li</code> is a variable or a negated variable, like
+ * <code>\+x0</code>. The probability and the body are optional. If several
+ * clauses have the same head, the variable is true if at least one of the
+ * clauses whose body is satisfied is chosen (noisy-or), as in ProbLog.
+ * <p>
+ * Variables are identified by their position in the network. A literal is
+ * encoded as an integer: <code>2 * variable</code> for a positive literal and
+ * <code>2 * variable + 1</code> for a negative literal. Variables that are used
+ * but never defined are always false.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BayesianNetwork {
+
+	public static final String NEGATION_PREFIX = BayesianNetworkParser.NEGATION_PREFIX;
+
+	/**
+	 * This is a clause of the Bayesian network.
+	 */
+	static class Entry {
+
+		private final double probability;
+		private final int[] body;
+
+		Entry(double probability, int[] body) {
+			this.probability = probability;
+			this.body = body;
+		}
+
+		double getProbability() {
+			return this.probability;
+		}
+
+		int[] getBody() {
+			return this.body;
+		}
+
+	}
+
+	private final List<String> variables = new ArrayList<>();
+	private final OptMap<String, Integer> mapOfVariables = new OptMapImpl<>(new HashMap<>());
+	private final List<List<Entry>> entries = new ArrayList<>();
+	private final List<int[]> parents = new ArrayList<>();
+	private int[] topologicalOrder;
+
+	/**
+	 * Constructs an empty Bayesian network.
+	 */
+	public BayesianNetwork() {
+		this.topologicalOrder = new int[0];
+	}
+
+	/**
+	 * Returns the literal for the given variable.
+	 *
+	 * @param variable
+	 *            variable
+	 * @param negated
+	 *            <code>true</code> if and only if the literal is negative
+	 * @return the literal for the given variable
+	 */
+	public static int getLiteral(int variable, boolean negated) {
+		return 2 * variable + (negated ? 1 : 0);
+	}
+
+	/**
+	 * Returns the variable of the given literal.
+	 *
+	 * @param literal
+	 *            literal
+	 * @return the variable of the given literal
+	 */
+	public static int getVariableOfLiteral(int literal) {
+		return literal / 2;
+	}
+
+	/**
+	 * Tells whether the given literal is negative.
+	 *
+	 * @param literal
+	 *            literal
+	 * @return <code>true</code> if and only if the given literal is negative
+	 */
+	public static boolean isNegated(int literal) {
+		return literal % 2 == 1;
+	}
+
+	/**
+	 * Returns a Bayesian network read from the given ProbLog program.
+	 *
+	 * @param text
+	 *            ProbLog program
+	 * @return a Bayesian network read from the given ProbLog program
+	 * @throws ParseException
+	 *             if the text is not a valid Bayesian network
+	 */
+	public static BayesianNetwork parse(String text) {
+		Objects.requireNonNull(text);
+		try {
+			return parse(new StringReader(text));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns a Bayesian network read from the given reader.
+	 *
+	 * @param reader
+	 *            reader of a ProbLog program
+	 * @return a Bayesian network read from the given reader
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 * @throws ParseException
+	 *             if the text is not a valid Bayesian network
+	 */
+	public static BayesianNetwork parse(Reader reader) throws IOException {
+		Objects.requireNonNull(reader);
+		BayesianNetwork ret = new BayesianNetwork();
+		new BayesianNetworkParser().parse(reader, ret::addClause);
+		ret.computeTopologicalOrder();
+		return ret;
+	}
+
+	/**
+	 * Returns a Bayesian network read from the given file, which is mapped
+	 * into memory.
+	 *
+	 * @param path
+	 *            path of a file with a ProbLog program
+	 * @return a Bayesian network read from the given file
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 * @throws ParseException
+	 *             if the text is not a valid Bayesian network
+	 */
+	public static BayesianNetwork parse(Path path) throws IOException {
+		Objects.requireNonNull(path);
+		BayesianNetwork ret = new BayesianNetwork();
+		new BayesianNetworkParser().parse(path, ret::addClause);
+		ret.computeTopologicalOrder();
+		return ret;
+	}
+
+	/**
+	 * Returns a Bayesian network with the given clauses.
+	 *
+	 * @param clauses
+	 *            clauses of the Bayesian network
+	 * @return a Bayesian network with the given clauses
+	 * @throws ParseException
+	 *             if the clauses are not a valid Bayesian network
+	 */
+	public static BayesianNetwork create(List<? extends ProbClause> clauses) {
+		Objects.requireNonNull(clauses);
+		BayesianNetwork ret = new BayesianNetwork();
+		clauses.forEach(ret::addClause);
+		ret.computeTopologicalOrder();
+		return ret;
+	}
+
+	/**
+	 * Returns the variable with the given name, adding it if it does not
+	 * exist.
+	 *
+	 * @param name
+	 *            name of the variable
+	 * @return the variable with the given name
+	 */
+	int getOrAddVariable(String name) {
+		Optional<Integer> optVariable = this.mapOfVariables.get(name);
+		if (optVariable.isPresent()) {
+			return optVariable.get();
+		} else {
+			int ret = this.variables.size();
+			this.variables.add(name);
+			this.mapOfVariables.put(name, ret);
+			this.entries.add(new ArrayList<>());
+			this.parents.add(new int[0]);
+			return ret;
+		}
+	}
+
+	int getLiteral(Term term) {
+		String name = term.getName();
+		boolean negated = name.startsWith(NEGATION_PREFIX);
+		if (negated) {
+			name = name.substring(NEGATION_PREFIX.length());
+		}
+		if (!BayesianNetworkParser.isValidName(name)) {
+			throw new ParseException("Invalid literal: '" + term.getName() + "'.");
+		}
+		return getLiteral(getOrAddVariable(name), negated);
+	}
+
+	/**
+	 * Adds a clause of the Bayesian network.
+	 *
+	 * @param clause
+	 *            clause
+	 */
+	void addClause(ProbClause clause) {
+		double probability;
+		try {
+			probability = Double.parseDouble(clause.getProbability());
+		} catch (NumberFormatException e) {
+			throw new ParseException("Invalid probability in: '" + clause.asString() + "'.", e);
+		}
+		if (!(probability >= 0 && probability <= 1)) {
+			throw new ParseException("Invalid probability in: '" + clause.asString() + "'.");
+		}
+
+		int headLiteral = getLiteral(clause.getHead());
+		if (isNegated(headLiteral)) {
+			throw new ParseException("Negated head in: '" + clause.asString() + "'.");
+		}
+		int variable = getVariableOfLiteral(headLiteral);
+
+		int[] bodyLiterals = new int[clause.getBody().size()];
+		for (int index = 0; index < bodyLiterals.length; index++) {
+			bodyLiterals[index] = getLiteral(clause.getBody().get(index));
+		}
+		this.entries.get(variable).add(new Entry(probability, bodyLiterals));
+
+		int[] oldParents = this.parents.get(variable);
+		int[] newParents = Arrays.copyOf(oldParents, oldParents.length + bodyLiterals.length);
+		for (int index = 0; index < bodyLiterals.length; index++) {
+			newParents[oldParents.length + index] = getVariableOfLiteral(bodyLiterals[index]);
+		}
+		this.parents.set(variable, Arrays.stream(newParents).sorted().distinct().toArray());
+	}
+
+	void computeTopologicalOrder() {
+		int numberOfVariables = this.variables.size();
+		int[] ret = new int[numberOfVariables];
+		int size = 0;
+		BitSet visited = new BitSet(numberOfVariables);
+		BitSet inProgress = new BitSet(numberOfVariables);
+		int[] stack = new int[numberOfVariables];
+		int[] nextParent = new int[numberOfVariables];
+		for (int root = 0; root < numberOfVariables; root++) {
+			if (!visited.get(root)) {
+				int top = 0;
+				stack[top] = root;
+				inProgress.set(root);
+				while (top >= 0) {
+					int current = stack[top];
+					int[] currentParents = this.parents.get(current);
+					if (nextParent[current] < currentParents.length) {
+						int parent = currentParents[nextParent[current]];
+						nextParent[current]++;
+						if (inProgress.get(parent)) {
+							throw new ParseException("The Bayesian network has a cycle on variable '"
+									+ this.variables.get(parent) + "'.");
+						} else if (!visited.get(parent)) {
+							top++;
+							stack[top] = parent;
+							inProgress.set(parent);
+						}
+					} else {
+						inProgress.clear(current);
+						visited.set(current);
+						ret[size] = current;
+						size++;
+						top--;
+					}
+				}
+			}
+		}
+		this.topologicalOrder = ret;
+	}
+
+	/**
+	 * Returns the number of variables.
+	 *
+	 * @return the number of variables
+	 */
+	public int getNumberOfVariables() {
+		return this.variables.size();
+	}
+
+	/**
+	 * Returns the name of the given variable.
+	 *
+	 * @param variable
+	 *            variable
+	 * @return the name of the given variable
+	 */
+	public String getVariableName(int variable) {
+		return this.variables.get(variable);
+	}
+
+	/**
+	 * Returns the variable with the given name, if it exists.
+	 *
+	 * @param name
+	 *            name of the variable
+	 * @return the variable with the given name, if it exists
+	 */
+	public Optional<Integer> getVariable(String name) {
+		Objects.requireNonNull(name);
+		return this.mapOfVariables.get(name);
+	}
+
+	/**
+	 * Returns the names of the variables.
+	 *
+	 * @return the names of the variables
+	 */
+	public List<String> getVariableNames() {
+		return Collections.unmodifiableList(this.variables);
+	}
+
+	/**
+	 * Returns the parents of the given variable.
+	 *
+	 * @param variable
+	 *            variable
+	 * @return the parents of the given variable
+	 */
+	public int[] getParents(int variable) {
+		return Arrays.copyOf(this.parents.get(variable), this.parents.get(variable).length);
+	}
+
+	/**
+	 * Returns the variables in topological order, i.e. each variable appears
+	 * after its parents.
+	 *
+	 * @return the variables in topological order
+	 */
+	public int[] getTopologicalOrder() {
+		return Arrays.copyOf(this.topologicalOrder, this.topologicalOrder.length);
+	}
+
+	/**
+	 * Returns the given variables and all their ancestors.
+	 *
+	 * @param variables
+	 *            variables
+	 * @return the given variables and all their ancestors
+	 */
+	public BitSet getAncestors(BitSet variables) {
+		Objects.requireNonNull(variables);
+		BitSet ret = new BitSet(getNumberOfVariables());
+		int[] stack = new int[getNumberOfVariables()];
+		int top = -1;
+		for (int variable = variables.nextSetBit(0); variable >= 0
+				&& variable < getNumberOfVariables(); variable = variables.nextSetBit(variable + 1)) {
+			ret.set(variable);
+			top++;
+			stack[top] = variable;
+		}
+		while (top >= 0) {
+			int current = stack[top];
+			top--;
+			for (int parent : this.parents.get(current)) {
+				if (!ret.get(parent)) {
+					ret.set(parent);
+					top++;
+					stack[top] = parent;
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the probability that the given variable is true, given the
+	 * values of its parents. This is the noisy-or of the probabilities of the
+	 * clauses whose body is satisfied.
+	 *
+	 * @param variable
+	 *            variable
+	 * @param values
+	 *            values of the variables, where at least the parents of the
+	 *            given variable are assigned
+	 * @return the probability that the given variable is true, given the
+	 *         values of its parents
+	 */
+	public double getProbability(int variable, BitSet values) {
+		Objects.requireNonNull(values);
+		double probabilityOfFalse = 1;
+		for (Entry entry : this.entries.get(variable)) {
+			boolean satisfied = true;
+			for (int index = 0; satisfied && index < entry.getBody().length; index++) {
+				int literal = entry.getBody()[index];
+				satisfied = (values.get(getVariableOfLiteral(literal)) != isNegated(literal));
+			}
+			if (satisfied) {
+				probabilityOfFalse *= (1 - entry.getProbability());
+			}
+		}
+		return 1 - probabilityOfFalse;
+	}
+
+	@Override
+	public String toString() {
+		return this.variables.toString();
+	}
+
+}
@@ -0,0 +1,439 @@
+package de.tudresden.inf.lat.born.problog.connector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An object of this class computes exact probabilities in a Bayesian network
+ * by variable elimination. The network is compiled once into factors, one for
+ * each variable and its parents. A query is a conjunction of literals, or a
+ * disjunction of conjunctions of literals (DNF), encoded as in
+ * {@link BayesianNetwork}. For a query, only the factors of the ancestors of
+ * its variables are used, and the variables are eliminated in the order
+ * chosen by the min-fill heuristic, i.e. each time the variable whose
+ * elimination adds the fewest edges to the interaction graph.
+ * <p>
+ * A conjunction is added as indicator factors of its literals. A disjunction
+ * is added with auxiliary variables: one for each conjunction, with a factor
+ * that makes it equal to the conjunction, and a chain of variables for the
+ * disjunction, each one with a factor that makes it equal to the disjunction
+ * of the previous one and the next conjunction. Variables that are not
+ * defined in the network are false.
+ * </p>
+ * <p>
+ * A factor over <i>n</i> variables has 2<sup><i>n</i></sup> values. Factors
+ * are limited to a maximum number of variables, so that a query whose
+ * elimination would need a larger factor fails instead of exhausting the
+ * memory.
+ * </p>
+ *
+ * @author Julian Mendez
+ *
+ */
+public class VariableElimination {
+
+	public static final int DEFAULT_MAXIMUM_FACTOR_SIZE = 0x16;
+	public static final int MAXIMUM_FACTOR_SIZE = 0x1E;
+
+	/**
+	 * This is a function from the assignments of some variables to
+	 * non-negative numbers. The variables are sorted, and bit <i>i</i> of the
+	 * position of an assignment is the value of the <i>i</i>-th variable.
+	 */
+	static class Factor {
+
+		private final int[] variables;
+		private final double[] values;
+
+		Factor(int[] variables, double[] values) {
+			this.variables = variables;
+			this.values = values;
+		}
+
+		int[] getVariables() {
+			return this.variables;
+		}
+
+		double[] getValues() {
+			return this.values;
+		}
+
+		boolean contains(int variable) {
+			return Arrays.binarySearch(this.variables, variable) >= 0;
+		}
+
+		static Factor create(int[] variables, int maximumFactorSize) {
+			if (variables.length > maximumFactorSize) {
+				throw new IllegalStateException("The factor is too large (" + variables.length
+						+ " variables, the maximum is " + maximumFactorSize + "), the treewidth is too high.");
+			}
+			return new Factor(variables, new double[1 << variables.length]);
+		}
+
+		/**
+		 * Returns the product of the given factors.
+		 */
+		static Factor multiply(List<Factor> factors, int maximumFactorSize) {
+			Set<Integer> union = new TreeSet<>();
+			factors.forEach(factor -> Arrays.stream(factor.getVariables()).forEach(union::add));
+			int[] variables = union.stream().mapToInt(Integer::intValue).toArray();
+			Factor ret = create(variables, maximumFactorSize);
+			int[][] positions = new int[factors.size()][];
+			for (int index = 0; index < factors.size(); index++) {
+				int[] factorVariables = factors.get(index).getVariables();
+				positions[index] = new int[factorVariables.length];
+				for (int position = 0; position < factorVariables.length; position++) {
+					positions[index][position] = Arrays.binarySearch(variables, factorVariables[position]);
+				}
+			}
+			for (int assignment = 0; assignment < ret.values.length; assignment++) {
+				double value = 1;
+				for (int index = 0; value != 0 && index < factors.size(); index++) {
+					int subassignment = 0;
+					for (int position = 0; position < positions[index].length; position++) {
+						subassignment |= ((assignment >> positions[index][position]) & 1) << position;
+					}
+					value *= factors.get(index).getValues()[subassignment];
+				}
+				ret.values[assignment] = value;
+			}
+			return ret;
+		}
+
+		/**
+		 * Returns this factor with the given variable summed out.
+		 */
+		Factor sumOut(int variable) {
+			int position = Arrays.binarySearch(this.variables, variable);
+			int[] newVariables = new int[this.variables.length - 1];
+			System.arraycopy(this.variables, 0, newVariables, 0, position);
+			System.arraycopy(this.variables, position + 1, newVariables, position,
+					this.variables.length - position - 1);
+			Factor ret = create(newVariables, newVariables.length);
+			int lowMask = (1 << position) - 1;
+			for (int assignment = 0; assignment < ret.values.length; assignment++) {
+				int low = assignment & lowMask;
+				int high = (assignment & ~lowMask) << 1;
+				int withFalse = high | low;
+				ret.values[assignment] = this.values[withFalse] + this.values[withFalse | (1 << position)];
+			}
+			return ret;
+		}
+
+	}
+
+	private final BayesianNetwork bayesianNetwork;
+	private final int maximumFactorSize;
+	private final Factor[] factors;
+
+	/**
+	 * Constructs a new variable elimination with the default maximum number
+	 * of variables of a factor, and compiles the given Bayesian network into
+	 * factors.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @throws IllegalStateException
+	 *             if a variable has too many parents
+	 */
+	public VariableElimination(BayesianNetwork bayesianNetwork) {
+		this(bayesianNetwork, DEFAULT_MAXIMUM_FACTOR_SIZE);
+	}
+
+	/**
+	 * Constructs a new variable elimination, and compiles the given Bayesian
+	 * network into factors.
+	 *
+	 * @param bayesianNetwork
+	 *            Bayesian network
+	 * @param maximumFactorSize
+	 *            maximum number of variables of a factor, at most
+	 *            {@link #MAXIMUM_FACTOR_SIZE}
+	 * @throws IllegalArgumentException
+	 *             if the maximum number of variables of a factor is not
+	 *             positive or greater than {@link #MAXIMUM_FACTOR_SIZE}
+	 * @throws IllegalStateException
+	 *             if a variable has too many parents
+	 */
+	public VariableElimination(BayesianNetwork bayesianNetwork, int maximumFactorSize) {
+		this.bayesianNetwork = Objects.requireNonNull(bayesianNetwork);
+		if (maximumFactorSize < 1 || maximumFactorSize > MAXIMUM_FACTOR_SIZE) {
+			throw new IllegalArgumentException("Invalid maximum factor size: " + maximumFactorSize + ".");
+		}
+		this.maximumFactorSize = maximumFactorSize;
+		this.factors = new Factor[bayesianNetwork.getNumberOfVariables()];
+		for (int variable = 0; variable < this.factors.length; variable++) {
+			this.factors[variable] = createConditionalProbabilityTable(variable);
+		}
+	}
+
+	Factor createConditionalProbabilityTable(int variable) {
+		Set<Integer> scope = new TreeSet<>();
+		scope.add(variable);
+		Arrays.stream(this.bayesianNetwork.getParents(variable)).forEach(scope::add);
+		int[] variables = scope.stream().mapToInt(Integer::intValue).toArray();
+		int variablePosition = Arrays.binarySearch(variables, variable);
+		Factor ret = Factor.create(variables, this.maximumFactorSize);
+		BitSet values = new BitSet();
+		for (int assignment = 0; assignment < ret.values.length; assignment++) {
+			values.clear();
+			for (int position = 0; position < variables.length; position++) {
+				if (position != variablePosition && ((assignment >> position) & 1) == 1) {
+					values.set(variables[position]);
+				}
+			}
+			double probability = this.bayesianNetwork.getProbability(variable, values);
+			ret.values[assignment] = ((assignment >> variablePosition) & 1) == 1 ? probability : 1 - probability;
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the Bayesian network.
+	 *
+	 * @return the Bayesian network
+	 */
+	public BayesianNetwork getBayesianNetwork() {
+		return this.bayesianNetwork;
+	}
+
+	/**
+	 * Returns the maximum number of variables of a factor.
+	 *
+	 * @return the maximum number of variables of a factor
+	 */
+	public int getMaximumFactorSize() {
+		return this.maximumFactorSize;
+	}
+
+	/**
+	 * Returns the given conjunction without the literals that are true
+	 * because their variables are not defined in the network, or an empty
+	 * optional if the conjunction is false.
+	 */
+	Optional<int[]> simplify(int[] conjunction) {
+		int numberOfVariables = this.bayesianNetwork.getNumberOfVariables();
+		Set<Integer> literals = new TreeSet<>();
+		for (int literal : conjunction) {
+			int variable = BayesianNetwork.getVariableOfLiteral(literal);
+			boolean negated = BayesianNetwork.isNegated(literal);
+			if (variable >= numberOfVariables) {
+				if (!negated) {
+					return Optional.empty();
+				}
+			} else if (literals.contains(BayesianNetwork.getLiteral(variable, !negated))) {
+				return Optional.empty();
+			} else {
+				literals.add(literal);
+			}
+		}
+		return Optional.of(literals.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Returns the probability of the given conjunction of literals.
+	 *
+	 * @param conjunction
+	 *            conjunction of literals
+	 * @return the probability of the given conjunction of literals
+	 */
+	public double getProbability(int... conjunction) {
+		Objects.requireNonNull(conjunction);
+		return getProbability(Collections.singletonList(conjunction));
+	}
+
+	/**
+	 * Returns the probability of the given disjunction of conjunctions of
+	 * literals.
+	 *
+	 * @param disjunction
+	 *            disjunction of conjunctions of literals
+	 * @return the probability of the given disjunction of conjunctions of
+	 *         literals
+	 * @throws IllegalStateException
+	 *             if the elimination creates a factor that is too large
+	 */
+	public double getProbability(List<int[]> disjunction) {
+		Objects.requireNonNull(disjunction);
+		List<int[]> conjunctions = new ArrayList<>();
+		for (int[] conjunction : disjunction) {
+			Optional<int[]> simplified = simplify(conjunction);
+			if (simplified.isPresent()) {
+				if (simplified.get().length == 0) {
+					return 1;
+				}
+				conjunctions.add(simplified.get());
+			}
+		}
+		if (conjunctions.isEmpty()) {
+			return 0;
+		}
+
+		BitSet variables = new BitSet();
+		conjunctions.forEach(conjunction -> Arrays.stream(conjunction)
+				.forEach(literal -> variables.set(BayesianNetwork.getVariableOfLiteral(literal))));
+		List<Factor> currentFactors = new ArrayList<>();
+		this.bayesianNetwork.getAncestors(variables).stream()
+				.forEach(variable -> currentFactors.add(this.factors[variable]));
+
+		if (conjunctions.size() == 1) {
+			Arrays.stream(conjunctions.get(0)).forEach(literal -> currentFactors.add(createIndicator(literal)));
+		} else {
+			addDisjunction(currentFactors, conjunctions);
+		}
+		return eliminate(currentFactors);
+	}
+
+	Factor createIndicator(int literal) {
+		Factor ret = Factor.create(new int[] { BayesianNetwork.getVariableOfLiteral(literal) }, 1);
+		ret.values[BayesianNetwork.isNegated(literal) ? 0 : 1] = 1;
+		return ret;
+	}
+
+	/**
+	 * Adds the factors of the auxiliary variables of the given disjunction,
+	 * and the indicator that the disjunction is true.
+	 */
+	void addDisjunction(List<Factor> currentFactors, List<int[]> conjunctions) {
+		int nextVariable = this.bayesianNetwork.getNumberOfVariables();
+		int previous = -1;
+		for (int[] conjunction : conjunctions) {
+			int auxiliary = nextVariable;
+			nextVariable++;
+			int[] scope = new int[conjunction.length + 1];
+			for (int position = 0; position < conjunction.length; position++) {
+				scope[position] = BayesianNetwork.getVariableOfLiteral(conjunction[position]);
+			}
+			scope[conjunction.length] = auxiliary;
+			Factor and = Factor.create(scope, this.maximumFactorSize);
+			for (int assignment = 0; assignment < and.values.length; assignment++) {
+				boolean satisfied = true;
+				for (int position = 0; satisfied && position < conjunction.length; position++) {
+					satisfied = (((assignment >> position) & 1) == 1) != BayesianNetwork
+							.isNegated(conjunction[position]);
+				}
+				boolean value = ((assignment >> conjunction.length) & 1) == 1;
+				and.values[assignment] = (value == satisfied) ? 1 : 0;
+			}
+			currentFactors.add(and);
+
+			if (previous == -1) {
+				previous = auxiliary;
+			} else {
+				int current = nextVariable;
+				nextVariable++;
+				Factor or = Factor.create(new int[] { previous, auxiliary, current }, 3);
+				for (int assignment = 0; assignment < or.values.length; assignment++) {
+					boolean disjunction = (assignment & 3) != 0;
+					boolean value = ((assignment >> 2) & 1) == 1;
+					or.values[assignment] = (value == disjunction) ? 1 : 0;
+				}
+				currentFactors.add(or);
+				previous = current;
+			}
+		}
+		currentFactors.add(createIndicator(BayesianNetwork.getLiteral(previous, false)));
+	}
+
+	/**
+	 * Returns the elimination order of the variables of the given factors
+	 * chosen by the min-fill heuristic. Ties are broken by the fewest
+	 * neighbors, and then by the smallest variable.
+	 *
+	 * @param currentFactors
+	 *            factors
+	 * @return the elimination order of the variables of the given factors
+	 */
+	static int[] getEliminationOrder(List<Factor> currentFactors) {
+		Map<Integer, Set<Integer>> graph = new HashMap<>();
+		currentFactors.forEach(factor -> {
+			for (int variable : factor.getVariables()) {
+				Set<Integer> neighbors = graph.computeIfAbsent(variable, key -> new HashSet<>());
+				Arrays.stream(factor.getVariables()).filter(other -> other != variable).forEach(neighbors::add);
+			}
+		});
+		Map<Integer, Integer> fill = new HashMap<>();
+		graph.keySet().forEach(variable -> fill.put(variable, getFill(graph, variable)));
+		TreeSet<Integer> candidates = new TreeSet<>((first, second) -> {
+			int ret = Integer.compare(fill.get(first), fill.get(second));
+			if (ret == 0) {
+				ret = Integer.compare(graph.get(first).size(), graph.get(second).size());
+			}
+			if (ret == 0) {
+				ret = Integer.compare(first, second);
+			}
+			return ret;
+		});
+		candidates.addAll(graph.keySet());
+
+		int[] ret = new int[graph.size()];
+		for (int index = 0; index < ret.length; index++) {
+			int variable = candidates.pollFirst();
+			ret[index] = variable;
+			Set<Integer> neighbors = graph.remove(variable);
+			Set<Integer> affected = new HashSet<>(neighbors);
+			neighbors.forEach(neighbor -> affected.addAll(graph.get(neighbor)));
+			affected.remove(variable);
+			affected.forEach(candidates::remove);
+			neighbors.forEach(neighbor -> {
+				Set<Integer> neighborsOfNeighbor = graph.get(neighbor);
+				neighborsOfNeighbor.remove(variable);
+				neighbors.stream().filter(other -> other != neighbor.intValue()).forEach(neighborsOfNeighbor::add);
+			});
+			affected.forEach(other -> {
+				fill.put(other, getFill(graph, other));
+				candidates.add(other);
+			});
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the number of edges that are added to the graph if the given
+	 * variable is eliminated.
+	 */
+	static int getFill(Map<Integer, Set<Integer>> graph, int variable) {
+		List<Integer> neighbors = new ArrayList<>(graph.get(variable));
+		int ret = 0;
+		for (int first = 0; first < neighbors.size(); first++) {
+			Set<Integer> neighborsOfFirst = graph.get(neighbors.get(first));
+			for (int second = first + 1; second < neighbors.size(); second++) {
+				if (!neighborsOfFirst.contains(neighbors.get(second))) {
+					ret++;
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Eliminates all the variables of the given factors, and returns the
+	 * product of the remaining constants.
+	 */
+	double eliminate(List<Factor> currentFactors) {
+		List<Factor> pending = new ArrayList<>(currentFactors);
+		for (int variable : getEliminationOrder(currentFactors)) {
+			List<Factor> bucket = new ArrayList<>();
+			List<Factor> rest = new ArrayList<>();
+			pending.forEach(factor -> (factor.contains(variable) ? bucket : rest).add(factor));
+			rest.add(Factor.multiply(bucket, this.maximumFactorSize).sumOut(variable));
+			pending = rest;
+		}
+		double ret = 1;
+		for (Factor factor : pending) {
+			ret *= factor.getValues()[0];
+		}
+		return ret;
+	}
+
+}
@@ -0,0 +1,192 @@
+package de.tudresden.inf.lat.born.problog.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import de.tudresden.inf.lat.born.core.term.ProbClause;
+import de.tudresden.inf.lat.born.core.term.ProbClauseImpl;
+import de.tudresden.inf.lat.born.core.term.Symbol;
+import de.tudresden.inf.lat.born.core.term.Term;
+import de.tudresden.inf.lat.born.core.term.TermFactory;
+
+/**
+ * An object of this class parses a Bayesian network written as a ProbLog
+ * program. Each clause has the form <code>p::x :- l1, ..., ln.</code>, where
+ * <code>p</code> is a probability, <code>x</code> is a variable, and each
+ * <code>li</code> is a variable or a negated variable, like
+ * <code>\+x0</code>. The probability and the body are optional. Each clause
+ * is returned as a probabilistic clause whose head is the variable and whose
+ * body has the literals. The terms of the clauses are shared.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BayesianNetworkParser {
+
+	public static final String NEGATION_PREFIX = "\\+";
+
+	static final String END_OF_INPUT_MSG = "Unexpected end of the Bayesian network.";
+
+	/**
+	 * Constructs a new Bayesian network parser.
+	 */
+	public BayesianNetworkParser() {
+	}
+
+	/**
+	 * Tells whether the given name is a valid name for a variable.
+	 *
+	 * @param name
+	 *            name
+	 * @return <code>true</code> if and only if the given name is a valid name
+	 *         for a variable
+	 */
+	public static boolean isValidName(String name) {
+		Objects.requireNonNull(name);
+		return !name.isEmpty() && Character.isLowerCase(name.charAt(0))
+				&& name.chars().allMatch(ch -> Character.isLetterOrDigit(ch) || ch == Symbol.UNDERSCORE_CHAR);
+	}
+
+	void next(ProblogLexer lexer) throws IOException {
+		if (!lexer.next()) {
+			throw new ParseException(END_OF_INPUT_MSG);
+		}
+	}
+
+	void expect(ProblogLexer lexer, String symbol) {
+		if (!lexer.is(symbol)) {
+			throw new ParseException("Expected '" + symbol + "'. ", lexer.getToken());
+		}
+	}
+
+	String parseProbability(ProblogLexer lexer) {
+		String ret = lexer.getValue();
+		double probability;
+		try {
+			probability = Double.parseDouble(ret);
+		} catch (NumberFormatException e) {
+			throw new ParseException("Invalid probability. ", lexer.getToken());
+		}
+		if (!(probability >= 0 && probability <= 1)) {
+			throw new ParseException("Invalid probability. ", lexer.getToken());
+		}
+		return ret;
+	}
+
+	Term parseVariable(ProblogLexer lexer, TermFactory factory, String prefix) {
+		if (!lexer.getType().equals(TokenType.IDENTIFIER) || !isValidName(lexer.getValue())) {
+			throw new ParseException("Invalid variable. ", lexer.getToken());
+		}
+		return factory.newTerm(prefix + lexer.getValue());
+	}
+
+	Term parseLiteral(ProblogLexer lexer, TermFactory factory) throws IOException {
+		if (lexer.is(NEGATION_PREFIX)) {
+			next(lexer);
+			return parseVariable(lexer, factory, NEGATION_PREFIX);
+		} else {
+			return parseVariable(lexer, factory, "");
+		}
+	}
+
+	/**
+	 * Returns the clause that starts at the current token of the lexer. After
+	 * this, the current token is the final point of the clause.
+	 */
+	ProbClause parseClause(ProblogLexer lexer, TermFactory factory) throws IOException {
+		String probability = ProbClauseImpl.CERTAIN;
+		if (lexer.getType().equals(TokenType.CONSTANT) && !lexer.is(NEGATION_PREFIX)) {
+			probability = parseProbability(lexer);
+			next(lexer);
+			expect(lexer, "" + Symbol.COLON_CHAR);
+			next(lexer);
+			expect(lexer, "" + Symbol.COLON_CHAR);
+			next(lexer);
+		}
+		if (lexer.is(NEGATION_PREFIX)) {
+			throw new ParseException("Negated head. ", lexer.getToken());
+		}
+		Term head = parseVariable(lexer, factory, "");
+		next(lexer);
+
+		List<Term> body = Collections.emptyList();
+		if (lexer.is(Symbol.IF_SYMBOL)) {
+			body = new ArrayList<>();
+			do {
+				next(lexer);
+				body.add(parseLiteral(lexer, factory));
+				next(lexer);
+			} while (lexer.is(Symbol.COMMA_CHAR));
+		}
+		expect(lexer, "" + Symbol.POINT_CHAR);
+		return new ProbClauseImpl(head, body, probability);
+	}
+
+	/**
+	 * Parses the Bayesian network read from the given reader, and gives each
+	 * clause to the given consumer, in the order they are read. The clauses
+	 * are not stored by the parser.
+	 *
+	 * @param reader
+	 *            reader
+	 * @param consumer
+	 *            consumer of the clauses
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 * @throws ParseException
+	 *             if the text is not a valid Bayesian network
+	 */
+	public void parse(Reader reader, Consumer<ProbClause> consumer) throws IOException {
+		Objects.requireNonNull(reader);
+		Objects.requireNonNull(consumer);
+		ProblogLexer lexer = new ProblogLexer(reader);
+		TermFactory factory = new TermFactory();
+		while (lexer.next()) {
+			consumer.accept(parseClause(lexer, factory));
+		}
+	}
+
+	/**
+	 * Returns the clauses of the Bayesian network read from the given reader.
+	 *
+	 * @param reader
+	 *            reader
+	 * @return the clauses of the Bayesian network read from the given reader
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 * @throws ParseException
+	 *             if the text is not a valid Bayesian network
+	 */
+	public List<ProbClause> parse(Reader reader) throws IOException {
+		List<ProbClause> ret = new ArrayList<>();
+		parse(reader, ret::add);
+		return ret;
+	}
+
+	/**
+	 * Parses the Bayesian network stored in the given file, and gives each
+	 * clause to the given consumer. The file is mapped into memory.
+	 *
+	 * @param path
+	 *            path of the file
+	 * @param consumer
+	 *            consumer of the clauses
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 * @throws ParseException
+	 *             if the text is not a valid Bayesian network
+	 */
+	public void parse(Path path, Consumer<ProbClause> consumer) throws IOException {
+		Objects.requireNonNull(path);
+		try (Reader reader = new MappedFileReader(path)) {
+			parse(reader, consumer);
+		}
+	}
+
+}
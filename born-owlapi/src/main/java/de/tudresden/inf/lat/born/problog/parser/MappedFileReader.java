@@ -0,0 +1,138 @@
+package de.tudresden.inf.lat.born.problog.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * An object of this class reads a UTF-8 file that is mapped into memory. The
+ * file is mapped in windows of a fixed size, so files larger than 2 GiB can be
+ * read, and only the window being decoded needs to be in memory.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class MappedFileReader extends Reader {
+
+	public static final long WINDOW_SIZE = 1L << 26;
+
+	static final int BUFFER_SIZE = 0x2000;
+
+	private final FileChannel channel;
+	private final long size;
+	private final long windowSize;
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+	private ByteBuffer window = ByteBuffer.allocate(0);
+	private long windowStart = 0;
+	private boolean finished = false;
+
+	/**
+	 * Constructs a new reader of a mapped file.
+	 *
+	 * @param path
+	 *            path of the file
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	public MappedFileReader(Path path) throws IOException {
+		this(path, WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructs a new reader of a mapped file that maps windows of the given
+	 * size.
+	 *
+	 * @param path
+	 *            path of the file
+	 * @param windowSize
+	 *            number of bytes mapped at the same time
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	MappedFileReader(Path path, long windowSize) throws IOException {
+		Objects.requireNonNull(path);
+		if (windowSize < 4) {
+			throw new IllegalArgumentException("Invalid window size: " + windowSize + ".");
+		}
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = this.channel.size();
+		this.windowSize = windowSize;
+		this.chars.flip();
+	}
+
+	/**
+	 * Maps the window that starts at the first byte that has not been
+	 * decoded. The bytes of an incomplete character at the end of the
+	 * previous window are mapped again.
+	 */
+	boolean mapNextWindow() throws IOException {
+		this.windowStart += this.window.position();
+		if (this.windowStart >= this.size) {
+			this.window = ByteBuffer.allocate(0);
+			return false;
+		}
+		MappedByteBuffer mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, this.windowStart,
+				Math.min(this.windowSize, this.size - this.windowStart));
+		this.window = mapped;
+		return true;
+	}
+
+	/**
+	 * Decodes more characters into the buffer of characters.
+	 */
+	void decode() throws IOException {
+		this.chars.compact();
+		boolean decoded = false;
+		while (!decoded && !this.finished) {
+			boolean endOfInput = this.windowStart + this.window.limit() >= this.size;
+			CoderResult result = this.decoder.decode(this.window, this.chars, endOfInput);
+			if (result.isError()) {
+				result.throwException();
+			}
+			if (this.chars.position() > 0) {
+				decoded = true;
+			} else if (!mapNextWindow()) {
+				this.decoder.flush(this.chars);
+				this.finished = true;
+			}
+		}
+		this.chars.flip();
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		Objects.requireNonNull(cbuf);
+		if (off < 0 || len < 0 || off + len > cbuf.length) {
+			throw new IndexOutOfBoundsException();
+		} else if (len == 0) {
+			return 0;
+		}
+		if (!this.chars.hasRemaining()) {
+			decode();
+		}
+		if (!this.chars.hasRemaining()) {
+			return -1;
+		}
+		int ret = Math.min(len, this.chars.remaining());
+		this.chars.get(cbuf, off, ret);
+		return ret;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+}
@@ -0,0 +1,350 @@
+package de.tudresden.inf.lat.born.problog.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+import de.tudresden.inf.lat.born.core.term.Symbol;
+
+/**
+ * An object of this class reads the tokens of a ProbLog program from a stream
+ * of characters, one token at a time. Blanks and comments are skipped. Each
+ * character is classified with a table, and the characters of the current
+ * token are kept in a reusable buffer, so no objects are created for a token
+ * unless its value is requested. The types of the tokens are the same as the
+ * ones found by {@link TokenImpl}, except that a number like <code>0.5</code>
+ * or <code>1e-3</code> is a single constant, and <code>\+</code> is a single
+ * token.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProblogLexer {
+
+	public static final int BUFFER_SIZE = 0x2000;
+
+	static final byte OTHER = 0;
+	static final byte BLANK = 1;
+	static final byte LETTER = 2;
+	static final byte DIGIT = 3;
+	static final byte APOSTROPHE = 4;
+	static final byte QUOTES = 5;
+	static final byte PERCENT = 6;
+	static final byte SYMBOL = 7;
+
+	static final char BACKSLASH_CHAR = '\\';
+	static final char PLUS_CHAR = '+';
+
+	static final byte[] CHAR_CLASS = createCharClasses();
+
+	private final Reader reader;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position = 0;
+	private int limit = 0;
+	private boolean finished = false;
+	private int currentLine = 1;
+
+	private char[] tokenChars = new char[0x40];
+	private int tokenLength = 0;
+	private TokenType tokenType = TokenType.UNDEFINED;
+	private int tokenLine = 0;
+	private String tokenValue = null;
+
+	/**
+	 * Constructs a new lexer.
+	 *
+	 * @param reader
+	 *            reader of the ProbLog program
+	 */
+	public ProblogLexer(Reader reader) {
+		this.reader = Objects.requireNonNull(reader);
+	}
+
+	static byte[] createCharClasses() {
+		byte[] ret = new byte[0x80];
+		Arrays.fill(ret, OTHER);
+		for (char ch = 0; ch <= Symbol.SPACE_CHAR; ch++) {
+			ret[ch] = BLANK;
+		}
+		for (char ch = 'a'; ch <= 'z'; ch++) {
+			ret[ch] = LETTER;
+		}
+		for (char ch = 'A'; ch <= 'Z'; ch++) {
+			ret[ch] = LETTER;
+		}
+		ret[Symbol.UNDERSCORE_CHAR] = LETTER;
+		for (char ch = '0'; ch <= '9'; ch++) {
+			ret[ch] = DIGIT;
+		}
+		ret[Symbol.APOSTROPHE_CHAR] = APOSTROPHE;
+		ret[Symbol.QUOTES_CHAR] = QUOTES;
+		ret[Symbol.PERCENT_CHAR] = PERCENT;
+		for (String symbol : TokenImpl.SYMBOLS) {
+			if (symbol.length() == 1 && ret[symbol.charAt(0)] == OTHER) {
+				ret[symbol.charAt(0)] = SYMBOL;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the class of the given character.
+	 */
+	static byte getCharClass(int ch) {
+		if (ch < CHAR_CLASS.length) {
+			return CHAR_CLASS[ch];
+		} else if (Character.isWhitespace(ch) || Character.isSpaceChar(ch)) {
+			return BLANK;
+		} else if (Character.isLetterOrDigit(ch)) {
+			return LETTER;
+		} else {
+			return OTHER;
+		}
+	}
+
+	/**
+	 * Makes sure that at least the given number of characters is available
+	 * in the buffer, unless the input is finished.
+	 */
+	void fill(int needed) throws IOException {
+		if (!this.finished && this.limit - this.position < needed) {
+			System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+			this.limit = this.limit - this.position;
+			this.position = 0;
+			while (!this.finished && this.limit < needed) {
+				int count = this.reader.read(this.buffer, this.limit, this.buffer.length - this.limit);
+				if (count == -1) {
+					this.finished = true;
+				} else {
+					this.limit += count;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the character at the given offset from the current position, or
+	 * -1 if there is no such character.
+	 */
+	int peek(int offset) throws IOException {
+		fill(offset + 1);
+		int index = this.position + offset;
+		return index < this.limit ? this.buffer[index] : -1;
+	}
+
+	/**
+	 * Moves the current character to the value of the token.
+	 */
+	void take() {
+		char ch = this.buffer[this.position];
+		this.position++;
+		if (ch == Symbol.NEW_LINE_CHAR) {
+			this.currentLine++;
+		}
+		if (this.tokenLength == this.tokenChars.length) {
+			this.tokenChars = Arrays.copyOf(this.tokenChars, 2 * this.tokenChars.length);
+		}
+		this.tokenChars[this.tokenLength] = ch;
+		this.tokenLength++;
+	}
+
+	/**
+	 * Skips the current character.
+	 */
+	void skip() {
+		if (this.buffer[this.position] == Symbol.NEW_LINE_CHAR) {
+			this.currentLine++;
+		}
+		this.position++;
+	}
+
+	void takeWhileLetterOrDigit() throws IOException {
+		for (int ch = peek(0); ch != -1 && (getCharClass(ch) == LETTER || getCharClass(ch) == DIGIT); ch = peek(0)) {
+			take();
+		}
+	}
+
+	void takeWhileDigit() throws IOException {
+		for (int ch = peek(0); ch != -1 && getCharClass(ch) == DIGIT; ch = peek(0)) {
+			take();
+		}
+	}
+
+	boolean isDigit(int ch) {
+		return ch != -1 && getCharClass(ch) == DIGIT;
+	}
+
+	void readNumber() throws IOException {
+		takeWhileDigit();
+		if (peek(0) == Symbol.POINT_CHAR && isDigit(peek(1))) {
+			take();
+			takeWhileDigit();
+		}
+		int ch = peek(0);
+		if (ch == 'e' || ch == 'E') {
+			int next = peek(1);
+			if (isDigit(next)) {
+				take();
+				takeWhileDigit();
+			} else if ((next == PLUS_CHAR || next == Symbol.HYPHEN_CHAR) && isDigit(peek(2))) {
+				take();
+				take();
+				takeWhileDigit();
+			}
+		}
+		takeWhileLetterOrDigit();
+		this.tokenType = TokenType.CONSTANT;
+	}
+
+	void readQuoted(TokenType type) throws IOException {
+		char quote = this.buffer[this.position];
+		take();
+		boolean closed = false;
+		for (int ch = peek(0); !closed && ch != -1 && ch != Symbol.NEW_LINE_CHAR; ch = peek(0)) {
+			if (ch == BACKSLASH_CHAR && peek(1) != -1 && peek(1) != Symbol.NEW_LINE_CHAR) {
+				take();
+			} else {
+				closed = (ch == quote);
+			}
+			take();
+		}
+		this.tokenType = closed ? type : TokenType.UNDEFINED;
+	}
+
+	/**
+	 * Reads the next token. Blanks and comments are skipped.
+	 *
+	 * @return <code>true</code> if and only if a token was read, and
+	 *         <code>false</code> if the end of the input was reached
+	 * @throws IOException
+	 *             if something goes wrong with I/O
+	 */
+	public boolean next() throws IOException {
+		this.tokenLength = 0;
+		this.tokenValue = null;
+		boolean skipping = true;
+		while (skipping) {
+			int ch = peek(0);
+			if (ch == -1) {
+				this.tokenType = TokenType.UNDEFINED;
+				return false;
+			}
+			byte charClass = getCharClass(ch);
+			if (charClass == BLANK) {
+				skip();
+			} else if (charClass == PERCENT) {
+				for (ch = peek(0); ch != -1 && ch != Symbol.NEW_LINE_CHAR; ch = peek(0)) {
+					skip();
+				}
+			} else {
+				skipping = false;
+			}
+		}
+
+		this.tokenLine = this.currentLine;
+		int ch = peek(0);
+		byte charClass = getCharClass(ch);
+		if (charClass == LETTER) {
+			takeWhileLetterOrDigit();
+			this.tokenType = TokenType.IDENTIFIER;
+
+		} else if (charClass == DIGIT) {
+			readNumber();
+
+		} else if (charClass == APOSTROPHE) {
+			readQuoted(TokenType.CONSTANT);
+
+		} else if (charClass == QUOTES) {
+			readQuoted(TokenType.STRING);
+
+		} else if (ch == Symbol.COLON_CHAR && peek(1) == Symbol.HYPHEN_CHAR) {
+			take();
+			take();
+			this.tokenType = TokenType.SYMBOL;
+
+		} else if (ch == BACKSLASH_CHAR && peek(1) == PLUS_CHAR) {
+			take();
+			take();
+			this.tokenType = TokenType.CONSTANT;
+
+		} else {
+			take();
+			this.tokenType = (charClass == SYMBOL) ? TokenType.SYMBOL : TokenType.CONSTANT;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the type of the current token.
+	 *
+	 * @return the type of the current token
+	 */
+	public TokenType getType() {
+		return this.tokenType;
+	}
+
+	/**
+	 * Returns the value of the current token.
+	 *
+	 * @return the value of the current token
+	 */
+	public String getValue() {
+		if (Objects.isNull(this.tokenValue)) {
+			this.tokenValue = new String(this.tokenChars, 0, this.tokenLength);
+		}
+		return this.tokenValue;
+	}
+
+	/**
+	 * Tells whether the current token is the given character.
+	 *
+	 * @param ch
+	 *            character
+	 * @return <code>true</code> if and only if the current token is the given
+	 *         character
+	 */
+	public boolean is(char ch) {
+		return this.tokenLength == 1 && this.tokenChars[0] == ch;
+	}
+
+	/**
+	 * Tells whether the current token is the given string.
+	 *
+	 * @param str
+	 *            string
+	 * @return <code>true</code> if and only if the current token is the given
+	 *         string
+	 */
+	public boolean is(String str) {
+		Objects.requireNonNull(str);
+		if (this.tokenLength != str.length()) {
+			return false;
+		}
+		for (int index = 0; index < this.tokenLength; index++) {
+			if (this.tokenChars[index] != str.charAt(index)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the line number of the current token, starting from 1.
+	 *
+	 * @return the line number of the current token
+	 */
+	public int getLineNumber() {
+		return this.tokenLine;
+	}
+
+	/**
+	 * Returns the current token.
+	 *
+	 * @return the current token
+	 */
+	public Token getToken() {
+		return new TokenImpl(getValue(), getType(), getLineNumber());
+	}
+
+}
@@ -1,5 +1,6 @@
 package de.tudresden.inf.lat.born.problog.parser;
 
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
@@ -15,6 +16,8 @@ import de.tudresden.inf.lat.born.core.term.Symbol;
  */
 public class TokenImpl implements Token {
 
+	static final Set<String> SYMBOLS = Collections.unmodifiableSet(createSymbols());
+
 	private final String tokenValue;
 	private final TokenType tokenType;
 	private final int lineNumber;
@@ -33,7 +36,23 @@ public class TokenImpl implements Token {
 		this.tokenType = findType(str);
 	}
 
-	Set<String> getSymbols() {
+	/**
+	 * Constructs a token whose type is already known.
+	 * 
+	 * @param str
+	 *            string
+	 * @param tokenType
+	 *            type of the token
+	 * @param lineNumber
+	 *            line number
+	 */
+	public TokenImpl(String str, TokenType tokenType, int lineNumber) {
+		this.tokenValue = Objects.requireNonNull(str);
+		this.lineNumber = lineNumber;
+		this.tokenType = Objects.requireNonNull(tokenType);
+	}
+
+	static Set<String> createSymbols() {
 		Set<String> ret = new TreeSet<>();
 		ret.add("" + Symbol.PAR_A_CHAR); // "(";
 		ret.add("" + Symbol.PAR_B_CHAR); // ")";
@@ -52,6 +71,10 @@ public class TokenImpl implements Token {
 		return ret;
 	}
 
+	Set<String> getSymbols() {
+		return SYMBOLS;
+	}
+
 	boolean isBlank(String str) {
 		Objects.requireNonNull(str);
 		return (Objects.isNull(str) || str.trim().isEmpty());
@@ -1,11 +1,14 @@
 package de.tudresden.inf.lat.born.problog.type;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Objects;
 
 import de.tudresden.inf.lat.born.core.rule.CompletionRule;
 import de.tudresden.inf.lat.born.core.term.Clause;
-import de.tudresden.inf.lat.born.core.term.ProbClause;
 import de.tudresden.inf.lat.born.core.term.Symbol;
 import de.tudresden.inf.lat.born.core.term.Term;
 
@@ -101,13 +104,6 @@ public class ProblogProgram {
 		this.queryListAddendum = Objects.requireNonNull(queryListAddendum);
 	}
 
-	String asString(List<Clause> clauses) {
-		Objects.requireNonNull(clauses);
-		StringBuffer sb = new StringBuffer();
-		clauses.forEach(clause -> sb.append(clause.asString()));
-		return sb.toString();
-	}
-
 	String asStringWithTabs(CompletionRule completionRule) {
 		Term head = completionRule.getHead();
 		if (head == null || completionRule.getBody().size() <= 1) {
@@ -151,18 +147,51 @@ public class ProblogProgram {
 		return sb.toString();
 	}
 
-	String asStringC(List<CompletionRule> completionRules) {
-		Objects.requireNonNull(completionRules);
-		StringBuffer sb = new StringBuffer();
-		completionRules.forEach(completionRule -> sb.append(completionRule.asString()));
-		return sb.toString();
+	void write(Writer output, List<? extends Clause> clauses) throws IOException {
+		for (Clause clause : clauses) {
+			output.write(clause.asString());
+		}
 	}
 
-	String asStringP(List<ProbClause> clauses) {
-		Objects.requireNonNull(clauses);
-		StringBuffer sb = new StringBuffer();
-		clauses.forEach(clause -> sb.append(clause.asString()));
-		return sb.toString();
+	void writeC(Writer output, List<CompletionRule> completionRules) throws IOException {
+		for (CompletionRule completionRule : completionRules) {
+			output.write(completionRule.asString());
+		}
+	}
+
+	/**
+	 * Writes this ProbLog program. Each completion rule and each clause is
+	 * written directly to the given writer, so that the program is never
+	 * stored as a single string. The writer is neither flushed nor closed.
+	 * 
+	 * @param output
+	 *            writer
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	public void write(Writer output) throws IOException {
+		Objects.requireNonNull(output);
+		String nl = "" + Symbol.NEW_LINE_CHAR;
+		String nlnl = "" + Symbol.NEW_LINE_CHAR + Symbol.NEW_LINE_CHAR;
+		output.write(nl);
+		output.write(TITLE_COMPLETION_RULES + nlnl);
+		writeC(output, this.data.getCompletionRules());
+		output.write(nl);
+		output.write(this.additionalCompletionRulesAsText);
+		output.write(nlnl);
+		output.write(TITLE_ONTOLOGY + nlnl);
+		write(output, this.data.getOntology());
+		output.write(nlnl);
+		output.write(TITLE_BAYESIAN_NETWORK + nlnl);
+		write(output, this.data.getBayesianNetwork());
+		output.write(nl);
+		output.write(this.bayesianNetworkAddendum);
+		output.write(nlnl);
+		output.write(TITLE_QUERIES + nlnl);
+		write(output, this.data.getQueries());
+		output.write(nl);
+		output.write(this.queryListAddendum);
+		output.write(nlnl);
 	}
 
 	/**
@@ -171,22 +200,13 @@ public class ProblogProgram {
 	 * @return this ProbLog program as a string
 	 */
 	public String asString() {
-		String nl = "" + Symbol.NEW_LINE_CHAR;
-		String nlnl = "" + Symbol.NEW_LINE_CHAR + Symbol.NEW_LINE_CHAR;
-		StringBuffer sb = new StringBuffer();
-		sb.append(nl);
-		sb.append(TITLE_COMPLETION_RULES + nlnl);
-		sb.append(asStringC(this.data.getCompletionRules()) + nl);
-		sb.append(this.additionalCompletionRulesAsText + nlnl);
-		sb.append(TITLE_ONTOLOGY + nlnl);
-		sb.append(asString(this.data.getOntology()) + nlnl);
-		sb.append(TITLE_BAYESIAN_NETWORK + nlnl);
-		sb.append(asStringP(this.data.getBayesianNetwork()) + nl);
-		sb.append(this.bayesianNetworkAddendum + nlnl);
-		sb.append(TITLE_QUERIES + nlnl);
-		sb.append(asString(this.data.getQueries()) + nl);
-		sb.append(this.queryListAddendum + nlnl);
-		return sb.toString();
+		StringWriter output = new StringWriter();
+		try {
+			write(output);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return output.toString();
 	}
 
 	@Override
@@ -0,0 +1,66 @@
+package de.tudresden.inf.lat.born.core.term;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.core.rule.FormulaConstructor;
+
+/**
+ * 
+ * This is a unit test for {@link TermFactory}.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public class TermFactoryTest {
+
+	/**
+	 * Tests that equal terms are the same object and that equal terms of
+	 * different factories have the same hash code.
+	 */
+	@Test
+	public void testIntern() {
+		FormulaConstructor c = new FormulaConstructor();
+		Term term0 = c.gci(c.newCons("'A'"), c.exists(c.newCons("'r'"), c.newCons("'B'")));
+		Term term1 = c.gci(c.newCons("'A'"), c.exists(c.newCons("'r'"), c.newCons("'B'")));
+		Assert.assertSame(term0, term1);
+		Assert.assertSame(c.rule(term0, Collections.emptyList()), c.rule(term1, Collections.emptyList()));
+
+		FormulaConstructor other = new FormulaConstructor();
+		Term term2 = other.gci(other.newCons("'A'"), other.exists(other.newCons("'r'"), other.newCons("'B'")));
+		Assert.assertNotSame(term0, term2);
+		Assert.assertEquals(term0, term2);
+		Assert.assertEquals(term0.hashCode(), term2.hashCode());
+
+		Set<Clause> clauses = new HashSet<>();
+		clauses.add(c.rule(term0, Collections.singletonList(c.newCons("x0"))));
+		clauses.add(other.rule(term2, Collections.singletonList(other.newCons("x0"))));
+		Assert.assertEquals(1, clauses.size());
+	}
+
+	/**
+	 * Tests the string representation and the type of terms.
+	 */
+	@Test
+	public void testTerms() {
+		TermFactory factory = new TermFactory();
+		Term term = factory.newTerm("sub", Arrays.asList(factory.newTerm("'A'"), factory.newTerm("X")));
+		Assert.assertEquals("sub('A', X)", term.asString());
+		Assert.assertEquals("sub('A', X) :- x0.\n",
+				factory.newClause(term, Collections.singletonList(factory.newTerm("x0"))).asString());
+
+		Assert.assertEquals(Term.Type.LONG, factory.newTerm("42").getType());
+		Assert.assertEquals(Term.Type.LONG, factory.newTerm("-42").getType());
+		Assert.assertEquals(Term.Type.DOUBLE, factory.newTerm("0.25").getType());
+		Assert.assertEquals(Term.Type.VARIABLE, factory.newTerm("_X").getType());
+		Assert.assertEquals(Term.Type.ATOM, factory.newTerm("'0.25'").getType());
+		Assert.assertEquals(Term.Type.ATOM, factory.newTerm("x1").getType());
+		Assert.assertEquals(Term.Type.COMPOUND_TERM, term.getType());
+	}
+
+}
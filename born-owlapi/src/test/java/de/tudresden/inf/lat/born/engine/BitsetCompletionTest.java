@@ -0,0 +1,298 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ *
+ * This is a unit test for {@link BitsetCompletion}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BitsetCompletionTest {
+
+	static final int A = 10;
+	static final int B = 11;
+	static final int C = 12;
+	static final int D = 13;
+	static final int E = 14;
+	static final int F = 15;
+	static final int G = 16;
+	static final int H = 17;
+	static final int R = 20;
+	static final int S = 21;
+	static final int T = 22;
+	static final int INDIVIDUAL_A = 40;
+	static final int INDIVIDUAL_B = 41;
+
+	static final int FIRST_RANDOM_CLASS = 100;
+	static final int FIRST_RANDOM_OBJECT_PROPERTY = 30;
+
+	private final NormalizedIntegerAxiomFactory factory = new IntegerOntologyObjectFactoryImpl()
+			.getNormalizedAxiomFactory();
+
+	@Test
+	public void testClassInclusions() {
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>();
+		// A subClassOf B
+		axioms.add(this.factory.createGCI0Axiom(A, B, Collections.emptySet()));
+		// B subClassOf r some C
+		axioms.add(this.factory.createGCI2Axiom(B, R, C, Collections.emptySet()));
+		// C subClassOf D
+		axioms.add(this.factory.createGCI0Axiom(C, D, Collections.emptySet()));
+		// r some D subClassOf E
+		axioms.add(this.factory.createGCI3Axiom(R, D, E, Collections.emptySet()));
+		// B and E subClassOf F
+		axioms.add(this.factory.createGCI1Axiom(B, E, F, Collections.emptySet()));
+
+		BitsetCompletion completion = new BitsetCompletion(axioms, Collections.singleton(A));
+		completion.complete();
+		Assert.assertEquals(new TreeSet<>(Arrays.asList(IntegerEntityManager.topClassId, A, B, E, F)),
+				new TreeSet<>(completion.getSubsumers(A)));
+		Assert.assertTrue(completion.isSubsumed(A, F));
+		Assert.assertFalse(completion.isSubsumed(A, D));
+		Assert.assertFalse(completion.isSubsumed(C, A));
+		Assert.assertTrue(completion.getSubsumers(G).isEmpty());
+
+		// without B subClassOf r some C, A is not subsumed by E
+		BitSet activeAxioms = new BitSet();
+		activeAxioms.set(0, axioms.size());
+		activeAxioms.clear(1);
+		completion.complete(activeAxioms);
+		Assert.assertEquals(new TreeSet<>(Arrays.asList(IntegerEntityManager.topClassId, A, B)),
+				new TreeSet<>(completion.getSubsumers(A)));
+	}
+
+	@Test
+	public void testObjectPropertiesAndBottom() {
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>();
+		// A subClassOf r some B
+		axioms.add(this.factory.createGCI2Axiom(A, R, B, Collections.emptySet()));
+		// B subClassOf r some C
+		axioms.add(this.factory.createGCI2Axiom(B, R, C, Collections.emptySet()));
+		// r subPropertyOf s
+		axioms.add(this.factory.createRI2Axiom(R, S, Collections.emptySet()));
+		// r o s subPropertyOf t
+		axioms.add(this.factory.createRI3Axiom(R, S, T, Collections.emptySet()));
+		// s some B subClassOf G
+		axioms.add(this.factory.createGCI3Axiom(S, B, G, Collections.emptySet()));
+		// t some C subClassOf H
+		axioms.add(this.factory.createGCI3Axiom(T, C, H, Collections.emptySet()));
+		// D subClassOf r some E
+		axioms.add(this.factory.createGCI2Axiom(D, R, E, Collections.emptySet()));
+		// E subClassOf owl:Nothing
+		axioms.add(this.factory.createGCI0Axiom(E, IntegerEntityManager.bottomClassId, Collections.emptySet()));
+
+		BitsetCompletion completion = new BitsetCompletion(axioms, Arrays.asList(A, D));
+		completion.complete();
+		Assert.assertTrue(completion.isSubsumed(A, G));
+		Assert.assertTrue(completion.isSubsumed(A, H));
+		Assert.assertFalse(completion.isSubsumed(B, H));
+		Assert.assertTrue(completion.isSubsumed(D, IntegerEntityManager.bottomClassId));
+		Assert.assertTrue(completion.isSubsumed(D, A));
+		Assert.assertFalse(completion.isSubsumed(A, D));
+
+		// without the rules for the bottom class, as in the ProbLog programs
+		BitsetCompletion problogCompletion = new BitsetCompletion(axioms, Arrays.asList(A, D, E), false);
+		problogCompletion.complete();
+		Assert.assertTrue(problogCompletion.hasSubsumer(A, H));
+		Assert.assertTrue(problogCompletion.hasSubsumer(E, IntegerEntityManager.bottomClassId));
+		Assert.assertFalse(problogCompletion.hasSubsumer(E, A));
+		Assert.assertFalse(problogCompletion.hasSubsumer(D, IntegerEntityManager.bottomClassId));
+		Assert.assertFalse(problogCompletion.hasSubsumer(D, A));
+	}
+
+	@Test
+	public void testRangesAndReflexiveObjectProperties() {
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>();
+		// A subClassOf r some B
+		axioms.add(this.factory.createGCI2Axiom(A, R, B, Collections.emptySet()));
+		// r subPropertyOf s
+		axioms.add(this.factory.createRI2Axiom(R, S, Collections.emptySet()));
+		// range of s is C
+		axioms.add(this.factory.createRangeAxiom(S, C, Collections.emptySet()));
+		// r some (B and C) subClassOf D
+		axioms.add(this.factory.createGCI1Axiom(B, C, E, Collections.emptySet()));
+		axioms.add(this.factory.createGCI3Axiom(R, E, D, Collections.emptySet()));
+		// t is reflexive
+		axioms.add(this.factory.createRI1Axiom(T, Collections.emptySet()));
+		// t some F subClassOf G
+		axioms.add(this.factory.createGCI3Axiom(T, F, G, Collections.emptySet()));
+
+		BitsetCompletion completion = new BitsetCompletion(axioms, Arrays.asList(A, B, F));
+		completion.complete();
+		Assert.assertTrue(completion.isSubsumed(A, D));
+		Assert.assertFalse(completion.isSubsumed(B, C));
+		Assert.assertTrue(completion.isSubsumed(F, G));
+		Assert.assertFalse(completion.isSubsumed(A, G));
+
+		// without the range, A is not subsumed by D
+		BitSet activeAxioms = new BitSet();
+		activeAxioms.set(0, axioms.size());
+		activeAxioms.clear(2);
+		completion.complete(activeAxioms);
+		Assert.assertFalse(completion.isSubsumed(A, D));
+		Assert.assertTrue(completion.isSubsumed(F, G));
+
+		// without the role inclusion, the range of s does not apply to r
+		activeAxioms.set(2);
+		activeAxioms.clear(1);
+		completion.complete(activeAxioms);
+		Assert.assertFalse(completion.isSubsumed(A, D));
+	}
+
+	@Test
+	public void testRoleAssertions() {
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>();
+		// a is an individual of class A, and b of class B
+		axioms.add(this.factory.createNominalAxiom(A, INDIVIDUAL_A, Collections.emptySet()));
+		axioms.add(this.factory.createNominalAxiom(B, INDIVIDUAL_B, Collections.emptySet()));
+		// A subClassOf r some B
+		axioms.add(this.factory.createGCI2Axiom(A, R, B, Collections.emptySet()));
+		// r subPropertyOf s
+		axioms.add(this.factory.createRI2Axiom(R, S, Collections.emptySet()));
+
+		BitsetCompletion completion = new BitsetCompletion(axioms, Arrays.asList(INDIVIDUAL_A, INDIVIDUAL_B));
+		completion.complete();
+		Assert.assertTrue(completion.hasRoleAssertion(R, INDIVIDUAL_A, INDIVIDUAL_B));
+		Assert.assertTrue(completion.hasRoleAssertion(S, INDIVIDUAL_A, INDIVIDUAL_B));
+		Assert.assertFalse(completion.hasRoleAssertion(R, INDIVIDUAL_B, INDIVIDUAL_A));
+		Assert.assertFalse(completion.hasRoleAssertion(T, INDIVIDUAL_A, INDIVIDUAL_B));
+	}
+
+	Set<NormalizedIntegerAxiom> createRandomAxioms(Random random, int numberOfClasses, int numberOfAxioms) {
+		Set<NormalizedIntegerAxiom> ret = new HashSet<>();
+		for (int index = 0; index < numberOfAxioms; index++) {
+			int first = FIRST_RANDOM_CLASS + random.nextInt(numberOfClasses);
+			int second = FIRST_RANDOM_CLASS + random.nextInt(numberOfClasses);
+			int third = FIRST_RANDOM_CLASS + random.nextInt(numberOfClasses);
+			int objectProperty = FIRST_RANDOM_OBJECT_PROPERTY + random.nextInt(3);
+			switch (random.nextInt(4)) {
+			case 0:
+				ret.add(this.factory.createGCI0Axiom(first, second, Collections.emptySet()));
+				break;
+			case 1:
+				ret.add(this.factory.createGCI1Axiom(first, second, third, Collections.emptySet()));
+				break;
+			case 2:
+				ret.add(this.factory.createGCI2Axiom(first, objectProperty, second, Collections.emptySet()));
+				break;
+			default:
+				ret.add(this.factory.createGCI3Axiom(objectProperty, first, second, Collections.emptySet()));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Tests that the bitset completion derives the same subsumptions as the
+	 * provenance completion, where every axiom holds.
+	 */
+	@Test
+	public void testProvenanceCompletion() {
+		int numberOfClasses = 0x200;
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>(
+				createRandomAxioms(new Random(1), numberOfClasses, 0x400));
+		Set<Integer> classes = new TreeSet<>();
+		for (int index = 0; index < numberOfClasses; index++) {
+			classes.add(FIRST_RANDOM_CLASS + index);
+		}
+
+		ProvenanceCompletion expected = new ProvenanceCompletion(axioms, classes, axiom -> Provenance.TRUE);
+		BitsetCompletion completion = new BitsetCompletion(axioms, classes);
+		completion.complete();
+		classes.forEach(subClass -> Assert.assertEquals(expected.getSubsumers(subClass).keySet(),
+				completion.getSubsumers(subClass)));
+
+		// the arrays of the first completion are reused
+		BitSet activeAxioms = new BitSet();
+		activeAxioms.set(0, axioms.size() / 2);
+		ProvenanceCompletion expectedHalf = new ProvenanceCompletion(axioms.subList(0, axioms.size() / 2), classes,
+				axiom -> Provenance.TRUE);
+		completion.complete(activeAxioms);
+		classes.forEach(subClass -> Assert.assertEquals(expectedHalf.getSubsumers(subClass).keySet(),
+				completion.getSubsumers(subClass)));
+	}
+
+	/**
+	 * Tests that the sequential and the parallel completions derive the same
+	 * subsumptions, also when the completions are computed again with a
+	 * subset of the axioms.
+	 */
+	@Test
+	public void testParallelCompletion() {
+		int numberOfClasses = 0x200;
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>(
+				createRandomAxioms(new Random(2), numberOfClasses, 0x400));
+		// r o s subPropertyOf t
+		axioms.add(this.factory.createRI3Axiom(FIRST_RANDOM_OBJECT_PROPERTY, FIRST_RANDOM_OBJECT_PROPERTY + 1,
+				FIRST_RANDOM_OBJECT_PROPERTY + 2, Collections.emptySet()));
+		Set<Integer> classes = new TreeSet<>();
+		for (int index = 0; index < numberOfClasses; index++) {
+			classes.add(FIRST_RANDOM_CLASS + index);
+		}
+
+		BitsetCompletion expected = new BitsetCompletion(axioms, classes);
+		expected.complete();
+		BitsetCompletion parallel = new BitsetCompletion(axioms, classes);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			parallel.complete(pool);
+			classes.forEach(subClass -> Assert.assertEquals(expected.getSubsumers(subClass),
+					parallel.getSubsumers(subClass)));
+
+			BitSet activeAxioms = new BitSet();
+			activeAxioms.set(0, axioms.size() / 2);
+			expected.complete(activeAxioms);
+			parallel.complete(activeAxioms, pool);
+			classes.forEach(subClass -> Assert.assertEquals(expected.getSubsumers(subClass),
+					parallel.getSubsumers(subClass)));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that the parallel completion answers the queries of the classes
+	 * and individuals of every part.
+	 */
+	@Test
+	public void testParallelRoleAssertions() {
+		List<NormalizedIntegerAxiom> axioms = new ArrayList<>();
+		axioms.add(this.factory.createNominalAxiom(A, INDIVIDUAL_A, Collections.emptySet()));
+		axioms.add(this.factory.createNominalAxiom(B, INDIVIDUAL_B, Collections.emptySet()));
+		axioms.add(this.factory.createGCI2Axiom(A, R, B, Collections.emptySet()));
+		axioms.add(this.factory.createGCI0Axiom(B, C, Collections.emptySet()));
+
+		BitsetCompletion completion = new BitsetCompletion(axioms, Arrays.asList(INDIVIDUAL_A, INDIVIDUAL_B, B));
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			completion.complete(pool);
+		} finally {
+			pool.shutdown();
+		}
+		Assert.assertTrue(completion.hasRoleAssertion(R, INDIVIDUAL_A, INDIVIDUAL_B));
+		Assert.assertFalse(completion.hasRoleAssertion(R, INDIVIDUAL_B, INDIVIDUAL_A));
+		Assert.assertTrue(completion.isSubsumed(INDIVIDUAL_B, C));
+		Assert.assertTrue(completion.isSubsumed(B, C));
+		Assert.assertFalse(completion.isSubsumed(INDIVIDUAL_A, C));
+	}
+
+}
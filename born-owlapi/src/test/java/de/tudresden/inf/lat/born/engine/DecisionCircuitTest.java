@@ -0,0 +1,93 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+
+/**
+ *
+ * This is a unit test for {@link DecisionCircuit}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class DecisionCircuitTest {
+
+	static final double EPSILON = 1e-9;
+
+	static final String NETWORK = ExactInferenceTest.NETWORK + "0.6::x2.\n";
+
+	static final String NETWORK_WITH_OTHER_PARAMETERS = "" //
+			+ "0.5::x0.\n" //
+			+ "0.2::x1 :- x0.\n" //
+			+ "0.9::x1 :- \\+x0.\n" //
+			+ "0.1::x2.\n";
+
+	static final String NETWORK_WITH_OTHER_STRUCTURE = "" //
+			+ "0.7::x0.\n" //
+			+ "0.2::x1.\n" //
+			+ "0.6::x2.\n";
+
+	int x(BayesianNetwork network, String name) {
+		return network.getVariable(name).get();
+	}
+
+	/**
+	 * Tests that the circuit gives the same probabilities as the exact
+	 * inference, also after changing the parameters of the Bayesian network.
+	 */
+	@Test
+	public void testParameters() {
+		BayesianNetwork network = BayesianNetwork.parse(NETWORK);
+		Provenance formula = Provenance.of(BayesianNetwork.getLiteral(x(network, "x1"), false))
+				.or(Provenance.of(BayesianNetwork.getLiteral(x(network, "x2"), false)));
+		DecisionCircuit circuit = DecisionCircuit.compile(network, formula, new BitSet());
+		Assert.assertEquals(new ExactInference(network).getProbability(formula),
+				circuit.getWeightedModelCount(network, Collections.emptyMap()), EPSILON);
+
+		BayesianNetwork otherNetwork = BayesianNetwork.parse(NETWORK_WITH_OTHER_PARAMETERS);
+		Assert.assertEquals(1 - (1 - 0.55) * 0.9, circuit.getWeightedModelCount(otherNetwork, Collections.emptyMap()),
+				EPSILON);
+		Assert.assertEquals(new ExactInference(otherNetwork).getProbability(formula),
+				circuit.getWeightedModelCount(otherNetwork, Collections.emptyMap()), EPSILON);
+
+		Assert.assertFalse(circuit.isCompatible(BayesianNetwork.parse(NETWORK_WITH_OTHER_STRUCTURE)));
+	}
+
+	/**
+	 * Tests the probabilities with evidence on observable variables.
+	 */
+	@Test
+	public void testEvidence() {
+		BayesianNetwork network = BayesianNetwork.parse(NETWORK);
+		int x0 = x(network, "x0");
+		Provenance formula = Provenance.of(BayesianNetwork.getLiteral(x(network, "x1"), false));
+		BitSet observable = new BitSet();
+		observable.set(x0);
+		DecisionCircuit circuit = DecisionCircuit.compile(network, formula, observable);
+		DecisionCircuit evidenceCircuit = DecisionCircuit.compile(network, Provenance.TRUE, observable);
+
+		Map<Integer, Boolean> evidence = Collections.singletonMap(x0, true);
+		Assert.assertEquals(0.14, circuit.getWeightedModelCount(network, evidence), EPSILON);
+		Assert.assertEquals(0.7, evidenceCircuit.getWeightedModelCount(network, evidence), EPSILON);
+
+		evidence = Collections.singletonMap(x0, false);
+		Assert.assertEquals(0.9, circuit.getWeightedModelCount(network, evidence)
+				/ evidenceCircuit.getWeightedModelCount(network, evidence), EPSILON);
+
+		Assert.assertEquals(0.41, circuit.getWeightedModelCount(network, Collections.emptyMap()), EPSILON);
+
+		try {
+			circuit.getWeightedModelCount(network, Collections.singletonMap(x(network, "x2"), true));
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage().contains("observable"));
+		}
+	}
+
+}
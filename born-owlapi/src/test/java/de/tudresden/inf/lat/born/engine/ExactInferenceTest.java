@@ -0,0 +1,156 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.owlapi.multiprocessor.PseudorandomNumberGenerator;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.born.problog.connector.VariableElimination;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ *
+ * This is a unit test for {@link ExactInference} and
+ * {@link ProvenanceCompletion}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ExactInferenceTest {
+
+	static final double EPSILON = 1e-9;
+
+	static final int A = 10;
+	static final int B = 11;
+	static final int C = 12;
+	static final int D = 13;
+	static final int R = 20;
+
+	public static final String NETWORK = "" //
+			+ "% Bayesian network\n" //
+			+ "0.7::x0.\n" //
+			+ "0.2::x1 :- x0.\n" //
+			+ "0.9::x1 :- \\+x0.\n";
+
+	private final NormalizedIntegerAxiomFactory factory = new IntegerOntologyObjectFactoryImpl()
+			.getNormalizedAxiomFactory();
+
+	int x(BayesianNetwork network, String name, boolean negated) {
+		return BayesianNetwork.getLiteral(network.getVariable(name).get(), negated);
+	}
+
+	@Test
+	public void testBayesianNetwork() {
+		BayesianNetwork network = BayesianNetwork.parse(NETWORK);
+		Assert.assertEquals(2, network.getNumberOfVariables());
+		Assert.assertEquals(Arrays.asList("x0", "x1"), network.getVariableNames());
+
+		ExactInference inference = new ExactInference(network);
+		Assert.assertEquals(0.7, inference.getProbability(Provenance.of(x(network, "x0", false))), EPSILON);
+		Assert.assertEquals(0.41, inference.getProbability(Provenance.of(x(network, "x1", false))), EPSILON);
+		Assert.assertEquals(0.14,
+				inference.getProbability(Provenance.of(x(network, "x0", false), x(network, "x1", false))), EPSILON);
+		Assert.assertEquals(0, inference.getProbability(Provenance.of(x(network, "x0", false), x(network, "x0", true))),
+				EPSILON);
+		Assert.assertEquals(1, inference.getProbability(Provenance.TRUE), EPSILON);
+		Assert.assertEquals(0, inference.getProbability(Provenance.FALSE), EPSILON);
+
+		// variables that are not defined in the Bayesian network are false
+		Assert.assertEquals(0, inference.getProbability(Provenance.of(BayesianNetwork.getLiteral(5, false))), EPSILON);
+		Assert.assertEquals(1, inference.getProbability(Provenance.of(BayesianNetwork.getLiteral(5, true))), EPSILON);
+	}
+
+	@Test
+	public void testProvenanceCompletion() {
+		BayesianNetwork network = BayesianNetwork.parse(NETWORK);
+		Map<NormalizedIntegerAxiom, Provenance> labels = new HashMap<>();
+		// A subClassOf B : x0
+		labels.put(this.factory.createGCI0Axiom(A, B, Collections.emptySet()), Provenance.of(x(network, "x0", false)));
+		// B subClassOf C : x1
+		labels.put(this.factory.createGCI0Axiom(B, C, Collections.emptySet()), Provenance.of(x(network, "x1", false)));
+		// A subClassOf C : not x0
+		labels.put(this.factory.createGCI0Axiom(A, C, Collections.emptySet()), Provenance.of(x(network, "x0", true)));
+		// D subClassOf r some B : x1
+		labels.put(this.factory.createGCI2Axiom(D, R, B, Collections.emptySet()),
+				Provenance.of(x(network, "x1", false)));
+		// r some C subClassOf A
+		labels.put(this.factory.createGCI3Axiom(R, C, A, Collections.emptySet()), Provenance.TRUE);
+
+		ProvenanceCompletion completion = new ProvenanceCompletion(labels.keySet(), Arrays.asList(A, B, C, D),
+				labels::get);
+		ExactInference inference = new ExactInference(network);
+
+		Assert.assertTrue(completion.getSubsumption(A, A).isTrue());
+		Assert.assertTrue(completion.getSubsumption(B, A).isFalse());
+		Assert.assertEquals(0.7, inference.getProbability(completion.getSubsumption(A, B)), EPSILON);
+		// (x0 and x1) or not x0
+		Assert.assertEquals(0.44, inference.getProbability(completion.getSubsumption(A, C)), EPSILON);
+		// x1, because D subClassOf r some C needs x1 twice
+		Assert.assertEquals(0.41, inference.getProbability(completion.getSubsumption(D, A)), EPSILON);
+		// x1 and (x0 or (not x0))
+		Assert.assertEquals(0.41, inference.getProbability(completion.getSubsumption(D, C)), EPSILON);
+	}
+
+	@Test
+	public void testVariableElimination() {
+		BayesianNetwork network = BayesianNetwork.parse(NETWORK);
+		ExactInference conditioning = new ExactInference(network, Integer.MAX_VALUE);
+		// every formula with more than one variable is computed by variable elimination
+		ExactInference elimination = new ExactInference(network, 0);
+		Provenance x0 = Provenance.of(x(network, "x0", false));
+		Provenance notX0 = Provenance.of(x(network, "x0", true));
+		Provenance x1 = Provenance.of(x(network, "x1", false));
+		Provenance notX1 = Provenance.of(x(network, "x1", true));
+		Provenance undefined = Provenance.of(BayesianNetwork.getLiteral(5, false));
+		for (Provenance formula : Arrays.asList(x0, x1, x0.and(x1), notX0.and(x1).or(x0.and(notX1)),
+				x1.or(undefined), notX1.and(undefined))) {
+			Assert.assertEquals(conditioning.getProbability(formula), elimination.getProbability(formula), EPSILON);
+		}
+		Assert.assertEquals(0.14, elimination.getProbability(x0.and(x1)), EPSILON);
+	}
+
+	@Test
+	public void testCacheOfRecursiveConditioning() {
+		// the widths of the conditioning order vary, so that positions and
+		// values of different lengths must not be confused in the cache
+		PseudorandomNumberGenerator random = new PseudorandomNumberGenerator(0x2A);
+		StringBuilder sb = new StringBuilder();
+		int numberOfVariables = 0x80;
+		for (int variable = 0; variable < numberOfVariables; variable++) {
+			Set<Integer> parents = new TreeSet<>();
+			int numberOfParents = Math.min(variable, random.nextInt(3));
+			while (parents.size() < numberOfParents) {
+				parents.add(variable - 1 - random.nextInt(Math.min(variable, 0x10)));
+			}
+			for (int assignment = 0; assignment < (1 << parents.size()); assignment++) {
+				sb.append("0." + (1 + random.nextInt(98)) + "::x" + variable);
+				int position = 0;
+				for (int parent : parents) {
+					sb.append(position == 0 ? " :- " : ", ");
+					sb.append(((assignment >> position) & 1) == 1 ? "" : BayesianNetwork.NEGATION_PREFIX);
+					sb.append("x" + parent);
+					position++;
+				}
+				sb.append(".\n");
+			}
+		}
+		BayesianNetwork network = BayesianNetwork.parse(sb.toString());
+		ExactInference conditioning = new ExactInference(network, Integer.MAX_VALUE);
+		VariableElimination elimination = new VariableElimination(network);
+		for (int variable = 0; variable < numberOfVariables; variable++) {
+			int literal = BayesianNetwork.getLiteral(variable, false);
+			Assert.assertEquals(elimination.getProbability(literal),
+					conditioning.getProbability(Provenance.of(literal)), EPSILON);
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ *
+ * This is a unit test for {@link MonteCarloInference} and
+ * {@link BitsetCompletion}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class MonteCarloInferenceTest {
+
+	static final double EPSILON = 1e-6;
+	static final double ERROR_BOUND = 0.01;
+	static final double CONFIDENCE_LEVEL = 0.99;
+
+	static final int A = 10;
+	static final int B = 11;
+	static final int C = 12;
+	static final int D = 13;
+	static final int R = 20;
+
+	private final NormalizedIntegerAxiomFactory factory = new IntegerOntologyObjectFactoryImpl()
+			.getNormalizedAxiomFactory();
+
+	int x(BayesianNetwork network, String name, boolean negated) {
+		return BayesianNetwork.getLiteral(network.getVariable(name).get(), negated);
+	}
+
+	List<NormalizedIntegerAxiom> getAxioms() {
+		List<NormalizedIntegerAxiom> ret = new ArrayList<>();
+		// A subClassOf B
+		ret.add(this.factory.createGCI0Axiom(A, B, Collections.emptySet()));
+		// B subClassOf C
+		ret.add(this.factory.createGCI0Axiom(B, C, Collections.emptySet()));
+		// A subClassOf C
+		ret.add(this.factory.createGCI0Axiom(A, C, Collections.emptySet()));
+		// D subClassOf r some B
+		ret.add(this.factory.createGCI2Axiom(D, R, B, Collections.emptySet()));
+		// r some C subClassOf A
+		ret.add(this.factory.createGCI3Axiom(R, C, A, Collections.emptySet()));
+		return ret;
+	}
+
+	@Test
+	public void testBitsetCompletion() {
+		List<NormalizedIntegerAxiom> axioms = getAxioms();
+		BitsetCompletion completion = new BitsetCompletion(axioms, Arrays.asList(A, B, C, D));
+
+		BitSet activeAxioms = new BitSet();
+		activeAxioms.set(0, axioms.size());
+		completion.complete(activeAxioms);
+		Assert.assertTrue(completion.isSubsumed(A, A));
+		Assert.assertTrue(completion.isSubsumed(A, C));
+		Assert.assertTrue(completion.isSubsumed(D, A));
+		Assert.assertFalse(completion.isSubsumed(B, A));
+
+		// without B subClassOf C, D is not subsumed by A
+		activeAxioms.clear(1);
+		completion.complete(activeAxioms);
+		Assert.assertTrue(completion.isSubsumed(A, C));
+		Assert.assertFalse(completion.isSubsumed(D, A));
+		Assert.assertFalse(completion.isSubsumed(D, C));
+	}
+
+	@Test
+	public void testMonteCarloInference() {
+		BayesianNetwork network = BayesianNetwork.parse(ExactInferenceTest.NETWORK);
+		List<NormalizedIntegerAxiom> axioms = getAxioms();
+		List<Provenance> contexts = Arrays.asList(Provenance.of(x(network, "x0", false)),
+				Provenance.of(x(network, "x1", false)), Provenance.of(x(network, "x0", true)),
+				Provenance.of(x(network, "x1", false)), Provenance.TRUE);
+		MonteCarloInference inference = new MonteCarloInference(network, axioms, Arrays.asList(A, B, C, D),
+				axiom -> contexts.get(axioms.indexOf(axiom)));
+
+		List<Predicate<BitsetCompletion>> queries = Arrays.asList( //
+				completion -> completion.isSubsumed(A, B), //
+				completion -> completion.isSubsumed(A, C), //
+				completion -> completion.isSubsumed(D, A), //
+				completion -> completion.isSubsumed(B, A));
+		double[] expected = { 0.7, 0.44, 0.41, 0 };
+
+		SamplingResult result = inference.estimate(queries, ERROR_BOUND, CONFIDENCE_LEVEL, 2, 0);
+		Assert.assertTrue(result.getNumberOfSamples() > 0);
+		Assert.assertTrue(result.getErrorBound() <= ERROR_BOUND);
+		for (int query = 0; query < expected.length; query++) {
+			Assert.assertTrue(result.getLowerBound(query) <= expected[query]);
+			Assert.assertTrue(expected[query] <= result.getUpperBound(query));
+		}
+
+		// the result only depends on the seed and the number of threads
+		Assert.assertEquals(result, inference.estimate(queries, ERROR_BOUND, CONFIDENCE_LEVEL, 2, 0));
+	}
+
+	@Test
+	public void testNormalQuantile() {
+		Assert.assertEquals(0, MonteCarloInference.getNormalQuantile(0.5), EPSILON);
+		Assert.assertEquals(1.959964, MonteCarloInference.getNormalQuantile(0.975), EPSILON);
+		Assert.assertEquals(2.575829, MonteCarloInference.getNormalQuantile(0.995), EPSILON);
+		Assert.assertEquals(-2.575829, MonteCarloInference.getNormalQuantile(0.005), EPSILON);
+	}
+
+}
@@ -0,0 +1,136 @@
+package de.tudresden.inf.lat.born.engine;
+
+import java.util.Objects;
+
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactory;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ * An object of this class contains what the unit tests of probabilistic
+ * ontologies share: an entity manager, a factory of normalized axioms, and a
+ * Bayesian network.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProbabilisticOntologyFixture {
+
+	public static final String PREFIX = "http://example.org/ont#";
+
+	private final IntegerEntityManager entityManager;
+	private final NormalizedIntegerAxiomFactory factory;
+	private final BayesianNetwork network;
+
+	/**
+	 * Constructs a new fixture with the Bayesian network of
+	 * {@link ExactInferenceTest#NETWORK}.
+	 */
+	public ProbabilisticOntologyFixture() {
+		this(ExactInferenceTest.NETWORK);
+	}
+
+	/**
+	 * Constructs a new fixture with the given Bayesian network.
+	 *
+	 * @param network
+	 *            Bayesian network
+	 */
+	public ProbabilisticOntologyFixture(String network) {
+		Objects.requireNonNull(network);
+		IntegerOntologyObjectFactory objectFactory = new IntegerOntologyObjectFactoryImpl();
+		this.entityManager = objectFactory.getEntityManager();
+		this.factory = objectFactory.getNormalizedAxiomFactory();
+		this.network = BayesianNetwork.parse(network);
+	}
+
+	/**
+	 * Returns the entity manager.
+	 *
+	 * @return the entity manager
+	 */
+	public IntegerEntityManager getEntityManager() {
+		return this.entityManager;
+	}
+
+	/**
+	 * Returns the factory of normalized axioms.
+	 *
+	 * @return the factory of normalized axioms
+	 */
+	public NormalizedIntegerAxiomFactory getFactory() {
+		return this.factory;
+	}
+
+	/**
+	 * Returns the Bayesian network.
+	 *
+	 * @return the Bayesian network
+	 */
+	public BayesianNetwork getNetwork() {
+		return this.network;
+	}
+
+	/**
+	 * Returns the identifier of a new named class.
+	 *
+	 * @param name
+	 *            name of the class, without prefix
+	 * @return the identifier of a new named class
+	 */
+	public int createClass(String name) {
+		return this.entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + name, false);
+	}
+
+	/**
+	 * Returns the identifier of a new object property.
+	 *
+	 * @param name
+	 *            name of the object property, without prefix
+	 * @return the identifier of a new object property
+	 */
+	public int createObjectProperty(String name) {
+		return this.entityManager.createNamedEntity(IntegerEntityType.OBJECT_PROPERTY, PREFIX + name, false);
+	}
+
+	/**
+	 * Returns the identifier of a new individual.
+	 *
+	 * @param name
+	 *            name of the individual, without prefix
+	 * @return the identifier of a new individual
+	 */
+	public int createIndividual(String name) {
+		return this.entityManager.createNamedEntity(IntegerEntityType.INDIVIDUAL, PREFIX + name, false);
+	}
+
+	/**
+	 * Returns the identifier of the auxiliary class used as the nominal of the
+	 * given individual, which is created if it does not exist.
+	 *
+	 * @param individual
+	 *            individual
+	 * @return the identifier of the auxiliary class used as the nominal of the
+	 *         given individual
+	 */
+	public int getNominal(int individual) {
+		return this.entityManager.createOrGetClassIdForIndividual(individual);
+	}
+
+	/**
+	 * Returns the literal of a variable of the Bayesian network.
+	 *
+	 * @param name
+	 *            name of the variable
+	 * @param negated
+	 *            <code>true</code> if and only if the literal is negated
+	 * @return the literal of a variable of the Bayesian network
+	 */
+	public int getLiteral(String name, boolean negated) {
+		return BayesianNetwork.getLiteral(this.network.getVariable(name).get(), negated);
+	}
+
+}
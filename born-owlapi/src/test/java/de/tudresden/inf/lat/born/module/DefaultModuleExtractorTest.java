@@ -0,0 +1,148 @@
+package de.tudresden.inf.lat.born.module;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ * 
+ * This is a unit test for {@link DefaultModuleExtractor}.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public class DefaultModuleExtractorTest {
+
+	static final int A = 10;
+	static final int B = 11;
+	static final int C = 12;
+	static final int D = 13;
+	static final int E = 14;
+	static final int F = 15;
+	static final int R = 20;
+	static final int S = 21;
+
+	private final NormalizedIntegerAxiomFactory factory = new IntegerOntologyObjectFactoryImpl()
+			.getNormalizedAxiomFactory();
+
+	Set<NormalizedIntegerAxiom> createAxioms() {
+		Set<NormalizedIntegerAxiom> ret = new HashSet<>();
+		// A subClassOf B
+		ret.add(this.factory.createGCI0Axiom(A, B, Collections.emptySet()));
+		// B subClassOf r some C
+		ret.add(this.factory.createGCI2Axiom(B, R, C, Collections.emptySet()));
+		// D subClassOf E
+		ret.add(this.factory.createGCI0Axiom(D, E, Collections.emptySet()));
+		// owl:Thing subClassOf F
+		ret.add(this.factory.createGCI0Axiom(IntegerEntityManager.topClassId, F, Collections.emptySet()));
+		// r subPropertyOf s
+		ret.add(this.factory.createRI2Axiom(R, S, Collections.emptySet()));
+		return ret;
+	}
+
+	/**
+	 * Tests that the module contains the axioms reachable from the signature,
+	 * the axioms of the top class, and the role inclusions.
+	 */
+	@Test
+	public void testExtractModule() {
+		ModuleIndex index = new ModuleIndex(createAxioms());
+		Module module = new DefaultModuleExtractor().extractModule(index, Collections.singleton(A));
+
+		Set<NormalizedIntegerAxiom> expectedAxioms = new HashSet<>();
+		expectedAxioms.add(this.factory.createGCI0Axiom(A, B, Collections.emptySet()));
+		expectedAxioms.add(this.factory.createGCI2Axiom(B, R, C, Collections.emptySet()));
+		expectedAxioms.add(this.factory.createGCI0Axiom(IntegerEntityManager.topClassId, F, Collections.emptySet()));
+		expectedAxioms.add(this.factory.createRI2Axiom(R, S, Collections.emptySet()));
+		Assert.assertEquals(expectedAxioms, module.getAxioms());
+		Assert.assertEquals(expectedAxioms.size(), module.getNumberOfAxioms());
+
+		Set<Integer> expectedEntities = new TreeSet<>();
+		expectedEntities.add(IntegerEntityManager.topClassId);
+		expectedEntities.add(A);
+		expectedEntities.add(B);
+		expectedEntities.add(C);
+		expectedEntities.add(F);
+		expectedEntities.add(R);
+		expectedEntities.add(S);
+		Assert.assertEquals(expectedEntities, module.getEntities());
+		Assert.assertFalse(module.containsEntity(D));
+		Assert.assertFalse(module.containsEntity(E));
+	}
+
+	/**
+	 * Tests that a module extracted with an index for a signature of several
+	 * classes contains the axioms reachable from each class, the axioms of the
+	 * top class, and the role inclusions, but not the axioms that are only
+	 * reachable from other classes.
+	 */
+	@Test
+	public void testExtractModuleWithIndex() {
+		Set<NormalizedIntegerAxiom> axioms = createAxioms();
+		ModuleIndex index = new ModuleIndex(axioms);
+		Set<Integer> signature = new TreeSet<>();
+		signature.add(D);
+		signature.add(C);
+		Module module = new DefaultModuleExtractor().extractModule(index, signature);
+
+		Set<NormalizedIntegerAxiom> expectedAxioms = new HashSet<>();
+		expectedAxioms.add(this.factory.createGCI0Axiom(D, E, Collections.emptySet()));
+		expectedAxioms.add(this.factory.createGCI0Axiom(IntegerEntityManager.topClassId, F, Collections.emptySet()));
+		expectedAxioms.add(this.factory.createRI2Axiom(R, S, Collections.emptySet()));
+		Assert.assertEquals(expectedAxioms, module.getAxioms());
+
+		Set<Integer> expectedEntities = new TreeSet<>();
+		expectedEntities.add(IntegerEntityManager.topClassId);
+		expectedEntities.add(C);
+		expectedEntities.add(D);
+		expectedEntities.add(E);
+		expectedEntities.add(F);
+		expectedEntities.add(R);
+		expectedEntities.add(S);
+		Assert.assertEquals(expectedEntities, module.getEntities());
+		Assert.assertEquals(axioms.size(), index.getNumberOfAxioms());
+	}
+
+	/**
+	 * Tests that a module extracted with an updated index contains the added
+	 * axiom and the axioms reachable from it, and does not contain the
+	 * removed axiom.
+	 */
+	@Test
+	public void testExtractModuleWithUpdatedIndex() {
+		Set<NormalizedIntegerAxiom> axioms = createAxioms();
+		NormalizedIntegerAxiom removedAxiom = this.factory.createGCI0Axiom(A, B, Collections.emptySet());
+		NormalizedIntegerAxiom addedAxiom = this.factory.createGCI0Axiom(A, D, Collections.emptySet());
+		ModuleIndex index = new ModuleIndex(axioms).update(Collections.singleton(addedAxiom),
+				Collections.singleton(removedAxiom));
+		Module module = new DefaultModuleExtractor().extractModule(index, Collections.singleton(A));
+
+		Set<NormalizedIntegerAxiom> expectedAxioms = new HashSet<>();
+		expectedAxioms.add(addedAxiom);
+		expectedAxioms.add(this.factory.createGCI0Axiom(D, E, Collections.emptySet()));
+		expectedAxioms.add(this.factory.createGCI0Axiom(IntegerEntityManager.topClassId, F, Collections.emptySet()));
+		expectedAxioms.add(this.factory.createRI2Axiom(R, S, Collections.emptySet()));
+		Assert.assertEquals(expectedAxioms, module.getAxioms());
+
+		Set<Integer> expectedEntities = new TreeSet<>();
+		expectedEntities.add(IntegerEntityManager.topClassId);
+		expectedEntities.add(A);
+		expectedEntities.add(D);
+		expectedEntities.add(E);
+		expectedEntities.add(F);
+		expectedEntities.add(R);
+		expectedEntities.add(S);
+		Assert.assertEquals(expectedEntities, module.getEntities());
+		Assert.assertEquals(axioms.size(), index.getNumberOfAxioms());
+	}
+
+}
@@ -0,0 +1,140 @@
+package de.tudresden.inf.lat.born.module;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ *
+ * This is a unit test for {@link ModuleIndex}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ModuleIndexTest {
+
+	static final int FIRST_CLASS = 10;
+	static final int NUMBER_OF_CLASSES = 100;
+
+	private final NormalizedIntegerAxiomFactory factory = new IntegerOntologyObjectFactoryImpl()
+			.getNormalizedAxiomFactory();
+
+	/**
+	 * Returns the axiom that says that the class with the given number is a
+	 * subclass of the next one.
+	 */
+	NormalizedIntegerAxiom createAxiom(int number) {
+		return this.factory.createGCI0Axiom(FIRST_CLASS + number, FIRST_CLASS + number + 1, Collections.emptySet());
+	}
+
+	void assertSameModules(Set<NormalizedIntegerAxiom> axioms, ModuleIndex index) {
+		Assert.assertEquals(axioms, index.getAxioms());
+		Assert.assertEquals(axioms.size(), index.getNumberOfAxioms());
+		DefaultModuleExtractor extractor = new DefaultModuleExtractor();
+		ModuleIndex expectedIndex = new ModuleIndex(axioms);
+		for (int number = 0; number <= NUMBER_OF_CLASSES; number += 7) {
+			Set<Integer> signature = Collections.singleton(FIRST_CLASS + number);
+			Module expected = extractor.extractModule(expectedIndex, signature);
+			Module actual = extractor.extractModule(index, signature);
+			Assert.assertEquals(expected.getAxioms(), actual.getAxioms());
+			Assert.assertEquals(expected.getEntities(), actual.getEntities());
+		}
+	}
+
+	/**
+	 * Tests that adding axioms one at a time keeps the positions of the
+	 * previous axioms, merges the levels so that there are only a logarithmic
+	 * number of them, and does not change the previous indexes.
+	 */
+	@Test
+	public void testAddAxioms() {
+		Set<NormalizedIntegerAxiom> axioms = new HashSet<>();
+		ModuleIndex index = new ModuleIndex(axioms);
+		ModuleIndex halfIndex = null;
+		Set<NormalizedIntegerAxiom> halfAxioms = null;
+		for (int number = 0; number < NUMBER_OF_CLASSES; number++) {
+			NormalizedIntegerAxiom axiom = createAxiom(number);
+			index = index.update(Collections.singleton(axiom), Collections.emptySet());
+			axioms.add(axiom);
+			Assert.assertEquals(axiom, index.getAxiom(number));
+			Assert.assertTrue(index.getNumberOfLevels() <= Integer.SIZE - Integer.numberOfLeadingZeros(number + 1));
+			if (number == NUMBER_OF_CLASSES / 2) {
+				halfIndex = index;
+				halfAxioms = new HashSet<>(axioms);
+			}
+		}
+		Assert.assertEquals(NUMBER_OF_CLASSES, index.getNumberOfPositions());
+		assertSameModules(axioms, index);
+		assertSameModules(halfAxioms, halfIndex);
+	}
+
+	/**
+	 * Tests that removed axioms are not in the modules, and that the index is
+	 * built again when more than half of its positions are removed.
+	 */
+	@Test
+	public void testRemoveAxioms() {
+		Set<NormalizedIntegerAxiom> axioms = new HashSet<>();
+		for (int number = 0; number < NUMBER_OF_CLASSES; number++) {
+			axioms.add(createAxiom(number));
+		}
+		ModuleIndex index = new ModuleIndex(axioms);
+		List<NormalizedIntegerAxiom> removedAxioms = new ArrayList<>();
+		for (int number = 0; number < NUMBER_OF_CLASSES / 2; number += 2) {
+			removedAxioms.add(createAxiom(number));
+		}
+		ModuleIndex updatedIndex = index.update(Collections.emptySet(), removedAxioms);
+		axioms.removeAll(removedAxioms);
+		Assert.assertEquals(NUMBER_OF_CLASSES, updatedIndex.getNumberOfPositions());
+		assertSameModules(axioms, updatedIndex);
+
+		NormalizedIntegerAxiom addedAxiom = createAxiom(0);
+		removedAxioms.clear();
+		for (int number = 1; number < NUMBER_OF_CLASSES; number += 2) {
+			removedAxioms.add(createAxiom(number));
+		}
+		ModuleIndex rebuiltIndex = updatedIndex.update(Collections.singleton(addedAxiom), removedAxioms);
+		axioms.removeAll(removedAxioms);
+		axioms.add(addedAxiom);
+		Assert.assertEquals(axioms.size(), rebuiltIndex.getNumberOfPositions());
+		Assert.assertEquals(1, rebuiltIndex.getNumberOfLevels());
+		assertSameModules(axioms, rebuiltIndex);
+	}
+
+	/**
+	 * Tests that an index that was already updated can be updated again,
+	 * without changing the index obtained by the first update.
+	 */
+	@Test
+	public void testUpdateTwice() {
+		Set<NormalizedIntegerAxiom> axioms = new HashSet<>();
+		for (int number = 0; number < NUMBER_OF_CLASSES / 2; number++) {
+			axioms.add(createAxiom(number));
+		}
+		ModuleIndex index = new ModuleIndex(axioms);
+		NormalizedIntegerAxiom firstAxiom = createAxiom(NUMBER_OF_CLASSES / 2);
+		NormalizedIntegerAxiom secondAxiom = createAxiom(NUMBER_OF_CLASSES / 2 + 1);
+		ModuleIndex firstIndex = index.update(Collections.singleton(firstAxiom), Collections.emptySet());
+		ModuleIndex secondIndex = index.update(Collections.singleton(secondAxiom),
+				Collections.singleton(createAxiom(0)));
+
+		Set<NormalizedIntegerAxiom> firstAxioms = new HashSet<>(axioms);
+		firstAxioms.add(firstAxiom);
+		Set<NormalizedIntegerAxiom> secondAxioms = new HashSet<>(axioms);
+		secondAxioms.add(secondAxiom);
+		secondAxioms.remove(createAxiom(0));
+		assertSameModules(firstAxioms, firstIndex);
+		assertSameModules(secondAxioms, secondIndex);
+		assertSameModules(axioms, index);
+	}
+
+}
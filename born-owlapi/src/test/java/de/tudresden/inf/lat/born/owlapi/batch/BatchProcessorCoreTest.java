@@ -0,0 +1,233 @@
+package de.tudresden.inf.lat.born.owlapi.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntologyCache;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+import de.tudresden.inf.lat.util.map.OptMap;
+
+/**
+ *
+ * This is a unit test for {@link BatchProcessorCore}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BatchProcessorCoreTest {
+
+	static final String PREFIX = "http://example.org/ont#";
+
+	static final String ONTOLOGY = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(Class(ont:C))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:B ont:C)\n" //
+			+ ")\n";
+
+	static final String ADDITIONAL_COMPLETION_RULES = "% additional completion rules\n";
+
+	/**
+	 * Tests that only the queries are found, without blanks or comments.
+	 */
+	@Test
+	public void testGetQueries() {
+		BatchProcessorCore instance = new BatchProcessorCore();
+		String text = "" //
+				+ "% queries\n" //
+				+ "query(sub('A', 'B')).\n" //
+				+ "x0 :- x1.\n" //
+				+ "query( sub( 'A, B', 'C' ) ). % comment\n" //
+				+ "query(sub(c1,c2)).";
+		Assert.assertEquals(Arrays.asList("query(sub('A','B')).", "query(sub('A, B','C')).", "query(sub(c1,c2))."),
+				instance.getQueries(text));
+		Assert.assertEquals(Collections.emptyList(), instance.getQueries(""));
+	}
+
+	/**
+	 * Tests that the arguments of a term are split at the commas that are not
+	 * quoted.
+	 */
+	@Test
+	public void testGetArguments() {
+		BatchProcessorCore instance = new BatchProcessorCore();
+		Assert.assertEquals(Arrays.asList("A", "B"), instance.getArguments("sub('A','B')"));
+		Assert.assertEquals(Arrays.asList("A, B", "C"), instance.getArguments("sub('A, B', 'C')"));
+		Assert.assertEquals(Arrays.asList("c1", "f(c2)"), instance.getArguments("sub(c1, f(c2))"));
+		Assert.assertEquals(Collections.emptyList(), instance.getArguments("x0"));
+	}
+
+	/**
+	 * Tests that the answers of ProbLog are found with the terms written in
+	 * the queries.
+	 */
+	@Test
+	public void testParseAnswers() {
+		BatchProcessorCore instance = new BatchProcessorCore();
+		String problogOutput = "" //
+				+ "sub(A,B):\t0.7\n" //
+				+ "   sub('http://example.org/ont#A','http://example.org/ont#C'):  0.14\n" //
+				+ "no answer\n";
+		OptMap<String, String> answers = instance.parseAnswers(problogOutput);
+		Assert.assertEquals(2, answers.size());
+		Assert.assertEquals(Optional.of("0.7"), answers.get(instance.getKey("sub('A', 'B')")));
+		Assert.assertEquals(Optional.of("0.14"),
+				answers.get(instance.getKey("sub('http://example.org/ont#A', 'http://example.org/ont#C')")));
+		Assert.assertEquals(Optional.empty(), answers.get(instance.getKey("sub('B', 'C')")));
+	}
+
+	/**
+	 * Tests that the ontology is compiled with the completion rules of the
+	 * configuration, that the prefixes of the queries are expanded, and that
+	 * the queries are divided in chunks.
+	 */
+	@Test
+	public void testRun() throws OWLOntologyCreationException {
+		List<String> completionRules = new ArrayList<>();
+		CompiledOntologyCache cache = new CompiledOntologyCache() {
+
+			@Override
+			public CompiledOntology get(OWLOntology ontology, boolean useOfDefaultCompletionRules,
+					String additionalCompletionRules, ProcessorExecutionResult executionResult) {
+				completionRules.add(additionalCompletionRules);
+				return super.get(ontology, useOfDefaultCompletionRules, additionalCompletionRules,
+						executionResult);
+			}
+
+		};
+		List<String> programs = new ArrayList<>();
+		BatchProcessorConfiguration conf = new BatchProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(ProcessorConfigurationImpl
+				.readOntology(new ByteArrayInputStream(ONTOLOGY.getBytes(StandardCharsets.UTF_8))));
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setAdditionalCompletionRules(ADDITIONAL_COMPLETION_RULES);
+		conf.setQueries("query(sub('ont:A', 'ont:B')).\nquery(sub('ont:A', 'ont:C')).\n");
+		conf.setChunkSize(1);
+		conf.setQueryProcessor(program -> {
+			programs.add(program);
+			return "";
+		});
+
+		String result = new BatchProcessorCore(cache).run(conf, System.nanoTime());
+		Assert.assertEquals(Collections.singletonList(ADDITIONAL_COMPLETION_RULES), completionRules);
+		Assert.assertEquals(2, programs.size());
+		programs.forEach(program -> Assert.assertTrue(program.contains(ADDITIONAL_COMPLETION_RULES)));
+		Assert.assertTrue(programs.get(0).contains(PREFIX + "B"));
+		Assert.assertTrue(programs.get(1).contains(PREFIX + "C"));
+		Assert.assertEquals(3, result.split(BatchProcessorCore.LINE_SEPARATOR).length);
+	}
+
+	/**
+	 * Tests that the prefixes of the queries are expanded only once, even if
+	 * the expanded IRI contains the prefix name again.
+	 */
+	@Test
+	public void testRunWithPrefixInIri() throws OWLOntologyCreationException {
+		String prefix = "urn:ont:";
+		List<String> programs = new ArrayList<>();
+		BatchProcessorConfiguration conf = new BatchProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(ProcessorConfigurationImpl.readOntology(new ByteArrayInputStream(
+				ONTOLOGY.replace(PREFIX, prefix).getBytes(StandardCharsets.UTF_8))));
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQueries("query(sub('ont:A', 'ont:C')).\n");
+		conf.setQueryProcessor(program -> {
+			programs.add(program);
+			return "sub('" + prefix + "A','" + prefix + "C'):\t0.14\n";
+		});
+
+		String result = new BatchProcessorCore().run(conf, System.nanoTime());
+		Assert.assertEquals(1, programs.size());
+		Assert.assertTrue(programs.get(0).contains("query(sub('" + prefix + "A','" + prefix + "C'))."));
+		Assert.assertFalse(programs.get(0).contains("urn:" + prefix));
+		Assert.assertTrue(result.trim().endsWith("0.14"));
+	}
+
+	/**
+	 * Tests that, with aliases, the ProbLog programs have the queries with
+	 * aliases, and that the answers are decoded.
+	 */
+	@Test
+	public void testRunWithAliases() throws OWLOntologyCreationException {
+		BatchProcessorCore instance = new BatchProcessorCore();
+		List<String> programs = new ArrayList<>();
+		BatchProcessorConfiguration conf = new BatchProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(ProcessorConfigurationImpl
+				.readOntology(new ByteArrayInputStream(ONTOLOGY.getBytes(StandardCharsets.UTF_8))));
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQueries("query(sub('ont:A', 'ont:C')).\n");
+		conf.setUsingAliases(true);
+		conf.setQueryProcessor(program -> {
+			programs.add(program);
+			StringBuilder sb = new StringBuilder();
+			instance.getQueries(program).forEach(query -> {
+				sb.append(query.substring("query(".length(), query.length() - ").".length()));
+				sb.append(":\t0.14\n");
+			});
+			return sb.toString();
+		});
+
+		String result = instance.run(conf, System.nanoTime());
+		Assert.assertEquals(1, programs.size());
+		List<String> queries = instance.getQueries(programs.get(0));
+		Assert.assertEquals(1, queries.size());
+		Assert.assertFalse(queries.get(0).contains(PREFIX));
+		Assert.assertTrue(result.trim().endsWith("0.14"));
+	}
+
+	/**
+	 * Tests that the query processor that reads the ProbLog program from a
+	 * file is used instead of the one that receives it as a string.
+	 */
+	@Test
+	public void testRunWithFileQueryProcessor() throws OWLOntologyCreationException {
+		List<String> programs = new ArrayList<>();
+		BatchProcessorConfiguration conf = new BatchProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(ProcessorConfigurationImpl
+				.readOntology(new ByteArrayInputStream(ONTOLOGY.getBytes(StandardCharsets.UTF_8))));
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQueries("query(sub('ont:A', 'ont:C')).\n");
+		conf.setQueryProcessor(program -> {
+			throw new AssertionError("The query processor should not be called.");
+		});
+		conf.setFileQueryProcessor(file -> {
+			try {
+				programs.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return "sub('" + PREFIX + "A','" + PREFIX + "C'):\t0.14\n";
+		});
+
+		String result = new BatchProcessorCore().run(conf, System.nanoTime());
+		Assert.assertEquals(1, programs.size());
+		Assert.assertTrue(programs.get(0).contains("query(sub('" + PREFIX + "A','" + PREFIX + "C'))."));
+		Assert.assertTrue(result.trim().endsWith("0.14"));
+	}
+
+}
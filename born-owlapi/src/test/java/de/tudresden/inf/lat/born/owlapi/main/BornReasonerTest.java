@@ -0,0 +1,317 @@
+package de.tudresden.inf.lat.born.owlapi.main;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+import de.tudresden.inf.lat.born.engine.ProbabilisticOntologyFixture;
+import de.tudresden.inf.lat.born.owlapi.processor.CompiledOntology;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorExecutionResult;
+
+/**
+ * This is a unit test for {@link BornReasoner}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BornReasonerTest {
+
+	static final String PREFIX = ProbabilisticOntologyFixture.PREFIX;
+
+	static final String ONTOLOGY = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(Class(ont:C))\n" //
+			+ "Declaration(NamedIndividual(ont:i))\n" //
+			+ "Declaration(NamedIndividual(ont:j))\n" //
+			+ "Declaration(NamedIndividual(ont:k))\n" //
+			+ "Declaration(NamedIndividual(ont:l))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:C)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:B ont:C)\n" //
+			+ "ClassAssertion(ont:A ont:i)\n" //
+			+ "ClassAssertion(ont:B ont:j)\n" //
+			+ "ClassAssertion(Annotation(born:probability \"x1\"^^xsd:string) ont:A ont:k)\n" //
+			+ "ClassAssertion(ont:C ont:l)\n" //
+			+ ")\n";
+
+	static OWLOntology readOntology(String text) throws OWLOntologyCreationException {
+		return ProcessorConfigurationImpl.readOntology(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	static OWLClass getOWLClass(OWLOntology ontology, String name) {
+		return ontology.getOWLOntologyManager().getOWLDataFactory().getOWLClass(IRI.create(PREFIX + name));
+	}
+
+	/**
+	 * Tests that the instances of a class of an OWL ontology with annotated
+	 * class assertions are retrieved with their probabilities, ranked, and
+	 * filtered by the threshold.
+	 */
+	@Test
+	public void testGetInstances() throws OWLOntologyCreationException {
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		OWLDataFactory dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+		BornReasoner reasoner = new BornReasoner(ontology, false);
+		try {
+			Map<OWLNamedIndividual, Double> instances = reasoner
+					.getInstances(dataFactory.getOWLClass(IRI.create(PREFIX + "C")), ExactInferenceTest.NETWORK, 0.3);
+			List<OWLNamedIndividual> expectedIndividuals = Arrays.asList(
+					dataFactory.getOWLNamedIndividual(IRI.create(PREFIX + "l")),
+					dataFactory.getOWLNamedIndividual(IRI.create(PREFIX + "i")),
+					dataFactory.getOWLNamedIndividual(IRI.create(PREFIX + "j")));
+			List<Double> expectedProbabilities = Arrays.asList(1.0, 0.7, 0.41);
+			Assert.assertEquals(expectedIndividuals, new ArrayList<>(instances.keySet()));
+			for (int index = 0; index < expectedIndividuals.size(); index++) {
+				Assert.assertEquals(expectedProbabilities.get(index), instances.get(expectedIndividuals.get(index)),
+						1e-9);
+			}
+
+			Map<OWLNamedIndividual, Double> instancesOfA = reasoner
+					.getInstances(dataFactory.getOWLClass(IRI.create(PREFIX + "A")), ExactInferenceTest.NETWORK, 0);
+			Assert.assertEquals(2, instancesOfA.size());
+			Assert.assertEquals(1, instancesOfA.get(dataFactory.getOWLNamedIndividual(IRI.create(PREFIX + "i"))),
+					1e-9);
+			Assert.assertEquals(0.41, instancesOfA.get(dataFactory.getOWLNamedIndividual(IRI.create(PREFIX + "k"))),
+					1e-9);
+		} finally {
+			reasoner.dispose();
+		}
+	}
+
+	/**
+	 * Tests that a buffering reasoner applies the changes of the ontology only
+	 * when it is flushed, and that the compiled ontology of the previous state
+	 * does not change.
+	 */
+	@Test
+	public void testBuffering() throws OWLOntologyCreationException {
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		OWLOntologyManager manager = ontology.getOWLOntologyManager();
+		OWLAxiom subClassOfB = manager.getOWLDataFactory().getOWLSubClassOfAxiom(getOWLClass(ontology, "A"),
+				getOWLClass(ontology, "B"));
+		BornReasoner reasoner = new BornReasoner(ontology, true);
+		try {
+			Assert.assertFalse(reasoner.isEntailed(subClassOfB));
+			CompiledOntology compiledOntology = reasoner.getCompiledOntology(true, "");
+			int numberOfNormalizedAxioms = compiledOntology.getNormalizedAxioms().size();
+
+			manager.addAxiom(ontology, subClassOfB);
+			Assert.assertEquals(Collections.singleton(subClassOfB), reasoner.getPendingAxiomAdditions());
+			Assert.assertFalse(reasoner.isEntailed(subClassOfB));
+			Assert.assertSame(compiledOntology, reasoner.getCompiledOntology(true, ""));
+
+			reasoner.flush();
+			Assert.assertTrue(reasoner.getPendingChanges().isEmpty());
+			Assert.assertTrue(reasoner.isEntailed(subClassOfB));
+			Assert.assertEquals(numberOfNormalizedAxioms + 1,
+					reasoner.getCompiledOntology(true, "").getNormalizedAxioms().size());
+			Assert.assertEquals(numberOfNormalizedAxioms, compiledOntology.getNormalizedAxioms().size());
+
+			manager.removeAxiom(ontology, subClassOfB);
+			Assert.assertEquals(Collections.singleton(subClassOfB), reasoner.getPendingAxiomRemovals());
+			Assert.assertTrue(reasoner.isEntailed(subClassOfB));
+			reasoner.flush();
+			Assert.assertFalse(reasoner.isEntailed(subClassOfB));
+			Assert.assertEquals(numberOfNormalizedAxioms,
+					reasoner.getCompiledOntology(true, "").getNormalizedAxioms().size());
+		} finally {
+			reasoner.dispose();
+		}
+	}
+
+	/**
+	 * Tests that the changes made before a buffering reasoner compiles the
+	 * ontology are undone in the compiled ontology until the reasoner is
+	 * flushed.
+	 */
+	@Test
+	public void testUndo() throws OWLOntologyCreationException {
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		OWLOntologyManager manager = ontology.getOWLOntologyManager();
+		OWLDataFactory dataFactory = manager.getOWLDataFactory();
+		OWLAxiom subClassOfA = dataFactory.getOWLSubClassOfAxiom(getOWLClass(ontology, "B"),
+				getOWLClass(ontology, "A"));
+		OWLAxiom subClassOfB = dataFactory.getOWLSubClassOfAxiom(getOWLClass(ontology, "A"),
+				getOWLClass(ontology, "B"));
+		OWLAxiom subClassOfC = dataFactory.getOWLSubClassOfAxiom(getOWLClass(ontology, "C"),
+				getOWLClass(ontology, "A"));
+		manager.addAxiom(ontology, subClassOfA);
+		BornReasoner reasoner = new BornReasoner(ontology, true);
+		try {
+			manager.addAxiom(ontology, subClassOfB);
+			manager.removeAxiom(ontology, subClassOfA);
+			manager.addAxiom(ontology, subClassOfC);
+			manager.removeAxiom(ontology, subClassOfC);
+			Assert.assertEquals(4, reasoner.getPendingChanges().size());
+
+			Assert.assertTrue(reasoner.isEntailed(subClassOfA));
+			Assert.assertFalse(reasoner.isEntailed(subClassOfB));
+			Assert.assertFalse(reasoner.isEntailed(subClassOfC));
+
+			reasoner.flush();
+			Assert.assertFalse(reasoner.isEntailed(subClassOfA));
+			Assert.assertTrue(reasoner.isEntailed(subClassOfB));
+			Assert.assertFalse(reasoner.isEntailed(subClassOfC));
+		} finally {
+			reasoner.dispose();
+		}
+	}
+
+	/**
+	 * Tests that a reasoner that is not buffering applies the changes of the
+	 * ontology right away.
+	 */
+	@Test
+	public void testNonBuffering() throws OWLOntologyCreationException {
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		OWLOntologyManager manager = ontology.getOWLOntologyManager();
+		OWLAxiom subClassOfB = manager.getOWLDataFactory().getOWLSubClassOfAxiom(getOWLClass(ontology, "A"),
+				getOWLClass(ontology, "B"));
+		BornReasoner reasoner = new BornReasoner(ontology, false);
+		try {
+			Assert.assertFalse(reasoner.isEntailed(subClassOfB));
+			manager.addAxiom(ontology, subClassOfB);
+			Assert.assertTrue(reasoner.getPendingChanges().isEmpty());
+			Assert.assertTrue(reasoner.isEntailed(subClassOfB));
+			manager.removeAxiom(ontology, subClassOfB);
+			Assert.assertFalse(reasoner.isEntailed(subClassOfB));
+		} finally {
+			reasoner.dispose();
+		}
+	}
+
+	/**
+	 * Tests that the ontology can be changed while a submitted query is
+	 * running, that the query is answered with the state of the ontology it
+	 * was submitted with, and that a change waits while the compiled ontology
+	 * is being read.
+	 */
+	@Test
+	public void testChangeWhileQueryIsRunning()
+			throws OWLOntologyCreationException, InterruptedException, ExecutionException {
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		OWLOntologyManager manager = ontology.getOWLOntologyManager();
+		OWLDataFactory dataFactory = manager.getOWLDataFactory();
+		OWLAxiom subClassOfD = dataFactory.getOWLSubClassOfAxiom(getOWLClass(ontology, "A"),
+				getOWLClass(ontology, "D"));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQuery("query(sub('" + PREFIX + "A', '" + PREFIX + "C')).");
+		conf.setQueryProcessor(program -> {
+			started.countDown();
+			try {
+				proceed.await(0x10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			return program;
+		});
+		BornReasoner reasoner = new BornReasoner(ontology, false);
+		try {
+			CompletableFuture<ProcessorExecutionResult> future = reasoner.submit(conf);
+			Assert.assertTrue(started.await(0x10, TimeUnit.SECONDS));
+			Thread adding = new Thread(() -> manager.addAxiom(ontology, subClassOfD));
+			adding.start();
+			adding.join(0x10000);
+			Assert.assertFalse(adding.isAlive());
+			proceed.countDown();
+			String program = future.get().getResult();
+			Assert.assertTrue(program.contains(PREFIX + "C"));
+			Assert.assertFalse(program.contains(PREFIX + "D"));
+			Assert.assertTrue(reasoner.isEntailed(subClassOfD));
+
+			CompiledOntology compiledOntology = reasoner.getCompiledOntology(conf.hasDefaultCompletionRules(),
+					conf.getAdditionalCompletionRules());
+			Lock readLock = compiledOntology.getReadLock();
+			Thread removing = new Thread(() -> manager.removeAxiom(ontology, subClassOfD));
+			readLock.lock();
+			try {
+				removing.start();
+				removing.join(0x40);
+				Assert.assertTrue(removing.isAlive());
+				Assert.assertTrue(compiledOntology.getMapOfNames().get(PREFIX + "D").isPresent());
+			} finally {
+				readLock.unlock();
+			}
+			removing.join(0x10000);
+			Assert.assertFalse(removing.isAlive());
+			Assert.assertFalse(reasoner.isEntailed(subClassOfD));
+		} finally {
+			reasoner.dispose();
+		}
+	}
+
+	/**
+	 * Tests that disposing the reasoner cancels the running queries, and that
+	 * the reasoner cannot be used afterwards.
+	 */
+	@Test
+	public void testDispose() throws OWLOntologyCreationException, InterruptedException {
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		CountDownLatch started = new CountDownLatch(1);
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQuery("query(sub('" + PREFIX + "A', '" + PREFIX + "C')).");
+		conf.setQueryProcessor(program -> {
+			started.countDown();
+			try {
+				new CountDownLatch(1).await(0x10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			return program;
+		});
+		BornReasoner reasoner = new BornReasoner(ontology, false);
+		Assert.assertNotNull(reasoner.getClassification());
+		CompletableFuture<ProcessorExecutionResult> future = reasoner.submit(conf);
+		Assert.assertTrue(started.await(0x10, TimeUnit.SECONDS));
+
+		reasoner.dispose();
+		Assert.assertTrue(future.isCancelled());
+		try {
+			reasoner.getClassification();
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			Assert.assertEquals(BornReasoner.DISPOSED_MSG, e.getMessage());
+		}
+		try {
+			reasoner.submit(conf);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			Assert.assertEquals(BornReasoner.DISPOSED_MSG, e.getMessage());
+		}
+	}
+
+}
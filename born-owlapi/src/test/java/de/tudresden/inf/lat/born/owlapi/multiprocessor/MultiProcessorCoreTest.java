@@ -0,0 +1,100 @@
+package de.tudresden.inf.lat.born.owlapi.multiprocessor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+import de.tudresden.inf.lat.born.engine.ProbabilisticOntologyFixture;
+import de.tudresden.inf.lat.born.owlapi.processor.LocalQueryProcessorWorker;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+import de.tudresden.inf.lat.born.owlapi.processor.QueryProcessorPool;
+
+/**
+ * This is a unit test for {@link MultiProcessorCore}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class MultiProcessorCoreTest {
+
+	static final String PREFIX = ProbabilisticOntologyFixture.PREFIX;
+
+	static final String ONTOLOGY = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ ")\n";
+
+	static final String ANSWER = "query(sub('" + PREFIX + "A', '" + PREFIX + "B')):\t0.7\n";
+
+	/**
+	 * Tests that the queries of different ontologies call a pool of query
+	 * processors at the same time, which only succeeds if two calls overlap.
+	 */
+	@Test
+	public void testConcurrentCallsToPool() throws Exception {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (QueryProcessorPool pool = new QueryProcessorPool(() -> new LocalQueryProcessorWorker(program -> {
+			try {
+				barrier.await(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			} catch (BrokenBarrierException | TimeoutException e) {
+				throw new IllegalStateException(e);
+			}
+			return ANSWER;
+		}), 2, QueryProcessorPool.NO_TIMEOUT, QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD)) {
+			List<OntologyAndNetwork> ontologyList = new ArrayList<>();
+			List<List<SubsumptionQuery>> queries = new ArrayList<>();
+			for (String name : Arrays.asList("first", "second")) {
+				OWLOntology ontology = ProcessorConfigurationImpl
+						.readOntology(new ByteArrayInputStream(ONTOLOGY.getBytes(StandardCharsets.UTF_8)));
+				OWLDataFactory dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+				ontologyList.add(new OntologyAndNetwork(name, ontology, ExactInferenceTest.NETWORK));
+				queries.add(Collections.singletonList(new SubsumptionQuery(
+						dataFactory.getOWLClass(IRI.create(PREFIX + "A")),
+						dataFactory.getOWLClass(IRI.create(PREFIX + "B")))));
+			}
+			MultiProcessorConfiguration conf = new MultiProcessorConfigurationImpl();
+			conf.setOntologyList(ontologyList);
+			conf.setQueryProcessor(pool);
+			conf.setShowingLog(false);
+
+			List<List<CompletableFuture<String>>> answers = new MultiProcessorCore().submit(conf, queries, executor,
+					System.nanoTime());
+			for (List<CompletableFuture<String>> answersOfOntology : answers) {
+				for (CompletableFuture<String> answer : answersOfOntology) {
+					Assert.assertTrue(answer.get(1, TimeUnit.MINUTES).contains("0.7"));
+				}
+			}
+			Assert.assertEquals(2, pool.getNumberOfCalls());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * This is a unit test for {@link AnswerCache}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class AnswerCacheTest {
+
+	static final String PROGRAM = "0.3::x0.\nquery(sub('A', 'B')).\n";
+	static final String ANSWER = "sub('A','B'): 0.3\n";
+
+	void delete(Path directory) throws IOException {
+		Files.deleteIfExists(directory.resolve(AnswerCache.FILE_NAME));
+		Files.deleteIfExists(directory);
+	}
+
+	/**
+	 * Tests that the answers are kept after closing and opening the cache.
+	 */
+	@Test
+	public void testPersistence() throws IOException {
+		Path directory = Files.createTempDirectory(ProcessorCore.TEMP_FILE_PREFIX);
+		try {
+			String key = AnswerCache.getKey(PROGRAM);
+			Assert.assertEquals(64, key.length());
+			try (AnswerCache cache = new AnswerCache(directory, 0x1000, 1)) {
+				Assert.assertEquals(Optional.empty(), cache.get(key));
+				Assert.assertTrue(cache.put(key, ANSWER));
+				Assert.assertFalse(cache.put(key, ANSWER));
+				Assert.assertTrue(cache.put("other", "σ"));
+				Assert.assertEquals(Optional.of(ANSWER), cache.get(key));
+			}
+			Files.write(directory.resolve(AnswerCache.FILE_NAME), new byte[] { 0, 0, 0, 9, 'x' },
+					StandardOpenOption.APPEND);
+			try (AnswerCache cache = new AnswerCache(directory, 0x1000, 1)) {
+				Assert.assertEquals(2, cache.getNumberOfAnswers());
+				Assert.assertEquals(Optional.of(ANSWER), cache.get(key));
+				Assert.assertEquals(Optional.of("σ"), cache.get("other"));
+				Assert.assertTrue(cache.put("new", ANSWER));
+			}
+			try (AnswerCache cache = new AnswerCache(directory, 0x1000, 1)) {
+				Assert.assertEquals(3, cache.getNumberOfAnswers());
+				Assert.assertEquals(Optional.of(ANSWER), cache.get("new"));
+			}
+		} finally {
+			delete(directory);
+		}
+	}
+
+	/**
+	 * Tests that storing an answer from an interrupted thread does not close
+	 * the cache, and that the thread keeps its interrupted status.
+	 */
+	@Test
+	public void testInterruptedThread() throws IOException {
+		Path directory = Files.createTempDirectory(ProcessorCore.TEMP_FILE_PREFIX);
+		try (AnswerCache cache = new AnswerCache(directory, 0x1000, 0)) {
+			Thread.currentThread().interrupt();
+			try {
+				Assert.assertTrue(cache.put("a", ANSWER));
+			} finally {
+				Assert.assertTrue(Thread.interrupted());
+			}
+			Assert.assertTrue(cache.put("b", ANSWER));
+			Assert.assertEquals(Optional.of(ANSWER), cache.get("a"));
+			Assert.assertEquals(Optional.of(ANSWER), cache.get("b"));
+		} finally {
+			delete(directory);
+		}
+	}
+
+	/**
+	 * Tests that answers are not stored when the cache is full.
+	 */
+	@Test
+	public void testMaximumSize() throws IOException {
+		Path directory = Files.createTempDirectory(ProcessorCore.TEMP_FILE_PREFIX);
+		try (AnswerCache cache = new AnswerCache(directory, 0x10, 1)) {
+			Assert.assertTrue(cache.put("a", "b"));
+			Assert.assertFalse(cache.put("key", ANSWER));
+			Assert.assertEquals(Optional.empty(), cache.get("key"));
+			Assert.assertEquals(10, cache.getSize());
+		} finally {
+			delete(directory);
+		}
+	}
+
+	/**
+	 * Tests that answers are found when their records span several segments
+	 * of the file, and after closing and opening the cache.
+	 */
+	@Test
+	public void testSegments() throws IOException {
+		Path directory = Files.createTempDirectory(ProcessorCore.TEMP_FILE_PREFIX);
+		try {
+			try (AnswerCache cache = new AnswerCache(directory, 0x1000, 0, 7)) {
+				for (int index = 0; index < 0x10; index++) {
+					Assert.assertTrue(cache.put("key" + index, ANSWER + index));
+				}
+				for (int index = 0; index < 0x10; index++) {
+					Assert.assertEquals(Optional.of(ANSWER + index), cache.get("key" + index));
+				}
+			}
+			try (AnswerCache cache = new AnswerCache(directory, 0x1000, 0, 0x10)) {
+				Assert.assertEquals(0x10, cache.getNumberOfAnswers());
+				Assert.assertTrue(cache.put("other", "σ"));
+				for (int index = 0; index < 0x10; index++) {
+					Assert.assertEquals(Optional.of(ANSWER + index), cache.get("key" + index));
+				}
+				Assert.assertEquals(Optional.of("σ"), cache.get("other"));
+			}
+		} finally {
+			delete(directory);
+		}
+	}
+
+	/**
+	 * Tests that the file of an open cache cannot be used by another cache,
+	 * and that it can be used after the cache is closed.
+	 */
+	@Test
+	public void testLock() throws IOException {
+		Path directory = Files.createTempDirectory(ProcessorCore.TEMP_FILE_PREFIX);
+		try {
+			try (AnswerCache cache = new AnswerCache(directory)) {
+				Assert.assertTrue(cache.put("a", ANSWER));
+				try (AnswerCache other = new AnswerCache(directory)) {
+					Assert.fail();
+				} catch (IOException e) {
+					Assert.assertEquals(Optional.of(ANSWER), cache.get("a"));
+				}
+			}
+			try (AnswerCache cache = new AnswerCache(directory)) {
+				Assert.assertEquals(Optional.of(ANSWER), cache.get("a"));
+			}
+		} finally {
+			delete(directory);
+		}
+	}
+
+}
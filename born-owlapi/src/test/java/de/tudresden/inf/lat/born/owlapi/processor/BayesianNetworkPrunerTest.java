@@ -0,0 +1,65 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * This is a unit test for {@link BayesianNetworkPruner}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class BayesianNetworkPrunerTest {
+
+	static final String NETWORK = "0.3::x0.\n" //
+			+ "0.6::x1.\n" //
+			+ "0.7::x2 :- x0, x1.\n" //
+			+ "0.1::x2 :- x0, \\+x1.\n" //
+			+ "0.2::x3 :- \\+x0.\n" //
+			+ "0.9::x4 :- x2.\n";
+
+	/**
+	 * Tests that only the needed variables and their ancestors are kept.
+	 */
+	@Test
+	public void testPrune() {
+		BayesianNetworkPruner instance = new BayesianNetworkPruner();
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		Set<String> variables = new TreeSet<>(Arrays.asList("x2", "y0"));
+		String expected = "0.3::x0.\n" //
+				+ "0.6::x1.\n" //
+				+ "0.7::x2 :- x0, x1.\n" //
+				+ "0.1::x2 :- x0, \\+x1.\n";
+		Assert.assertEquals(expected, instance.prune(NETWORK, variables, executionResult));
+		Assert.assertEquals(5, executionResult.getBayesianNetworkSize());
+		Assert.assertEquals(3, executionResult.getPrunedBayesianNetworkSize());
+	}
+
+	/**
+	 * Tests that a network that cannot be parsed is not changed.
+	 */
+	@Test
+	public void testPruneInvalidNetwork() {
+		BayesianNetworkPruner instance = new BayesianNetworkPruner();
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		String network = "0.3::x0 :- .\n";
+		Assert.assertEquals(network, instance.prune(network, new TreeSet<>(), executionResult));
+		Assert.assertEquals(-1, executionResult.getPrunedBayesianNetworkSize());
+	}
+
+	/**
+	 * Tests that the identifiers of a ProbLog text are found.
+	 */
+	@Test
+	public void testGetIdentifiers() {
+		BayesianNetworkPruner instance = new BayesianNetworkPruner();
+		Set<String> expected = new TreeSet<>(Arrays.asList("query", "sub", "x0"));
+		Assert.assertEquals(expected, instance.getIdentifiers("query(sub('A', x0)). % x1\n"));
+	}
+
+}
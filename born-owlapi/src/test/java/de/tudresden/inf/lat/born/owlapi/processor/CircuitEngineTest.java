@@ -0,0 +1,187 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+import de.tudresden.inf.lat.born.problog.connector.BayesianNetwork;
+
+/**
+ *
+ * This is a unit test for {@link CircuitEngine}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CircuitEngineTest {
+
+	static final double EPSILON = 1e-8;
+
+	static final String AXIOMS = "" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:B ont:C)\n";
+
+	static final String NETWORK_WITH_OTHER_PARAMETERS = "" //
+			+ "0.5::x0.\n" //
+			+ "0.2::x1 :- x0.\n" //
+			+ "0.9::x1 :- \\+x0.\n";
+
+	static final String NETWORK_WITH_OTHER_STRUCTURE = "" //
+			+ "0.7::x0.\n" //
+			+ "0.2::x1.\n";
+
+	/**
+	 * This is an auxiliary class that counts the compilations.
+	 */
+	static class CountingCircuitEngine extends CircuitEngine {
+
+		private final AtomicInteger numberOfCompilations = new AtomicInteger();
+
+		@Override
+		CompiledQueries compile(CompiledOntology compiledOntology, BayesianNetwork network, String expandedQuery,
+				BitSet observableVariables, ProcessorExecutionResult executionResult) {
+			this.numberOfCompilations.incrementAndGet();
+			return super.compile(compiledOntology, network, expandedQuery, observableVariables, executionResult);
+		}
+
+		int getNumberOfCompilations() {
+			return this.numberOfCompilations.get();
+		}
+
+	}
+
+	static double getProbability(CircuitEngine engine, CompiledOntology compiledOntology, String network,
+			String query, Map<String, Boolean> evidence) {
+		String answer = engine.run(compiledOntology, network, query, evidence, new ProcessorExecutionResultImpl());
+		return Double.parseDouble(answer.substring(answer.lastIndexOf(NativeEngine.ANSWER_SEPARATOR)
+				+ NativeEngine.ANSWER_SEPARATOR.length()).trim());
+	}
+
+	/**
+	 * Tests that the circuits are reused when only the probabilities of the
+	 * Bayesian network change, and compiled again when its structure changes.
+	 */
+	@Test
+	public void testStructure() throws OWLOntologyCreationException {
+		CompiledOntology compiledOntology = CrispPreCheckTest.compile(AXIOMS);
+		CountingCircuitEngine engine = new CountingCircuitEngine();
+		String query = CrispPreCheckTest.query("A", "C");
+
+		Assert.assertEquals(0.14, getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query,
+				Collections.emptyMap()), EPSILON);
+		Assert.assertEquals(1, engine.getNumberOfCompilations());
+
+		Assert.assertEquals(0.1, getProbability(engine, compiledOntology, NETWORK_WITH_OTHER_PARAMETERS, query,
+				Collections.emptyMap()), EPSILON);
+		Assert.assertEquals(1, engine.getNumberOfCompilations());
+
+		Assert.assertEquals(0.14, getProbability(engine, compiledOntology, NETWORK_WITH_OTHER_STRUCTURE, query,
+				Collections.emptyMap()), EPSILON);
+		Assert.assertEquals(2, engine.getNumberOfCompilations());
+
+		Assert.assertEquals(0.14, getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query,
+				Collections.emptyMap()), EPSILON);
+		Assert.assertEquals(2, engine.getNumberOfCompilations());
+	}
+
+	/**
+	 * Tests that the circuits are compiled again when there is evidence on a
+	 * variable that they cannot observe, and reused afterwards.
+	 */
+	@Test
+	public void testEvidence() throws OWLOntologyCreationException {
+		CompiledOntology compiledOntology = CrispPreCheckTest.compile(AXIOMS);
+		CountingCircuitEngine engine = new CountingCircuitEngine();
+		String query = CrispPreCheckTest.query("A", "C");
+
+		Assert.assertEquals(0.14, getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query,
+				Collections.emptyMap()), EPSILON);
+		Assert.assertEquals(1, engine.getNumberOfCompilations());
+
+		Assert.assertEquals(0.14 / 0.41, getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query,
+				ProcessorConfigurationImpl.parseEvidence("x1")), EPSILON);
+		Assert.assertEquals(2, engine.getNumberOfCompilations());
+
+		Assert.assertEquals(0, getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query,
+				ProcessorConfigurationImpl.parseEvidence("\\+x1")), EPSILON);
+		Assert.assertEquals(0.14, getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query,
+				Collections.emptyMap()), EPSILON);
+		Assert.assertEquals(2, engine.getNumberOfCompilations());
+
+		Assert.assertEquals(0.2, getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query,
+				ProcessorConfigurationImpl.parseEvidence("x0")), EPSILON);
+		Assert.assertEquals(3, engine.getNumberOfCompilations());
+
+		try {
+			engine.run(compiledOntology, ExactInferenceTest.NETWORK, query,
+					ProcessorConfigurationImpl.parseEvidence("x2"), new ProcessorExecutionResultImpl());
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage().contains("x2"));
+		}
+	}
+
+	/**
+	 * Tests that queries whose circuits are kept are answered while other
+	 * queries are being compiled.
+	 */
+	@Test
+	public void testCompilationDoesNotBlock()
+			throws OWLOntologyCreationException, InterruptedException, ExecutionException, TimeoutException {
+		CompiledOntology compiledOntology = CrispPreCheckTest.compile(AXIOMS);
+		String slowQuery = CrispPreCheckTest.query("A", "B");
+		CountDownLatch compiling = new CountDownLatch(1);
+		CountDownLatch finishing = new CountDownLatch(1);
+		CircuitEngine engine = new CircuitEngine() {
+
+			@Override
+			CompiledQueries compile(CompiledOntology ontology, BayesianNetwork network, String expandedQuery,
+					BitSet observableVariables, ProcessorExecutionResult executionResult) {
+				if (expandedQuery.equals(ontology.getPrefixExpander().rewrite(slowQuery))) {
+					compiling.countDown();
+					try {
+						finishing.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException(e);
+					}
+				}
+				return super.compile(ontology, network, expandedQuery, observableVariables, executionResult);
+			}
+
+		};
+		String query = CrispPreCheckTest.query("A", "C");
+		getProbability(engine, compiledOntology, ExactInferenceTest.NETWORK, query, Collections.emptyMap());
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Double> slowAnswer = executor.submit(() -> getProbability(engine, compiledOntology,
+					ExactInferenceTest.NETWORK, slowQuery, Collections.emptyMap()));
+			Assert.assertTrue(compiling.await(1, TimeUnit.MINUTES));
+			Future<Double> answer = executor.submit(() -> getProbability(engine, compiledOntology,
+					NETWORK_WITH_OTHER_PARAMETERS, query, Collections.emptyMap()));
+			Assert.assertEquals(0.1, answer.get(1, TimeUnit.MINUTES), EPSILON);
+			Assert.assertFalse(slowAnswer.isDone());
+
+			finishing.countDown();
+			Assert.assertEquals(0.7, slowAnswer.get(1, TimeUnit.MINUTES), EPSILON);
+		} finally {
+			finishing.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+}
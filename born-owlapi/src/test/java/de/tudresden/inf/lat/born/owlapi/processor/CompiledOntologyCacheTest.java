@@ -0,0 +1,96 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import de.tudresden.inf.lat.born.engine.ProbabilisticOntologyFixture;
+
+/**
+ *
+ * This is a unit test for {@link CompiledOntologyCache}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CompiledOntologyCacheTest {
+
+	static final String PREFIX = ProbabilisticOntologyFixture.PREFIX;
+
+	static final String ONTOLOGY = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ ")\n";
+
+	static OWLOntology readOntology(String text) throws OWLOntologyCreationException {
+		return ProcessorConfigurationImpl.readOntology(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	static OWLAxiom createAxiom(OWLOntology ontology) {
+		OWLDataFactory dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+		return dataFactory.getOWLSubClassOfAxiom(dataFactory.getOWLClass(IRI.create(PREFIX + "B")),
+				dataFactory.getOWLClass(IRI.create(PREFIX + "A")));
+	}
+
+	/**
+	 * Tests that a change of an ontology discards its compiled ontologies, and
+	 * that a closed cache does not listen to the ontology manager until it is
+	 * used again.
+	 */
+	@Test
+	public void testClose() throws OWLOntologyCreationException {
+		AtomicInteger numberOfNotifications = new AtomicInteger();
+		CompiledOntologyCache cache = new CompiledOntologyCache() {
+
+			@Override
+			public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+				numberOfNotifications.incrementAndGet();
+				super.ontologiesChanged(changes);
+			}
+
+		};
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		OWLOntologyManager manager = ontology.getOWLOntologyManager();
+		OWLAxiom axiom = createAxiom(ontology);
+
+		CompiledOntology compiledOntology = cache.get(ontology, true, "", new ProcessorExecutionResultImpl());
+		Assert.assertSame(compiledOntology, cache.get(ontology, true, "", new ProcessorExecutionResultImpl()));
+		Assert.assertEquals(1, cache.size());
+		Assert.assertEquals(1, cache.getNumberOfManagers());
+		manager.addAxiom(ontology, axiom);
+		Assert.assertEquals(1, numberOfNotifications.get());
+		Assert.assertEquals(0, cache.size());
+
+		cache.get(ontology, true, "", new ProcessorExecutionResultImpl());
+		cache.close();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.getNumberOfManagers());
+		manager.removeAxiom(ontology, axiom);
+		Assert.assertEquals(1, numberOfNotifications.get());
+
+		cache.get(ontology, true, "", new ProcessorExecutionResultImpl());
+		Assert.assertEquals(1, cache.getNumberOfManagers());
+		manager.addAxiom(ontology, axiom);
+		Assert.assertEquals(2, numberOfNotifications.get());
+		Assert.assertEquals(0, cache.size());
+		cache.close();
+	}
+
+}
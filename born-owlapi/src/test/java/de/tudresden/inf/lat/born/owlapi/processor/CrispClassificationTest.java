@@ -0,0 +1,126 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactory;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ *
+ * This is a unit test for {@link CrispClassification}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CrispClassificationTest {
+
+	static final String PREFIX = "http://example.org/ont#";
+
+	static Set<Integer> set(Integer... elements) {
+		return new HashSet<>(Arrays.asList(elements));
+	}
+
+	/**
+	 * Tests the hierarchy of a small ontology with equivalent classes, an
+	 * unsatisfiable class, and an individual.
+	 */
+	@Test
+	public void testClassification() {
+		IntegerOntologyObjectFactory objectFactory = new IntegerOntologyObjectFactoryImpl();
+		IntegerEntityManager entityManager = objectFactory.getEntityManager();
+		NormalizedIntegerAxiomFactory factory = objectFactory.getNormalizedAxiomFactory();
+		int a = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "A", false);
+		int b = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "B", false);
+		int c = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "C", false);
+		int d = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "D", false);
+		int e = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "E", false);
+		int r = entityManager.createNamedEntity(IntegerEntityType.OBJECT_PROPERTY, PREFIX + "r", false);
+		int i = entityManager.createNamedEntity(IntegerEntityType.INDIVIDUAL, PREFIX + "i", false);
+		int nominal = entityManager.createNamedEntity(IntegerEntityType.CLASS, "{i}", true);
+		int top = IntegerEntityManager.topClassId;
+		int bottom = IntegerEntityManager.bottomClassId;
+
+		Set<NormalizedIntegerAxiom> axioms = new HashSet<>();
+		axioms.add(factory.createGCI0Axiom(a, b, Collections.emptySet()));
+		axioms.add(factory.createGCI0Axiom(b, c, Collections.emptySet()));
+		axioms.add(factory.createGCI0Axiom(c, b, Collections.emptySet()));
+		axioms.add(factory.createGCI2Axiom(d, r, e, Collections.emptySet()));
+		axioms.add(factory.createGCI0Axiom(e, bottom, Collections.emptySet()));
+		axioms.add(factory.createNominalAxiom(nominal, i, Collections.emptySet()));
+		axioms.add(factory.createGCI0Axiom(nominal, a, Collections.emptySet()));
+
+		CrispClassification instance = new CrispClassification(entityManager, axioms);
+		Assert.assertTrue(instance.isConsistent());
+		Assert.assertFalse(instance.hasClass(nominal));
+		Assert.assertEquals(set(bottom, d, e), instance.getUnsatisfiableClasses());
+
+		Assert.assertEquals(set(b, c), instance.getEquivalentClasses(b));
+		Assert.assertEquals(set(b, c), instance.getSuperClasses(a, true));
+		Assert.assertEquals(set(b, c, top), instance.getSuperClasses(a, false));
+		Assert.assertEquals(set(top), instance.getSuperClasses(b, true));
+		Assert.assertEquals(set(a), instance.getSubClasses(b, true));
+		Assert.assertEquals(set(bottom, d, e), instance.getSubClasses(a, true));
+		Assert.assertEquals(set(a, bottom, d, e), instance.getSubClasses(c, false));
+		Assert.assertEquals(set(b, c), instance.getSubClasses(top, true));
+		Assert.assertTrue(instance.isSubsumed(d, a));
+		Assert.assertFalse(instance.isSubsumed(b, a));
+
+		Assert.assertEquals(set(a), instance.getTypes(i, true));
+		Assert.assertEquals(set(a, b, c, top), instance.getTypes(i, false));
+		Assert.assertEquals(set(i), instance.getInstances(c, false));
+		Assert.assertEquals(Collections.emptySet(), instance.getInstances(c, true));
+		Assert.assertTrue(instance.isInstance(i, b));
+	}
+
+	/**
+	 * Tests the hierarchy of an ontology with role inclusions, role
+	 * compositions, ranges, and a functional object property, which is left
+	 * out.
+	 */
+	@Test
+	public void testClassificationWithObjectPropertyAxioms() {
+		IntegerOntologyObjectFactory objectFactory = new IntegerOntologyObjectFactoryImpl();
+		IntegerEntityManager entityManager = objectFactory.getEntityManager();
+		NormalizedIntegerAxiomFactory factory = objectFactory.getNormalizedAxiomFactory();
+		int a = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "A", false);
+		int c = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "C", false);
+		int d = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "D", false);
+		int e = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "E", false);
+		int g = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "G", false);
+		int h = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "H", false);
+		int r = entityManager.createNamedEntity(IntegerEntityType.OBJECT_PROPERTY, PREFIX + "r", false);
+		int s = entityManager.createNamedEntity(IntegerEntityType.OBJECT_PROPERTY, PREFIX + "s", false);
+		int t = entityManager.createNamedEntity(IntegerEntityType.OBJECT_PROPERTY, PREFIX + "t", false);
+		int top = IntegerEntityManager.topClassId;
+
+		Set<NormalizedIntegerAxiom> axioms = new HashSet<>();
+		axioms.add(factory.createGCI2Axiom(d, r, a, Collections.emptySet()));
+		axioms.add(factory.createRI2Axiom(r, s, Collections.emptySet()));
+		axioms.add(factory.createGCI3Axiom(s, a, e, Collections.emptySet()));
+		axioms.add(factory.createRangeAxiom(r, g, Collections.emptySet()));
+		axioms.add(factory.createGCI3Axiom(r, g, h, Collections.emptySet()));
+		axioms.add(factory.createGCI2Axiom(e, r, d, Collections.emptySet()));
+		axioms.add(factory.createRI3Axiom(r, r, t, Collections.emptySet()));
+		axioms.add(factory.createGCI3Axiom(t, a, c, Collections.emptySet()));
+		axioms.add(factory.createFunctObjectPropAxiom(s, Collections.emptySet()));
+
+		CrispClassification instance = new CrispClassification(entityManager, axioms);
+		Assert.assertTrue(instance.isConsistent());
+		Assert.assertEquals(set(e), instance.getSuperClasses(d, true));
+		Assert.assertEquals(set(c, e, h, top), instance.getSuperClasses(d, false));
+		Assert.assertEquals(set(c, h, top), instance.getSuperClasses(e, false));
+		Assert.assertEquals(set(top), instance.getSuperClasses(a, false));
+		Assert.assertEquals(set(d), instance.getSubClasses(e, true));
+	}
+
+}
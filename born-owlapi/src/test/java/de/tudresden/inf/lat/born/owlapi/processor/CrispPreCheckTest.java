@@ -0,0 +1,223 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+
+/**
+ *
+ * This is a unit test for {@link CrispPreCheck}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class CrispPreCheckTest {
+
+	static final String PREFIX = "http://example.org/ont#";
+
+	static final String HEADER = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(Class(ont:C))\n" //
+			+ "Declaration(Class(ont:D))\n" //
+			+ "Declaration(Class(ont:E))\n" //
+			+ "Declaration(Class(ont:F))\n" //
+			+ "Declaration(Class(ont:G))\n" //
+			+ "Declaration(Class(ont:H))\n" //
+			+ "Declaration(ObjectProperty(ont:r))\n" //
+			+ "Declaration(ObjectProperty(ont:s))\n" //
+			+ "Declaration(ObjectProperty(ont:t))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n";
+
+	static final String CLASS_AXIOMS = "" //
+			+ "SubClassOf(ont:A ont:B)\n" //
+			+ "SubClassOf(ont:B ont:C)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:C ont:F)\n";
+
+	static final String OBJECT_PROPERTY_AXIOMS = "" //
+			+ "SubClassOf(ont:D ObjectSomeValuesFrom(ont:r ont:A))\n" //
+			+ "SubObjectPropertyOf(ont:r ont:s)\n" //
+			+ "SubClassOf(ObjectSomeValuesFrom(ont:s ont:B) ont:E)\n" //
+			+ "ObjectPropertyRange(ont:r ont:G)\n" //
+			+ "SubClassOf(ObjectSomeValuesFrom(ont:r ont:G) ont:H)\n" //
+			+ "SubObjectPropertyOf(ObjectPropertyChain(ont:r ont:r) ont:t)\n" //
+			+ "SubClassOf(ont:E ObjectSomeValuesFrom(ont:r ont:D))\n" //
+			+ "SubClassOf(ObjectSomeValuesFrom(ont:t ont:A) ont:D)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ObjectSomeValuesFrom(ont:r ont:B) ont:F)\n";
+
+	static final String UNSATISFIABLE_CLASS_AXIOMS = "" //
+			+ "SubClassOf(ont:A <http://www.w3.org/2002/07/owl#Nothing>)\n" //
+			+ "SubClassOf(ont:D ObjectSomeValuesFrom(ont:r ont:A))\n" //
+			+ "SubClassOf(ont:B ont:C)\n";
+
+	static final String FUNCTIONAL_OBJECT_PROPERTY_AXIOM = "FunctionalObjectProperty(ont:s)\n";
+
+	static final String FOOTER = ")\n";
+
+	static String query(String subClass, String superClass) {
+		return "query(sub('" + PREFIX + subClass + "', '" + PREFIX + superClass + "')).\n";
+	}
+
+	static CompiledOntology compile(String axioms) throws OWLOntologyCreationException {
+		return new CompiledOntology(ProcessorConfigurationImpl.readOntology(
+				new ByteArrayInputStream((HEADER + axioms + FOOTER).getBytes(StandardCharsets.UTF_8))), true, "");
+	}
+
+	static Optional<String> preCheck(CompiledOntology compiledOntology, String query) {
+		return new CrispPreCheck().run(compiledOntology, query, new ProcessorExecutionResultImpl());
+	}
+
+	/**
+	 * Returns the answers of the native engine, which are written as ProbLog
+	 * writes them.
+	 */
+	static String getAnswers(CompiledOntology compiledOntology, String query) {
+		return new NativeEngine().run(compiledOntology, ExactInferenceTest.NETWORK, query,
+				new ProcessorExecutionResultImpl());
+	}
+
+	static ProcessorExecutionResult run(String axioms, String additionalCompletionRules, String query,
+			Function<String, String> queryProcessor) throws OWLOntologyCreationException {
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(ProcessorConfigurationImpl
+				.readOntology(new ByteArrayInputStream((HEADER + axioms + FOOTER).getBytes(StandardCharsets.UTF_8))));
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setAdditionalCompletionRules(additionalCompletionRules);
+		conf.setQuery(query);
+		conf.setQueryProcessor(queryProcessor);
+		ProcessorExecutionResult ret = new ProcessorExecutionResultImpl();
+		new ProcessorCore().run(conf, System.nanoTime(), ret);
+		return ret;
+	}
+
+	/**
+	 * Tests that queries with probability 0 or 1 in an ontology without
+	 * object property axioms are answered as the native engine answers them,
+	 * and that a query with another probability is not answered.
+	 */
+	@Test
+	public void testClassAxioms() throws OWLOntologyCreationException {
+		CompiledOntology compiledOntology = compile(CLASS_AXIOMS);
+		String crispQuery = query("A", "C") + query("C", "A");
+		Optional<String> answers = preCheck(compiledOntology, crispQuery);
+		Assert.assertTrue(answers.isPresent());
+		Assert.assertEquals(getAnswers(compiledOntology, crispQuery), answers.get());
+
+		Assert.assertFalse(preCheck(compiledOntology, crispQuery + query("A", "F")).isPresent());
+	}
+
+	/**
+	 * Tests that queries with probability 0 or 1 that depend on role
+	 * inclusions, role compositions, and ranges are answered as the native
+	 * engine answers them.
+	 */
+	@Test
+	public void testObjectPropertyAxioms() throws OWLOntologyCreationException {
+		CompiledOntology compiledOntology = compile(CLASS_AXIOMS + OBJECT_PROPERTY_AXIOMS);
+		String crispQuery = query("D", "E") + query("D", "H") + query("E", "D") + query("A", "D") + query("D", "A");
+		Optional<String> answers = preCheck(compiledOntology, crispQuery);
+		Assert.assertTrue(answers.isPresent());
+		Assert.assertEquals(getAnswers(compiledOntology, crispQuery), answers.get());
+
+		Assert.assertFalse(preCheck(compiledOntology, query("D", "F")).isPresent());
+	}
+
+	/**
+	 * Tests that an unsatisfiable class, and a class with an existential
+	 * restriction to it, are not subsumed by every class, since there are no
+	 * rules for the bottom class in the ProbLog programs.
+	 */
+	@Test
+	public void testUnsatisfiableClass() throws OWLOntologyCreationException {
+		CompiledOntology compiledOntology = compile(UNSATISFIABLE_CLASS_AXIOMS);
+		String query = query("A", "C") + query("D", "C") + query("B", "C");
+		Optional<String> answers = preCheck(compiledOntology, query);
+		Assert.assertTrue(answers.isPresent());
+		Assert.assertEquals(getAnswers(compiledOntology, query), answers.get());
+		Assert.assertEquals("" //
+				+ "\t sub('" + PREFIX + "A','" + PREFIX + "C'):\t0\n" //
+				+ "\t sub('" + PREFIX + "B','" + PREFIX + "C'):\t1\n" //
+				+ "\t sub('" + PREFIX + "D','" + PREFIX + "C'):\t0\n", answers.get());
+	}
+
+	/**
+	 * Tests that, if the module has axioms of functional object properties,
+	 * only queries with probability 1 are answered.
+	 */
+	@Test
+	public void testFunctionalObjectProperty() throws OWLOntologyCreationException {
+		CompiledOntology compiledOntology = compile(
+				CLASS_AXIOMS + OBJECT_PROPERTY_AXIOMS + FUNCTIONAL_OBJECT_PROPERTY_AXIOM);
+		String certainQuery = query("D", "E") + query("D", "H") + query("E", "D");
+		Optional<String> answers = preCheck(compiledOntology, certainQuery);
+		Assert.assertTrue(answers.isPresent());
+		Assert.assertEquals(getAnswers(compile(CLASS_AXIOMS + OBJECT_PROPERTY_AXIOMS), certainQuery),
+				answers.get());
+
+		Assert.assertFalse(preCheck(compiledOntology, certainQuery + query("A", "D")).isPresent());
+	}
+
+	/**
+	 * Tests that the answers with probability 0 and 1 are written exactly as
+	 * ProbLog writes them, so that the result is the same string whether the
+	 * queries are answered by the crisp pre-check or by ProbLog.
+	 */
+	@Test
+	public void testProblogFormat() throws OWLOntologyCreationException {
+		String query = query("A", "C") + query("C", "A");
+		String problogOutput = "" //
+				+ "\t sub('" + PREFIX + "A','" + PREFIX + "C'):\t1\n" //
+				+ "\t sub('" + PREFIX + "C','" + PREFIX + "A'):\t0\n";
+
+		ProcessorExecutionResult crisp = run(CLASS_AXIOMS, "", query, program -> {
+			throw new AssertionError("The query processor should not be called.");
+		});
+		Assert.assertEquals(ResultSource.CRISP_PRE_CHECK, crisp.getResultSource());
+
+		// the additional completion rules disable the crisp pre-check
+		ProcessorExecutionResult problog = run(CLASS_AXIOMS, "% no rules\n", query, program -> problogOutput);
+		Assert.assertEquals(ResultSource.QUERY_PROCESSOR, problog.getResultSource());
+
+		Assert.assertEquals(problogOutput, crisp.getResult());
+		Assert.assertEquals(problog.getResult(), crisp.getResult());
+	}
+
+	/**
+	 * Tests that, if the ontology has an axiom of a functional object
+	 * property, a query with probability 0 is not answered by the crisp
+	 * pre-check, but by ProbLog.
+	 */
+	@Test
+	public void testFunctionalObjectPropertyWithProbabilityZero() throws OWLOntologyCreationException {
+		String query = query("D", "A");
+		String problogOutput = "\t sub('" + PREFIX + "D','" + PREFIX + "A'):\t0\n";
+		List<String> programs = new ArrayList<>();
+		ProcessorExecutionResult executionResult = run(
+				CLASS_AXIOMS + OBJECT_PROPERTY_AXIOMS + FUNCTIONAL_OBJECT_PROPERTY_AXIOM, "", query, program -> {
+					programs.add(program);
+					return problogOutput;
+				});
+		Assert.assertEquals(ResultSource.QUERY_PROCESSOR, executionResult.getResultSource());
+		Assert.assertEquals(1, programs.size());
+		Assert.assertEquals(problogOutput, executionResult.getResult());
+
+		// without the functional object property, the crisp pre-check answers 0
+		Assert.assertEquals(Optional.of(problogOutput),
+				preCheck(compile(CLASS_AXIOMS + OBJECT_PROPERTY_AXIOMS), query));
+	}
+
+}
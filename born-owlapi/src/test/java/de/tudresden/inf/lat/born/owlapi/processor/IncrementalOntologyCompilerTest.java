@@ -0,0 +1,279 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+import de.tudresden.inf.lat.born.engine.ProbabilisticOntologyFixture;
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+
+/**
+ *
+ * This is a unit test for {@link IncrementalOntologyCompiler}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class IncrementalOntologyCompilerTest {
+
+	static final String PREFIX = ProbabilisticOntologyFixture.PREFIX;
+
+	static final String ONTOLOGY = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(Class(ont:C))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:B ont:C)\n" //
+			+ ")\n";
+
+	static final String HEADER = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(Class(ont:C))\n" //
+			+ "Declaration(Class(ont:D))\n" //
+			+ "Declaration(Class(ont:E))\n" //
+			+ "Declaration(Class(ont:F))\n" //
+			+ "Declaration(Class(ont:G))\n" //
+			+ "Declaration(Class(ont:H))\n" //
+			+ "Declaration(ObjectProperty(ont:r))\n" //
+			+ "Declaration(ObjectProperty(ont:s))\n" //
+			+ "Declaration(ObjectProperty(ont:t))\n" //
+			+ "Declaration(ObjectProperty(ont:u))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n";
+
+	static final String FOOTER = ")\n";
+
+	static final String PROBABILISTIC_AXIOMS = "" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ "EquivalentClasses(ont:C ObjectIntersectionOf(ont:B ObjectSomeValuesFrom(ont:r ont:D)))\n" //
+			+ "SubClassOf(ont:E ObjectSomeValuesFrom(ont:r ont:A))\n" //
+			+ "SubObjectPropertyOf(ObjectPropertyChain(ont:r ont:s) ont:t)\n" //
+			+ "ObjectPropertyRange(ont:r ont:D)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:A ObjectSomeValuesFrom(ont:s ont:F))\n" //
+			+ "SubClassOf(ObjectSomeValuesFrom(ont:t ont:F) ont:G)\n";
+
+	static final List<String> AXIOMS_TO_ADD = Arrays.asList( //
+			"" //
+					+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:D ont:H)\n" //
+					+ "SubClassOf(ObjectSomeValuesFrom(ont:r ont:H) ont:C)\n", //
+			"EquivalentClasses(ont:C ObjectSomeValuesFrom(ont:s ont:F))\n", //
+			"" //
+					+ "SubObjectPropertyOf(ont:r ont:s)\n" //
+					+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:F ont:D)\n", //
+			"");
+
+	static final List<String> AXIOMS_TO_REMOVE = Arrays.asList( //
+			"", //
+			"EquivalentClasses(ont:C ObjectIntersectionOf(ont:B ObjectSomeValuesFrom(ont:r ont:D)))\n", //
+			"ObjectPropertyRange(ont:r ont:D)\n", //
+			"SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n");
+
+	static final String INVERSE_OBJECT_PROPERTY_AXIOMS = "" //
+			+ "InverseObjectProperties(ont:s ont:u)\n" //
+			+ "SubClassOf(ObjectSomeValuesFrom(ont:u ont:F) ont:H)\n";
+
+	static final List<String> CLASS_NAMES = Arrays.asList("A", "B", "C", "D", "E", "F", "G", "H");
+
+	static OWLOntology readOntology(String text) throws OWLOntologyCreationException {
+		return ProcessorConfigurationImpl.readOntology(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	static Set<OWLAxiom> readAxioms(String axioms) throws OWLOntologyCreationException {
+		return new HashSet<>(readOntology(HEADER + axioms + FOOTER).getLogicalAxioms());
+	}
+
+	static String query(String subClass, String superClass) {
+		return "query(sub('" + PREFIX + subClass + "', '" + PREFIX + superClass + "')).\n";
+	}
+
+	/**
+	 * Changes the ontology of the given compiler, and updates the compiler
+	 * with the same changes.
+	 */
+	static void update(IncrementalOntologyCompiler compiler, Set<OWLAxiom> axiomsToAdd,
+			Set<OWLAxiom> axiomsToRemove) {
+		OWLOntology ontology = compiler.getOntology();
+		OWLOntologyManager manager = ontology.getOWLOntologyManager();
+		manager.removeAxioms(ontology, axiomsToRemove);
+		manager.addAxioms(ontology, axiomsToAdd);
+		compiler.update(axiomsToAdd, axiomsToRemove);
+	}
+
+	/**
+	 * Runs the processor with the given engine and the given compiled
+	 * ontology. ProbLog is not run in the unit tests, so the query processor
+	 * only answers that it was called.
+	 */
+	static ProcessorExecutionResult run(CompiledOntology compiledOntology, EngineType engineType, String query) {
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(compiledOntology.getOntology());
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQuery(query);
+		conf.setEngineType(engineType);
+		conf.setQueryProcessor(program -> "query processor\n");
+		ProcessorExecutionResult ret = new ProcessorExecutionResultImpl();
+		new ProcessorCore().run(conf, () -> compiledOntology, System.nanoTime(), ret, () -> {
+		});
+		return ret;
+	}
+
+	/**
+	 * Asserts that the answers of the native engine and of the ProbLog engine
+	 * are the same with the compiled ontology of the given compiler and with
+	 * the ontology compiled again. The ProbLog engine is checked on each query
+	 * alone: the same queries must be answered by the crisp pre-check with
+	 * the same answers, and the other ones must be given to the query
+	 * processor with a module of the same size.
+	 */
+	static void assertSameAnswersAsRecompiling(IncrementalOntologyCompiler compiler) {
+		CompiledOntology compiledOntology = new CompiledOntology(compiler, true, "");
+		CompiledOntology recompiledOntology = new CompiledOntology(compiler.getOntology(), true, "");
+		Assert.assertEquals(recompiledOntology.getNormalizedAxioms().size(),
+				compiledOntology.getNormalizedAxioms().size());
+
+		StringBuilder queries = new StringBuilder();
+		CLASS_NAMES.forEach(subClass -> CLASS_NAMES.forEach(superClass -> {
+			String query = query(subClass, superClass);
+			queries.append(query);
+
+			ProcessorExecutionResult expected = run(recompiledOntology, EngineType.PROBLOG, query);
+			ProcessorExecutionResult actual = run(compiledOntology, EngineType.PROBLOG, query);
+			Assert.assertEquals(expected.getResultSource(), actual.getResultSource());
+			Assert.assertEquals(expected.getResult(), actual.getResult());
+			Assert.assertEquals(expected.getModuleSize(), actual.getModuleSize());
+		}));
+
+		Assert.assertEquals(run(recompiledOntology, EngineType.NATIVE, queries.toString()).getResult(),
+				run(compiledOntology, EngineType.NATIVE, queries.toString()).getResult());
+	}
+
+	/**
+	 * Tests that the added and removed axioms are compiled, that the module
+	 * index and the compiled ontology have the normalized axioms of the
+	 * current state, and that the module indexes of previous states do not
+	 * change.
+	 */
+	@Test
+	public void testUpdate() throws OWLOntologyCreationException {
+		OWLOntology ontology = readOntology(ONTOLOGY);
+		OWLDataFactory dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+		OWLClass a = dataFactory.getOWLClass(IRI.create(PREFIX + "A"));
+		OWLClass c = dataFactory.getOWLClass(IRI.create(PREFIX + "C"));
+		OWLClass d = dataFactory.getOWLClass(IRI.create(PREFIX + "D"));
+
+		IncrementalOntologyCompiler compiler = new IncrementalOntologyCompiler(ontology);
+		Set<NormalizedIntegerAxiom> initialAxioms = new HashSet<>(compiler.getNormalizedAxioms());
+		ModuleIndex initialIndex = compiler.getModuleIndex();
+		Assert.assertEquals(initialAxioms, initialIndex.getAxioms());
+		Assert.assertSame(initialIndex, compiler.getModuleIndex());
+
+		OWLAxiom subClassOfC = dataFactory.getOWLSubClassOfAxiom(a, c);
+		compiler.update(Collections.singleton(subClassOfC), Collections.emptySet());
+		Assert.assertFalse(compiler.getNormalizedAxioms(subClassOfC).isEmpty());
+		Assert.assertTrue(compiler.getModuleIndex().getAxioms().containsAll(compiler.getNormalizedAxioms(subClassOfC)));
+		Assert.assertEquals(initialAxioms, initialIndex.getAxioms());
+		Assert.assertFalse(compiler.getMapOfNames().get(PREFIX + "D").isPresent());
+
+		OWLAxiom subClassOfD = dataFactory.getOWLSubClassOfAxiom(a, d);
+		OWLAxiom equivalentToD = dataFactory.getOWLEquivalentClassesAxiom(a, d);
+		compiler.update(Collections.singleton(subClassOfD), Collections.emptySet());
+		compiler.update(Collections.singleton(equivalentToD), Collections.emptySet());
+		Set<NormalizedIntegerAxiom> normalizedSubClassOfD = compiler.getNormalizedAxioms(subClassOfD);
+		Assert.assertTrue(compiler.getNormalizedAxioms(equivalentToD).containsAll(normalizedSubClassOfD));
+		Assert.assertTrue(compiler.getMapOfNames().get(PREFIX + "D").isPresent());
+		Assert.assertTrue(compiler.getSymbolAliasTable().getAlias(PREFIX + "D").isPresent());
+
+		CompiledOntology compiledOntology = new CompiledOntology(compiler, true, "");
+		Assert.assertEquals(compiler.getNormalizedAxioms(), compiledOntology.getNormalizedAxioms());
+		Assert.assertSame(compiler.getMapOfNames(), compiledOntology.getMapOfNames());
+
+		compiler.update(Collections.emptySet(), Collections.singleton(equivalentToD));
+		Assert.assertTrue(compiler.getModuleIndex().getAxioms().containsAll(normalizedSubClassOfD));
+		compiler.update(Collections.emptySet(), Collections.singleton(subClassOfD));
+		Assert.assertFalse(compiler.getModuleIndex().getAxioms().stream().anyMatch(normalizedSubClassOfD::contains));
+		Assert.assertTrue(compiledOntology.getNormalizedAxioms().containsAll(normalizedSubClassOfD));
+
+		compiler.update(Collections.emptySet(), Collections.singleton(subClassOfC));
+		Assert.assertEquals(initialAxioms, compiler.getModuleIndex().getAxioms());
+		Assert.assertEquals(initialAxioms, new HashSet<>(compiler.getNormalizedAxioms()));
+		Assert.assertEquals(new IncrementalOntologyCompiler(ontology).getOntologySize(), compiler.getOntologySize());
+	}
+
+	/**
+	 * Tests that, after a sequence of additions and removals of axioms with
+	 * role compositions, ranges, equivalences, and annotations, the native
+	 * engine and the ProbLog engine give the same answers as with the
+	 * ontology compiled again.
+	 */
+	@Test
+	public void testSameAnswersAsRecompiling() throws OWLOntologyCreationException {
+		IncrementalOntologyCompiler compiler = new IncrementalOntologyCompiler(
+				readOntology(HEADER + PROBABILISTIC_AXIOMS + FOOTER));
+		assertSameAnswersAsRecompiling(compiler);
+		for (int index = 0; index < AXIOMS_TO_ADD.size(); index++) {
+			update(compiler, readAxioms(AXIOMS_TO_ADD.get(index)), readAxioms(AXIOMS_TO_REMOVE.get(index)));
+			Assert.assertFalse(compiler.isNormalizedTogether());
+			assertSameAnswersAsRecompiling(compiler);
+		}
+	}
+
+	/**
+	 * Tests that the axioms are normalized together while the ontology has
+	 * axioms with inverse object properties, and that they are normalized on
+	 * their own again after these axioms are removed.
+	 */
+	@Test
+	public void testInverseObjectProperties() throws OWLOntologyCreationException {
+		IncrementalOntologyCompiler compiler = new IncrementalOntologyCompiler(
+				readOntology(HEADER + PROBABILISTIC_AXIOMS + FOOTER));
+		Set<OWLAxiom> inverseObjectPropertyAxioms = readAxioms(INVERSE_OBJECT_PROPERTY_AXIOMS);
+		OWLAxiom inverseObjectProperties = inverseObjectPropertyAxioms.stream()
+				.filter(IncrementalOntologyCompiler::hasInverseObjectProperties).findAny().get();
+		Assert.assertEquals(1, inverseObjectPropertyAxioms.stream()
+				.filter(IncrementalOntologyCompiler::hasInverseObjectProperties).count());
+
+		update(compiler, inverseObjectPropertyAxioms, Collections.emptySet());
+		Assert.assertTrue(compiler.isNormalizedTogether());
+		Assert.assertEquals(compiler.getNormalizedAxioms(), compiler.getNormalizedAxioms(inverseObjectProperties));
+		Assert.assertEquals(new CompiledOntology(compiler.getOntology(), true, "").getNormalizedAxioms().size(),
+				compiler.getNormalizedAxioms().size());
+		Assert.assertEquals(compiler.getNormalizedAxioms(), compiler.getModuleIndex().getAxioms());
+
+		update(compiler, readAxioms(AXIOMS_TO_ADD.get(0)), Collections.emptySet());
+		Assert.assertTrue(compiler.isNormalizedTogether());
+		Assert.assertEquals(new CompiledOntology(compiler.getOntology(), true, "").getNormalizedAxioms().size(),
+				compiler.getNormalizedAxioms().size());
+
+		update(compiler, Collections.emptySet(), Collections.singleton(inverseObjectProperties));
+		Assert.assertFalse(compiler.isNormalizedTogether());
+		Assert.assertEquals(compiler.getNormalizedAxioms(), compiler.getModuleIndex().getAxioms());
+		assertSameAnswersAsRecompiling(compiler);
+	}
+
+}
@@ -0,0 +1,91 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.engine.ExactInference;
+import de.tudresden.inf.lat.born.engine.ProbabilisticOntologyFixture;
+import de.tudresden.inf.lat.born.engine.Provenance;
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+
+/**
+ *
+ * This is a unit test for {@link InstanceRetrieval}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class InstanceRetrievalTest {
+
+	static final String PREFIX = ProbabilisticOntologyFixture.PREFIX;
+
+	/**
+	 * Adds the axioms of a class assertion, as they are normalized: a nominal
+	 * axiom between the individual and its auxiliary class, and a class
+	 * inclusion of the auxiliary class with the given provenance.
+	 */
+	void addClassAssertion(ProbabilisticOntologyFixture fixture, Map<NormalizedIntegerAxiom, Provenance> labels,
+			int classId, String individualName, Provenance provenance) {
+		NormalizedIntegerAxiomFactory factory = fixture.getFactory();
+		int individual = fixture.createIndividual(individualName);
+		int nominal = fixture.getNominal(individual);
+		labels.put(factory.createNominalAxiom(nominal, individual, Collections.emptySet()), Provenance.TRUE);
+		labels.put(factory.createGCI0Axiom(nominal, classId, Collections.emptySet()), provenance);
+	}
+
+	/**
+	 * Tests that the instances of a class are retrieved with their
+	 * probabilities, ranked, and filtered by the threshold.
+	 */
+	@Test
+	public void testRetrieve() {
+		ProbabilisticOntologyFixture fixture = new ProbabilisticOntologyFixture();
+		NormalizedIntegerAxiomFactory factory = fixture.getFactory();
+		int a = fixture.createClass("A");
+		int b = fixture.createClass("B");
+		int c = fixture.createClass("C");
+		Provenance x0 = Provenance.of(fixture.getLiteral("x0", false));
+		Provenance x1 = Provenance.of(fixture.getLiteral("x1", false));
+
+		Map<NormalizedIntegerAxiom, Provenance> labels = new HashMap<>();
+		labels.put(factory.createGCI0Axiom(a, c, Collections.emptySet()), x0);
+		labels.put(factory.createGCI0Axiom(b, c, Collections.emptySet()), x1);
+		addClassAssertion(fixture, labels, a, "i", Provenance.TRUE);
+		addClassAssertion(fixture, labels, b, "j", Provenance.TRUE);
+		addClassAssertion(fixture, labels, a, "k", x1);
+		addClassAssertion(fixture, labels, c, "l", Provenance.TRUE);
+
+		InstanceRetrieval instance = new InstanceRetrieval();
+		ExactInference inference = new ExactInference(fixture.getNetwork());
+		List<InstanceProbability> expected = Arrays.asList(new InstanceProbability(PREFIX + "l", 1),
+				new InstanceProbability(PREFIX + "i", 0.7), new InstanceProbability(PREFIX + "j", 0.41));
+		List<InstanceProbability> actual = instance.retrieve(fixture.getEntityManager(),
+				new ModuleIndex(labels.keySet()), c, labels::get, inference, 0.3, new ProcessorExecutionResultImpl());
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int index = 0; index < expected.size(); index++) {
+			Assert.assertEquals(expected.get(index).getIndividual(), actual.get(index).getIndividual());
+			Assert.assertEquals(expected.get(index).getProbability(), actual.get(index).getProbability(), 1e-9);
+		}
+
+		List<InstanceProbability> instancesOfC = instance.retrieve(fixture.getEntityManager(),
+				new ModuleIndex(labels.keySet()), c, labels::get, inference, 0, new ProcessorExecutionResultImpl());
+		Assert.assertEquals(4, instancesOfC.size());
+		Assert.assertEquals(PREFIX + "k", instancesOfC.get(3).getIndividual());
+		Assert.assertEquals(0.14, instancesOfC.get(3).getProbability(), 1e-9);
+
+		List<InstanceProbability> instancesOfB = instance.retrieve(fixture.getEntityManager(),
+				new ModuleIndex(labels.keySet()), b, labels::get, inference, 0, new ProcessorExecutionResultImpl());
+		Assert.assertEquals(1, instancesOfB.size());
+		Assert.assertEquals(PREFIX + "j", instancesOfB.get(0).getIndividual());
+		Assert.assertEquals(1, instancesOfB.get(0).getProbability(), 1e-9);
+	}
+
+}
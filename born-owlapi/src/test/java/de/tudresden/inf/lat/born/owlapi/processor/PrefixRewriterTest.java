@@ -0,0 +1,102 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * This is a unit test for {@link PrefixRewriter}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class PrefixRewriterTest {
+
+	/**
+	 * Tests that the longest key is replaced, that replaced text is not
+	 * replaced again, and that keys are not regular expressions.
+	 */
+	@Test
+	public void testRewrite() {
+		Map<String, String> map = new HashMap<>();
+		map.put("ont:", "http://example.org/ont#");
+		map.put("ontology:", "http://example.org/ontology#");
+		map.put("http://", "ont:");
+		map.put("a.b", "c");
+		PrefixRewriter instance = new PrefixRewriter(map);
+
+		Assert.assertEquals("sub('http://example.org/ont#a', 'http://example.org/ontology#b')",
+				instance.rewrite("sub('ont:a', 'ontology:b')"));
+		Assert.assertEquals("ont:example.org", instance.rewrite("http://example.org"));
+		Assert.assertEquals("c axb", instance.rewrite("a.b axb"));
+		Assert.assertEquals("", instance.rewrite(""));
+		Assert.assertEquals("text", new PrefixRewriter(new HashMap<>()).rewrite("text"));
+	}
+
+	/**
+	 * Tests the expansion and the compression of prefixes.
+	 */
+	@Test
+	public void testExpandAndCompress() {
+		Map<String, String> map = new HashMap<>();
+		map.put("born:", "https://lat.inf.tu-dresden.de/systems/born#");
+		map.put("ont:", "https://lat.inf.tu-dresden.de/systems/born/born-example#");
+
+		map.put("owl:", "https://www.w3.org/2002/07/owl#");
+		map.put("rdf:", "https://www.w3.org/1999/02/22-rdf-syntax-ns#");
+		map.put("xml:", "https://www.w3.org/XML/1998/namespace");
+		map.put("xsd:", "https://www.w3.org/2001/XMLSchema#");
+		map.put("rdfs:", "https://www.w3.org/2000/01/rdf-schema#");
+
+		Map<String, String> revMap = new HashMap<>();
+		map.forEach((key, value) -> revMap.put(value, key));
+		PrefixRewriter expander = new PrefixRewriter(map);
+		PrefixRewriter compressor = new PrefixRewriter(revMap);
+
+		{
+			String textWithPrefixes = "query(sub('ont:a', 'ont:e')).";
+			String textWithoutPrefixes = "query(sub('https://lat.inf.tu-dresden.de/systems/born/born-example#a', 'https://lat.inf.tu-dresden.de/systems/born/born-example#e')).";
+
+			Assert.assertEquals(textWithoutPrefixes, expander.rewrite(textWithPrefixes));
+			Assert.assertEquals(textWithPrefixes, compressor.rewrite(textWithoutPrefixes));
+		}
+
+		{
+			String textWithPrefixes = "sub('ont:a','ont:e'):	0.09882";
+			String textWithoutPrefixes = "sub('https://lat.inf.tu-dresden.de/systems/born/born-example#a','https://lat.inf.tu-dresden.de/systems/born/born-example#e'):	0.09882";
+			Assert.assertEquals(textWithoutPrefixes, expander.rewrite(textWithPrefixes));
+			Assert.assertEquals(textWithPrefixes, compressor.rewrite(textWithoutPrefixes));
+		}
+	}
+
+	/**
+	 * Tests that keys are replaced when they cross the boundary of the
+	 * internal buffer.
+	 *
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	@Test
+	public void testRewriteLongText() throws IOException {
+		Map<String, String> map = new HashMap<>();
+		map.put("https://lat.inf.tu-dresden.de/systems/born/born-example#", "ont:");
+		PrefixRewriter instance = new PrefixRewriter(map);
+
+		StringBuilder text = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int index = 0; index < 3 * PrefixRewriter.BUFFER_SIZE / 50; index++) {
+			text.append("sub('https://lat.inf.tu-dresden.de/systems/born/born-example#a" + index + "'):\t0.5\n");
+			expected.append("sub('ont:a" + index + "'):\t0.5\n");
+		}
+		StringWriter output = new StringWriter();
+		instance.rewrite(new StringReader(text.toString()), output);
+		Assert.assertEquals(expected.toString(), output.toString());
+	}
+
+}
@@ -0,0 +1,118 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.engine.ExactInference;
+import de.tudresden.inf.lat.born.engine.ProbabilisticOntologyFixture;
+import de.tudresden.inf.lat.born.engine.Provenance;
+import de.tudresden.inf.lat.born.module.ModuleIndex;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiom;
+import de.tudresden.inf.lat.jcel.coreontology.axiom.NormalizedIntegerAxiomFactory;
+
+/**
+ *
+ * This is a unit test for {@link ProbabilisticClassifier}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProbabilisticClassifierTest {
+
+	static final String PREFIX = ProbabilisticOntologyFixture.PREFIX;
+
+	String classify(ProbabilisticOntologyFixture fixture, Map<NormalizedIntegerAxiom, Provenance> labels,
+			int numberOfClassesPerBatch, long expectedNumberOfSubsumptions) throws IOException {
+		StringWriter output = new StringWriter();
+		ProbabilisticClassifier instance = new ProbabilisticClassifier(1, numberOfClassesPerBatch);
+		long numberOfSubsumptions = instance.classify(fixture.getEntityManager(), new ModuleIndex(labels.keySet()),
+				labels::get, new ExactInference(fixture.getNetwork()), output);
+		Assert.assertEquals(expectedNumberOfSubsumptions, numberOfSubsumptions);
+		return output.toString();
+	}
+
+	/**
+	 * Tests the probabilities of all the subsumptions of a small ontology,
+	 * including a subsumption with probability 0, which is not written. The
+	 * result does not depend on the number of classes per batch.
+	 */
+	@Test
+	public void testClassify() throws IOException {
+		ProbabilisticOntologyFixture fixture = new ProbabilisticOntologyFixture();
+		NormalizedIntegerAxiomFactory factory = fixture.getFactory();
+		int a = fixture.createClass("A");
+		int b = fixture.createClass("B");
+		int c = fixture.createClass("C");
+		int d = fixture.createClass("D");
+		int r = fixture.createObjectProperty("r");
+
+		Provenance x0 = Provenance.of(fixture.getLiteral("x0", false));
+		Provenance notX0 = Provenance.of(fixture.getLiteral("x0", true));
+		Provenance x1 = Provenance.of(fixture.getLiteral("x1", false));
+
+		Map<NormalizedIntegerAxiom, Provenance> labels = new HashMap<>();
+		labels.put(factory.createGCI0Axiom(a, b, Collections.emptySet()), x0);
+		labels.put(factory.createGCI0Axiom(b, c, Collections.emptySet()), x1);
+		labels.put(factory.createGCI2Axiom(d, r, a, Collections.emptySet()), Provenance.TRUE);
+		labels.put(factory.createGCI3Axiom(r, b, c, Collections.emptySet()), notX0);
+
+		String expected = "" //
+				+ PREFIX + "A\t" + PREFIX + "B\t0.7\n" //
+				+ PREFIX + "A\t" + PREFIX + "C\t0.14\n" //
+				+ PREFIX + "B\t" + PREFIX + "C\t0.41\n";
+		Assert.assertEquals(expected, classify(fixture, labels,
+				ProbabilisticClassifier.DEFAULT_NUMBER_OF_CLASSES_PER_BATCH, 3));
+		Assert.assertEquals(expected, classify(fixture, labels, 1, 3));
+		Assert.assertEquals(expected, classify(fixture, labels, 3, 3));
+	}
+
+	/**
+	 * Tests the probabilities of subsumptions that follow from role
+	 * inclusions, role compositions, and ranges.
+	 */
+	@Test
+	public void testClassifyWithObjectPropertyAxioms() throws IOException {
+		ProbabilisticOntologyFixture fixture = new ProbabilisticOntologyFixture();
+		NormalizedIntegerAxiomFactory factory = fixture.getFactory();
+		int a = fixture.createClass("A");
+		int b = fixture.createClass("B");
+		int c = fixture.createClass("C");
+		int d = fixture.createClass("D");
+		int e = fixture.createClass("E");
+		int f = fixture.createClass("F");
+		int g = fixture.createClass("G");
+		int r = fixture.createObjectProperty("r");
+		int s = fixture.createObjectProperty("s");
+		int t = fixture.createObjectProperty("t");
+
+		Provenance x0 = Provenance.of(fixture.getLiteral("x0", false));
+		Provenance notX0 = Provenance.of(fixture.getLiteral("x0", true));
+		Provenance x1 = Provenance.of(fixture.getLiteral("x1", false));
+
+		Map<NormalizedIntegerAxiom, Provenance> labels = new HashMap<>();
+		labels.put(factory.createGCI2Axiom(d, r, a, Collections.emptySet()), Provenance.TRUE);
+		labels.put(factory.createGCI2Axiom(f, r, d, Collections.emptySet()), Provenance.TRUE);
+		labels.put(factory.createRI2Axiom(r, s, Collections.emptySet()), x0);
+		labels.put(factory.createGCI3Axiom(s, a, c, Collections.emptySet()), Provenance.TRUE);
+		labels.put(factory.createRangeAxiom(r, b, Collections.emptySet()), x1);
+		labels.put(factory.createGCI3Axiom(r, b, e, Collections.emptySet()), Provenance.TRUE);
+		labels.put(factory.createRI3Axiom(r, r, t, Collections.emptySet()), Provenance.TRUE);
+		labels.put(factory.createGCI3Axiom(t, a, g, Collections.emptySet()), notX0);
+
+		String expected = "" //
+				+ PREFIX + "D\t" + PREFIX + "C\t0.7\n" //
+				+ PREFIX + "D\t" + PREFIX + "E\t0.41\n" //
+				+ PREFIX + "F\t" + PREFIX + "E\t0.41\n" //
+				+ PREFIX + "F\t" + PREFIX + "G\t0.3\n";
+		Assert.assertEquals(expected, classify(fixture, labels,
+				ProbabilisticClassifier.DEFAULT_NUMBER_OF_CLASSES_PER_BATCH, 4));
+		Assert.assertEquals(expected, classify(fixture, labels, 1, 4));
+	}
+
+}
@@ -0,0 +1,49 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * This is a unit test for {@link ProblogAnswerFormatter}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProblogAnswerFormatterTest {
+
+	/**
+	 * Tests that probabilities are written with at most 8 significant digits
+	 * and without trailing zeros, as ProbLog writes them.
+	 */
+	@Test
+	public void testFormatProbability() {
+		ProblogAnswerFormatter instance = new ProblogAnswerFormatter();
+		Assert.assertEquals("0", instance.formatProbability(0));
+		Assert.assertEquals("1", instance.formatProbability(1));
+		Assert.assertEquals("0.25", instance.formatProbability(0.25));
+		Assert.assertEquals("0.7", instance.formatProbability(0.7000000000000001));
+		Assert.assertEquals("0.12345679", instance.formatProbability(0.123456789));
+		Assert.assertEquals("0.0001", instance.formatProbability(0.0001));
+		Assert.assertEquals("1e-05", instance.formatProbability(0.00001));
+		Assert.assertEquals("1.2345e-07", instance.formatProbability(0.00000012345));
+	}
+
+	/**
+	 * Tests that the answers are sorted, indented, and aligned to the right.
+	 */
+	@Test
+	public void testFormat() {
+		TreeMap<String, String> answers = new TreeMap<>();
+		answers.put("sub(b,a)", "0.5");
+		answers.put("sub(a,bc)", "1");
+		String expected = "" //
+				+ "\t sub(a,bc):\t1\n" //
+				+ "\t  sub(b,a):\t0.5\n";
+		Assert.assertEquals(expected, new ProblogAnswerFormatter().format(answers));
+		Assert.assertEquals("", new ProblogAnswerFormatter().format(new TreeMap<>()));
+	}
+
+}
@@ -0,0 +1,116 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * This is a unit test for {@link ProblogCommand}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProblogCommandTest {
+
+	/**
+	 * This is a replacement of ProbLog that writes the file given as last
+	 * argument to the standard output.
+	 */
+	public static class EchoMain {
+
+		public static void main(String[] args) throws IOException {
+			System.out.write(Files.readAllBytes(Paths.get(args[args.length - 1])));
+			System.out.flush();
+		}
+
+	}
+
+	/**
+	 * This is a replacement of ProbLog that fails.
+	 */
+	public static class FailingMain {
+
+		public static void main(String[] args) {
+			System.exit(1);
+		}
+
+	}
+
+	/**
+	 * Returns a command that starts a Java virtual machine running the given
+	 * class.
+	 */
+	static List<String> getCommand(Class<?> mainClass) {
+		List<String> ret = new ArrayList<>(ProcessQueryProcessorWorker.getDefaultCommand());
+		ret.set(ret.size() - 1, mainClass.getName());
+		return ret;
+	}
+
+	/**
+	 * Returns a new ProbLog command that writes the file to the standard
+	 * output.
+	 *
+	 * @return a new ProbLog command that writes the file to the standard
+	 *         output
+	 */
+	static ProblogCommand createEchoCommand() {
+		return new ProblogCommand(getCommand(EchoMain.class));
+	}
+
+	/**
+	 * Tests that the command receives the path of the file, and that its
+	 * standard output is the answer.
+	 */
+	@Test
+	public void testApply() throws IOException {
+		String program = "0.3::x0.\nquery(sub('A', 'σ')).\n";
+		Path file = Files.createTempFile(ProcessorCore.TEMP_FILE_PREFIX, ProcessorCore.TEMP_FILE_SUFFIX);
+		try {
+			Files.write(file, program.getBytes(StandardCharsets.UTF_8));
+			Assert.assertEquals(program, createEchoCommand().apply(file));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Tests that a command that fails does not give an answer.
+	 */
+	@Test
+	public void testFailure() throws IOException {
+		Path file = Files.createTempFile(ProcessorCore.TEMP_FILE_PREFIX, ProcessorCore.TEMP_FILE_SUFFIX);
+		try {
+			new ProblogCommand(getCommand(FailingMain.class)).apply(file);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			Assert.assertTrue(e.getMessage().contains("1"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Tests that the command is split into its arguments.
+	 */
+	@Test
+	public void testCommand() {
+		Assert.assertEquals(Arrays.asList("python", "problog-cli.py"),
+				new ProblogCommand(" python  problog-cli.py ").getCommand());
+		try {
+			new ProblogCommand(new ArrayList<>());
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage().contains("empty"));
+		}
+	}
+
+}
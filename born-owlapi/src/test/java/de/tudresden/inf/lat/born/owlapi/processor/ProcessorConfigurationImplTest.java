@@ -3,6 +3,8 @@ package de.tudresden.inf.lat.born.owlapi.processor;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -27,4 +29,22 @@ public class ProcessorConfigurationImplTest {
 		Assert.assertEquals(exampleText, actual);
 	}
 
+	@Test
+	public void testParseEvidence() {
+		Map<String, Boolean> expected = new TreeMap<>();
+		expected.put("x0", true);
+		expected.put("x1", false);
+		Assert.assertEquals(expected, ProcessorConfigurationImpl.parseEvidence("x0, \\+x1"));
+		Assert.assertEquals(expected, ProcessorConfigurationImpl.parseEvidence("\\+x1,x0,x0"));
+		Assert.assertTrue(ProcessorConfigurationImpl.parseEvidence("").isEmpty());
+		for (String text : new String[] { "x0,,x1", "\\+", "x0,\\+x0" }) {
+			try {
+				ProcessorConfigurationImpl.parseEvidence(text);
+				Assert.fail();
+			} catch (IllegalArgumentException e) {
+				Assert.assertTrue(e.getMessage().contains("evidence"));
+			}
+		}
+	}
+
 }
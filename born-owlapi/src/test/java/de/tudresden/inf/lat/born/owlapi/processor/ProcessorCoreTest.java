@@ -0,0 +1,197 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+
+/**
+ *
+ * This is a unit test for {@link ProcessorCore}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProcessorCoreTest {
+
+	/**
+	 * Returns a function that waits until it is interrupted, and counts down
+	 * the given latches when it starts and when it is interrupted.
+	 */
+	static CompiledOntology waitUntilInterrupted(CountDownLatch started, CountDownLatch interrupted) {
+		started.countDown();
+		try {
+			Thread.sleep(0x10000);
+		} catch (InterruptedException e) {
+			interrupted.countDown();
+		}
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * Tests that an execution that does not finish within the timeout is
+	 * interrupted.
+	 */
+	@Test
+	public void testSubmitWithTimeout() throws InterruptedException {
+		ProcessorCore instance = new ProcessorCore();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CompletableFuture<ProcessorExecutionResult> future = instance.submit(new ProcessorConfigurationImpl(),
+				executionResult -> waitUntilInterrupted(started, interrupted), 0x40);
+		try {
+			future.get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TimeoutException);
+		}
+		Assert.assertTrue(interrupted.await(0x10, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Tests that a cancelled execution is interrupted.
+	 */
+	@Test
+	public void testCancel() throws InterruptedException, ExecutionException {
+		ProcessorCore instance = new ProcessorCore();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CompletableFuture<ProcessorExecutionResult> future = instance.submit(new ProcessorConfigurationImpl(),
+				executionResult -> waitUntilInterrupted(started, interrupted), ProcessorCore.NO_TIMEOUT);
+		Assert.assertTrue(started.await(0x10, TimeUnit.SECONDS));
+		Assert.assertTrue(future.cancel(true));
+		try {
+			future.get();
+			Assert.fail();
+		} catch (CancellationException e) {
+			Assert.assertTrue(future.isCancelled());
+		}
+		Assert.assertTrue(interrupted.await(0x10, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Tests that the answer of a cancelled execution is not stored in the
+	 * answer cache.
+	 */
+	@Test
+	public void testProcessAfterCancellation() throws IOException {
+		Path directory = Files.createTempDirectory(ProcessorCore.TEMP_FILE_PREFIX);
+		try (AnswerCache cache = new AnswerCache(directory)) {
+			ProcessorCore instance = new ProcessorCore();
+			try {
+				instance.process(Optional.of(cache), "key", () -> AnswerCacheTest.ANSWER, System.nanoTime(),
+						new ProcessorExecutionResultImpl(), () -> {
+							throw new CancellationException();
+						});
+				Assert.fail();
+			} catch (CancellationException e) {
+				Assert.assertEquals(Optional.empty(), cache.get("key"));
+			}
+			Assert.assertEquals(AnswerCacheTest.ANSWER, instance.process(Optional.of(cache), "key",
+					() -> AnswerCacheTest.ANSWER, System.nanoTime(), new ProcessorExecutionResultImpl(), () -> {
+					}));
+			Assert.assertEquals(Optional.of(AnswerCacheTest.ANSWER), cache.get("key"));
+		} finally {
+			Files.deleteIfExists(directory.resolve(AnswerCache.FILE_NAME));
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	static String readAll(InputStream input) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[0x100];
+		try {
+			for (int length = input.read(buffer); length != -1; length = input.read(buffer)) {
+				output.write(buffer, 0, length);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	static String run(ProcessorConfiguration conf) {
+		ProcessorExecutionResult executionResult = new ProcessorExecutionResultImpl();
+		new ProcessorCore().run(conf, System.nanoTime(), executionResult);
+		return executionResult.getResult();
+	}
+
+	/**
+	 * Tests that the query processors that read the ProbLog program from a
+	 * temporary file or from a stream receive the same program as the query
+	 * processor that reads it from a string, and that the temporary file is
+	 * deleted afterwards.
+	 */
+	@Test
+	public void testFileQueryProcessor() throws OWLOntologyCreationException {
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(ProcessorConfigurationImpl.readOntology(new ByteArrayInputStream(
+				(CrispPreCheckTest.HEADER + CrispPreCheckTest.CLASS_AXIOMS + CrispPreCheckTest.FOOTER)
+						.getBytes(StandardCharsets.UTF_8))));
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQuery(CrispPreCheckTest.query("A", "F"));
+		conf.setQueryProcessor(program -> program);
+		String program = run(conf);
+		Assert.assertTrue(program.contains("0.7::x0."));
+		Assert.assertTrue(program.contains(CrispPreCheckTest.PREFIX + "F"));
+
+		List<Path> files = new ArrayList<>();
+		conf.setFileQueryProcessor(file -> {
+			files.add(file);
+			Assert.assertTrue(Files.exists(file));
+			return ProblogCommandTest.createEchoCommand().apply(file);
+		});
+		Assert.assertEquals(program, run(conf));
+		Assert.assertEquals(1, files.size());
+		Assert.assertFalse(Files.exists(files.get(0)));
+
+		conf.setStreamQueryProcessor(ProcessorCoreTest::readAll);
+		Assert.assertEquals(program, run(conf));
+	}
+
+	/**
+	 * Tests that closing a processor core removes its compiled ontologies and
+	 * stops listening to the changes of the OWL ontology manager.
+	 */
+	@Test
+	public void testClose() throws OWLOntologyCreationException {
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		conf.setShowingLog(false);
+		conf.setOntology(ProcessorConfigurationImpl.readOntology(new ByteArrayInputStream(
+				(CrispPreCheckTest.HEADER + CrispPreCheckTest.CLASS_AXIOMS + CrispPreCheckTest.FOOTER)
+						.getBytes(StandardCharsets.UTF_8))));
+		conf.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		conf.setQuery(CrispPreCheckTest.query("A", "F"));
+		conf.setQueryProcessor(program -> "");
+		CompiledOntologyCache cache;
+		try (ProcessorCore core = new ProcessorCore()) {
+			cache = core.getCompiledOntologyCache();
+			core.run(conf, System.nanoTime(), new ProcessorExecutionResultImpl());
+			Assert.assertEquals(1, cache.size());
+			Assert.assertEquals(1, cache.getNumberOfManagers());
+		}
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.getNumberOfManagers());
+	}
+
+}
@@ -0,0 +1,96 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * This is a unit test for {@link ProcessorOptions}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProcessorOptionsTest {
+
+	/**
+	 * Tests that the processor options are recognized, and that options with
+	 * invalid values are not.
+	 */
+	@Test
+	public void testIsOption() {
+		ProcessorOptions instance = new ProcessorOptions();
+		Assert.assertTrue(instance.isOption("--log"));
+		Assert.assertTrue(instance.isOption("--engine=" + EngineType.NATIVE.getName()));
+		Assert.assertTrue(instance.isOption("--evidence=x0"));
+		Assert.assertTrue(instance.isOption("--aliases"));
+		Assert.assertTrue(instance.isOption("--cache=cache"));
+		Assert.assertTrue(instance.isOption("--cache-size=10"));
+		Assert.assertTrue(instance.isOption("--problog=problog"));
+		Assert.assertTrue(instance.isOption("--error-bound=0.05"));
+		Assert.assertTrue(instance.isOption("--confidence=0.9"));
+		Assert.assertTrue(instance.isOption("--threads=2"));
+		Assert.assertTrue(instance.isOption("--seed=-7"));
+
+		Assert.assertFalse(instance.isOption("--engine=unknown"));
+		Assert.assertFalse(instance.isOption("--evidence="));
+		Assert.assertFalse(instance.isOption("--cache-size=0"));
+		Assert.assertFalse(instance.isOption("--problog= "));
+		Assert.assertFalse(instance.isOption("--error-bound=0"));
+		Assert.assertFalse(instance.isOption("--error-bound=1"));
+		Assert.assertFalse(instance.isOption("--confidence=1.5"));
+		Assert.assertFalse(instance.isOption("--confidence=NaN"));
+		Assert.assertFalse(instance.isOption("--threads=0"));
+		Assert.assertFalse(instance.isOption("--seed=0.5"));
+		Assert.assertFalse(instance.isOption("ontology.owl"));
+
+		Assert.assertTrue(instance.isPositiveIntegerOption("--threads=", "--threads=4"));
+		Assert.assertFalse(instance.isPositiveIntegerOption("--threads=", "--threads=-4"));
+		Assert.assertFalse(instance.isPositiveIntegerOption("--threads=", "--threads=four"));
+	}
+
+	/**
+	 * Tests that the processor options are set in the configuration, and that
+	 * the other arguments are ignored.
+	 */
+	@Test
+	public void testConfigure() {
+		ProcessorOptions instance = new ProcessorOptions();
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		instance.configure(conf, new String[] { "--log", "--engine=" + EngineType.CIRCUIT.getName(),
+				"--evidence=x0,\\+x1", "--aliases", "--port=8901", "ontology.owl" });
+		Assert.assertTrue(conf.isShowingLog());
+		Assert.assertEquals(EngineType.CIRCUIT, conf.getEngineType());
+		Assert.assertEquals(Boolean.TRUE, conf.getEvidence().get("x0"));
+		Assert.assertEquals(Boolean.FALSE, conf.getEvidence().get("x1"));
+		Assert.assertTrue(conf.isUsingAliases());
+		Assert.assertFalse(conf.getFileQueryProcessor().isPresent());
+		Assert.assertFalse(conf.getAnswerCache().isPresent());
+		instance.closeAnswerCache(conf);
+	}
+
+	/**
+	 * Tests that the sampling options are set in the sampling configuration,
+	 * and that the other values are the default ones.
+	 */
+	@Test
+	public void testConfigureSampling() {
+		ProcessorOptions instance = new ProcessorOptions();
+		ProcessorConfiguration conf = new ProcessorConfigurationImpl();
+		instance.configure(conf, new String[] { "--engine=" + EngineType.SAMPLING.getName(), "--error-bound=0.05",
+				"--confidence=0.9", "--seed=42", "ontology.owl" });
+		SamplingConfiguration samplingConfiguration = conf.getSamplingConfiguration();
+		Assert.assertEquals(0.05, samplingConfiguration.getErrorBound(), 0);
+		Assert.assertEquals(0.9, samplingConfiguration.getConfidenceLevel(), 0);
+		Assert.assertEquals(Runtime.getRuntime().availableProcessors(), samplingConfiguration.getNumberOfThreads());
+		Assert.assertEquals(42, samplingConfiguration.getSeed());
+
+		instance.configure(conf, new String[] { "--threads=3" });
+		samplingConfiguration = conf.getSamplingConfiguration();
+		Assert.assertEquals(SamplingConfigurationImpl.DEFAULT_ERROR_BOUND, samplingConfiguration.getErrorBound(), 0);
+		Assert.assertEquals(SamplingConfigurationImpl.DEFAULT_CONFIDENCE_LEVEL,
+				samplingConfiguration.getConfidenceLevel(), 0);
+		Assert.assertEquals(3, samplingConfiguration.getNumberOfThreads());
+		Assert.assertEquals(SamplingConfigurationImpl.DEFAULT_SEED, samplingConfiguration.getSeed());
+	}
+
+}
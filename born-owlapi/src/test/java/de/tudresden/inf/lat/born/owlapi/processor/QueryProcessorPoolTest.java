@@ -0,0 +1,403 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * This is a unit test for {@link QueryProcessorPool}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class QueryProcessorPoolTest {
+
+	static final String FAIL = "fail";
+	static final String WAIT = "wait";
+	static final String LARGE = "large";
+
+	/**
+	 * This is the entry point of a worker process that never answers.
+	 */
+	public static class SilentWorkerMain {
+
+		public static void main(String[] args) throws InterruptedException {
+			Thread.sleep(Long.MAX_VALUE);
+		}
+
+	}
+
+	/**
+	 * This is the entry point of a worker process that rejects the programs
+	 * that fail.
+	 */
+	public static class RejectingWorkerMain {
+
+		public static void main(String[] args) throws IOException {
+			PrintStream responses = System.out;
+			System.setOut(System.err);
+			QueryProcessorWorkerMain.serve(QueryProcessorPoolTest::answer, System.in, responses);
+		}
+
+	}
+
+	static List<String> getCommand(Class<?> mainClass) {
+		List<String> ret = new ArrayList<>(ProcessQueryProcessorWorker.getDefaultCommand());
+		ret.set(ret.size() - 1, mainClass.getName());
+		return ret;
+	}
+
+	static String answer(String program) {
+		if (program.equals(FAIL)) {
+			throw new IllegalStateException("crash");
+		} else if (program.equals(WAIT)) {
+			try {
+				Thread.sleep(0x1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return program.toUpperCase();
+	}
+
+	/**
+	 * Tests that the workers answer concurrent programs and that the metrics
+	 * count them.
+	 */
+	@Test
+	public void testConcurrentCalls() throws Exception {
+		AtomicInteger createdWorkers = new AtomicInteger();
+		try (QueryProcessorPool pool = new QueryProcessorPool(() -> {
+			createdWorkers.incrementAndGet();
+			return new LocalQueryProcessorWorker(QueryProcessorPoolTest::answer);
+		}, 2, QueryProcessorPool.NO_TIMEOUT, QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD)) {
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			List<Future<String>> answers = new ArrayList<>();
+			for (int index = 0; index < 20; index++) {
+				String program = "query" + index;
+				answers.add(executor.submit(() -> pool.apply(program)));
+			}
+			for (int index = 0; index < 20; index++) {
+				Assert.assertEquals("QUERY" + index, answers.get(index).get());
+			}
+			executor.shutdown();
+			Assert.assertEquals(2, createdWorkers.get());
+			Assert.assertEquals(20, pool.getNumberOfCalls());
+			Assert.assertEquals(2, pool.getNumberOfIdleWorkers());
+			Assert.assertTrue(pool.getThroughput() > 0);
+		}
+	}
+
+	/**
+	 * Tests that a rejected program does not replace the worker, and that
+	 * workers that do not answer within the timeout, or use too much memory
+	 * are replaced.
+	 */
+	@Test
+	public void testRecycling() throws Exception {
+		try (QueryProcessorPool pool = new QueryProcessorPool(
+				() -> new LocalQueryProcessorWorker(QueryProcessorPoolTest::answer, () -> 0x10), 1, 0x100, 0x10)) {
+			try {
+				pool.apply(FAIL);
+				Assert.fail();
+			} catch (RejectedProgramException e) {
+				Assert.assertEquals(1, pool.getNumberOfFailures());
+			}
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals(0, pool.getNumberOfRecycledWorkers());
+
+			try {
+				pool.apply(WAIT);
+				Assert.fail();
+			} catch (RuntimeException e) {
+				Assert.assertEquals(1, pool.getNumberOfTimeouts());
+			}
+			Assert.assertEquals(1, pool.getNumberOfRecycledWorkers());
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals(4, pool.getNumberOfCalls());
+		}
+
+		try (QueryProcessorPool pool = new QueryProcessorPool(
+				() -> new LocalQueryProcessorWorker(QueryProcessorPoolTest::answer, () -> 0x20), 1,
+				QueryProcessorPool.NO_TIMEOUT, 0x10)) {
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals(2, pool.getNumberOfRecycledWorkers());
+		}
+	}
+
+	/**
+	 * Tests that a program rejected by a worker process does not replace the
+	 * worker, which answers the next program.
+	 */
+	@Test
+	public void testRejectedProgram() throws Exception {
+		AtomicInteger createdWorkers = new AtomicInteger();
+		try (QueryProcessorPool pool = new QueryProcessorPool(() -> {
+			createdWorkers.incrementAndGet();
+			return new ProcessQueryProcessorWorker(getCommand(RejectingWorkerMain.class));
+		}, 1, QueryProcessorPool.NO_TIMEOUT, QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD)) {
+			try {
+				pool.apply(FAIL);
+				Assert.fail();
+			} catch (RejectedProgramException e) {
+				Assert.assertTrue(e.getMessage().contains("crash"));
+			}
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals(1, pool.getNumberOfFailures());
+			Assert.assertEquals(0, pool.getNumberOfRecycledWorkers());
+			Assert.assertEquals(1, createdWorkers.get());
+		}
+	}
+
+	/**
+	 * Tests that a program waiting for an idle worker fails when the pool is
+	 * closed, and that the pool cannot be used after that.
+	 */
+	@Test
+	public void testCloseWhileWaiting() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		QueryProcessorPool pool = new QueryProcessorPool(() -> new LocalQueryProcessorWorker(program -> {
+			started.countDown();
+			try {
+				finished.await(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return answer(program);
+		}), 1, QueryProcessorPool.NO_TIMEOUT, QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD);
+		try {
+			Future<String> busy = executor.submit(() -> pool.apply("busy"));
+			Assert.assertTrue(started.await(1, TimeUnit.MINUTES));
+			Future<String> waiting = executor.submit(() -> pool.apply("waiting"));
+			Thread.sleep(QueryProcessorPool.CLOSED_CHECK_INTERVAL);
+			Assert.assertFalse(waiting.isDone());
+			pool.close();
+			try {
+				waiting.get(1, TimeUnit.MINUTES);
+				Assert.fail();
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+			finished.countDown();
+			try {
+				busy.get(1, TimeUnit.MINUTES);
+			} catch (ExecutionException e) {
+				// the busy worker can be interrupted by the pool
+			}
+			try {
+				pool.apply("ok");
+				Assert.fail();
+			} catch (IllegalStateException e) {
+				Assert.assertTrue(e.getMessage().contains("closed"));
+			}
+		} finally {
+			finished.countDown();
+			pool.close();
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests that a worker process killed by the pool because it does not
+	 * answer within the timeout is replaced right away, even if the process
+	 * has not terminated yet.
+	 */
+	@Test
+	public void testKilledProcessWorker() throws Exception {
+		List<String> command = getCommand(SilentWorkerMain.class);
+		AtomicInteger createdWorkers = new AtomicInteger();
+		try (QueryProcessorPool pool = new QueryProcessorPool(() -> (createdWorkers.getAndIncrement() == 0)
+				? new ProcessQueryProcessorWorker(command)
+				: new LocalQueryProcessorWorker(QueryProcessorPoolTest::answer), 1, 0x100,
+				QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD)) {
+			try {
+				pool.apply("ok");
+				Assert.fail();
+			} catch (RuntimeException e) {
+				Assert.assertEquals(1, pool.getNumberOfTimeouts());
+			}
+			Assert.assertEquals(1, pool.getNumberOfRecycledWorkers());
+			Assert.assertEquals(2, createdWorkers.get());
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals(0, pool.getNumberOfFailures());
+		}
+	}
+
+	/**
+	 * Tests that a worker closed by the pool is not used again, even if it
+	 * still looks alive.
+	 */
+	@Test
+	public void testClosedWorkerThatLooksAlive() throws Exception {
+		AtomicInteger createdWorkers = new AtomicInteger();
+		QueryProcessorWorker lingeringWorker = new QueryProcessorWorker() {
+
+			@Override
+			public String process(String problogProgram) throws IOException {
+				throw new IOException("The worker was killed.");
+			}
+
+			@Override
+			public boolean isAlive() {
+				return true;
+			}
+
+			@Override
+			public long getMemoryUsage() {
+				return 0;
+			}
+
+			@Override
+			public void close() {
+			}
+
+		};
+		try (QueryProcessorPool pool = new QueryProcessorPool(() -> (createdWorkers.getAndIncrement() == 0)
+				? lingeringWorker
+				: new LocalQueryProcessorWorker(QueryProcessorPoolTest::answer), 1, QueryProcessorPool.NO_TIMEOUT,
+				QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD)) {
+			try {
+				pool.apply("ok");
+				Assert.fail();
+			} catch (RuntimeException e) {
+				Assert.assertEquals(1, pool.getNumberOfFailures());
+			}
+			Assert.assertEquals(1, pool.getNumberOfRecycledWorkers());
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals(2, createdWorkers.get());
+		}
+	}
+
+	/**
+	 * Tests that a worker returned to the pool while the pool is being closed
+	 * is closed, even if the pool closed its idle workers before the worker
+	 * was returned.
+	 */
+	@Test
+	public void testCloseWhileReleasing() throws Exception {
+		AtomicReference<QueryProcessorPool> poolReference = new AtomicReference<>();
+		List<LocalQueryProcessorWorker> workers = new ArrayList<>();
+		QueryProcessorPool pool = new QueryProcessorPool(() -> {
+			if (!workers.isEmpty()) {
+				// the pool is closed while the released worker is replaced
+				poolReference.get().close();
+			}
+			AtomicBoolean used = new AtomicBoolean();
+			LocalQueryProcessorWorker worker = new LocalQueryProcessorWorker(program -> {
+				used.set(true);
+				return answer(program);
+			}, () -> used.get() ? 0x20 : 0);
+			workers.add(worker);
+			return worker;
+		}, 1, QueryProcessorPool.NO_TIMEOUT, 0x10);
+		poolReference.set(pool);
+		try {
+			Assert.assertEquals("OK", pool.apply("ok"));
+			Assert.assertEquals(2, workers.size());
+			Assert.assertEquals(0, pool.getNumberOfIdleWorkers());
+			Assert.assertFalse(workers.get(0).isAlive());
+			Assert.assertFalse(workers.get(1).isAlive());
+		} finally {
+			pool.close();
+		}
+	}
+
+	/**
+	 * Tests that the calls to a pool are not serialized, and that the calls to
+	 * any other query processor are.
+	 */
+	@Test
+	public void testSynchronizedUnlessPool() throws Exception {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		Function<String, String> waitingForEachOther = program -> {
+			try {
+				barrier.await(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			} catch (BrokenBarrierException | TimeoutException e) {
+				throw new IllegalStateException(e);
+			}
+			return answer(program);
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (QueryProcessorPool pool = new QueryProcessorPool(
+				() -> new LocalQueryProcessorWorker(waitingForEachOther), 2, QueryProcessorPool.NO_TIMEOUT,
+				QueryProcessorPool.DEFAULT_MEMORY_THRESHOLD)) {
+			Function<String, String> queryProcessor = QueryProcessorPool.synchronizedUnlessPool(pool);
+			Assert.assertSame(pool, queryProcessor);
+			Future<String> first = executor.submit(() -> queryProcessor.apply("first"));
+			Future<String> second = executor.submit(() -> queryProcessor.apply("second"));
+			Assert.assertEquals("FIRST", first.get(1, TimeUnit.MINUTES));
+			Assert.assertEquals("SECOND", second.get(1, TimeUnit.MINUTES));
+
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maximumRunning = new AtomicInteger();
+			Function<String, String> serialized = QueryProcessorPool.synchronizedUnlessPool(program -> {
+				maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				answer(WAIT);
+				running.decrementAndGet();
+				return answer(program);
+			});
+			first = executor.submit(() -> serialized.apply("first"));
+			second = executor.submit(() -> serialized.apply("second"));
+			Assert.assertEquals("FIRST", first.get(1, TimeUnit.MINUTES));
+			Assert.assertEquals("SECOND", second.get(1, TimeUnit.MINUTES));
+			Assert.assertEquals(1, maximumRunning.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests the protocol between a worker process and the pool.
+	 */
+	@Test
+	public void testWorkerProtocol() throws IOException {
+		ByteArrayOutputStream requests = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(requests);
+		ProcessQueryProcessorWorker.writeString(output, "query(sub('A', 'B')).");
+		ProcessQueryProcessorWorker.writeString(output, FAIL);
+		output.flush();
+
+		ByteArrayOutputStream responses = new ByteArrayOutputStream();
+		QueryProcessorWorkerMain.serve(QueryProcessorPoolTest::answer, new ByteArrayInputStream(requests.toByteArray()),
+				responses);
+
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(responses.toByteArray()));
+		Assert.assertEquals(ProcessQueryProcessorWorker.STATUS_OK, input.readByte());
+		Assert.assertEquals("QUERY(SUB('A', 'B')).", ProcessQueryProcessorWorker.readString(input));
+		Assert.assertTrue(input.readLong() > 0);
+		Assert.assertEquals(ProcessQueryProcessorWorker.STATUS_ERROR, input.readByte());
+		Assert.assertEquals("crash", ProcessQueryProcessorWorker.readString(input));
+		input.readLong();
+		Assert.assertEquals(-1, input.read());
+	}
+
+}
@@ -0,0 +1,56 @@
+package de.tudresden.inf.lat.born.owlapi.processor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityManager;
+import de.tudresden.inf.lat.jcel.coreontology.datatype.IntegerEntityType;
+import de.tudresden.inf.lat.jcel.ontology.axiom.extension.IntegerOntologyObjectFactoryImpl;
+
+/**
+ *
+ * This is a unit test for {@link SymbolAliasTable}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class SymbolAliasTableTest {
+
+	static final String PREFIX = "http://example.org/ont#";
+
+	/**
+	 * Tests that quoted names are encoded, that aliases are decoded, and that
+	 * comments, unknown names, and parts of atoms are not changed.
+	 */
+	@Test
+	public void testEncodeAndDecode() {
+		IntegerEntityManager entityManager = new IntegerOntologyObjectFactoryImpl().getEntityManager();
+		int a = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "A", false);
+		int b = entityManager.createNamedEntity(IntegerEntityType.CLASS, PREFIX + "B", false);
+		int r = entityManager.createNamedEntity(IntegerEntityType.OBJECT_PROPERTY, PREFIX + "r", false);
+		int i = entityManager.createNamedEntity(IntegerEntityType.INDIVIDUAL, PREFIX + "i", false);
+		SymbolAliasTable instance = new SymbolAliasTable(entityManager);
+		Assert.assertEquals(4, instance.size());
+
+		String ca = "c" + a;
+		String cb = "c" + b;
+		String ri = "r" + r;
+		String ii = "i" + i;
+		Assert.assertEquals(ri, instance.getAlias(PREFIX + "r").get());
+
+		String query = "query(sub('" + PREFIX + "A', '" + PREFIX + "B')).\n" //
+				+ "% 'http://example.org/ont#A'\n" //
+				+ "query(inst('" + PREFIX + "i', '" + PREFIX + "C')).\n";
+		String encodedQuery = "query(sub(" + ca + ", " + cb + ")).\n" //
+				+ "% 'http://example.org/ont#A'\n" //
+				+ "query(inst(" + ii + ", '" + PREFIX + "C')).\n";
+		Assert.assertEquals(encodedQuery, instance.encode(query));
+
+		String answer = "sub(" + ca + "," + cb + "):\t0.5\ninst(" + ii + ",'" + ca + "'):\t1\nsub(x" + ca + ","
+				+ ca + "x):\t0\n";
+		String decodedAnswer = "sub('" + PREFIX + "A','" + PREFIX + "B'):\t0.5\ninst('" + PREFIX + "i','" + ca
+				+ "'):\t1\nsub(x" + ca + "," + ca + "x):\t0\n";
+		Assert.assertEquals(decodedAnswer, instance.decode(answer));
+	}
+
+}
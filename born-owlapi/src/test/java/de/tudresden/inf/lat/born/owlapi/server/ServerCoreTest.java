@@ -0,0 +1,141 @@
+package de.tudresden.inf.lat.born.owlapi.server;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfiguration;
+import de.tudresden.inf.lat.born.owlapi.processor.ProcessorConfigurationImpl;
+
+/**
+ *
+ * This is a unit test for {@link ServerCore}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ServerCoreTest {
+
+	static final String PREFIX = "http://example.org/ont#";
+
+	static final String ONTOLOGY = "" //
+			+ "Prefix(ont:=<" + PREFIX + ">)\n" //
+			+ "Prefix(born:=<https://lat.inf.tu-dresden.de/systems/born#>)\n" //
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)\n" //
+			+ "Ontology(<http://example.org/ont>\n" //
+			+ "Declaration(Class(ont:A))\n" //
+			+ "Declaration(Class(ont:B))\n" //
+			+ "Declaration(Class(ont:C))\n" //
+			+ "Declaration(AnnotationProperty(born:probability))\n" //
+			+ "SubClassOf(Annotation(born:probability \"x0\"^^xsd:string) ont:A ont:B)\n" //
+			+ "SubClassOf(Annotation(born:probability \"x1\"^^xsd:string) ont:B ont:C)\n" //
+			+ ")\n";
+
+	static final String QUERY = "query(sub('" + PREFIX + "A', '" + PREFIX + "C')).";
+
+	static final String TERM = "sub('" + PREFIX + "A','" + PREFIX + "C')";
+
+	static final String PROBABILITY = "0.14";
+
+	static final int NUMBER_OF_MEASUREMENTS = 8;
+
+	static final String ANSWER = TERM + ":\t" + PROBABILITY + "\n";
+
+	static final String FAILURE = "ProbLog failed";
+
+	static ProcessorConfiguration createTemplate(Function<String, String> queryProcessor)
+			throws OWLOntologyCreationException {
+		ProcessorConfiguration ret = new ProcessorConfigurationImpl();
+		ret.setShowingLog(false);
+		ret.setOntology(ProcessorConfigurationImpl
+				.readOntology(new ByteArrayInputStream(ONTOLOGY.getBytes(StandardCharsets.UTF_8))));
+		ret.setBayesianNetwork(ExactInferenceTest.NETWORK);
+		ret.setQueryProcessor(queryProcessor);
+		return ret;
+	}
+
+	static List<String> serve(ServerCore core, String requests) throws IOException {
+		StringWriter output = new StringWriter();
+		core.serve(new StringReader(requests), output);
+		return new BufferedReader(new StringReader(output.toString())).lines().collect(Collectors.toList());
+	}
+
+	/**
+	 * Tests that each request sent to a server core built from a template is
+	 * answered by one line containing the measurements and the answer of the
+	 * query processor, that blank lines are ignored, and that no request is
+	 * answered after <code>quit</code>.
+	 */
+	@Test
+	public void testServe() throws IOException, OWLOntologyCreationException {
+		List<String> programs = new ArrayList<>();
+		ServerCore core = new ServerCore(createTemplate(program -> {
+			programs.add(program);
+			return ANSWER;
+		}));
+		core.compile();
+		List<String> responses = serve(core, QUERY + "\n\n  \n" + QUERY + "\n" + ServerCore.QUIT + "\n" + QUERY + "\n");
+		Assert.assertEquals(2, responses.size());
+		Assert.assertEquals(2, programs.size());
+		programs.forEach(program -> {
+			Assert.assertTrue(program.contains("0.7::x0."));
+			Assert.assertTrue(program.contains(PREFIX + "C"));
+		});
+		responses.forEach(response -> {
+			List<String> fields = Arrays.asList(response.split("" + ServerCore.TAB_CHAR));
+			Assert.assertEquals(1 + NUMBER_OF_MEASUREMENTS + 2, fields.size());
+			Assert.assertEquals(ServerCore.OK, fields.get(0));
+			fields.subList(1, 1 + NUMBER_OF_MEASUREMENTS).forEach(field -> Long.parseLong(field));
+			Assert.assertEquals(Arrays.asList(TERM, PROBABILITY),
+					fields.subList(1 + NUMBER_OF_MEASUREMENTS, fields.size()));
+		});
+	}
+
+	/**
+	 * Tests that a request that cannot be answered gives an error response,
+	 * and that the following requests are still answered.
+	 */
+	@Test
+	public void testServeWithError() throws IOException, OWLOntologyCreationException {
+		List<String> programs = new ArrayList<>();
+		ServerCore core = new ServerCore(createTemplate(program -> {
+			programs.add(program);
+			if (programs.size() == 1) {
+				throw new IllegalStateException(FAILURE);
+			}
+			return ANSWER;
+		}));
+		List<String> responses = serve(core, QUERY + "\n" + QUERY + "\n");
+		Assert.assertEquals(2, responses.size());
+		Assert.assertEquals(ServerCore.ERROR + ServerCore.TAB_CHAR + FAILURE, responses.get(0));
+		Assert.assertTrue(responses.get(1).startsWith(ServerCore.OK + ServerCore.TAB_CHAR));
+		Assert.assertTrue(responses.get(1).endsWith(TERM + ServerCore.TAB_CHAR + PROBABILITY));
+	}
+
+	/**
+	 * Tests that the fields of a response cannot break the line or add
+	 * fields.
+	 */
+	@Test
+	public void testMakeLine() {
+		ProcessorConfiguration template = new ProcessorConfigurationImpl();
+		template.setQueryProcessor(program -> ANSWER);
+		ServerCore core = new ServerCore(template);
+		Assert.assertEquals("ok\ta b\tc d", core.makeLine(Arrays.asList("ok", "a\tb", "c\nd")));
+		Assert.assertEquals("", core.makeLine(new ArrayList<>()));
+	}
+
+}
@@ -0,0 +1,125 @@
+package de.tudresden.inf.lat.born.problog.connector;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.engine.ExactInference;
+import de.tudresden.inf.lat.born.engine.ExactInferenceTest;
+import de.tudresden.inf.lat.born.engine.Provenance;
+
+/**
+ *
+ * This is a unit test for {@link VariableElimination}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class VariableEliminationTest {
+
+	static final double EPSILON = 1e-9;
+
+	static final String NETWORK_WITH_TWO_PARENTS = "" //
+			+ "0.3::x0.\n" //
+			+ "0.6::x1 :- x0.\n" //
+			+ "0.1::x1 :- \\+x0.\n" //
+			+ "0.8::x2 :- x0.\n" //
+			+ "0.4::x2 :- \\+x0.\n" //
+			+ "0.9::x3 :- x1, x2.\n" //
+			+ "0.5::x3 :- \\+x1, x2.\n" //
+			+ "0.2::x3 :- x1, \\+x2.\n" //
+			+ "0.05::x3 :- \\+x1, \\+x2.\n";
+
+	int x(BayesianNetwork network, String name, boolean negated) {
+		return BayesianNetwork.getLiteral(network.getVariable(name).get(), negated);
+	}
+
+	@Test
+	public void testConjunctionsAndDisjunctions() {
+		BayesianNetwork network = BayesianNetwork.parse(ExactInferenceTest.NETWORK);
+		VariableElimination inference = new VariableElimination(network);
+		int x0 = x(network, "x0", false);
+		int x1 = x(network, "x1", false);
+		int notX0 = x(network, "x0", true);
+
+		Assert.assertEquals(0.7, inference.getProbability(x0), EPSILON);
+		Assert.assertEquals(0.41, inference.getProbability(x1), EPSILON);
+		Assert.assertEquals(0.14, inference.getProbability(x0, x1), EPSILON);
+		Assert.assertEquals(0, inference.getProbability(x0, notX0), EPSILON);
+		Assert.assertEquals(1, inference.getProbability(), EPSILON);
+		Assert.assertEquals(0.97, inference.getProbability(Arrays.asList(new int[] { x0 }, new int[] { x1 })),
+				EPSILON);
+		Assert.assertEquals(1, inference.getProbability(Arrays.asList(new int[] { x0 }, new int[] { notX0 })),
+				EPSILON);
+
+		// variables that are not defined in the network are false
+		int undefined = network.getNumberOfVariables();
+		Assert.assertEquals(0, inference.getProbability(BayesianNetwork.getLiteral(undefined, false)), EPSILON);
+		Assert.assertEquals(0.7, inference.getProbability(x0, BayesianNetwork.getLiteral(undefined, true)), EPSILON);
+	}
+
+	@Test
+	public void testExactInference() {
+		BayesianNetwork network = BayesianNetwork.parse(NETWORK_WITH_TWO_PARENTS);
+		VariableElimination inference = new VariableElimination(network);
+		ExactInference exactInference = new ExactInference(network);
+		List<int[]> disjunction = Arrays.asList(new int[] { x(network, "x0", true), x(network, "x3", false) },
+				new int[] { x(network, "x1", false), x(network, "x2", true) }, new int[] { x(network, "x3", true) });
+		Provenance formula = Provenance.FALSE;
+		for (int[] conjunction : disjunction) {
+			formula = formula.or(Provenance.of(conjunction));
+			Assert.assertEquals(exactInference.getProbability(Provenance.of(conjunction)),
+					inference.getProbability(conjunction), EPSILON);
+		}
+		Assert.assertEquals(exactInference.getProbability(formula), inference.getProbability(disjunction), EPSILON);
+	}
+
+	@Test
+	public void testLongChain() {
+		int numberOfVariables = 0x1000;
+		StringBuilder sb = new StringBuilder();
+		sb.append("0.5::x0.\n");
+		double expected = 0.5;
+		for (int index = 1; index < numberOfVariables; index++) {
+			sb.append("0.9::x" + index + " :- x" + (index - 1) + ".\n");
+			sb.append("0.2::x" + index + " :- \\+x" + (index - 1) + ".\n");
+			expected = 0.9 * expected + 0.2 * (1 - expected);
+		}
+		BayesianNetwork network = BayesianNetwork.parse(sb.toString());
+		VariableElimination inference = new VariableElimination(network);
+		Assert.assertEquals(expected, inference.getProbability(x(network, "x" + (numberOfVariables - 1), false)),
+				EPSILON);
+		// the last variable is almost independent of the first one
+		Assert.assertEquals(1 - expected * 0.5,
+				inference.getProbability(Arrays.asList(new int[] { x(network, "x0", true) },
+						new int[] { x(network, "x" + (numberOfVariables - 1), true) })),
+				EPSILON);
+	}
+
+	@Test
+	public void testMaximumFactorSize() {
+		BayesianNetwork network = BayesianNetwork.parse(NETWORK_WITH_TWO_PARENTS);
+		Assert.assertEquals(VariableElimination.DEFAULT_MAXIMUM_FACTOR_SIZE,
+				new VariableElimination(network).getMaximumFactorSize());
+		VariableElimination inference = new VariableElimination(network, 3);
+		// 0.3 * 0.4 * 0.8 + 0.7 * 0.9 * 0.4
+		Assert.assertEquals(0.348, inference.getProbability(x(network, "x1", true), x(network, "x2", false)),
+				EPSILON);
+		try {
+			// the factor of x3 has three variables
+			new VariableElimination(network, 2);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// the factor is too large
+		}
+		try {
+			new VariableElimination(network, VariableElimination.MAXIMUM_FACTOR_SIZE + 1);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// an array cannot have so many values
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package de.tudresden.inf.lat.born.problog.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.core.term.ProbClause;
+import de.tudresden.inf.lat.born.core.term.ProbClauseImpl;
+import de.tudresden.inf.lat.born.core.term.Term;
+import de.tudresden.inf.lat.born.core.term.TermImpl;
+
+/**
+ * This is a unit test for {@link BayesianNetworkParser}, {@link ProblogLexer},
+ * and {@link MappedFileReader}.
+ * 
+ * @author Julian Mendez
+ *
+ */
+public class BayesianNetworkParserTest {
+
+	static final String NETWORK = "" //
+			+ "% Bayesian network\n" //
+			+ "0.7::x0.\n" //
+			+ "0.2::x1 :- x0.\n" //
+			+ "1e-1::x1 :- \\+x0, x_2. % comment\n" //
+			+ "x_2.\n";
+
+	List<ProbClause> getExpectedClauses() {
+		Term x0 = new TermImpl("x0");
+		Term x1 = new TermImpl("x1");
+		Term x2 = new TermImpl("x_2");
+		List<ProbClause> ret = new ArrayList<>();
+		ret.add(new ProbClauseImpl(x0, Collections.emptyList(), "0.7"));
+		ret.add(new ProbClauseImpl(x1, Arrays.asList(x0), "0.2"));
+		ret.add(new ProbClauseImpl(x1, Arrays.asList(new TermImpl("\\+x0"), x2), "1e-1"));
+		ret.add(new ProbClauseImpl(x2, Collections.emptyList(), ProbClauseImpl.CERTAIN));
+		return ret;
+	}
+
+	/**
+	 * Tests that numbers, negations, and identifiers with underscores are
+	 * single tokens.
+	 * 
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	@Test
+	public void testLexer() throws IOException {
+		ProblogLexer lexer = new ProblogLexer(new StringReader(NETWORK));
+		List<Token> actual = new ArrayList<>();
+		while (lexer.next()) {
+			actual.add(lexer.getToken());
+		}
+		Assert.assertEquals(24, actual.size());
+		Assert.assertEquals(new TokenImpl("0.7", 2), actual.get(0));
+		Assert.assertEquals(new TokenImpl(":", 2), actual.get(1));
+		Assert.assertEquals(new TokenImpl("x0", 2), actual.get(3));
+		Assert.assertEquals(new TokenImpl(":-", 3), actual.get(9));
+		Assert.assertEquals(new TokenImpl("1e-1", 4), actual.get(12));
+		Assert.assertEquals(new TokenImpl("\\+", 4), actual.get(17));
+		Assert.assertEquals(new TokenImpl("x_2", 4), actual.get(20));
+		Assert.assertEquals(new TokenImpl(".", 5), actual.get(23));
+	}
+
+	/**
+	 * Tests that the clauses are parsed and that invalid networks are
+	 * rejected.
+	 * 
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	@Test
+	public void testParse() throws IOException {
+		BayesianNetworkParser instance = new BayesianNetworkParser();
+		Assert.assertEquals(getExpectedClauses(), instance.parse(new StringReader(NETWORK)));
+
+		for (String invalid : Arrays.asList("1.5::x0.", "0.5::\\+x0.", "0.5::X.", "0.5:x0.", "x0 :- x1")) {
+			try {
+				instance.parse(new StringReader(invalid));
+				Assert.fail("Invalid network was accepted: '" + invalid + "'.");
+			} catch (ParseException e) {
+				// expected
+			}
+		}
+	}
+
+	/**
+	 * Tests that a mapped file is read when characters cross the boundary of
+	 * the mapped windows.
+	 * 
+	 * @throws IOException
+	 *             if something went wrong with I/O
+	 */
+	@Test
+	public void testParseMappedFile() throws IOException {
+		String text = "% äöü € 😀\n" + NETWORK;
+		Path path = Files.createTempFile("network", ".pl");
+		try {
+			Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+			for (long windowSize = 4; windowSize < 12; windowSize++) {
+				StringBuilder sb = new StringBuilder();
+				try (Reader reader = new MappedFileReader(path, windowSize)) {
+					char[] buffer = new char[3];
+					for (int count = reader.read(buffer); count != -1; count = reader.read(buffer)) {
+						sb.append(buffer, 0, count);
+					}
+				}
+				Assert.assertEquals(text, sb.toString());
+			}
+
+			List<ProbClause> actual = new ArrayList<>();
+			new BayesianNetworkParser().parse(path, actual::add);
+			Assert.assertEquals(getExpectedClauses(), actual);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+}
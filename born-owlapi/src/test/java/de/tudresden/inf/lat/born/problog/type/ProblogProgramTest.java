@@ -0,0 +1,110 @@
+package de.tudresden.inf.lat.born.problog.type;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudresden.inf.lat.born.core.rule.CR1Rule;
+import de.tudresden.inf.lat.born.core.term.ClauseImpl;
+import de.tudresden.inf.lat.born.core.term.ProbClauseImpl;
+import de.tudresden.inf.lat.born.core.term.Term;
+import de.tudresden.inf.lat.born.core.term.TermImpl;
+
+/**
+ *
+ * This is a unit test for {@link ProblogProgram}.
+ *
+ * @author Julian Mendez
+ *
+ */
+public class ProblogProgramTest {
+
+	static final String PROGRAM = "" //
+			+ "\n" //
+			+ "%% EL completion rules\n" //
+			+ "\n" //
+			+ "subx(X, B) :- gci(A, B), subx(X, A), coni(X), coni(A), coni(B).\n" //
+			+ "\n" //
+			+ "% additional rules\n" //
+			+ "\n" //
+			+ "\n" //
+			+ "%% Ontology\n" //
+			+ "\n" //
+			+ "gci(a, b) :- x0.\n" //
+			+ "\n" //
+			+ "\n" //
+			+ "%% Bayesian Network\n" //
+			+ "\n" //
+			+ "0.7::x0.\n" //
+			+ "\n" //
+			+ "% network addendum\n" //
+			+ "\n" //
+			+ "\n" //
+			+ "%% Queries\n" //
+			+ "\n" //
+			+ "query(sub(a, b)).\n" //
+			+ "\n" //
+			+ "% query addendum\n" //
+			+ "\n" //
+			+ "\n";
+
+	ProblogProgram createProgram() {
+		Term x0 = new TermImpl("x0");
+		Term a = new TermImpl("a");
+		Term b = new TermImpl("b");
+		ProblogProgram ret = new ProblogProgram();
+		ret.getData().setCompletionRules(Collections.singletonList(new CR1Rule()));
+		ret.getData().setOntology(
+				Collections.singletonList(new ClauseImpl(new TermImpl("gci", Arrays.asList(a, b)), Arrays.asList(x0))));
+		ret.getData().setBayesianNetwork(
+				Collections.singletonList(new ProbClauseImpl(x0, Collections.emptyList(), "0.7")));
+		ret.getData().setQueries(Collections.singletonList(new ClauseImpl(
+				new TermImpl("query", Arrays.asList(new TermImpl("sub", Arrays.asList(a, b)))),
+				Collections.emptyList())));
+		ret.setAdditionalCompletionRulesAsText("% additional rules\n");
+		ret.setBayesianNetworkAddendum("% network addendum\n");
+		ret.setQueryListAddendum("% query addendum\n");
+		return ret;
+	}
+
+	/**
+	 * Tests that the program is written in parts to the writer, which is not
+	 * closed, and that the written program is the same as the string.
+	 */
+	@Test
+	public void testWrite() throws IOException {
+		ProblogProgram program = createProgram();
+		int[] numberOfWrites = new int[1];
+		boolean[] closed = new boolean[1];
+		StringWriter content = new StringWriter();
+		Writer output = new Writer() {
+
+			@Override
+			public void write(char[] buffer, int offset, int length) {
+				numberOfWrites[0]++;
+				content.write(buffer, offset, length);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+
+		};
+		program.write(output);
+		Assert.assertEquals(PROGRAM, content.toString());
+		Assert.assertEquals(PROGRAM, program.asString());
+		Assert.assertTrue(numberOfWrites[0] > 4);
+		Assert.assertFalse(closed[0]);
+	}
+
+}